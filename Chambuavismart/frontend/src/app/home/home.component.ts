@@ -8,7 +8,7 @@ import { MatchService } from '../services/match.service';
 import { AnalysisColorCacheService } from '../services/analysis-color-cache.service';
 import { GlobalLeadersContainerComponent } from '../components/global-leaders-container/global-leaders-container.component';
 import { GlobalLeadersService, GlobalLeader } from '../services/global-leaders.service';
-import { forkJoin } from 'rxjs';
+import { forkJoin, Subscription } from 'rxjs';
 
 @Component({
   selector: 'app-home',
@@ -44,6 +44,9 @@ export class HomeComponent implements OnInit, OnDestroy {
 
   // Color version poll state (fallback when events are missed)
   private _colorVersionPoll: any;
+  // Live score/status updates for today's fixtures (SSE); structural changes trigger a debounced reload
+  private _todayStream: Subscription | null = null;
+  private _todayReloadTimer: any;
   private _lastColorVersion: string | null = null;
 
   today = new Date();
@@ -245,6 +248,7 @@ export class HomeComponent implements OnInit, OnDestroy {
     }
     this.loadLeaders();
     this.loadToday();
+    this.watchToday();
     this.loadYesterday();
     for (const sec of this.pastSections) this.loadPast(sec);
 
@@ -713,6 +717,41 @@ export class HomeComponent implements OnInit, OnDestroy {
     if (this._ttsAlignTimeout) { try { clearTimeout(this._ttsAlignTimeout); } catch {} this._ttsAlignTimeout = null; }
     if (this._ttsHourlyTimer) { try { clearInterval(this._ttsHourlyTimer); } catch {} this._ttsHourlyTimer = null; }
     if (this._colorVersionPoll) { try { clearInterval(this._colorVersionPoll); } catch {} this._colorVersionPoll = null; }
+    if (this._todayStream) { try { this._todayStream.unsubscribe(); } catch {} this._todayStream = null; }
+    if (this._todayReloadTimer) { try { clearTimeout(this._todayReloadTimer); } catch {} this._todayReloadTimer = null; }
+  }
+
+  private watchToday(): void {
+    if (typeof EventSource === 'undefined' || !this.todayIso) return;
+    let connected = false;
+    this._todayStream = this.fixturesApi.streamFixturesByDate(this.todayIso).subscribe(ev => {
+      if (ev.type === 'ready') {
+        // A reconnect without replay may have missed changes
+        if (connected) this.scheduleTodayReload();
+        connected = true;
+        return;
+      }
+      if (ev.type === 'reload') { this.scheduleTodayReload(); return; }
+      const d = ev.delta;
+      const item = this.todayFlatData.find(it => it.fixture?.id === d.fixtureId);
+      if (d.change === 'removed') {
+        if (item) this.todayFlatData = this.todayFlatData.filter(it => it !== item);
+        return;
+      }
+      if (!item || !d.fixture) { this.scheduleTodayReload(); return; }
+      item.fixture.homeScore = d.fixture.homeScore;
+      item.fixture.awayScore = d.fixture.awayScore;
+      item.fixture.status = d.fixture.status;
+    });
+  }
+
+  // Coalesces bursts (e.g. a fixtures upload) into one refetch
+  private scheduleTodayReload(): void {
+    if (this._todayReloadTimer) return;
+    this._todayReloadTimer = setTimeout(() => {
+      this._todayReloadTimer = null;
+      this.loadToday();
+    }, 1000);
   }
 
   private isDev(): boolean {
@@ -1,7 +1,7 @@
 import { Component } from '@angular/core';
 
 import { CommonModule } from '@angular/common';
-import { AdminService, AdminLeagueSummaryDto } from '../services/admin.service';
+import { AdminService, AdminLeagueSummaryDto, DeletionJob } from '../services/admin.service';
 import { OnInit, inject } from '@angular/core';
 
 @Component({
@@ -46,7 +46,13 @@ import { OnInit, inject } from '@angular/core';
                     </td>
                     <td>{{ formatInstantEAT(l.lastUpdatedAt) }}</td>
                     <td>
-                      <button class="btn-danger" (click)="confirmDelete(l)" title="Delete league and all its matches">Delete</button>
+                      <ng-container *ngIf="deletionJobs[l.leagueId] as job; else deleteBtn">
+                        <span>Deleting… {{ job.matchesDeleted }}/{{ job.matchesTotal }} matches ({{ job.phase }})</span>
+                        <button class="btn-secondary" (click)="cancelDelete(l.leagueId)" [disabled]="job.cancelRequested">Cancel</button>
+                      </ng-container>
+                      <ng-template #deleteBtn>
+                        <button class="btn-danger" (click)="confirmDelete(l)" title="Delete league and all its matches">Delete</button>
+                      </ng-template>
                     </td>
                   </tr>
                 </tbody>
@@ -127,11 +133,34 @@ export class AdminUploadComponent implements OnInit {
     const ok = confirm(`Delete ${l.name} (${l.country}) and ALL its matches, fixtures and seasons? This cannot be undone.`);
     if (!ok) return;
     this.admin.deleteLeague(l.leagueId).subscribe({
-      next: () => { this.load(); },
+      next: job => { this.deletionJobs[l.leagueId] = job; this.pollJob(l.leagueId, job.jobId); },
       error: (err) => { console.error('Failed to delete league', err); this.load(); }
     });
   }
 
+  deletionJobs: Record<number, DeletionJob> = {};
+
+  private pollJob(leagueId: number, jobId: number) {
+    setTimeout(() => {
+      this.admin.getJob(jobId).subscribe({
+        next: job => {
+          this.deletionJobs[leagueId] = job;
+          if (job.status === 'QUEUED' || job.status === 'RUNNING') { this.pollJob(leagueId, jobId); return; }
+          if (job.status === 'FAILED') console.error('League deletion failed', job.error);
+          delete this.deletionJobs[leagueId];
+          this.load();
+        },
+        error: () => { delete this.deletionJobs[leagueId]; this.load(); }
+      });
+    }, 1000);
+  }
+
+  cancelDelete(leagueId: number) {
+    const job = this.deletionJobs[leagueId];
+    if (!job) return;
+    this.admin.cancelJob(job.jobId).subscribe({ next: j => { this.deletionJobs[leagueId] = j; } });
+  }
+
   groupedByCountryAndCategory(): { country: string; leagues: AdminLeagueSummaryDto[]; categories: { name: string; leagues: AdminLeagueSummaryDto[] }[] }[] {
     const map = new Map<string, AdminLeagueSummaryDto[]>();
     for (const l of this.list || []) {
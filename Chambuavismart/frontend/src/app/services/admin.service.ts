@@ -15,11 +15,25 @@ export interface AdminLeagueSummaryDto {
   lastUpdatedAt?: string | null;
 }
 
-export interface DeleteLeagueResult {
+export type DeletionJobStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'CANCELLED' | 'FAILED';
+export interface DeletionJob {
+  jobId: number;
+  scope: 'league' | 'season';
+  leagueId: number;
+  seasonId?: number | null;
+  label?: string | null;
+  status: DeletionJobStatus;
+  phase?: string | null;
+  matchesTotal: number;
   matchesDeleted: number;
   fixturesDeleted: number;
+  teamsDeleted: number;
   seasonsDeleted: number;
   leagueDeleted: boolean;
+  cancelRequested: boolean;
+  error?: string | null;
+  startedAt?: string | null;
+  finishedAt?: string | null;
 }
 
 @Injectable({ providedIn: 'root' })
@@ -31,7 +45,16 @@ export class AdminService {
     return this.http.get<AdminLeagueSummaryDto[]>(`${this.baseUrl}/summary`);
   }
 
-  deleteLeague(leagueId: number): Observable<DeleteLeagueResult> {
-    return this.http.delete<DeleteLeagueResult>(`${this.baseUrl}/${leagueId}`);
+  // Starts a background deletion job; poll getJob() until the status is final
+  deleteLeague(leagueId: number): Observable<DeletionJob> {
+    return this.http.delete<DeletionJob>(`${this.baseUrl}/${leagueId}`);
+  }
+
+  getJob(jobId: number): Observable<DeletionJob> {
+    return this.http.get<DeletionJob>(`${getApiBase()}/admin/jobs/${jobId}`);
+  }
+
+  cancelJob(jobId: number): Observable<DeletionJob> {
+    return this.http.post<DeletionJob>(`${getApiBase()}/admin/jobs/${jobId}/cancel`, {});
   }
 }
@@ -33,6 +33,20 @@ export interface LeagueFixturesResponse {
   fixtures: FixtureDTO[];
 }
 
+// Pushed by GET /api/fixtures/stream; fixture is null for removals
+export interface FixtureDelta {
+  change: 'upsert' | 'removed';
+  fixtureId: number;
+  leagueId: number | null;
+  date: string;
+  fixture: FixtureDTO | null;
+}
+
+export type FixtureStreamEvent =
+  | { type: 'ready' }
+  | { type: 'fixture'; delta: FixtureDelta }
+  | { type: 'reload' };
+
 export interface SearchFixtureItemDTO {
   leagueId?: number;
   leagueName?: string;
@@ -74,6 +88,23 @@ export class FixturesService {
     return this.http.get<LeagueFixturesResponse[]>(url);
   }
 
+  // Live fixture changes for one date (server-sent events). EventSource reconnects on its own and the backend
+  // replays missed changes or asks for a reload; unsubscribing closes the connection.
+  streamFixturesByDate(date: string): Observable<FixtureStreamEvent> {
+    if (!date || !/^\d{4}-\d{2}-\d{2}$/.test(date)) {
+      throw new Error('streamFixturesByDate: invalid date. Expected YYYY-MM-DD');
+    }
+    return new Observable<FixtureStreamEvent>(subscriber => {
+      const source = new EventSource(`${this.baseUrl}/stream?date=${date}`);
+      source.addEventListener('ready', () => subscriber.next({ type: 'ready' }));
+      source.addEventListener('reload', () => subscriber.next({ type: 'reload' }));
+      source.addEventListener('fixture', (ev: MessageEvent) => {
+        try { subscriber.next({ type: 'fixture', delta: JSON.parse(ev.data) as FixtureDelta }); } catch {}
+      });
+      return () => source.close();
+    });
+  }
+
   // New: available dates for calendar dots
   getAvailableDates(year: number, month: number, season?: string): Observable<string[]> {
     if (!Number.isInteger(year) || !Number.isInteger(month) || month < 1 || month > 12) {
@@ -0,0 +1,80 @@
+-- Before/after benchmark for the name-based match queries (MySQL 8).
+-- Run against a scratch schema only. Section 1 builds a synthetic ~2M-match dataset; skip it if you already
+-- have production-sized data loaded. Compare the EXPLAIN ANALYZE output of the "before" (lower(trim(name)) + OR)
+-- and "after" (normalized_name -> id set -> UNION ALL per side) statements in sections 3 and 4.
+
+-- 1) Synthetic data: 100 leagues x 20 teams, 1 season each, ~2,000,000 played matches
+SET SESSION cte_max_recursion_depth = 2000000;
+
+INSERT INTO leagues (name, country, season)
+WITH RECURSIVE n AS (SELECT 1 AS i UNION ALL SELECT i + 1 FROM n WHERE i < 100)
+SELECT CONCAT('Bench League ', i), 'Benchland', '2024/2025' FROM n;
+
+INSERT INTO seasons (league_id, name, start_date, end_date)
+SELECT id, '2024/2025', '2024-08-01', '2025-05-31' FROM leagues WHERE country = 'Benchland';
+
+INSERT INTO teams (name, normalized_name, league_id)
+WITH RECURSIVE n AS (SELECT 1 AS i UNION ALL SELECT i + 1 FROM n WHERE i < 20)
+SELECT CONCAT('bench team ', l.id, '-', n.i), CONCAT('bench team ', l.id, '-', n.i), l.id
+FROM leagues l CROSS JOIN n WHERE l.country = 'Benchland';
+
+-- Matches: deterministic pseudo-random pairings/scores from the row number; round keeps the unique keys distinct
+INSERT IGNORE INTO matches (league_id, season_id, home_team_id, away_team_id, match_date, round, home_goals, away_goals, status, source_type, is_archived, is_auto_corrected)
+WITH RECURSIVE n AS (SELECT 0 AS i UNION ALL SELECT i + 1 FROM n WHERE i < 1999999)
+SELECT l.id, s.id,
+       th.id, ta.id,
+       DATE_ADD('2005-01-01', INTERVAL (n.i DIV 100) % 7000 DAY),
+       n.i,
+       (n.i * 7) % 5, (n.i * 11) % 4,
+       'PLAYED', 'ARCHIVE', 1, 0
+FROM n
+JOIN leagues l ON l.country = 'Benchland' AND l.name = CONCAT('Bench League ', (n.i % 100) + 1)
+JOIN seasons s ON s.league_id = l.id
+JOIN teams th ON th.league_id = l.id AND th.name = CONCAT('bench team ', l.id, '-', ((n.i DIV 100) % 20) + 1)
+JOIN teams ta ON ta.league_id = l.id AND ta.name = CONCAT('bench team ', l.id, '-', (((n.i DIV 100) + 1 + (n.i DIV 2000) % 19) % 20) + 1);
+
+ANALYZE TABLE teams, matches;
+
+-- 2) Pick a team to probe
+SET @team := (SELECT name FROM teams WHERE league_id IN (SELECT id FROM leagues WHERE country = 'Benchland') ORDER BY id LIMIT 1 OFFSET 25);
+SET @norm := LOWER(TRIM(@team));
+
+-- 3) BEFORE: shape of the previous JPQL (non-sargable function on the joined name + OR across sides)
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM matches m
+JOIN teams h ON h.id = m.home_team_id
+JOIN teams a ON a.id = m.away_team_id
+WHERE m.status = 'PLAYED' AND (LOWER(TRIM(h.name)) = LOWER(TRIM(@team)) OR LOWER(TRIM(a.name)) = LOWER(TRIM(@team)));
+
+EXPLAIN ANALYZE
+SELECT m.id FROM matches m
+JOIN teams h ON h.id = m.home_team_id
+JOIN teams a ON a.id = m.away_team_id
+WHERE m.status = 'PLAYED' AND (LOWER(TRIM(h.name)) = LOWER(TRIM(@team)) OR LOWER(TRIM(a.name)) = LOWER(TRIM(@team)))
+ORDER BY m.match_date DESC, m.round DESC LIMIT 40;
+
+-- 4) AFTER: id set via normalized_name, then UNION ALL per side (MatchRepository.PLAYED_FROM_TEAM_PERSPECTIVE)
+EXPLAIN ANALYZE
+SELECT id FROM teams WHERE normalized_name = @norm;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*) FROM (
+  SELECT m.id FROM matches m WHERE m.home_team_id IN (SELECT id FROM teams WHERE normalized_name = @norm) AND m.status = 'PLAYED'
+  UNION ALL
+  SELECT m.id FROM matches m WHERE m.away_team_id IN (SELECT id FROM teams WHERE normalized_name = @norm) AND m.status = 'PLAYED'
+    AND m.home_team_id NOT IN (SELECT id FROM teams WHERE normalized_name = @norm)
+) x;
+
+EXPLAIN ANALYZE
+SELECT x.id FROM (
+  SELECT m.id, m.match_date, m.round FROM matches m WHERE m.home_team_id IN (SELECT id FROM teams WHERE normalized_name = @norm) AND m.status = 'PLAYED'
+  UNION ALL
+  SELECT m.id, m.match_date, m.round FROM matches m WHERE m.away_team_id IN (SELECT id FROM teams WHERE normalized_name = @norm) AND m.status = 'PLAYED'
+    AND m.home_team_id NOT IN (SELECT id FROM teams WHERE normalized_name = @norm)
+) x ORDER BY x.match_date DESC, x.round DESC LIMIT 40;
+
+-- 5) Cleanup
+-- DELETE FROM matches WHERE league_id IN (SELECT id FROM leagues WHERE country = 'Benchland');
+-- DELETE FROM teams WHERE league_id IN (SELECT id FROM leagues WHERE country = 'Benchland');
+-- DELETE FROM seasons WHERE league_id IN (SELECT id FROM leagues WHERE country = 'Benchland');
+-- DELETE FROM leagues WHERE country = 'Benchland';
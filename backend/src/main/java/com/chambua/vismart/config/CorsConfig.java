@@ -21,7 +21,7 @@ public class CorsConfig {
         // Wildcard origins cannot be used with credentials; disable to permit "*"
         config.setAllowCredentials(false);
         // Optional: expose common headers and cache preflight for 1 hour
-        config.setExposedHeaders(List.of("Content-Type", "Authorization"));
+        config.setExposedHeaders(List.of("Content-Type", "Authorization", "X-Query-Count", "X-DB-Time", "ETag"));
         config.setMaxAge(3600L);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,97 @@
+package com.chambua.vismart.config;
+
+import com.chambua.vismart.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * Conditional GETs for read endpoints whose responses only change when data is written. The ETag is derived from
+ * {@link DataVersionService} scopes before the controller runs, so a matching {@code If-None-Match} is answered with
+ * 304 without computing anything. {@code Cache-Control: no-cache} makes clients revalidate on every use.
+ */
+@Configuration
+public class DataVersionConfig implements WebMvcConfigurer {
+
+    // Absent in web slice tests, which then just skip conditional handling
+    private final ObjectProvider<DataVersionService> dataVersionService;
+
+    public DataVersionConfig(ObjectProvider<DataVersionService> dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(dataVersionService))
+                .addPathPatterns("/api/form-guide/*", "/api/league/*/table", "/api/fixtures/*",
+                        "/api/leagues/*/seasons", "/api/global-leaders", "/api/countries");
+    }
+
+    static class ConditionalGetInterceptor implements HandlerInterceptor {
+
+        private final ObjectProvider<DataVersionService> versions;
+
+        ConditionalGetInterceptor(ObjectProvider<DataVersionService> versions) {
+            this.versions = versions;
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) return true;
+            DataVersionService service = versions.getIfAvailable();
+            String[] scopes = service != null ? scopes(request) : null;
+            if (scopes == null) return true;
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            // Sets the ETag header; on a match also the 304 status
+            return !new ServletWebRequest(request, response).checkNotModified(service.etag(scopes));
+        }
+
+        /** Version scopes a response depends on, or null when it is not cacheable (or the request is invalid). */
+        static String[] scopes(HttpServletRequest request) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern == null) return null;
+            @SuppressWarnings("unchecked")
+            Map<String, String> vars = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            try {
+                switch (pattern.toString()) {
+                    case "/api/form-guide/{leagueId}": {
+                        Long seasonId = longParam(request.getParameter("seasonId"));
+                        if (seasonId == null) return null;
+                        // Teams with fewer than 3 matches fall back to their cross-league history
+                        return new String[]{DataVersionService.season(Long.valueOf(vars.get("leagueId")), seasonId), DataVersionService.GLOBAL};
+                    }
+                    case "/api/league/{leagueId}/table": {
+                        Long seasonId = longParam(request.getParameter("seasonId"));
+                        if (seasonId == null) return null;
+                        return new String[]{DataVersionService.season(Long.valueOf(vars.get("leagueId")), seasonId)};
+                    }
+                    case "/api/fixtures/{leagueId}":
+                        if ("true".equalsIgnoreCase(request.getParameter("refresh"))) return null;
+                        return new String[]{DataVersionService.league(Long.valueOf(vars.get("leagueId")))};
+                    case "/api/leagues/{leagueId}/seasons":
+                        return new String[]{DataVersionService.league(Long.valueOf(vars.get("leagueId")))};
+                    case "/api/global-leaders":
+                    case "/api/countries":
+                        return new String[]{DataVersionService.GLOBAL};
+                    default:
+                        return null;
+                }
+            } catch (NumberFormatException | NullPointerException ignoredBadId) {
+                return null;
+            }
+        }
+
+        private static Long longParam(String value) {
+            return (value == null || value.isBlank()) ? null : Long.valueOf(value.trim());
+        }
+    }
+}
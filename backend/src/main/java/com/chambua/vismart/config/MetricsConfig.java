@@ -0,0 +1,66 @@
+package com.chambua.vismart.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Times the hand-written JDBC repositories (e.g. MatchRowRepository) as {@code vismart.repository.invocations}
+ * tagged with repository, method and exception. Spring Data repositories are already timed by Spring Boot as
+ * {@code spring.data.repository.invocations}, so together every repository method shows up on /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    static BeanPostProcessor jdbcRepositoryTimingPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                Class<?> type = AopUtils.getTargetClass(bean);
+                if (bean instanceof org.springframework.data.repository.Repository<?, ?>
+                        || AnnotationUtils.findAnnotation(type, Repository.class) == null) {
+                    return bean;
+                }
+                String repository = type.getSimpleName();
+                MethodInterceptor timing = invocation -> {
+                    MeterRegistry meters = registry.getIfAvailable();
+                    if (meters == null || invocation.getMethod().getDeclaringClass() == Object.class) return invocation.proceed();
+                    long started = System.nanoTime();
+                    String exception = "none";
+                    try {
+                        return invocation.proceed();
+                    } catch (Throwable t) {
+                        exception = t.getClass().getSimpleName();
+                        throw t;
+                    } finally {
+                        Timer.builder("vismart.repository.invocations")
+                                .tag("repository", repository)
+                                .tag("method", invocation.getMethod().getName())
+                                .tag("exception", exception)
+                                .register(meters)
+                                .record(System.nanoTime() - started, java.util.concurrent.TimeUnit.NANOSECONDS);
+                    }
+                };
+                // @Repository beans usually already carry the exception translation proxy; join it instead of nesting
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, timing);
+                    return bean;
+                }
+                ProxyFactory factory = new ProxyFactory(bean);
+                factory.setProxyTargetClass(true);
+                factory.addAdvice(timing);
+                return factory.getProxy(type.getClassLoader());
+            }
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.chambua.vismart.config;
+
+import com.chambua.vismart.util.PipelineMetrics;
+import com.chambua.vismart.util.QueryCounter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-request SQL statement counting. The application DataSource is wrapped in a datasource-proxy that reports every
+ * executed statement to {@link QueryCounter}; {@link RequestQueryCountFilter} opens a scope per HTTP request and
+ * publishes the totals as {@code vismart.http.db.queries} / {@code vismart.http.db.time} (tagged by URI pattern),
+ * as {@code X-Query-Count} / {@code X-DB-Time} response headers when {@code vismart.query-count.headers=true} (dev),
+ * and logs requests that repeat the same statement {@code vismart.query-count.repeat-threshold} times (likely N+1).
+ * Disable the proxy entirely with {@code vismart.query-count.enabled=false}.
+ */
+@Configuration
+public class QueryCountConfig {
+
+    static final String START_NANOS = "vismart.startNanos";
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor(Environment env) {
+        boolean enabled = env.getProperty("vismart.query-count.enabled", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource ds) || bean instanceof ProxyDataSource) return bean;
+                return ProxyDataSourceBuilder.create(beanName, ds).listener(new CountingListener()).build();
+            }
+        };
+    }
+
+    static final class CountingListener implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (QueryCounter.active()) execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            Long started = execInfo.getCustomValue(START_NANOS, Long.class);
+            if (started == null) return;
+            String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+            QueryCounter.record(sql, System.nanoTime() - started);
+        }
+    }
+
+    @Component
+    static class RequestQueryCountFilter extends OncePerRequestFilter {
+
+        private static final Logger log = LoggerFactory.getLogger(RequestQueryCountFilter.class);
+
+        @Value("${vismart.query-count.headers:false}") private boolean headers;
+        @Value("${vismart.query-count.repeat-threshold:10}") private int repeatThreshold;
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            try (QueryCounter.Scope scope = QueryCounter.open()) {
+                HttpServletResponse target = response;
+                HeadersBeforeCommit wrapped = null;
+                if (headers) {
+                    wrapped = new HeadersBeforeCommit(response, scope);
+                    target = wrapped;
+                }
+                try {
+                    chain.doFilter(request, target);
+                } finally {
+                    if (wrapped != null) wrapped.writeHeaders();
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+                    PipelineMetrics.requestQueries(uri, scope.count(), scope.dbNanos());
+                    List<Map.Entry<String, Integer>> repeated = scope.repeated(repeatThreshold);
+                    if (!repeated.isEmpty()) {
+                        Map.Entry<String, Integer> worst = repeated.get(0);
+                        log.warn("[QueryCount] {} {} issued {} statements ({} ms); possible N+1, {}x: {}",
+                                request.getMethod(), uri, scope.count(), String.format("%.1f", scope.dbMillis()),
+                                worst.getValue(), worst.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Adds the counters as headers just before the response commits (the body is written after the handler's queries). */
+    static final class HeadersBeforeCommit extends HttpServletResponseWrapper {
+        private final QueryCounter.Scope scope;
+        private boolean written;
+
+        HeadersBeforeCommit(HttpServletResponse response, QueryCounter.Scope scope) {
+            super(response);
+            this.scope = scope;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) return;
+            written = true;
+            setHeader("X-Query-Count", String.valueOf(scope.count()));
+            setHeader("X-DB-Time", String.format("%.1f", scope.dbMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
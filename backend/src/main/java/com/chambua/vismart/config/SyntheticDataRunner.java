@@ -0,0 +1,81 @@
+package com.chambua.vismart.config;
+
+import com.chambua.vismart.service.SyntheticDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Command-line entry point for the synthetic dataset ({@link SyntheticDataGenerator}); only active with the
+ * {@code synthetic} profile. Combine it with the profile that points at the target database, e.g.
+ *
+ * <pre>
+ * java -jar backend.jar --spring.profiles.active=dev,synthetic \
+ *      --vismart.synthetic.leagues=1000 --vismart.synthetic.seasons=20 --vismart.synthetic.seed=7
+ * </pre>
+ *
+ * For MySQL add {@code rewriteBatchedStatements=true} to the datasource URL so JDBC batches go out as multi-row
+ * inserts. Refuses to write into a database that already has leagues unless {@code vismart.synthetic.append=true}. With
+ * {@code vismart.synthetic.csv-dir} set, CSV files and a {@code LOAD DATA} script are written instead of inserting.
+ * The application exits when done unless {@code vismart.synthetic.exit=false} (keeps serving the new data).
+ */
+@Component
+@Profile("synthetic")
+public class SyntheticDataRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataRunner.class);
+
+    private final SyntheticDataGenerator generator;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${vismart.synthetic.seed:42}") private long seed;
+    @Value("${vismart.synthetic.leagues:20}") private int leagues;
+    @Value("${vismart.synthetic.seasons:5}") private int seasons;
+    @Value("${vismart.synthetic.teams-per-league:20}") private int teamsPerLeague;
+    @Value("${vismart.synthetic.leagues-per-country:4}") private int leaguesPerCountry;
+    @Value("${vismart.synthetic.alias-rate:0.3}") private double aliasRate;
+    @Value("${vismart.synthetic.duplicate-rate:0.1}") private double duplicateRate;
+    // Empty means today; pin it (yyyy-MM-dd) for byte-identical datasets across days
+    @Value("${vismart.synthetic.anchor:}") private String anchor;
+    @Value("${vismart.synthetic.batch-size:2000}") private int batchSize;
+    @Value("${vismart.synthetic.csv-dir:}") private String csvDir;
+    @Value("${vismart.synthetic.append:false}") private boolean append;
+    @Value("${vismart.synthetic.exit:true}") private boolean exit;
+
+    public SyntheticDataRunner(SyntheticDataGenerator generator, ConfigurableApplicationContext context) {
+        this.generator = generator;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        SyntheticDataGenerator.Spec spec = new SyntheticDataGenerator.Spec(seed, leagues, seasons, teamsPerLeague, leaguesPerCountry,
+                aliasRate, duplicateRate, anchor.isBlank() ? LocalDate.now() : LocalDate.parse(anchor), batchSize).validate();
+        log.info("[Synthetic] Generating {} (about {} matches)", spec, spec.expectedMatches());
+        SyntheticDataGenerator.Stats stats;
+        if (!csvDir.isBlank()) {
+            stats = generator.exportCsv(spec, Path.of(csvDir));
+            log.info("[Synthetic] CSV written to {}; load with: mysql --local-infile=1 <db> < {}", csvDir, Path.of(csvDir).resolve("load.sql"));
+        } else {
+            long existing = generator.existingLeagues();
+            if (existing > 0 && !append) {
+                throw new IllegalStateException("Target database already has " + existing
+                        + " leagues; set vismart.synthetic.append=true to add the synthetic dataset anyway");
+            }
+            stats = generator.load(spec);
+        }
+        log.info("[Synthetic] Done in {} ms: {}", stats.millis(), stats);
+        if (exit) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.chambua.vismart.repository.MatchRepository;
 import com.chambua.vismart.repository.AdminAuditRepository;
 import com.chambua.vismart.repository.SeasonRepository;
 import com.chambua.vismart.service.DataNormalizationService;
+import com.chambua.vismart.service.DataVersionService;
 import com.chambua.vismart.service.FixtureUploadService;
+import com.chambua.vismart.service.MatchAnomalyService;
 import com.chambua.vismart.model.Season;
 import com.chambua.vismart.model.League;
 import org.slf4j.Logger;
@@ -14,7 +16,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -28,17 +29,23 @@ public class AdminDiagnosticsController {
     private final AdminAuditRepository adminAuditRepository;
     private final FixtureUploadService fixtureUploadService;
     private final SeasonRepository seasonRepository;
+    private final MatchAnomalyService anomalyService;
+    private final DataVersionService dataVersionService;
 
     public AdminDiagnosticsController(MatchRepository matchRepository,
                                       DataNormalizationService normalizationService,
                                       AdminAuditRepository adminAuditRepository,
                                       FixtureUploadService fixtureUploadService,
-                                      SeasonRepository seasonRepository) {
+                                      SeasonRepository seasonRepository,
+                                      MatchAnomalyService anomalyService,
+                                      DataVersionService dataVersionService) {
         this.matchRepository = matchRepository;
         this.normalizationService = normalizationService;
         this.adminAuditRepository = adminAuditRepository;
         this.fixtureUploadService = fixtureUploadService;
         this.seasonRepository = seasonRepository;
+        this.anomalyService = anomalyService;
+        this.dataVersionService = dataVersionService;
     }
 
     @PostMapping("/normalize")
@@ -76,48 +83,59 @@ public class AdminDiagnosticsController {
         int limit = Math.max(1, Math.min(sampleLimit, 50));
         Map<String, Object> out = new LinkedHashMap<>();
         out.put("asOf", today.toString());
+        // Counts plus a keyset sample of ids per anomaly; full listings via /anomalies/{kind}/ids(.ndjson)
+        putAnomaly(out, MatchAnomalyService.Kind.PLAYED_FUTURE_DATE, "playedFutureDate", today, limit);
+        putAnomaly(out, MatchAnomalyService.Kind.SCORED_NOT_PLAYED_PAST, "scoredButNotPlayedPast", today, limit);
+        putAnomaly(out, MatchAnomalyService.Kind.PLAYED_NULL_DATE, "playedNullDate", today, limit);
+        putAnomaly(out, MatchAnomalyService.Kind.PLAYED_NULL_ROUND, "playedNullRound", today, limit);
+        return out;
+    }
 
+    private void putAnomaly(Map<String, Object> out, MatchAnomalyService.Kind kind, String key, LocalDate today, int limit) {
         try {
-            long futurePlayed = matchRepository.countPlayedWithFutureDate(today);
-            List<Long> futurePlayedIds = matchRepository.findPlayedWithFutureDate(today).stream()
-                    .limit(limit).map(m -> m.getId()).collect(Collectors.toList());
-            out.put("playedFutureDateCount", futurePlayed);
-            out.put("playedFutureDateSampleIds", futurePlayedIds);
-        } catch (Exception e) {
-            log.warn("[ANOMALY] Error fetching 'played with future date': {}", e.toString());
-        }
-
-        try {
-            long goalsNotPlayed = matchRepository.countWithGoalsButNotPlayedPast(today);
-            List<Long> sample = matchRepository.findWithGoalsButNotPlayedPast(today).stream()
-                    .limit(limit).map(m -> m.getId()).collect(Collectors.toList());
-            out.put("scoredButNotPlayedPastCount", goalsNotPlayed);
-            out.put("scoredButNotPlayedPastSampleIds", sample);
+            long count = anomalyService.count(kind, today);
+            out.put(key + "Count", count);
+            out.put(key + "SampleIds", count == 0 ? List.of() : anomalyService.sample(kind, today, limit));
         } catch (Exception e) {
-            log.warn("[ANOMALY] Error fetching 'scores but not played': {}", e.toString());
+            log.warn("[ANOMALY] Error fetching '{}': {}", kind.slug(), e.toString());
         }
+    }
 
-        try {
-            long playedNullDate = matchRepository.countPlayedWithNullDate();
-            List<Long> sample = matchRepository.findPlayedWithNullDate().stream()
-                    .limit(limit).map(m -> m.getId()).collect(Collectors.toList());
-            out.put("playedNullDateCount", playedNullDate);
-            out.put("playedNullDateSampleIds", sample);
-        } catch (Exception e) {
-            log.warn("[ANOMALY] Error fetching 'played with null date': {}", e.toString());
-        }
+    /** One keyset page of offending match ids; pass the returned nextAfterId to continue. */
+    @GetMapping("/anomalies/{kind}/ids")
+    public Map<String, Object> anomalyIds(@PathVariable("kind") String kind,
+                                          @RequestParam(value = "today", required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate today,
+                                          @RequestParam(value = "afterId", defaultValue = "0") long afterId,
+                                          @RequestParam(value = "size", defaultValue = "500") int size) {
+        MatchAnomalyService.Kind k = resolveKind(kind);
+        if (today == null) today = LocalDate.now();
+        var page = anomalyService.page(k, today, Math.max(0L, afterId), size);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("kind", k.slug());
+        out.put("asOf", today.toString());
+        out.put("ids", page.ids());
+        out.put("nextAfterId", page.nextAfterId());
+        return out;
+    }
 
-        try {
-            long playedNullRound = matchRepository.countPlayedWithNullRound();
-            List<Long> sample = matchRepository.findPlayedWithNullRound().stream()
-                    .limit(limit).map(m -> m.getId()).collect(Collectors.toList());
-            out.put("playedNullRoundCount", playedNullRound);
-            out.put("playedNullRoundSampleIds", sample);
-        } catch (Exception e) {
-            log.warn("[ANOMALY] Error fetching 'played with null round': {}", e.toString());
-        }
+    /** Full listing streamed as NDJSON ({"id":...} per line), read in keyset pages so memory stays flat. */
+    @GetMapping(value = "/anomalies/{kind}/ids.ndjson", produces = "application/x-ndjson")
+    public org.springframework.http.ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> anomalyIdsNdjson(
+            @PathVariable("kind") String kind,
+            @RequestParam(value = "today", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate today) {
+        MatchAnomalyService.Kind k = resolveKind(kind);
+        LocalDate asOf = today != null ? today : LocalDate.now();
+        return com.chambua.vismart.util.NdjsonWriter.response(null, out -> {
+            long n = anomalyService.forEachId(k, asOf, id -> out.writeUnchecked(Map.of("id", id)));
+            log.info("[ANOMALY][NDJSON] kind={} asOf={} ids={}", k.slug(), asOf, n);
+        });
+    }
 
-        return out;
+    private static MatchAnomalyService.Kind resolveKind(String kind) {
+        return MatchAnomalyService.Kind.fromSlug(kind).orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
+                org.springframework.http.HttpStatus.BAD_REQUEST, "Unknown anomaly kind: " + kind));
     }
 
     @GetMapping("/audit")
@@ -205,7 +223,10 @@ public class AdminDiagnosticsController {
         if (!dryRun) {
             if (!confirm) throw new IllegalStateException("confirm=true required for non-dry-run reingest");
             // Soft-archive existing matches in the target season
-            try { archived = matchRepository.archiveBySeasonId(seasonId); } catch (Exception e) { warnings.add("Archive error: " + e.getMessage()); }
+            try {
+                archived = matchRepository.archiveBySeasonId(seasonId);
+                if (archived > 0) dataVersionService.bump(leagueId, seasonId);
+            } catch (Exception e) { warnings.add("Archive error: " + e.getMessage()); }
             try {
                 if ("csv".equalsIgnoreCase(sourceType)) {
                     var res = fixtureUploadService.uploadCsv(leagueId, seasonResolvedName, false, rawText == null ? "" : rawText);
@@ -0,0 +1,38 @@
+package com.chambua.vismart.controller;
+
+import com.chambua.vismart.service.LeagueDeletionJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/** Status and cancellation of background admin jobs (league/season deletion). */
+@RestController
+@RequestMapping("/api/admin/jobs")
+@CrossOrigin(origins = "*")
+public class AdminJobsController {
+
+    private final LeagueDeletionJobService leagueDeletionJobService;
+
+    public AdminJobsController(LeagueDeletionJobService leagueDeletionJobService) {
+        this.leagueDeletionJobService = leagueDeletionJobService;
+    }
+
+    @GetMapping
+    public List<LeagueDeletionJobService.Progress> recent(@RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return leagueDeletionJobService.recent(limit);
+    }
+
+    @GetMapping("/{jobId}")
+    public LeagueDeletionJobService.Progress status(@PathVariable("jobId") Long jobId) {
+        return leagueDeletionJobService.status(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found"));
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public LeagueDeletionJobService.Progress cancel(@PathVariable("jobId") Long jobId) {
+        return leagueDeletionJobService.cancel(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.chambua.vismart.controller;
+
+import com.chambua.vismart.service.FlightRecordingService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * On-demand JDK Flight Recorder recordings: start, stop, then download the {@code .jfr} and open it in JDK Mission
+ * Control (application events are under "ChambuaViSmart"). Off unless {@code vismart.jfr.admin-enabled=true}.
+ */
+@RestController
+@ConditionalOnProperty(name = "vismart.jfr.admin-enabled", havingValue = "true")
+@RequestMapping("/api/admin/jfr")
+@CrossOrigin(origins = "*")
+public class AdminProfilingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    public AdminProfilingController(FlightRecordingService flightRecordingService) {
+        this.flightRecordingService = flightRecordingService;
+    }
+
+    @GetMapping
+    public FlightRecordingService.Status status() {
+        return flightRecordingService.status();
+    }
+
+    @PostMapping("/start")
+    public FlightRecordingService.Status start(@RequestParam(value = "settings", defaultValue = "profile") String settings,
+                                               @RequestParam(value = "maxMinutes", defaultValue = "30") int maxMinutes) {
+        if (maxMinutes <= 0 || maxMinutes > 24 * 60) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxMinutes must be between 1 and 1440");
+        }
+        try {
+            return flightRecordingService.start(settings, Duration.ofMinutes(maxMinutes));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @PostMapping("/stop")
+    public FlightRecordingService.Status stop() throws IOException {
+        try {
+            return flightRecordingService.stop();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("/recording")
+    public ResponseEntity<StreamingResponseBody> download() throws IOException {
+        FlightRecordingService.Download download;
+        try {
+            download = flightRecordingService.download();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+        String filename = "vismart-" + Instant.now().getEpochSecond() + ".jfr";
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(download.path(), out);
+            } finally {
+                if (download.snapshot()) Files.deleteIfExists(download.path());
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentLength(Files.size(download.path()))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+}
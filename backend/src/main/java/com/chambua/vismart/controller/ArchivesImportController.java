@@ -5,8 +5,10 @@ import com.chambua.vismart.dto.ImportRunSummaryDTO;
 import com.chambua.vismart.model.ImportError;
 import com.chambua.vismart.model.ImportRun;
 import com.chambua.vismart.repository.ImportErrorRepository;
+import com.chambua.vismart.repository.ImportErrorRowRepository;
 import com.chambua.vismart.repository.ImportRunRepository;
 import com.chambua.vismart.service.CsvArchiveImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
@@ -31,13 +33,19 @@ public class ArchivesImportController {
     private final CsvArchiveImportService csvArchiveImportService;
     private final ImportRunRepository importRunRepository;
     private final ImportErrorRepository importErrorRepository;
+    private final ImportErrorRowRepository importErrorRowRepository;
+    private final ObjectMapper objectMapper;
 
     public ArchivesImportController(CsvArchiveImportService csvArchiveImportService,
                                     ImportRunRepository importRunRepository,
-                                    ImportErrorRepository importErrorRepository) {
+                                    ImportErrorRepository importErrorRepository,
+                                    ImportErrorRowRepository importErrorRowRepository,
+                                    ObjectMapper objectMapper) {
         this.csvArchiveImportService = csvArchiveImportService;
         this.importRunRepository = importRunRepository;
         this.importErrorRepository = importErrorRepository;
+        this.importErrorRowRepository = importErrorRowRepository;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(value = "/archives/import/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -73,6 +81,13 @@ public class ArchivesImportController {
         )).toList();
     }
 
+    /** Same rows as {@link #listErrors} as NDJSON, read through a JDBC cursor so large failed runs stream in flat memory. */
+    @GetMapping(value = "/archives/import/runs/{id}/errors.ndjson", produces = "application/x-ndjson")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> streamErrors(@PathVariable("id") Long id) {
+        return com.chambua.vismart.util.NdjsonWriter.response(objectMapper,
+                out -> importErrorRowRepository.forEachByRun(id, out::writeUnchecked));
+    }
+
     @GetMapping("/archives/import/{runId}/file")
     public ResponseEntity<Resource> downloadFile(@PathVariable("runId") Long runId) {
         Optional<ImportRun> opt = importRunRepository.findById(runId);
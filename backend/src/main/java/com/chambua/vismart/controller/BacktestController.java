@@ -0,0 +1,32 @@
+package com.chambua.vismart.controller;
+
+import com.chambua.vismart.service.BacktestService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Historical backtest of the deterministic analysis model (Brier, log-loss, calibration per market). */
+@RestController
+@RequestMapping("/api/admin/backtest")
+@CrossOrigin(origins = "*")
+public class BacktestController {
+
+    private final BacktestService backtestService;
+
+    public BacktestController(BacktestService backtestService) {
+        this.backtestService = backtestService;
+    }
+
+    @GetMapping
+    public BacktestService.Report run(@RequestParam("leagueId") Long leagueId,
+                                      @RequestParam(value = "seasonId", required = false) Long seasonId,
+                                      @RequestParam(value = "analysisType", defaultValue = "match") String analysisType,
+                                      @RequestParam(value = "minPriorMatches", defaultValue = "0") int minPriorMatches) {
+        boolean fixturesMode = "fixtures".equalsIgnoreCase(analysisType);
+        try {
+            return backtestService.run(new BacktestService.Options(leagueId, seasonId, fixturesMode, Math.max(0, minPriorMatches)));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+}
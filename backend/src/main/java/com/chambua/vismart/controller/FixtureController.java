@@ -37,6 +37,9 @@ public class FixtureController {
     private final FixtureUploadService fixtureUploadService;
     private final com.chambua.vismart.service.FixtureRefreshService fixtureRefreshService;
 
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private com.chambua.vismart.service.FixtureEventHub fixtureEventHub;
+
     public FixtureController(FixtureService fixtureService, LeagueRepository leagueRepository, FixtureRepository fixtureRepository, FixtureUploadService fixtureUploadService, com.chambua.vismart.service.FixtureRefreshService fixtureRefreshService) {
         this.fixtureService = fixtureService;
         this.leagueRepository = leagueRepository;
@@ -130,6 +133,25 @@ public class FixtureController {
         return out;
     }
 
+    /**
+     * Server-sent fixture changes for one date, replacing {@code /by-date?refresh=true} polling. Results still land
+     * through FixtureRefreshScheduler and uploads; subscribers get each changed fixture as it is committed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public org.springframework.web.servlet.mvc.method.annotation.SseEmitter streamByDate(@RequestParam("date") String dateIso,
+                                                                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        LocalDate date;
+        try { date = LocalDate.parse(dateIso); } catch (Exception e){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date format. Expected YYYY-MM-DD");
+        }
+        if (fixtureEventHub == null) throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Fixture stream unavailable");
+        try {
+            return fixtureEventHub.subscribe(date, lastEventId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
     @GetMapping("/available-dates")
     public Set<String> getAvailableDates(@RequestParam("year") int year,
                                          @RequestParam("month") int month,
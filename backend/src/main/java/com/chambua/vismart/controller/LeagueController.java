@@ -4,6 +4,7 @@ import com.chambua.vismart.dto.LeagueTableEntryDTO;
 import com.chambua.vismart.model.League;
 import com.chambua.vismart.repository.LeagueRepository;
 import com.chambua.vismart.service.LeagueTableService;
+import com.chambua.vismart.service.SeasonSimulationService;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -17,10 +18,13 @@ public class LeagueController {
 
     private final LeagueTableService leagueTableService;
     private final LeagueRepository leagueRepository;
+    private final SeasonSimulationService seasonSimulationService;
 
-    public LeagueController(LeagueTableService leagueTableService, LeagueRepository leagueRepository) {
+    public LeagueController(LeagueTableService leagueTableService, LeagueRepository leagueRepository,
+                            SeasonSimulationService seasonSimulationService) {
         this.leagueTableService = leagueTableService;
         this.leagueRepository = leagueRepository;
+        this.seasonSimulationService = seasonSimulationService;
     }
 
     @GetMapping
@@ -40,4 +44,19 @@ public class LeagueController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
         }
     }
+
+    // Title/top-N/relegation probabilities from simulating the remaining fixtures; defaults to the current season
+    @GetMapping("/{leagueId}/simulation")
+    public SeasonSimulationService.Result simulate(@PathVariable Long leagueId,
+                                                   @RequestParam(name = "seasonId", required = false) Long seasonId,
+                                                   @RequestParam(name = "iterations", defaultValue = "100000") int iterations,
+                                                   @RequestParam(name = "seed", required = false) Long seed,
+                                                   @RequestParam(name = "top", defaultValue = "4") int top,
+                                                   @RequestParam(name = "relegation", defaultValue = "3") int relegation) {
+        try {
+            return seasonSimulationService.simulate(new SeasonSimulationService.Options(leagueId, seasonId, iterations, seed, top, relegation));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
 }
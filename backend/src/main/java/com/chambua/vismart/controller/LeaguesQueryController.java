@@ -4,7 +4,7 @@ import com.chambua.vismart.dto.GroupedLeagueDTO;
 import com.chambua.vismart.dto.LeagueSeasonOptionDTO;
 import com.chambua.vismart.model.League;
 import com.chambua.vismart.repository.LeagueRepository;
-import org.springframework.dao.DataIntegrityViolationException;
+import com.chambua.vismart.service.LeagueDeletionJobService;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -18,9 +18,11 @@ import java.util.stream.Collectors;
 public class LeaguesQueryController {
 
     private final LeagueRepository leagueRepository;
+    private final LeagueDeletionJobService leagueDeletionJobService;
 
-    public LeaguesQueryController(LeagueRepository leagueRepository) {
+    public LeaguesQueryController(LeagueRepository leagueRepository, LeagueDeletionJobService leagueDeletionJobService) {
         this.leagueRepository = leagueRepository;
+        this.leagueDeletionJobService = leagueDeletionJobService;
     }
 
     @GetMapping
@@ -40,17 +42,12 @@ public class LeaguesQueryController {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "League not found"));
     }
 
+    // The league and its dependents are removed in the background (202 + job); see /api/admin/jobs/{jobId}
     @DeleteMapping("/{id}")
-    public void deleteLeague(@PathVariable Long id){
-        if (!leagueRepository.existsById(id)){
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "League not found");
-        }
-        try{
-            leagueRepository.deleteById(id);
-        }catch (DataIntegrityViolationException ex){
-            // Likely due to FK constraints from matches/fixtures/etc.
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cannot delete league because it has dependent records (matches, fixtures, teams, or seasons). Remove dependents first.", ex);
-        }
+    public org.springframework.http.ResponseEntity<?> deleteLeague(@PathVariable Long id){
+        return leagueDeletionJobService.startLeagueDeletion(id)
+                .<org.springframework.http.ResponseEntity<?>>map(AdminLeaguesSummaryController::accepted)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "League not found"));
     }
 
     // New: Grouped for fixtures upload dropdown (group by country + league name, seasons latest -> oldest)
@@ -8,6 +8,8 @@ import com.chambua.vismart.repository.LeagueRepository;
 import com.chambua.vismart.repository.TeamRepository;
 import com.chambua.vismart.repository.TeamAliasRepository;
 import com.chambua.vismart.service.MatchAnalysisService;
+import com.chambua.vismart.util.AnalysisTrace;
+import com.chambua.vismart.util.PipelineMetrics;
 import com.chambua.vismart.util.TeamNameNormalizer;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -30,8 +32,24 @@ public class MatchAnalysisController {
         this.matchAnalysisService = matchAnalysisService;
     }
 
+    /** {@code ?debug=timings} attaches a per-stage trace (duration, queries, rows, cache hits, H2H path). */
     @PostMapping("/analyze")
-    public MatchAnalysisResponse analyze(@RequestBody MatchAnalysisRequest req) {
+    public MatchAnalysisResponse analyze(@RequestBody MatchAnalysisRequest req,
+                                         @RequestParam(name = "debug", required = false) String debug) {
+        if (!"timings".equalsIgnoreCase(debug)) return doAnalyze(req);
+        AnalysisTrace trace = AnalysisTrace.start();
+        MatchAnalysisResponse response;
+        AnalysisTrace.Report report;
+        try {
+            response = doAnalyze(req);
+        } finally {
+            report = trace.finish();
+        }
+        response.setDebugTrace(report);
+        return response;
+    }
+
+    private MatchAnalysisResponse doAnalyze(MatchAnalysisRequest req) {
         if (req.getLeagueId() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "leagueId is required");
         }
@@ -50,6 +68,7 @@ public class MatchAnalysisController {
         String homeName = req.getHomeTeamName();
         String awayName = req.getAwayTeamName();
 
+        long resolveStarted = System.nanoTime();
         // If names provided but IDs missing, try to resolve IDs from repository (best-effort)
         if ((homeId == null || awayId == null) && homeName != null && awayName != null) {
             String hn = homeName.trim();
@@ -59,20 +78,27 @@ public class MatchAnalysisController {
             // 1) exact league-scoped name match (normalized)
             homeId = teamRepository.findByNormalizedNameAndLeagueId(hnNorm, league.getId()).map(Team::getId).orElse(null);
             awayId = teamRepository.findByNormalizedNameAndLeagueId(anNorm, league.getId()).map(Team::getId).orElse(null);
+            String homeVia = homeId != null ? "normalized" : null, awayVia = awayId != null ? "normalized" : null;
             // 2) alias fallback if still unresolved
             if (homeId == null) {
                 homeId = teamAliasRepository.findByAliasIgnoreCase(hn).map(a -> a.getTeam() != null ? a.getTeam().getId() : null).orElse(null);
+                if (homeId != null) homeVia = "alias";
             }
             if (awayId == null) {
                 awayId = teamAliasRepository.findByAliasIgnoreCase(an).map(a -> a.getTeam() != null ? a.getTeam().getId() : null).orElse(null);
+                if (awayId != null) awayVia = "alias";
             }
             // 3) partial contains fallback within league (use legacy contains for now)
             if (homeId == null) {
                 homeId = teamRepository.findByLeagueAndNameContainingIgnoreCase(league, hn).map(Team::getId).orElse(null);
+                if (homeId != null) homeVia = "containing";
             }
             if (awayId == null) {
                 awayId = teamRepository.findByLeagueAndNameContainingIgnoreCase(league, an).map(Team::getId).orElse(null);
+                if (awayId != null) awayVia = "containing";
             }
+            AnalysisTrace.note("homeTeamResolvedBy", homeVia != null ? homeVia : "unresolved");
+            AnalysisTrace.note("awayTeamResolvedBy", awayVia != null ? awayVia : "unresolved");
             homeName = hn;
             awayName = an;
         }
@@ -91,6 +117,7 @@ public class MatchAnalysisController {
         if (homeName == null || awayName == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "homeTeamId/awayTeamId or homeTeamName/awayTeamName are required");
         }
+        PipelineMetrics.stage("team_resolution", resolveStarted);
 
         try {
             // Call deterministic analyzer with season scope (null allowed)
@@ -3,6 +3,7 @@ package com.chambua.vismart.controller;
 import com.chambua.vismart.dto.TeamResultsBreakdownResponse;
 import com.chambua.vismart.model.Match;
 import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchRow;
 import com.chambua.vismart.service.H2HService;
 import com.chambua.vismart.service.FormGuideService;
 import com.chambua.vismart.repository.SeasonRepository;
@@ -32,6 +33,8 @@ public class MatchController {
     private final SeasonRepository seasonRepository;
     private final LaTeXService laTeXService;
     private final PdfArchiveService pdfArchiveService;
+    private final com.chambua.vismart.repository.MatchRowRepository matchRowRepository;
+    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
 
     @org.springframework.beans.factory.annotation.Autowired(required = false)
     private AdminAuditRepository adminAuditRepository;
@@ -39,8 +42,18 @@ public class MatchController {
     @org.springframework.beans.factory.annotation.Autowired(required = false)
     private com.chambua.vismart.repository.TeamRepository teamRepository;
 
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private com.chambua.vismart.service.H2HPairIndexService h2hPairIndexService;
+
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private com.chambua.vismart.service.TeamAggregatesService teamAggregatesService;
+
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private com.chambua.vismart.service.TeamHistoryService teamHistoryService;
+
     @org.springframework.beans.factory.annotation.Autowired
-    public MatchController(MatchRepository matchRepository, H2HService h2hService, com.chambua.vismart.config.FeatureFlags featureFlags, FormGuideService formGuideService, SeasonRepository seasonRepository, LaTeXService laTeXService, PdfArchiveService pdfArchiveService) {
+    public MatchController(MatchRepository matchRepository, H2HService h2hService, com.chambua.vismart.config.FeatureFlags featureFlags, FormGuideService formGuideService, SeasonRepository seasonRepository, LaTeXService laTeXService, PdfArchiveService pdfArchiveService,
+                           com.chambua.vismart.repository.MatchRowRepository matchRowRepository, com.fasterxml.jackson.databind.ObjectMapper objectMapper) {
         this.matchRepository = matchRepository;
         this.h2hService = h2hService;
         this.featureFlags = featureFlags;
@@ -48,16 +61,18 @@ public class MatchController {
         this.seasonRepository = seasonRepository;
         this.laTeXService = laTeXService;
         this.pdfArchiveService = pdfArchiveService;
+        this.matchRowRepository = matchRowRepository;
+        this.objectMapper = objectMapper;
     }
 
-    // Overload for tests without PdfArchiveService
+    // Overload for tests without PdfArchiveService (H2H match listings will be unavailable)
     public MatchController(MatchRepository matchRepository, H2HService h2hService, com.chambua.vismart.config.FeatureFlags featureFlags, FormGuideService formGuideService, SeasonRepository seasonRepository, LaTeXService laTeXService) {
-        this(matchRepository, h2hService, featureFlags, formGuideService, seasonRepository, laTeXService, null);
+        this(matchRepository, h2hService, featureFlags, formGuideService, seasonRepository, laTeXService, null, null, null);
     }
 
     // Backward-compatible constructor for existing tests (H2H form endpoint will be unavailable)
     public MatchController(MatchRepository matchRepository, H2HService h2hService, com.chambua.vismart.config.FeatureFlags featureFlags) {
-        this(matchRepository, h2hService, featureFlags, null, null, null, null);
+        this(matchRepository, h2hService, featureFlags, null, null, null, null, null, null);
     }
 
     /**
@@ -70,26 +85,47 @@ public class MatchController {
         org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MatchController.class);
         if (teamName == null || teamName.trim().length() < 1) return java.util.List.of();
         String q = teamName.trim();
-        // Cap records to speed up response; sane defaults with safety bounds
-        int limit = (limitParam == null ? 220 : Math.max(50, Math.min(500, limitParam)));
-        var slice = matchRepository.findRecentPlayedByTeamName(q, org.springframework.data.domain.PageRequest.of(0, limit));
-        List<com.chambua.vismart.model.Match> matches = (slice != null ? slice.getContent() : java.util.List.of());
-        if (matches == null || matches.isEmpty()) return java.util.List.of();
+        java.util.List<com.chambua.vismart.dto.StreakTimelineItem> items = new java.util.ArrayList<>();
+        streakTimeline(q, streakLimit(limitParam), items::add);
+        logger.info("[StreakInsights][{}] items={}", q, items.size());
+        return items;
+    }
+
+    /** Same timeline as {@link #getStreakInsightsByTeamName} as NDJSON, one item per line (latest first) as it is built. */
+    @GetMapping(value = "/streak-insights/by-team-name.ndjson", produces = "application/x-ndjson")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> streamStreakInsightsByTeamName(
+            @RequestParam("name") String teamName,
+            @RequestParam(name = "limit", required = false) Integer limitParam) {
+        String q = teamName == null ? "" : teamName.trim();
+        int limit = streakLimit(limitParam);
+        return com.chambua.vismart.util.NdjsonWriter.response(objectMapper, out -> {
+            if (q.isEmpty()) return;
+            streakTimeline(q, limit, out::writeUnchecked);
+            org.slf4j.LoggerFactory.getLogger(MatchController.class).info("[StreakInsights][NDJSON][{}] items={}", q, out.lines());
+        });
+    }
+
+    // Cap records to speed up response; sane defaults with safety bounds
+    private static int streakLimit(Integer limitParam) {
+        return limitParam == null ? 220 : Math.max(50, Math.min(500, limitParam));
+    }
+
+    /**
+     * Builds the streak timeline of {@code q} over its last {@code limit} played matches and hands each item to the
+     * sink, latest to oldest. Team streak state is computed oldest first in a cheap first pass, so items can be
+     * built and released one at a time in output order.
+     */
+    private void streakTimeline(String q, int limit, java.util.function.Consumer<com.chambua.vismart.dto.StreakTimelineItem> sink) {
+        List<MatchRow> matches = recentPlayedRows(q, limit);
+        if (matches == null || matches.isEmpty()) return;
         // Compute in chronological order (oldest -> newest) so that pre-match streak is correct
-        java.util.List<com.chambua.vismart.model.Match> asc = new java.util.ArrayList<>(matches);
+        java.util.List<MatchRow> asc = new java.util.ArrayList<>(matches);
         java.util.Collections.reverse(asc);
-        java.util.List<com.chambua.vismart.dto.StreakTimelineItem> items = new java.util.ArrayList<>(asc.size());
-        String currentType = null;
-        int currentCount = 0;
-        String longestType = null;
-        int longestCount = 0;
         java.time.format.DateTimeFormatter df = java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd");
         // Pre-collect unique opponent names to avoid N+1 DB lookups
         java.util.Set<String> opponentNamesSet = new java.util.HashSet<>();
-        for (com.chambua.vismart.model.Match m : asc) {
-            String homeName = null, awayName = null;
-            try { if (m.getHomeTeam() != null) homeName = m.getHomeTeam().getName(); } catch (Exception ignored) {}
-            try { if (m.getAwayTeam() != null) awayName = m.getAwayTeam().getName(); } catch (Exception ignored) {}
+        for (MatchRow m : asc) {
+            String homeName = m.homeTeamName(), awayName = m.awayTeamName();
             boolean isHomeTmp = homeName != null && homeName.equalsIgnoreCase(q);
             String opponentTmp = isHomeTmp ? (awayName != null ? awayName : null) : (homeName != null ? homeName : null);
             if (opponentTmp != null && !opponentTmp.isBlank() && !"?".equals(opponentTmp)) {
@@ -100,13 +136,13 @@ public class MatchController {
         java.util.Map<String, java.util.NavigableMap<java.time.LocalDate, java.util.Map.Entry<String,Integer>>> oppCache = new java.util.HashMap<>();
         if (!opponentNames.isEmpty()) {
             // Batch load all matches for all opponents once
-            java.util.List<com.chambua.vismart.model.Match> oppAll = matchRepository.findRecentPlayedByAnyTeamNames(opponentNames);
+            java.util.List<MatchRow> oppAll = scoredRowsForAnyTeamNames(opponentNames);
             // Group by opponent canonical lowercase name
-            java.util.Map<String, java.util.List<com.chambua.vismart.model.Match>> byOpp = new java.util.HashMap<>();
-            java.util.function.Consumer<com.chambua.vismart.model.Match> addToGroup = (mm) -> {
+            java.util.Map<String, java.util.List<MatchRow>> byOpp = new java.util.HashMap<>();
+            java.util.function.Consumer<MatchRow> addToGroup = (mm) -> {
                 String h = null, a = null;
-                try { if (mm.getHomeTeam() != null && mm.getHomeTeam().getName() != null) h = mm.getHomeTeam().getName().trim().toLowerCase(); } catch (Exception ignored) {}
-                try { if (mm.getAwayTeam() != null && mm.getAwayTeam().getName() != null) a = mm.getAwayTeam().getName().trim().toLowerCase(); } catch (Exception ignored) {}
+                if (mm.homeTeamName() != null) h = mm.homeTeamName().trim().toLowerCase();
+                if (mm.awayTeamName() != null) a = mm.awayTeamName().trim().toLowerCase();
                 if (h != null && opponentNamesSet.contains(h)) {
                     byOpp.computeIfAbsent(h, k -> new java.util.ArrayList<>()).add(mm);
                 }
@@ -119,30 +155,28 @@ public class MatchController {
             }
             // For each opponent, compute pre-match longest map
             for (var entry : byOpp.entrySet()) {
-                java.util.List<com.chambua.vismart.model.Match> listByOpp = entry.getValue();
+                java.util.List<MatchRow> listByOpp = entry.getValue();
                 if (listByOpp == null || listByOpp.isEmpty()) continue;
-                java.util.List<com.chambua.vismart.model.Match> oppAsc = new java.util.ArrayList<>(listByOpp);
+                java.util.List<MatchRow> oppAsc = new java.util.ArrayList<>(listByOpp);
                 oppAsc.sort((m1, m2) -> {
-                    int cmp = java.util.Objects.compare(m1.getDate(), m2.getDate(), java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
+                    int cmp = java.util.Objects.compare(m1.date(), m2.date(), java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
                     if (cmp != 0) return cmp;
-                    return java.util.Objects.compare(m1.getRound(), m2.getRound(), java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
+                    return java.util.Objects.compare(m1.round(), m2.round(), java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
                 });
                 String oCurType = null; int oCurCount = 0; String oLongestType = null; int oLongestCount = 0;
                 java.util.NavigableMap<java.time.LocalDate, java.util.Map.Entry<String,Integer>> map = new java.util.TreeMap<>();
-                for (com.chambua.vismart.model.Match om : oppAsc) {
+                for (MatchRow om : oppAsc) {
                     boolean oHome = false;
-                    String oHomeName = null, oAwayName = null;
-                    try { if (om.getHomeTeam() != null) oHomeName = om.getHomeTeam().getName(); } catch (Exception ignored) {}
-                    try { if (om.getAwayTeam() != null) oAwayName = om.getAwayTeam().getName(); } catch (Exception ignored) {}
+                    String oHomeName = om.homeTeamName();
                     if (oHomeName != null && oHomeName.equalsIgnoreCase(entry.getKey())) oHome = true;
-                    if (om.getDate() != null) {
-                        map.put(om.getDate(), new java.util.AbstractMap.SimpleEntry<>(oLongestType, oLongestCount));
+                    if (om.date() != null) {
+                        map.put(om.date(), new java.util.AbstractMap.SimpleEntry<>(oLongestType, oLongestCount));
                     }
-                    if (om.getHomeGoals() != null && om.getAwayGoals() != null) {
+                    if (om.homeGoals() != null && om.awayGoals() != null) {
                         String oThisType;
-                        if (om.getHomeGoals().equals(om.getAwayGoals())) {
+                        if (om.homeGoals().equals(om.awayGoals())) {
                             oThisType = "D";
-                        } else if ((oHome && om.getHomeGoals() > om.getAwayGoals()) || (!oHome && om.getAwayGoals() > om.getHomeGoals())) {
+                        } else if ((oHome && om.homeGoals() > om.awayGoals()) || (!oHome && om.awayGoals() > om.homeGoals())) {
                             oThisType = "W";
                         } else {
                             oThisType = "L";
@@ -158,82 +192,99 @@ public class MatchController {
                 oppCache.put(entry.getKey(), map);
             }
         }
+        // Pre-match state of the team's own streaks for each match, oldest first
+        int n = asc.size();
+        String[] outcomes = new String[n];
+        String[] activeTypes = new String[n];
+        int[] activeCounts = new int[n];
+        String[] longestTypes = new String[n];
+        int[] longestCounts = new int[n];
+        String currentType = null;
+        int currentCount = 0;
+        String longestType = null;
+        int longestCount = 0;
+        for (int i = 0; i < n; i++) {
+            MatchRow m = asc.get(i);
+            activeTypes[i] = currentType;
+            activeCounts[i] = currentType == null ? 0 : currentCount;
+            longestTypes[i] = longestType;
+            longestCounts[i] = longestCount;
+            String thisType = m.outcome(m.homeTeamName() != null && m.homeTeamName().equalsIgnoreCase(q));
+            outcomes[i] = thisType;
+            // Update active streak with this match's result
+            if (thisType != null) {
+                if (currentType == null || !thisType.equals(currentType)) {
+                    currentType = thisType;
+                    currentCount = 1;
+                } else {
+                    currentCount += 1;
+                }
+                if (currentCount > longestCount) {
+                    longestCount = currentCount;
+                    longestType = currentType;
+                }
+            }
+        }
         // No time stored; keep time blank or use 00:00 to avoid misleading times
-        for (com.chambua.vismart.model.Match m : asc) {
-            Integer hg = m.getHomeGoals();
-            Integer ag = m.getAwayGoals();
+        for (int i = n - 1; i >= 0; i--) {
+            MatchRow m = asc.get(i);
+            Integer hg = m.homeGoals();
+            Integer ag = m.awayGoals();
             if (hg == null || ag == null) {
                 // skip anomalies for streak calculation, but still produce row with null outcome
                 hg = null; ag = null;
             }
             boolean isHome = false;
-            String homeName = null, awayName = null, leagueName = null, seasonName = null;
-            try { if (m.getHomeTeam() != null) homeName = m.getHomeTeam().getName(); } catch (Exception ignored) {}
-            try { if (m.getAwayTeam() != null) awayName = m.getAwayTeam().getName(); } catch (Exception ignored) {}
-            try { if (m.getLeague() != null) leagueName = m.getLeague().getName(); } catch (Exception ignored) {}
-            try { if (m.getSeason() != null) seasonName = m.getSeason().getName(); } catch (Exception ignored) {}
+            String homeName = m.homeTeamName(), awayName = m.awayTeamName(), leagueName = m.leagueName(), seasonName = m.seasonName();
             if (homeName != null && homeName.equalsIgnoreCase(q)) { isHome = true; }
             String opponent = isHome ? (awayName != null ? awayName : "?") : (homeName != null ? homeName : "?");
-            String outcome = null;
-            String thisType = null;
-            if (m.getHomeGoals() != null && m.getAwayGoals() != null) {
-                if (m.getHomeGoals().equals(m.getAwayGoals())) {
-                    thisType = "D";
-                } else if ((isHome && m.getHomeGoals() > m.getAwayGoals()) || (!isHome && m.getAwayGoals() > m.getHomeGoals())) {
-                    thisType = "W";
-                } else {
-                    thisType = "L";
-                }
-                outcome = thisType;
-            }
-            // Build item BEFORE updating current streak (pre-match context)
+            String outcome = outcomes[i];
+            // Streak fields carry the pre-match context
             com.chambua.vismart.dto.StreakTimelineItem item = new com.chambua.vismart.dto.StreakTimelineItem();
-            item.setMatchId(m.getId());
-            item.setDate(m.getDate() != null ? m.getDate().format(df) : null);
+            item.setMatchId(m.id());
+            item.setDate(m.date() != null ? m.date().format(df) : null);
             item.setTime(null); // time not available in schema
             item.setLeague(leagueName);
             item.setSeason(seasonName);
             item.setHomeTeam(homeName);
             item.setAwayTeam(awayName);
-            item.setHomeGoals(m.getHomeGoals());
-            item.setAwayGoals(m.getAwayGoals());
+            item.setHomeGoals(m.homeGoals());
+            item.setAwayGoals(m.awayGoals());
             item.setHome(isHome);
             item.setOpponent(opponent);
             item.setOutcome(outcome);
-            item.setActiveStreakType(currentType);
-            item.setActiveStreakCount(currentType == null ? 0 : currentCount);
-            item.setLongestToDateType(longestType);
-            item.setLongestToDateCount(longestCount);
+            item.setActiveStreakType(activeTypes[i]);
+            item.setActiveStreakCount(activeCounts[i]);
+            item.setLongestToDateType(longestTypes[i]);
+            item.setLongestToDateCount(longestCounts[i]);
             // Opponent longest-to-date lookup
             String oppName = opponent;
-            java.time.LocalDate matchDate = m.getDate();
+            java.time.LocalDate matchDate = m.date();
             if (oppName != null && matchDate != null && !"?".equals(oppName)) {
                 String key = oppName.trim().toLowerCase();
                 java.util.NavigableMap<java.time.LocalDate, java.util.Map.Entry<String,Integer>> tmap = oppCache.get(key);
                 if (tmap == null) {
                     // Build opponent map: date -> (longestType, longestCount) before each of their matches
-                    java.util.List<com.chambua.vismart.model.Match> oppMatches = matchRepository.findRecentPlayedByTeamName(oppName.trim());
+                    java.util.List<MatchRow> oppMatches = recentPlayedRows(oppName.trim(), com.chambua.vismart.service.TeamHistoryService.ALL);
                     java.util.NavigableMap<java.time.LocalDate, java.util.Map.Entry<String,Integer>> map = new java.util.TreeMap<>();
                     if (oppMatches != null && !oppMatches.isEmpty()) {
-                        java.util.List<com.chambua.vismart.model.Match> oppAsc = new java.util.ArrayList<>(oppMatches);
+                        java.util.List<MatchRow> oppAsc = new java.util.ArrayList<>(oppMatches);
                         java.util.Collections.reverse(oppAsc);
                         String oCurType = null; int oCurCount = 0; String oLongestType = null; int oLongestCount = 0;
-                        for (com.chambua.vismart.model.Match om : oppAsc) {
+                        for (MatchRow om : oppAsc) {
                             boolean oHome = false;
-                            String oHomeName = null, oAwayName = null;
-                            try { if (om.getHomeTeam() != null) oHomeName = om.getHomeTeam().getName(); } catch (Exception ignored) {}
-                            try { if (om.getAwayTeam() != null) oAwayName = om.getAwayTeam().getName(); } catch (Exception ignored) {}
+                            String oHomeName = om.homeTeamName();
                             if (oHomeName != null && oHomeName.equalsIgnoreCase(oppName)) oHome = true;
                             // Pre-match longest for this opponent date
-                            if (om.getDate() != null) {
-                                map.put(om.getDate(), new java.util.AbstractMap.SimpleEntry<>(oLongestType, oLongestCount));
+                            if (om.date() != null) {
+                                map.put(om.date(), new java.util.AbstractMap.SimpleEntry<>(oLongestType, oLongestCount));
                             }
                             // Update with this match
-                            if (om.getHomeGoals() != null && om.getAwayGoals() != null) {
+                            if (om.homeGoals() != null && om.awayGoals() != null) {
                                 String oThisType;
-                                if (om.getHomeGoals().equals(om.getAwayGoals())) {
+                                if (om.homeGoals().equals(om.awayGoals())) {
                                     oThisType = "D";
-                                } else if ((oHome && om.getHomeGoals() > om.getAwayGoals()) || (!oHome && om.getAwayGoals() > om.getHomeGoals())) {
+                                } else if ((oHome && om.homeGoals() > om.awayGoals()) || (!oHome && om.awayGoals() > om.homeGoals())) {
                                     oThisType = "W";
                                 } else {
                                     oThisType = "L";
@@ -274,25 +325,8 @@ public class MatchController {
                 }
             }
             item.setMatchupSummary(summary);
-            items.add(item);
-            // Update active streak with this match's result
-            if (thisType != null) {
-                if (currentType == null || !thisType.equals(currentType)) {
-                    currentType = thisType;
-                    currentCount = 1;
-                } else {
-                    currentCount += 1;
-                }
-                if (currentCount > longestCount) {
-                    longestCount = currentCount;
-                    longestType = currentType;
-                }
-            }
+            sink.accept(item);
         }
-        // Return latest -> oldest
-        java.util.Collections.reverse(items);
-        logger.info("[StreakInsights][{}] items={}", q, items.size());
-        return items;
     }
 
     @GetMapping("/played/total")
@@ -328,13 +362,21 @@ public class MatchController {
             return new TeamResultsBreakdownResponse(0,0,0,0,0,0,0, null, 0);
         }
         String q = name.trim();
-        long total = matchRepository.countPlayedByTeamName(q);
-        long wins = matchRepository.countWinsByTeamName(q);
-        long draws = matchRepository.countDrawsByTeamName(q);
-        long losses = matchRepository.countLossesByTeamName(q);
-        long btts = matchRepository.countBttsByTeamName(q);
-        long over25 = matchRepository.countOver25ByTeamName(q);
-        long over15 = matchRepository.countOver15ByTeamName(q);
+        long total, wins, draws, losses, btts, over25, over15;
+        if (teamAggregatesService != null) {
+            // One conditional-aggregation query for all counters
+            com.chambua.vismart.dto.TeamAggregatesDTO agg = teamAggregatesService.forTeamName(q);
+            total = agg.total(); wins = agg.wins(); draws = agg.draws(); losses = agg.losses();
+            btts = agg.btts(); over25 = agg.over25(); over15 = agg.over15();
+        } else {
+            total = matchRepository.countPlayedByTeamName(q);
+            wins = matchRepository.countWinsByTeamName(q);
+            draws = matchRepository.countDrawsByTeamName(q);
+            losses = matchRepository.countLossesByTeamName(q);
+            btts = matchRepository.countBttsByTeamName(q);
+            over25 = matchRepository.countOver25ByTeamName(q);
+            over15 = matchRepository.countOver15ByTeamName(q);
+        }
         // Safety: ensure consistency even if data anomalies
         if (losses + wins + draws != total) {
             long computedLosses = Math.max(0, total - wins - draws);
@@ -347,19 +389,18 @@ public class MatchController {
         String currentTypeNow = null;
         int currentCountNow = 0;
         try {
-            java.util.List<com.chambua.vismart.model.Match> recent = matchRepository.findRecentPlayedByTeamName(q); // latest -> oldest
+            java.util.List<MatchRow> recent = recentPlayedRows(q, com.chambua.vismart.service.TeamHistoryService.ALL); // latest -> oldest
             if (recent == null || recent.isEmpty()) {
                 logger.info("[Breakdown][{}] No played matches found; streaks unavailable", q);
             } else {
                 // Compute current streak from most recent backwards until break
                 int idx = 0;
                 // Find most recent with non-null result
-                while (idx < recent.size() && (recent.get(idx).getHomeGoals() == null || recent.get(idx).getAwayGoals() == null)) idx++;
+                while (idx < recent.size() && !recent.get(idx).hasScore()) idx++;
                 if (idx < recent.size()) {
-                    com.chambua.vismart.model.Match first = recent.get(idx);
-                    boolean isHomeFirst = false;
-                    try { isHomeFirst = first.getHomeTeam() != null && first.getHomeTeam().getName() != null && first.getHomeTeam().getName().equalsIgnoreCase(q); } catch (Exception ignored) {}
-                    Integer hg = first.getHomeGoals(); Integer ag = first.getAwayGoals();
+                    MatchRow first = recent.get(idx);
+                    boolean isHomeFirst = first.homeTeamName() != null && first.homeTeamName().equalsIgnoreCase(q);
+                    Integer hg = first.homeGoals(); Integer ag = first.awayGoals();
                     String base;
                     if (hg != null && ag != null) {
                         if (hg.equals(ag)) base = "D";
@@ -368,9 +409,9 @@ public class MatchController {
                         currentTypeNow = base; currentCountNow = 1;
                         // extend
                         for (int j = idx + 1; j < recent.size(); j++) {
-                            com.chambua.vismart.model.Match m = recent.get(j);
-                            Integer h = m.getHomeGoals(); Integer a = m.getAwayGoals(); if (h == null || a == null) continue;
-                            boolean isHome = false; try { isHome = m.getHomeTeam() != null && m.getHomeTeam().getName() != null && m.getHomeTeam().getName().equalsIgnoreCase(q); } catch (Exception ignored) {}
+                            MatchRow m = recent.get(j);
+                            Integer h = m.homeGoals(); Integer a = m.awayGoals(); if (h == null || a == null) continue;
+                            boolean isHome = m.homeTeamName() != null && m.homeTeamName().equalsIgnoreCase(q);
                             String t;
                             if (h.equals(a)) t = "D"; else if ((isHome && h > a) || (!isHome && a > h)) t = "W"; else t = "L";
                             if (!base.equals(t)) break; else currentCountNow++;
@@ -380,16 +421,11 @@ public class MatchController {
                 // Compute longest: traverse oldest -> newest
                 String runType = null; int runCount = 0; int skipped = 0;
                 for (int i = recent.size() - 1; i >= 0; i--) {
-                    com.chambua.vismart.model.Match m = recent.get(i);
-                    Integer hg = m.getHomeGoals();
-                    Integer ag = m.getAwayGoals();
+                    MatchRow m = recent.get(i);
+                    Integer hg = m.homeGoals();
+                    Integer ag = m.awayGoals();
                     if (hg == null || ag == null) { skipped++; continue; }
-                    boolean isHome = false;
-                    try {
-                        isHome = m.getHomeTeam() != null && m.getHomeTeam().getName() != null && m.getHomeTeam().getName().equalsIgnoreCase(q);
-                    } catch (Exception e) {
-                        logger.warn("[Breakdown][{}] Could not access homeTeam during streak calc: {}", q, e.toString());
-                    }
+                    boolean isHome = m.homeTeamName() != null && m.homeTeamName().equalsIgnoreCase(q);
                     String type;
                     if (hg.equals(ag)) type = "D";
                     else if ((isHome && hg > ag) || (!isHome && ag > hg)) type = "W";
@@ -414,11 +450,38 @@ public class MatchController {
         return resp;
     }
 
+    // Batch counters (no streaks) for several team names at once, e.g. both sides of a fixture list
+    @GetMapping("/played/team/by-names/breakdown")
+    public java.util.Map<String, TeamResultsBreakdownResponse> getResultsBreakdownByTeamNames(@RequestParam("names") List<String> names) {
+        java.util.Map<String, TeamResultsBreakdownResponse> out = new java.util.LinkedHashMap<>();
+        if (names == null || names.isEmpty()) return out;
+        if (teamAggregatesService != null) {
+            teamAggregatesService.forTeamNames(names.size() > 100 ? names.subList(0, 100) : names).forEach((n, a) ->
+                    out.put(n, new TeamResultsBreakdownResponse(a.total(), a.wins(), a.draws(), a.losses(), a.btts(), a.over25(), a.over15())));
+            return out;
+        }
+        for (String n : names) {
+            if (n == null || n.isBlank() || out.size() >= 100) continue;
+            String q = n.trim();
+            out.put(q, new TeamResultsBreakdownResponse(matchRepository.countPlayedByTeamName(q), matchRepository.countWinsByTeamName(q),
+                    matchRepository.countDrawsByTeamName(q), matchRepository.countLossesByTeamName(q), matchRepository.countBttsByTeamName(q),
+                    matchRepository.countOver25ByTeamName(q), matchRepository.countOver15ByTeamName(q)));
+        }
+        return out;
+    }
+
     // --- H2H suggestions: only pairs that actually played ---
     @GetMapping("/h2h/suggest")
     public List<H2HSuggestion> suggestH2H(@RequestParam("query") String query) {
         if (query == null || query.trim().length() < 3) return List.of();
         String q = query.trim();
+        // Served from the in-memory played-pairs index (ranked by meetings, then recency) when available
+        if (h2hPairIndexService != null) {
+            var indexed = h2hPairIndexService.suggest(q, 30);
+            if (indexed.isPresent()) {
+                return indexed.get().stream().map(p -> new H2HSuggestion(p.teamA(), p.teamB())).toList();
+            }
+        }
         List<Object[]> raw = matchRepository.findDistinctPlayedPairsByNameContains(q);
         // Deduplicate by canonicalized unordered pair (case-insensitive)
         Set<String> seen = new HashSet<>();
@@ -534,35 +597,52 @@ public class MatchController {
     public List<H2HMatchDto> getH2HMatchesAnyOrientation(@RequestParam("teamA") String teamA,
                                                          @RequestParam("teamB") String teamB,
                                                          @RequestParam(name = "limit", required = false) Integer limit) {
-        int lim = (limit == null || limit <= 0) ? 200 : Math.min(limit, 500);
-        if (teamA == null || teamB == null) return java.util.Collections.emptyList();
-        String a = teamA.trim();
-        String b = teamB.trim();
-        if (a.isEmpty() || b.isEmpty()) return java.util.Collections.emptyList();
-        List<Match> list;
+        List<H2HMatchDto> out = new ArrayList<>();
         try {
-            list = matchRepository.findH2HByNamesAnyOrientation(a, b);
+            h2hAnyOrientation(teamA, teamB, h2hLimit(limit), out::add);
         } catch (Exception e) {
-            list = java.util.Collections.emptyList();
-        }
-        DateTimeFormatter df = DateTimeFormatter.ISO_DATE;
-        List<H2HMatchDto> out = new ArrayList<>(Math.min(lim, list.size()));
-        int count = 0;
-        for (Match m : list) {
-            if (count++ >= lim) break;
-            String result = (m.getHomeGoals() != null && m.getAwayGoals() != null) ? (m.getHomeGoals() + "-" + m.getAwayGoals()) : "-";
-            out.add(new H2HMatchDto(
-                    m.getDate() != null ? m.getDate().getYear() : null,
-                    m.getDate() != null ? df.format(m.getDate()) : null,
-                    m.getHomeTeam() != null ? m.getHomeTeam().getName() : null,
-                    m.getAwayTeam() != null ? m.getAwayTeam().getName() : null,
-                    result,
-                    (m.getSeason() != null && m.getSeason().getName() != null) ? m.getSeason().getName() : (m.getSeason() != null ? String.valueOf(m.getSeason().getId()) : null)
-            ));
+            return java.util.Collections.emptyList();
         }
         return out;
     }
 
+    /** Same rows as {@link #getH2HMatchesAnyOrientation} as NDJSON, written while the result set is read. */
+    @GetMapping(value = "/h2h/matches-any-orientation.ndjson", produces = "application/x-ndjson")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> streamH2HMatchesAnyOrientation(
+            @RequestParam("teamA") String teamA,
+            @RequestParam("teamB") String teamB,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        int lim = h2hLimit(limit);
+        return com.chambua.vismart.util.NdjsonWriter.response(objectMapper, out -> h2hAnyOrientation(teamA, teamB, lim, out::writeUnchecked));
+    }
+
+    private static int h2hLimit(Integer limit) {
+        return (limit == null || limit <= 0) ? 200 : Math.min(limit, 500);
+    }
+
+    // H2H rows newest first; the limit is applied in SQL and rows are mapped as they are read
+    private void h2hAnyOrientation(String teamA, String teamB, int lim, java.util.function.Consumer<H2HMatchDto> sink) {
+        if (teamA == null || teamB == null) return;
+        String a = teamA.trim();
+        String b = teamB.trim();
+        if (a.isEmpty() || b.isEmpty()) return;
+        List<Long> idsA = matchRowRepository.findTeamIdsByNormalizedNames(List.of(com.chambua.vismart.util.TeamNameNormalizer.normalize(a)));
+        List<Long> idsB = matchRowRepository.findTeamIdsByNormalizedNames(List.of(com.chambua.vismart.util.TeamNameNormalizer.normalize(b)));
+        matchRowRepository.forEachH2H(idsA, idsB, lim, row -> sink.accept(toH2HMatchDto(row)));
+    }
+
+    private static H2HMatchDto toH2HMatchDto(MatchRow m) {
+        String result = m.hasScore() ? (m.homeGoals() + "-" + m.awayGoals()) : "-";
+        return new H2HMatchDto(
+                m.date() != null ? m.date().getYear() : null,
+                m.date() != null ? DateTimeFormatter.ISO_DATE.format(m.date()) : null,
+                m.homeTeamName(),
+                m.awayTeamName(),
+                result,
+                m.seasonName() != null ? m.seasonName() : (m.seasonId() != null ? String.valueOf(m.seasonId()) : null)
+        );
+    }
+
     // --- Team last-5 form by team name (across seasons/leagues) ---
     @GetMapping("/form/by-name")
     public com.chambua.vismart.dto.FormSummary getFormByTeamName(@RequestParam("name") String name) {
@@ -1027,20 +1107,33 @@ public class MatchController {
 
     public record H2HFormTeamResponse(String teamId, String teamName, Map<String, Object> last5, List<Map<String, Object>> matches, String seasonResolved, String matchesAvailable, String note, String sourceLeague) {}
 
+    // Played history as flat rows (newest first, at most limit); entity fallback when the history service is not wired
+    private java.util.List<MatchRow> recentPlayedRows(String teamName, int limit) {
+        if (teamHistoryService != null) return teamHistoryService.recent(teamName, limit, com.chambua.vismart.service.TeamHistoryService.Filters.NONE);
+        if (limit == com.chambua.vismart.service.TeamHistoryService.ALL) return MatchRow.of(matchRepository.findRecentPlayedByTeamName(teamName));
+        var slice = matchRepository.findRecentPlayedByTeamName(teamName, org.springframework.data.domain.PageRequest.of(0, limit));
+        return slice != null ? MatchRow.of(slice.getContent()) : new java.util.ArrayList<>();
+    }
+
+    private java.util.List<MatchRow> scoredRowsForAnyTeamNames(java.util.List<String> names) {
+        if (teamHistoryService != null) return teamHistoryService.scoredForAnyTeamNames(names);
+        return MatchRow.of(matchRepository.findRecentPlayedByAnyTeamNames(names));
+    }
+
     private String computeStreakInsightText(String teamName, String targetPattern) {
         if (teamName == null || teamName.isBlank() || targetPattern == null || targetPattern.isBlank() || "0".equals(targetPattern)) {
             return teamName + ": no active streak detected.";
         }
-        java.util.List<Match> list;
-        try { list = matchRepository.findRecentPlayedByTeamName(teamName.trim()); } catch (Exception ex) { list = java.util.Collections.emptyList(); }
+        java.util.List<MatchRow> list;
+        try { list = recentPlayedRows(teamName.trim(), com.chambua.vismart.service.TeamHistoryService.ALL); } catch (Exception ex) { list = java.util.Collections.emptyList(); }
         if (list == null || list.isEmpty()) return teamName + ": no match history found for streak insight.";
-        java.util.List<Match> chron = new java.util.ArrayList<>(list);
+        java.util.List<MatchRow> chron = new java.util.ArrayList<>(list);
         java.util.Collections.reverse(chron);
         String prevType = null; int prevCount = 0;
         int totalInstances = 0, nextW = 0, nextD = 0, nextL = 0, nextBTTS = 0, nextOv15 = 0, nextOv25 = 0, nextOv35 = 0;
-        for (Match m : chron) {
-            Integer hg = m.getHomeGoals(); Integer ag = m.getAwayGoals(); if (hg == null || ag == null) continue;
-            boolean isHome = false; try { isHome = m.getHomeTeam() != null && m.getHomeTeam().getName() != null && m.getHomeTeam().getName().equalsIgnoreCase(teamName); } catch (Exception ignored) {}
+        for (MatchRow m : chron) {
+            Integer hg = m.homeGoals(); Integer ag = m.awayGoals(); if (hg == null || ag == null) continue;
+            boolean isHome = m.homeTeamName() != null && m.homeTeamName().equalsIgnoreCase(teamName);
             int my = isHome ? hg : ag; int opp = isHome ? ag : hg;
             String res = (my > opp) ? "W" : (my == opp ? "D" : "L");
             String pre = (prevType == null) ? "0" : (prevCount + prevType);
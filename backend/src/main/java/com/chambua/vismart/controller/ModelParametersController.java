@@ -0,0 +1,90 @@
+package com.chambua.vismart.controller;
+
+import com.chambua.vismart.service.ModelParameterService;
+import com.chambua.vismart.service.ModelParameters;
+import com.chambua.vismart.service.ParameterSweepService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.List;
+
+/** Versioned analysis-model parameters and the offline parameter sweep that proposes new versions. */
+@RestController
+@RequestMapping("/api/admin/model-parameters")
+@CrossOrigin(origins = "*")
+public class ModelParametersController {
+
+    private final ModelParameterService modelParameterService;
+    private final ParameterSweepService parameterSweepService;
+
+    public ModelParametersController(ModelParameterService modelParameterService, ParameterSweepService parameterSweepService) {
+        this.modelParameterService = modelParameterService;
+        this.parameterSweepService = parameterSweepService;
+    }
+
+    @GetMapping
+    public ModelParameters current() {
+        return modelParameterService.current();
+    }
+
+    @GetMapping("/versions")
+    public List<ModelParameterService.Version> versions(@RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return modelParameterService.history(limit);
+    }
+
+    @PostMapping("/versions")
+    public ModelParameterService.Version save(@RequestBody ModelParameters parameters,
+                                              @RequestParam(value = "note", required = false) String note,
+                                              @RequestParam(value = "activate", defaultValue = "false") boolean activate) {
+        try {
+            return modelParameterService.save(parameters, note, activate);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    /** Version 0 restores the built-in defaults. */
+    @PostMapping("/versions/{version}/activate")
+    public ModelParameters activate(@PathVariable("version") int version) {
+        return modelParameterService.activate(version)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Parameter version not found"));
+    }
+
+    @PostMapping("/sweeps")
+    public ResponseEntity<ParameterSweepService.Sweep> startSweep(@RequestBody ParameterSweepService.Request request) {
+        try {
+            ParameterSweepService.Sweep sweep = parameterSweepService.start(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/admin/model-parameters/sweeps/" + sweep.id))
+                    .body(sweep);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    @GetMapping("/sweeps")
+    public List<ParameterSweepService.Sweep> sweeps() {
+        return parameterSweepService.recent();
+    }
+
+    @GetMapping("/sweeps/{id}")
+    public ParameterSweepService.Sweep sweep(@PathVariable("id") String id) {
+        return parameterSweepService.status(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Sweep not found"));
+    }
+
+    /** Saves the candidate at {@code rank} of a finished sweep as a new version. */
+    @PostMapping("/sweeps/{id}/save")
+    public ModelParameterService.Version saveFromSweep(@PathVariable("id") String id,
+                                                       @RequestParam(value = "rank", defaultValue = "1") int rank,
+                                                       @RequestParam(value = "activate", defaultValue = "false") boolean activate) {
+        ParameterSweepService.Sweep sweep = sweep(id);
+        ParameterSweepService.Ranked pick = sweep.top.stream().filter(r -> r.rank() == rank).findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No candidate at rank " + rank));
+        String note = "sweep " + id + " rank " + rank + " " + sweep.variant + "/" + sweep.market + " logLoss=" + pick.logLoss();
+        return modelParameterService.save(pick.parameters(), note, activate);
+    }
+}
@@ -0,0 +1,59 @@
+package com.chambua.vismart.controller;
+
+import com.chambua.vismart.service.TeamRatingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Elo and attack/defence team ratings; {@code date} (yyyy-MM-dd) reads them as of that day. */
+@RestController
+@RequestMapping("/api/ratings")
+@CrossOrigin(origins = "*")
+public class RatingsController {
+
+    private final TeamRatingService teamRatingService;
+
+    public RatingsController(TeamRatingService teamRatingService) {
+        this.teamRatingService = teamRatingService;
+    }
+
+    @GetMapping
+    public List<TeamRatingService.Rating> ranking(@RequestParam(value = "leagueId", required = false) Long leagueId,
+                                                  @RequestParam(value = "date", required = false) String date,
+                                                  @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return teamRatingService.ranking(leagueId, parseDate(date), Math.max(1, Math.min(limit, 1000)));
+    }
+
+    @GetMapping("/matchup")
+    public TeamRatingService.Matchup matchup(@RequestParam("homeTeamId") Long homeTeamId,
+                                             @RequestParam("awayTeamId") Long awayTeamId) {
+        return teamRatingService.matchup(homeTeamId, awayTeamId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No rating for one or both teams"));
+    }
+
+    @GetMapping("/{teamId}")
+    public TeamRatingService.Rating rating(@PathVariable Long teamId,
+                                           @RequestParam(value = "date", required = false) String date) {
+        return teamRatingService.ratingAt(teamId, parseDate(date))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No rating for team " + teamId));
+    }
+
+    @GetMapping("/{teamId}/history")
+    public List<TeamRatingService.HistoryPoint> history(@PathVariable Long teamId,
+                                                        @RequestParam(value = "from", required = false) String from,
+                                                        @RequestParam(value = "to", required = false) String to) {
+        return teamRatingService.history(teamId, parseDate(from), parseDate(to));
+    }
+
+    private static LocalDate parseDate(String v) {
+        if (v == null || v.isBlank()) return null;
+        try {
+            return LocalDate.parse(v.trim());
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date (expected yyyy-MM-dd): " + v);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.chambua.vismart.controller;
 
 import com.chambua.vismart.dto.RecommendationSummary;
 import com.chambua.vismart.service.RecommendationOrchestratorService;
+import com.chambua.vismart.util.AnalysisTrace;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -10,12 +12,15 @@ import org.springframework.web.bind.annotation.*;
 public class RecommendationController {
 
     private final RecommendationOrchestratorService orchestrator;
+    private final ObjectMapper objectMapper;
 
-    public RecommendationController(RecommendationOrchestratorService orchestrator) {
+    public RecommendationController(RecommendationOrchestratorService orchestrator, ObjectMapper objectMapper) {
         this.orchestrator = orchestrator;
+        this.objectMapper = objectMapper;
     }
 
     // Example: GET /api/recommendations/fixture?fixtureId=123&leagueId=1&seasonId=2025&homeTeamId=10&awayTeamId=20&leagueName=Premier%20League&homeTeamName=Arsenal&awayTeamName=Chelsea
+    // Add debug=timings to attach a per-stage trace (duration, queries, rows, cache hits, H2H path).
     @GetMapping("/fixture")
     public RecommendationSummary recommendForFixture(@RequestParam(required = false) Long fixtureId,
                                                      @RequestParam Long leagueId,
@@ -24,7 +29,22 @@ public class RecommendationController {
                                                      @RequestParam(required = false) Long awayTeamId,
                                                      @RequestParam(required = false) String leagueName,
                                                      @RequestParam(required = false) String homeTeamName,
-                                                     @RequestParam(required = false) String awayTeamName) {
-        return orchestrator.recommend(fixtureId, leagueId, seasonId, homeTeamId, awayTeamId, leagueName, homeTeamName, awayTeamName);
+                                                     @RequestParam(required = false) String awayTeamName,
+                                                     @RequestParam(required = false) String debug) {
+        if (!"timings".equalsIgnoreCase(debug)) {
+            return orchestrator.recommend(fixtureId, leagueId, seasonId, homeTeamId, awayTeamId, leagueName, homeTeamName, awayTeamName);
+        }
+        AnalysisTrace trace = AnalysisTrace.start();
+        RecommendationSummary out;
+        AnalysisTrace.Report report;
+        try {
+            out = orchestrator.recommend(fixtureId, leagueId, seasonId, homeTeamId, awayTeamId, leagueName, homeTeamName, awayTeamName);
+        } finally {
+            report = trace.finish();
+        }
+        // The orchestrator may hand back its cached instance; attach the trace to a copy
+        RecommendationSummary traced = objectMapper.convertValue(out, RecommendationSummary.class);
+        traced.setDebugTrace(report);
+        return traced;
     }
 }
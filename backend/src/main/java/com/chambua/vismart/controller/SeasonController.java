@@ -1,6 +1,7 @@
 package com.chambua.vismart.controller;
 
 import com.chambua.vismart.model.Season;
+import com.chambua.vismart.service.LeagueDeletionJobService;
 import com.chambua.vismart.service.SeasonService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -16,9 +17,11 @@ import java.util.Map;
 public class SeasonController {
 
     private final SeasonService seasonService;
+    private final LeagueDeletionJobService leagueDeletionJobService;
 
-    public SeasonController(SeasonService seasonService) {
+    public SeasonController(SeasonService seasonService, LeagueDeletionJobService leagueDeletionJobService) {
         this.seasonService = seasonService;
+        this.leagueDeletionJobService = leagueDeletionJobService;
     }
 
     @GetMapping
@@ -44,10 +47,12 @@ public class SeasonController {
         return ResponseEntity.ok(s);
     }
 
+    // Seasons with matches are deleted by a background job (202 + job); see /api/admin/jobs/{jobId}
     @DeleteMapping("/{seasonId}")
     public ResponseEntity<?> delete(@PathVariable Long leagueId, @PathVariable Long seasonId) {
-        seasonService.deleteSeason(seasonId);
-        return ResponseEntity.noContent().build();
+        return leagueDeletionJobService.startSeasonDeletion(leagueId, seasonId)
+                .<ResponseEntity<?>>map(AdminLeaguesSummaryController::accepted)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     public static class CreateSeasonRequest {
@@ -2,6 +2,7 @@ package com.chambua.vismart.controller;
 
 import com.chambua.vismart.dto.TeamDto;
 import com.chambua.vismart.model.Team;
+import com.chambua.vismart.repository.MatchRow;
 import com.chambua.vismart.repository.TeamRepository;
 import com.chambua.vismart.service.TeamService;
 import com.chambua.vismart.util.TeamNameNormalizer;
@@ -47,6 +48,14 @@ public class TeamController {
     @org.springframework.beans.factory.annotation.Autowired(required = false)
     private com.chambua.vismart.service.TeamOutcomeService teamOutcomeService;
 
+    // In-memory trigram index for type-ahead; falls back to LIKE queries when absent/unavailable
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private com.chambua.vismart.service.TeamSearchIndexService teamSearchIndexService;
+
+    // Bounded played-history reads for streak computations; entity queries are used when absent
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private com.chambua.vismart.service.TeamHistoryService teamHistoryService;
+
     public TeamController(TeamRepository teamRepository, TeamService teamService) {
         this.teamRepository = teamRepository;
         this.teamService = teamService;
@@ -63,78 +72,36 @@ public class TeamController {
             return org.springframework.http.ResponseEntity.badRequest().body(java.util.Collections.emptyList());
         }
         int lim = Math.max(1, Math.min(limit, 20));
-        java.util.List<com.chambua.vismart.model.Match> recent;
+        // Only the last `lim` scored rows are read; the limit is applied in SQL
+        java.util.List<MatchRow> recent;
         try {
-            recent = matchRepository.findRecentPlayedByTeamName(tn);
+            recent = recentPlayedRowsByName(tn, lim, com.chambua.vismart.service.TeamHistoryService.Filters.SCORED);
         } catch (Exception e) {
             recent = java.util.Collections.emptyList();
         }
         java.util.ArrayList<com.chambua.vismart.dto.LastMatchBriefDTO> out = new java.util.ArrayList<>();
-        if (recent != null) {
-            for (com.chambua.vismart.model.Match m : recent) {
-                if (out.size() >= lim) break;
-                try {
-                    Integer hg = m.getHomeGoals();
-                    Integer ag = m.getAwayGoals();
-                    if (hg == null || ag == null) continue;
-                    String home = m.getHomeTeam() != null ? m.getHomeTeam().getName() : null;
-                    String away = m.getAwayTeam() != null ? m.getAwayTeam().getName() : null;
-                    boolean isHome = home != null && home.equalsIgnoreCase(tn);
-                    boolean isAway = !isHome && away != null && away.equalsIgnoreCase(tn);
-                    if (!isHome && !isAway) {
-                        // as a soft match, accept contains
-                        isHome = home != null && tn != null && home.toLowerCase().contains(tn.toLowerCase());
-                        isAway = !isHome && away != null && tn != null && away.toLowerCase().contains(tn.toLowerCase());
-                    }
-                    String opponent = isHome ? (away != null ? away : "?") : (home != null ? home : "?");
-                    int my = isHome ? hg : (isAway ? ag : hg);
-                    int opp = isHome ? ag : (isAway ? hg : ag);
-                    String res = (my > opp) ? "W" : (my == opp ? "D" : "L");
-                    String score = (isHome ? hg : ag) + "-" + (isHome ? ag : hg);
-                    java.time.LocalDate date = m.getDate();
-                    String seasonLabel = null;
-                    try {
-                        com.chambua.vismart.model.Season s = m.getSeason();
-                        if (s != null) {
-                            try {
-                                java.lang.reflect.Method getName = s.getClass().getMethod("getName");
-                                Object nameVal = getName.invoke(s);
-                                if (nameVal != null) seasonLabel = String.valueOf(nameVal);
-                            } catch (Exception ignored) {}
-                            if (seasonLabel == null) {
-                                try {
-                                    java.lang.reflect.Method getSeason = s.getClass().getMethod("getSeason");
-                                    Object sv = getSeason.invoke(s);
-                                    if (sv != null) seasonLabel = String.valueOf(sv);
-                                } catch (Exception ignored2) {}
-                            }
-                            if (seasonLabel == null) {
-                                try {
-                                    java.lang.reflect.Method getStart = s.getClass().getMethod("getStartDate");
-                                    java.lang.reflect.Method getEnd = s.getClass().getMethod("getEndDate");
-                                    Object st = getStart.invoke(s);
-                                    Object en = getEnd.invoke(s);
-                                    if (st instanceof java.time.LocalDate) {
-                                        int y1 = ((java.time.LocalDate) st).getYear();
-                                        Integer y2 = null;
-                                        if (en instanceof java.time.LocalDate) y2 = ((java.time.LocalDate) en).getYear();
-                                        seasonLabel = y1 + (y2 != null ? "/" + y2 : "");
-                                    }
-                                } catch (Exception ignored3) {}
-                            }
-                        }
-                        if (seasonLabel == null && m.getLeague() != null) {
-                            try {
-                                java.lang.reflect.Method getSeasonStr = m.getLeague().getClass().getMethod("getSeason");
-                                Object sv = getSeasonStr.invoke(m.getLeague());
-                                if (sv != null) seasonLabel = String.valueOf(sv);
-                            } catch (Exception ignored4) {}
-                        }
-                    } catch (Exception ignored5) {}
-                    com.chambua.vismart.dto.LastMatchBriefDTO dto = new com.chambua.vismart.dto.LastMatchBriefDTO(date, seasonLabel, opponent, res, score);
-                    out.add(dto);
-                } catch (Exception ignored) {}
-            }
+        for (MatchRow m : recent) {
+            if (out.size() >= lim) break;
+            try {
+                Integer hg = m.homeGoals();
+                Integer ag = m.awayGoals();
+                if (hg == null || ag == null) continue;
+                String home = m.homeTeamName();
+                String away = m.awayTeamName();
+                boolean isHome = home != null && home.equalsIgnoreCase(tn);
+                boolean isAway = !isHome && away != null && away.equalsIgnoreCase(tn);
+                if (!isHome && !isAway) {
+                    // as a soft match, accept contains
+                    isHome = home != null && home.toLowerCase().contains(tn.toLowerCase());
+                    isAway = !isHome && away != null && away.toLowerCase().contains(tn.toLowerCase());
+                }
+                String opponent = isHome ? (away != null ? away : "?") : (home != null ? home : "?");
+                int my = isHome ? hg : (isAway ? ag : hg);
+                int opp = isHome ? ag : (isAway ? hg : ag);
+                String res = (my > opp) ? "W" : (my == opp ? "D" : "L");
+                String score = (isHome ? hg : ag) + "-" + (isHome ? ag : hg);
+                out.add(new com.chambua.vismart.dto.LastMatchBriefDTO(m.date(), m.seasonName(), opponent, res, score));
+            } catch (Exception ignored) {}
         }
         return org.springframework.http.ResponseEntity.ok(out);
     }
@@ -156,6 +123,18 @@ public class TeamController {
         String raw = query.trim();
         String normalized = TeamNameNormalizer.normalize(raw);
         log.info("[Team][Search] raw='{}', normalized='{}', leagueId={}", raw, normalized, leagueId);
+        if (teamSearchIndexService != null) {
+            var indexed = teamSearchIndexService.search(raw, leagueId, 20);
+            if (indexed.isPresent()) {
+                List<TeamDto> list = indexed.get();
+                if (leagueId != null && list.isEmpty()) {
+                    log.warn("[Team][Search][Fallback] Global search for query='{}' (leagueId={})", raw, leagueId);
+                    list = teamSearchIndexService.search(raw, null, 10).orElse(List.of());
+                }
+                log.debug("[Team][Search][Resp] size={} (index)", list.size());
+                return ResponseEntity.ok(list);
+            }
+        }
         // Use lightweight projection to avoid lazy-loading; map to DTOs
         var list = (leagueId != null
                 ? teamRepository.searchByNameWithCountryAndLeague(normalized, raw, leagueId)
@@ -435,15 +414,14 @@ public class TeamController {
         try { selectedTeamName = optTeam.get().getName(); } catch (Exception ignoredName) {}
         // Limit the historical depth for performance; enough to compute meaningful streaks
         int limit = 240;
-        java.util.List<com.chambua.vismart.model.Match> list;
+        java.util.List<MatchRow> list;
         if (selectedTeamName != null && !selectedTeamName.isBlank()) {
-            var slice = matchRepository.findRecentPlayedByTeamName(selectedTeamName, org.springframework.data.domain.PageRequest.of(0, limit));
-            list = (slice != null ? slice.getContent() : java.util.List.of());
+            list = recentPlayedRowsByName(selectedTeamName, limit, com.chambua.vismart.service.TeamHistoryService.Filters.NONE);
         } else {
-            list = matchRepository.findRecentPlayedByTeamId(teamId);
+            list = recentPlayedRowsById(teamId);
         }
         if (list == null) list = java.util.List.of();
-        java.util.List<com.chambua.vismart.model.Match> asc = new java.util.ArrayList<>(list);
+        java.util.List<MatchRow> asc = new java.util.ArrayList<>(list);
         java.util.Collections.reverse(asc);
 
         // Build selected team's pre-match longest-to-date map: date -> (longestType, longestCount)
@@ -452,22 +430,21 @@ public class TeamController {
         java.time.LocalDate curStart = null; java.time.LocalDate longestStart = null; java.time.LocalDate longestEnd = null;
         for (var m : asc) {
             // Pre-match snapshot for this date
-            if (m.getDate() != null) {
-                selPreMap.put(m.getDate(), new java.util.AbstractMap.SimpleEntry<>(longestType, longestCount));
+            if (m.date() != null) {
+                selPreMap.put(m.date(), new java.util.AbstractMap.SimpleEntry<>(longestType, longestCount));
             }
             // Update with this match result
-            if (m.getHomeGoals() != null && m.getAwayGoals() != null) {
-                boolean isHome = false;
-                try { isHome = m.getHomeTeam() != null && m.getHomeTeam().getName() != null && selectedTeamName != null && m.getHomeTeam().getName().equalsIgnoreCase(selectedTeamName); } catch (Exception ignoredHome) {}
+            if (m.homeGoals() != null && m.awayGoals() != null) {
+                boolean isHome = m.homeTeamName() != null && selectedTeamName != null && m.homeTeamName().equalsIgnoreCase(selectedTeamName);
                 String thisType;
-                if (m.getHomeGoals().equals(m.getAwayGoals())) {
+                if (m.homeGoals().equals(m.awayGoals())) {
                     thisType = "D";
-                } else if ((isHome && m.getHomeGoals() > m.getAwayGoals()) || (!isHome && m.getAwayGoals() > m.getHomeGoals())) {
+                } else if ((isHome && m.homeGoals() > m.awayGoals()) || (!isHome && m.awayGoals() > m.homeGoals())) {
                     thisType = "W";
                 } else {
                     thisType = "L";
                 }
-                java.time.LocalDate md = m.getDate();
+                java.time.LocalDate md = m.date();
                 if (curType == null || !thisType.equals(curType)) {
                     curType = thisType; curCount = 1; curStart = md;
                 } else {
@@ -487,9 +464,7 @@ public class TeamController {
         // Pre-collect unique opponent names from selected team timeline
         java.util.Set<String> oppNamesSet = new java.util.HashSet<>();
         for (var m : asc) {
-            String h = null, a = null;
-            try { if (m.getHomeTeam() != null) h = m.getHomeTeam().getName(); } catch (Exception ignored) {}
-            try { if (m.getAwayTeam() != null) a = m.getAwayTeam().getName(); } catch (Exception ignored) {}
+            String h = m.homeTeamName(), a = m.awayTeamName();
             boolean isHomeSel = h != null && selectedTeamName != null && h.equalsIgnoreCase(selectedTeamName);
             String oppName = isHomeSel ? a : h;
             if (oppName != null && !oppName.isBlank() && !"?".equals(oppName)) oppNamesSet.add(oppName.trim().toLowerCase());
@@ -497,14 +472,14 @@ public class TeamController {
         if (!oppNamesSet.isEmpty()) {
             java.util.List<String> oppNames = new java.util.ArrayList<>(oppNamesSet);
             // Batch load once
-            java.util.List<com.chambua.vismart.model.Match> oppAll = matchRepository.findRecentPlayedByAnyTeamNames(oppNames);
+            java.util.List<MatchRow> oppAll = scoredRowsForAnyTeamNames(oppNames);
             // Group by canonical lowercase opponent name
-            java.util.Map<String, java.util.List<com.chambua.vismart.model.Match>> byOpp = new java.util.HashMap<>();
+            java.util.Map<String, java.util.List<MatchRow>> byOpp = new java.util.HashMap<>();
             if (oppAll != null) {
                 for (var om : oppAll) {
                     String h = null, a = null;
-                    try { if (om.getHomeTeam() != null && om.getHomeTeam().getName() != null) h = om.getHomeTeam().getName().trim().toLowerCase(); } catch (Exception ignored) {}
-                    try { if (om.getAwayTeam() != null && om.getAwayTeam().getName() != null) a = om.getAwayTeam().getName().trim().toLowerCase(); } catch (Exception ignored) {}
+                    if (om.homeTeamName() != null) h = om.homeTeamName().trim().toLowerCase();
+                    if (om.awayTeamName() != null) a = om.awayTeamName().trim().toLowerCase();
                     if (h != null && oppNamesSet.contains(h)) byOpp.computeIfAbsent(h, k -> new java.util.ArrayList<>()).add(om);
                     if (a != null && oppNamesSet.contains(a)) byOpp.computeIfAbsent(a, k -> new java.util.ArrayList<>()).add(om);
                 }
@@ -512,31 +487,30 @@ public class TeamController {
             // For each opponent, compute pre-match map and overall longest with range
             for (var e : byOpp.entrySet()) {
                 String key = e.getKey();
-                java.util.List<com.chambua.vismart.model.Match> listByOpp = e.getValue();
+                java.util.List<MatchRow> listByOpp = e.getValue();
                 listByOpp.sort((m1, m2) -> {
-                    int cmp = java.util.Objects.compare(m1.getDate(), m2.getDate(), java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
+                    int cmp = java.util.Objects.compare(m1.date(), m2.date(), java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
                     if (cmp != 0) return cmp;
-                    return java.util.Objects.compare(m1.getRound(), m2.getRound(), java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
+                    return java.util.Objects.compare(m1.round(), m2.round(), java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
                 });
                 String oCurType = null; int oCurCount = 0; String oLongestType = null; int oLongestCount = 0;
                 java.time.LocalDate oCurStart = null; java.time.LocalDate oLongestStart = null; java.time.LocalDate oLongestEnd = null;
                 java.util.NavigableMap<java.time.LocalDate, java.util.Map.Entry<String,Integer>> map = new java.util.TreeMap<>();
                 for (var om : listByOpp) {
                     boolean oHome = false;
-                    String oHomeName = null;
-                    try { if (om.getHomeTeam() != null) oHomeName = om.getHomeTeam().getName(); } catch (Exception ignored) {}
+                    String oHomeName = om.homeTeamName();
                     if (oHomeName != null && oHomeName.equalsIgnoreCase(key)) oHome = true;
-                    if (om.getDate() != null) map.put(om.getDate(), new java.util.AbstractMap.SimpleEntry<>(oLongestType, oLongestCount));
-                    if (om.getHomeGoals() != null && om.getAwayGoals() != null) {
+                    if (om.date() != null) map.put(om.date(), new java.util.AbstractMap.SimpleEntry<>(oLongestType, oLongestCount));
+                    if (om.homeGoals() != null && om.awayGoals() != null) {
                         String oThisType;
-                        if (om.getHomeGoals().equals(om.getAwayGoals())) {
+                        if (om.homeGoals().equals(om.awayGoals())) {
                             oThisType = "D";
-                        } else if ((oHome && om.getHomeGoals() > om.getAwayGoals()) || (!oHome && om.getAwayGoals() > om.getHomeGoals())) {
+                        } else if ((oHome && om.homeGoals() > om.awayGoals()) || (!oHome && om.awayGoals() > om.homeGoals())) {
                             oThisType = "W";
                         } else {
                             oThisType = "L";
                         }
-                        java.time.LocalDate od = om.getDate();
+                        java.time.LocalDate od = om.date();
                         if (oCurType == null || !oThisType.equals(oCurType)) { oCurType = oThisType; oCurCount = 1; oCurStart = od; } else { oCurCount += 1; }
                         if (oCurCount > oLongestCount) { oLongestCount = oCurCount; oLongestType = oCurType; oLongestStart = oCurStart; oLongestEnd = od; }
                     }
@@ -576,12 +550,11 @@ public class TeamController {
         java.util.Map<String, java.util.Map<String,Integer>> subcategoryMaps = new java.util.HashMap<>();
 
         for (var m : asc) {
-            if (m.getHomeGoals() == null || m.getAwayGoals() == null) continue; // only played
-            java.time.LocalDate d = m.getDate();
+            if (m.homeGoals() == null || m.awayGoals() == null) continue; // only played
+            java.time.LocalDate d = m.date();
             if (d == null) continue;
-            boolean isHome = false;
-            try { isHome = m.getHomeTeam() != null && m.getHomeTeam().getName() != null && selectedTeamName != null && m.getHomeTeam().getName().equalsIgnoreCase(selectedTeamName); } catch (Exception ignoredIH) {}
-            String oppName = isHome ? (m.getAwayTeam() != null ? m.getAwayTeam().getName() : null) : (m.getHomeTeam() != null ? m.getHomeTeam().getName() : null);
+            boolean isHome = m.homeTeamName() != null && selectedTeamName != null && m.homeTeamName().equalsIgnoreCase(selectedTeamName);
+            String oppName = m.opponentName(isHome);
             // Classification: USE OVERALL (all-time) longest streak types for both teams
             // Ensure opponent cache is populated
             buildOpp.apply(oppName);
@@ -590,8 +563,8 @@ public class TeamController {
             if (aType == null || bType == null) continue;
 
             boolean same = aType.equals(bType);
-            int hg = m.getHomeGoals();
-            int ag = m.getAwayGoals();
+            int hg = m.homeGoals();
+            int ag = m.awayGoals();
             boolean win, draw, loss;
             if (hg == ag) { draw = true; win = false; loss = false; }
             else if ((isHome && hg > ag) || (!isHome && ag > hg)) { win = true; draw = false; loss = false; }
@@ -779,26 +752,25 @@ public class TeamController {
                 java.time.LocalDate oppFrom = null; java.time.LocalDate oppTo = null;
                 int oppLongestCountById = 0;
                 try {
-                    java.util.List<com.chambua.vismart.model.Match> oppMatches;
+                    java.util.List<MatchRow> oppMatches;
                     if (awayNameSim != null && !awayNameSim.isBlank()) {
-                        oppMatches = matchRepository.findRecentPlayedByTeamName(awayNameSim);
+                        oppMatches = recentPlayedRowsByName(awayNameSim, com.chambua.vismart.service.TeamHistoryService.ALL, com.chambua.vismart.service.TeamHistoryService.Filters.NONE);
                     } else {
-                        oppMatches = matchRepository.findRecentPlayedByTeamId(simulateOpponentId);
+                        oppMatches = recentPlayedRowsById(simulateOpponentId);
                     }
                     if (oppMatches != null && !oppMatches.isEmpty()) {
-                        java.util.List<com.chambua.vismart.model.Match> oppAsc = new java.util.ArrayList<>(oppMatches);
+                        java.util.List<MatchRow> oppAsc = new java.util.ArrayList<>(oppMatches);
                         java.util.Collections.reverse(oppAsc);
                         String oCurType = null; int oCurCount = 0; String oLongestType = null; int oLongestCount = 0;
                         java.time.LocalDate oCurStart = null; java.time.LocalDate oLongestStart = null; java.time.LocalDate oLongestEnd = null;
                         for (var om : oppAsc) {
-                            if (om.getHomeGoals() != null && om.getAwayGoals() != null) {
-                                boolean oHome = false;
-                                try { oHome = om.getHomeTeam() != null && om.getHomeTeam().getName() != null && awayNameSim != null && om.getHomeTeam().getName().equalsIgnoreCase(awayNameSim); } catch (Exception ignoredN) {}
+                            if (om.homeGoals() != null && om.awayGoals() != null) {
+                                boolean oHome = om.homeTeamName() != null && awayNameSim != null && om.homeTeamName().equalsIgnoreCase(awayNameSim);
                                 String oThisType;
-                                if (om.getHomeGoals().equals(om.getAwayGoals())) { oThisType = "D"; }
-                                else if ((oHome && om.getHomeGoals() > om.getAwayGoals()) || (!oHome && om.getAwayGoals() > om.getHomeGoals())) { oThisType = "W"; }
+                                if (om.homeGoals().equals(om.awayGoals())) { oThisType = "D"; }
+                                else if ((oHome && om.homeGoals() > om.awayGoals()) || (!oHome && om.awayGoals() > om.homeGoals())) { oThisType = "W"; }
                                 else { oThisType = "L"; }
-                                java.time.LocalDate od = om.getDate();
+                                java.time.LocalDate od = om.date();
                                 if (oCurType == null || !oThisType.equals(oCurType)) { oCurType = oThisType; oCurCount = 1; oCurStart = od; } else { oCurCount += 1; }
                                 if (oCurCount > oLongestCount) { oLongestCount = oCurCount; oLongestType = oCurType; oLongestStart = oCurStart; oLongestEnd = od; }
                             }
@@ -939,4 +911,19 @@ public class TeamController {
 
         return ResponseEntity.ok(resp);
     }
+
+    private java.util.List<MatchRow> recentPlayedRowsByName(String teamName, int limit, com.chambua.vismart.service.TeamHistoryService.Filters filters) {
+        if (teamHistoryService != null) return teamHistoryService.recent(teamName, limit, filters);
+        return com.chambua.vismart.service.TeamHistoryService.apply(MatchRow.of(matchRepository.findRecentPlayedByTeamName(teamName)), limit, filters);
+    }
+
+    private java.util.List<MatchRow> recentPlayedRowsById(Long teamId) {
+        if (teamHistoryService != null) return teamHistoryService.recent(teamId, com.chambua.vismart.service.TeamHistoryService.ALL, com.chambua.vismart.service.TeamHistoryService.Filters.NONE);
+        return MatchRow.of(matchRepository.findRecentPlayedByTeamId(teamId));
+    }
+
+    private java.util.List<MatchRow> scoredRowsForAnyTeamNames(java.util.List<String> names) {
+        if (teamHistoryService != null) return teamHistoryService.scoredForAnyTeamNames(names);
+        return MatchRow.of(matchRepository.findRecentPlayedByAnyTeamNames(names));
+    }
 }
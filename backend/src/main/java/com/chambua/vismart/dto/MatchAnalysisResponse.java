@@ -19,6 +19,11 @@ public class MatchAnalysisResponse {
     // New: historical streak insights for each team
     private com.chambua.vismart.dto.StreakInsight homeStreakInsight;
     private com.chambua.vismart.dto.StreakInsight awayStreakInsight;
+    // Long-term strength (Elo, attack/defence); informational, not blended into the probabilities
+    private TeamRatings teamRatings; // may be null
+    // Stage timings/queries, only with debug=timings; never part of the cached analysis
+    @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
+    private com.chambua.vismart.util.AnalysisTrace.Report debugTrace;
 
     public MatchAnalysisResponse() {}
 
@@ -67,6 +72,10 @@ public class MatchAnalysisResponse {
     public void setHomeStreakInsight(com.chambua.vismart.dto.StreakInsight homeStreakInsight) { this.homeStreakInsight = homeStreakInsight; }
     public com.chambua.vismart.dto.StreakInsight getAwayStreakInsight() { return awayStreakInsight; }
     public void setAwayStreakInsight(com.chambua.vismart.dto.StreakInsight awayStreakInsight) { this.awayStreakInsight = awayStreakInsight; }
+    public TeamRatings getTeamRatings() { return teamRatings; }
+    public void setTeamRatings(TeamRatings teamRatings) { this.teamRatings = teamRatings; }
+    public com.chambua.vismart.util.AnalysisTrace.Report getDebugTrace() { return debugTrace; }
+    public void setDebugTrace(com.chambua.vismart.util.AnalysisTrace.Report debugTrace) { this.debugTrace = debugTrace; }
 
     public static class WinProbabilities {
         private int homeWin;
@@ -84,6 +93,35 @@ public class MatchAnalysisResponse {
         public void setAwayWin(int awayWin) { this.awayWin = awayWin; }
     }
 
+    public static class TeamRatings {
+        private double homeElo;
+        private double awayElo;
+        private double homeExpectedScore; // Elo expectancy incl. home advantage (win = 1, draw = 0.5)
+        private double homeAttack;
+        private double homeDefence;
+        private double awayAttack;
+        private double awayDefence;
+        public TeamRatings() {}
+        public TeamRatings(double homeElo, double awayElo, double homeExpectedScore, double homeAttack, double homeDefence, double awayAttack, double awayDefence) {
+            this.homeElo = homeElo; this.awayElo = awayElo; this.homeExpectedScore = homeExpectedScore;
+            this.homeAttack = homeAttack; this.homeDefence = homeDefence; this.awayAttack = awayAttack; this.awayDefence = awayDefence;
+        }
+        public double getHomeElo() { return homeElo; }
+        public void setHomeElo(double homeElo) { this.homeElo = homeElo; }
+        public double getAwayElo() { return awayElo; }
+        public void setAwayElo(double awayElo) { this.awayElo = awayElo; }
+        public double getHomeExpectedScore() { return homeExpectedScore; }
+        public void setHomeExpectedScore(double homeExpectedScore) { this.homeExpectedScore = homeExpectedScore; }
+        public double getHomeAttack() { return homeAttack; }
+        public void setHomeAttack(double homeAttack) { this.homeAttack = homeAttack; }
+        public double getHomeDefence() { return homeDefence; }
+        public void setHomeDefence(double homeDefence) { this.homeDefence = homeDefence; }
+        public double getAwayAttack() { return awayAttack; }
+        public void setAwayAttack(double awayAttack) { this.awayAttack = awayAttack; }
+        public double getAwayDefence() { return awayDefence; }
+        public void setAwayDefence(double awayDefence) { this.awayDefence = awayDefence; }
+    }
+
     public static class ExpectedGoals {
         private double home;
         private double away;
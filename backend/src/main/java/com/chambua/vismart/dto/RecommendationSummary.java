@@ -61,6 +61,10 @@ public class RecommendationSummary {
     private StreakInsight homeStreak;
     private StreakInsight awayStreak;
 
+    // Stage timings/queries, only with debug=timings
+    @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
+    private com.chambua.vismart.util.AnalysisTrace.Report debugTrace;
+
     public RecommendationSummary() {}
 
     public Long getFixtureId() { return fixtureId; }
@@ -130,4 +134,6 @@ public class RecommendationSummary {
     public void setHomeStreakNote(String homeStreakNote) { this.homeStreakNote = homeStreakNote; }
     public String getAwayStreakNote() { return awayStreakNote; }
     public void setAwayStreakNote(String awayStreakNote) { this.awayStreakNote = awayStreakNote; }
+    public com.chambua.vismart.util.AnalysisTrace.Report getDebugTrace() { return debugTrace; }
+    public void setDebugTrace(com.chambua.vismart.util.AnalysisTrace.Report debugTrace) { this.debugTrace = debugTrace; }
 }
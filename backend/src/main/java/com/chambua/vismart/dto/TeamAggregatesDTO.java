@@ -0,0 +1,19 @@
+package com.chambua.vismart.dto;
+
+/**
+ * Played-match counters for a team (all leagues/seasons, duplicates by name merged).
+ */
+public record TeamAggregatesDTO(
+        String teamName,
+        long total,
+        long wins,
+        long draws,
+        long losses,
+        long btts,
+        long over25,
+        long over15
+) {
+    public static TeamAggregatesDTO empty(String teamName) {
+        return new TeamAggregatesDTO(teamName, 0, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,54 @@
+package com.chambua.vismart.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Monotonic version of one data scope ({@code global}, {@code league:{id}} or {@code season:{leagueId}:{seasonId}}),
+ * incremented after every committed write that can change reads in that scope. See DataVersionService.
+ */
+@Entity
+@Table(name = "data_version", indexes = {
+        @Index(name = "idx_data_version_league", columnList = "league_id")
+})
+public class DataVersion {
+    @Id
+    @Column(name = "scope_key", length = 64)
+    private String scopeKey;
+
+    @Column(name = "league_id")
+    private Long leagueId;
+
+    @Column(name = "season_id")
+    private Long seasonId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public DataVersion() {}
+
+    public DataVersion(String scopeKey, Long leagueId, Long seasonId) {
+        this.scopeKey = scopeKey;
+        this.leagueId = leagueId;
+        this.seasonId = seasonId;
+        this.updatedAt = Instant.now();
+    }
+
+    public String getScopeKey() { return scopeKey; }
+    public void setScopeKey(String scopeKey) { this.scopeKey = scopeKey; }
+
+    public Long getLeagueId() { return leagueId; }
+    public void setLeagueId(Long leagueId) { this.leagueId = leagueId; }
+
+    public Long getSeasonId() { return seasonId; }
+    public void setSeasonId(Long seasonId) { this.seasonId = seasonId; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
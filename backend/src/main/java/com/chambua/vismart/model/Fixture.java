@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({com.chambua.vismart.service.DataVersionService.ChangeListener.class,
+        com.chambua.vismart.service.FixtureEventHub.FixtureListener.class})
 @Table(name = "fixtures", indexes = {
         @Index(name = "idx_fixtures_league_date", columnList = "league_id, date_time"),
         @Index(name = "idx_fixtures_status", columnList = "status")
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
+@EntityListeners(com.chambua.vismart.service.AdminLeagueSummaryService.ImportRunChangeListener.class)
 @Table(name = "import_run", indexes = {
         @Index(name = "idx_importrun_filehash", columnList = "file_hash")
 })
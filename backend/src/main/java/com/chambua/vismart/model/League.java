@@ -3,6 +3,8 @@ package com.chambua.vismart.model;
 import jakarta.persistence.*;
 
 @Entity
+@EntityListeners({com.chambua.vismart.service.ReferenceDataService.ReferenceChangeListener.class,
+        com.chambua.vismart.service.DataVersionService.ChangeListener.class})
 @Table(name = "leagues", uniqueConstraints = {
         @UniqueConstraint(name = "uk_league_name_country_season", columnNames = {"name", "country", "season"})
 })
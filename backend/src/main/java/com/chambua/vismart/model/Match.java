@@ -8,11 +8,17 @@ import java.time.LocalDate;
         @Index(name = "idx_matches_season_round", columnList = "season_id, round"),
         @Index(name = "idx_matches_date", columnList = "match_date"),
         @Index(name = "idx_matches_season_teams_date", columnList = "season_id, home_team_id, away_team_id, match_date"),
-        @Index(name = "idx_matches_source_and_date", columnList = "source_type, match_date")
+        @Index(name = "idx_matches_source_and_date", columnList = "source_type, match_date"),
+        @Index(name = "idx_matches_home_status_date", columnList = "home_team_id, status, match_date"),
+        @Index(name = "idx_matches_away_status_date", columnList = "away_team_id, status, match_date")
 }, uniqueConstraints = {
         @UniqueConstraint(name = "uk_match_season_round_home_away", columnNames = {"season_id", "round", "home_team_id", "away_team_id"}),
         @UniqueConstraint(name = "uk_match_season_home_away_date", columnNames = {"season_id", "home_team_id", "away_team_id", "match_date"})
 })
+@EntityListeners({com.chambua.vismart.service.H2HPairIndexService.MatchChangeListener.class,
+        com.chambua.vismart.service.TeamDomesticLeagueService.MatchChangeListener.class,
+        com.chambua.vismart.service.TeamRatingService.MatchChangeListener.class,
+        com.chambua.vismart.service.DataVersionService.ChangeListener.class})
 public class Match {
 
     @Id
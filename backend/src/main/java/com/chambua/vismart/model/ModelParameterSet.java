@@ -0,0 +1,66 @@
+package com.chambua.vismart.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * One saved version of the analysis model's tuning constants, stored as JSON
+ * (see {@code ModelParameters}). At most one row is active.
+ */
+@Entity
+@Table(name = "model_parameter_set", indexes = {
+        @Index(name = "idx_model_parameter_set_active", columnList = "active")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_model_parameter_set_version", columnNames = "version")
+})
+public class ModelParameterSet {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "version", nullable = false)
+    private int version;
+
+    @Column(name = "params", columnDefinition = "text", nullable = false)
+    private String params;
+
+    @Column(name = "active", nullable = false)
+    private boolean active;
+
+    @Column(name = "note")
+    private String note;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public ModelParameterSet() {}
+
+    public ModelParameterSet(int version, String params, String note) {
+        this.version = version;
+        this.params = params;
+        this.note = note;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public String getParams() { return params; }
+    public void setParams(String params) { this.params = params; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -6,6 +6,8 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners({com.chambua.vismart.service.ReferenceDataService.ReferenceChangeListener.class,
+        com.chambua.vismart.service.DataVersionService.ChangeListener.class})
 @Table(name = "seasons", indexes = {
         @Index(name = "idx_seasons_league_id", columnList = "league_id")
 })
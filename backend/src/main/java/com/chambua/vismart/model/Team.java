@@ -9,6 +9,7 @@ import jakarta.persistence.*;
 }, indexes = {
         @Index(name = "idx_team_league_name", columnList = "league_id, name")
 })
+@EntityListeners(com.chambua.vismart.service.TeamSearchIndexService.EntityChangeListener.class)
 public class Team {
 
     @Id
@@ -9,6 +9,7 @@ import java.time.LocalDate;
 }, indexes = {
         @Index(name = "idx_alias_alias", columnList = "alias")
 })
+@EntityListeners(com.chambua.vismart.service.TeamSearchIndexService.EntityChangeListener.class)
 public class TeamAlias {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,67 @@
+package com.chambua.vismart.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Precomputed domestic league of a team: the league with the most played matches in the team's latest season.
+ * Plain ids rather than associations so lookups never touch the teams/leagues tables.
+ */
+@Entity
+@Table(name = "team_domestic_league", indexes = {
+        @Index(name = "idx_team_domestic_league_league", columnList = "league_id")
+})
+public class TeamDomesticLeague {
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "league_id", nullable = false)
+    private Long leagueId;
+
+    @Column(name = "country")
+    private String country;
+
+    @Column(name = "season_id")
+    private Long seasonId;
+
+    @Column(name = "match_count", nullable = false)
+    private int matchCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public TeamDomesticLeague() {}
+
+    public TeamDomesticLeague(Long teamId, Long leagueId, String country, Long seasonId, int matchCount) {
+        this.teamId = teamId;
+        this.leagueId = leagueId;
+        this.country = country;
+        this.seasonId = seasonId;
+        this.matchCount = matchCount;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = Instant.now();
+    }
+
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+
+    public Long getLeagueId() { return leagueId; }
+    public void setLeagueId(Long leagueId) { this.leagueId = leagueId; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public Long getSeasonId() { return seasonId; }
+    public void setSeasonId(Long seasonId) { this.seasonId = seasonId; }
+
+    public int getMatchCount() { return matchCount; }
+    public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
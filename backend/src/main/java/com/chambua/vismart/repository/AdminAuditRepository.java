@@ -9,4 +9,6 @@ import org.springframework.data.jpa.repository.Query;
 public interface AdminAuditRepository extends JpaRepository<AdminAudit, Long> {
     @Query("select a from AdminAudit a order by a.timestamp desc")
     Page<AdminAudit> findRecent(Pageable pageable);
+
+    java.util.List<AdminAudit> findByActionInOrderByIdDesc(java.util.Collection<String> actions, Pageable pageable);
 }
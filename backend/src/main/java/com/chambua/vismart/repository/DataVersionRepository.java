@@ -0,0 +1,35 @@
+package com.chambua.vismart.repository;
+
+import com.chambua.vismart.model.DataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface DataVersionRepository extends JpaRepository<DataVersion, String> {
+
+    @Modifying
+    @Query("update DataVersion d set d.version = d.version + 1, d.updatedAt = :now where d.scopeKey in :keys")
+    int increment(@Param("keys") Collection<String> keys, @Param("now") Instant now);
+
+    /** The league row and every season row of the league. */
+    @Modifying
+    @Query("update DataVersion d set d.version = d.version + 1, d.updatedAt = :now where d.leagueId = :leagueId")
+    int incrementLeague(@Param("leagueId") Long leagueId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update DataVersion d set d.version = d.version + 1, d.updatedAt = :now")
+    int incrementAll(@Param("now") Instant now);
+
+    /** Season ids of a league, so a league-wide bump can create season rows that do not exist yet. */
+    @Query("select s.id from Season s where s.league.id = :leagueId")
+    List<Long> findSeasonIdsByLeagueId(@Param("leagueId") Long leagueId);
+
+    /** (leagueId, seasonId) of every season; league ids come from the left join so leagues without seasons count too. */
+    @Query("select l.id, s.id from League l left join Season s on s.league = l")
+    List<Object[]> findAllLeagueSeasonIds();
+}
@@ -34,6 +34,14 @@ public interface FixtureRepository extends JpaRepository<Fixture, Long> {
     @org.springframework.transaction.annotation.Transactional
     long deleteByLeague_Id(Long leagueId);
 
+    // Chunked deletion (admin delete jobs)
+    @Query("select f.id from Fixture f where f.league.id = :leagueId and f.id > :afterId order by f.id asc")
+    List<Long> findIdsByLeagueAfter(@Param("leagueId") Long leagueId, @Param("afterId") long afterId, org.springframework.data.domain.Pageable page);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("delete from Fixture f where f.league.id = :leagueId and f.id between :fromId and :toId")
+    int deleteByLeagueIdAndIdBetween(@Param("leagueId") Long leagueId, @Param("fromId") long fromId, @Param("toId") long toId);
+
     @Query("select distinct f.league.id from Fixture f")
     List<Long> findDistinctLeagueIdsWithFixtures();
 
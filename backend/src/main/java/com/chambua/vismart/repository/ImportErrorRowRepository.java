@@ -0,0 +1,39 @@
+package com.chambua.vismart.repository;
+
+import com.chambua.vismart.dto.ImportErrorDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * JDBC read of an import run's error rows for streaming. A large failed run can hold a row (with its raw payload)
+ * per CSV line; rows are mapped one at a time instead of hydrating every {@code ImportError} entity, and on MySQL
+ * the driver streams them instead of buffering the result set (see {@link JdbcStreaming}).
+ */
+@Repository
+public class ImportErrorRowRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public ImportErrorRowRepository(DataSource dataSource, @Value("${spring.datasource.url:}") String datasourceUrl,
+                                    @Value("${app.import-errors.fetch-size:500}") int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(JdbcStreaming.fetchSize(datasourceUrl, fetchSize));
+    }
+
+    /** Errors of one run in id (= row) order; returns how many were sent to the sink. */
+    public long forEachByRun(Long importRunId, Consumer<ImportErrorDTO> sink) {
+        if (importRunId == null) return 0;
+        long[] n = {0};
+        jdbc.query("select e.id, e.row_num, e.reason, e.payload from import_error e where e.import_run_id = ? order by e.id",
+                rs -> {
+                    sink.accept(new ImportErrorDTO(rs.getLong("id"), rs.getObject("row_num", Integer.class),
+                            rs.getString("reason"), rs.getString("payload")));
+                    n[0]++;
+                }, importRunId);
+        return n[0];
+    }
+}
@@ -0,0 +1,16 @@
+package com.chambua.vismart.repository;
+
+/**
+ * Fetch size for JDBC reads that hand rows to a sink as they arrive. MySQL Connector/J buffers the whole result set
+ * for any positive fetch size unless the URL enables cursor fetch (which would also turn every other statement into
+ * a server-side prepared statement); {@link Integer#MIN_VALUE} streams row by row on that statement only. Other
+ * drivers (H2 in tests) reject negative values and get the configured size instead.
+ */
+final class JdbcStreaming {
+
+    private JdbcStreaming() {}
+
+    static int fetchSize(String datasourceUrl, int fallback) {
+        return datasourceUrl != null && datasourceUrl.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : fallback;
+    }
+}
@@ -16,6 +16,10 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     @Query("select max(ir.finishedAt) from Match m join m.importRun ir where m.season.id = :seasonId and ir.finishedAt is not null")
     java.time.Instant findLastImportFinishedAtBySeasonId(@Param("seasonId") Long seasonId);
 
+    // Batched form of the above: (seasonId, max finishedAt) for every season in the set that has a finished import
+    @Query("select m.season.id, max(ir.finishedAt) from Match m join m.importRun ir where m.season.id in :seasonIds and ir.finishedAt is not null group by m.season.id")
+    List<Object[]> findLastImportFinishedAtBySeasonIds(@Param("seasonIds") java.util.Collection<Long> seasonIds);
+
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Transactional
     long deleteByLeague(League league);
@@ -65,9 +69,20 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     @Query("select distinct m.homeTeam.name, m.awayTeam.name from Match m where (m.status = com.chambua.vismart.model.MatchStatus.PLAYED or (m.homeGoals is not null and m.awayGoals is not null)) and (lower(trim(m.homeTeam.name)) like lower(trim(concat('%', :q, '%'))) or lower(trim(m.awayTeam.name)) like lower(trim(concat('%', :q, '%'))))")
     List<Object[]> findDistinctPlayedPairsByNameContains(@Param("q") String q);
 
-    // Played matches by exact team names with orientation respected
-    @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam left join fetch m.season where (m.status = com.chambua.vismart.model.MatchStatus.PLAYED or (m.homeGoals is not null and m.awayGoals is not null)) and lower(trim(m.homeTeam.name)) = lower(trim(:homeName)) and lower(trim(m.awayTeam.name)) = lower(trim(:awayName)) order by m.date desc, m.round desc")
-    List<Match> findPlayedByExactNames(@Param("homeName") String homeName, @Param("awayName") String awayName);
+    // Played pairs aggregated by team ids (count + most recent date) up to a match id watermark; backs the in-memory H2H suggestion index
+    @Query("select m.homeTeam.id, m.awayTeam.id, count(m), max(m.date) from Match m where m.id <= :maxId and (m.status = com.chambua.vismart.model.MatchStatus.PLAYED or (m.homeGoals is not null and m.awayGoals is not null)) group by m.homeTeam.id, m.awayTeam.id")
+    List<Object[]> aggregatePlayedPairsByTeamIds(@Param("maxId") long maxId);
+
+    @Query("select coalesce(max(m.id), 0) from Match m")
+    long findMaxId();
+
+    // Played matches by exact team names with orientation respected (names resolved to id sets; sargable)
+    default List<Match> findPlayedByExactNames(String homeName, String awayName) {
+        List<Long> homeIds = findTeamIdsForName(homeName);
+        List<Long> awayIds = findTeamIdsForName(awayName);
+        if (homeIds.isEmpty() || awayIds.isEmpty()) return new java.util.ArrayList<>();
+        return findH2HByTeamIdSetsAllLeagues(homeIds, awayIds);
+    }
 
     // Fallback: Played matches by fuzzy team names (contains, case-insensitive), orientation respected
     @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam left join fetch m.season where (m.status = com.chambua.vismart.model.MatchStatus.PLAYED or (m.homeGoals is not null and m.awayGoals is not null)) and lower(trim(m.homeTeam.name)) like lower(trim(concat('%', :homeName, '%'))) and lower(trim(m.awayTeam.name)) like lower(trim(concat('%', :awayName, '%'))) order by m.date desc, m.round desc")
@@ -107,37 +122,79 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (m.homeTeam.id = :teamId or m.awayTeam.id = :teamId)")
     long countPlayedByTeam(@Param("teamId") Long teamId);
 
+    // Played match counts grouped per team side; used as an activity signal when ranking search results
+    @Query("select m.homeTeam.id, count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED group by m.homeTeam.id")
+    List<Object[]> countPlayedGroupedByHomeTeam();
+
+    @Query("select m.awayTeam.id, count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED group by m.awayTeam.id")
+    List<Object[]> countPlayedGroupedByAwayTeam();
+
     // Count played matches for a given team within a specific season
     @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.season.id = :seasonId and (m.homeTeam.id = :teamId or m.awayTeam.id = :teamId)")
     long countPlayedByTeamAndSeason(@Param("teamId") Long teamId, @Param("seasonId") Long seasonId);
 
     // Count played matches by exact team name (case-insensitive), regardless of league/season or team id duplication
-    @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName)))")
-    long countPlayedByTeamName(@Param("teamName") String teamName);
-
-    // Wins for a given team name (case-insensitive) across all leagues/seasons
-    @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and ((lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) and m.homeGoals > m.awayGoals) or (lower(trim(m.awayTeam.name)) = lower(trim(:teamName)) and m.awayGoals > m.homeGoals))")
-    long countWinsByTeamName(@Param("teamName") String teamName);
-
-    // Draws for a given team name (case-insensitive) across all leagues/seasons
-    @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName))) and m.homeGoals = m.awayGoals")
-    long countDrawsByTeamName(@Param("teamName") String teamName);
-
-    // Losses are total played involving team minus wins minus draws; having a direct query for completeness
-    @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and ((lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) and m.homeGoals < m.awayGoals) or (lower(trim(m.awayTeam.name)) = lower(trim(:teamName)) and m.awayGoals < m.homeGoals))")
-    long countLossesByTeamName(@Param("teamName") String teamName);
-
-    // BTTS (both teams to score) for a given team name (case-insensitive) across all leagues/seasons
-    @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.homeGoals > 0 and m.awayGoals > 0 and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName)))")
-    long countBttsByTeamName(@Param("teamName") String teamName);
+    default long countPlayedByTeamName(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        return ids.isEmpty() ? 0L : countPlayedByTeamIds(ids);
+    }
 
-    // Over 2.5 goals for matches involving a given team name across all leagues/seasons
-    @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (coalesce(m.homeGoals,0) + coalesce(m.awayGoals,0)) >= 3 and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName)))")
-    long countOver25ByTeamName(@Param("teamName") String teamName);
+    @Query(value = "select count(*) from (" + PLAYED_FROM_TEAM_PERSPECTIVE + ") x where 1 = 1", nativeQuery = true)
+    long countPlayedByTeamIds(@Param("teamIds") List<Long> teamIds);
 
-    // Over 1.5 goals for matches involving a given team name across all leagues/seasons
-    @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (coalesce(m.homeGoals,0) + coalesce(m.awayGoals,0)) >= 2 and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName)))")
-    long countOver15ByTeamName(@Param("teamName") String teamName);
+    // Wins for a given team name (case-insensitive) across all leagues/seasons
+    default long countWinsByTeamName(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        return ids.isEmpty() ? 0L : countWinsByTeamIds(ids);
+    }
+
+    @Query(value = "select count(*) from (" + PLAYED_FROM_TEAM_PERSPECTIVE + ") x where x.gf > x.ga", nativeQuery = true)
+    long countWinsByTeamIds(@Param("teamIds") List<Long> teamIds);
+
+    // Draws for a given team name (case-insensitive)
+    default long countDrawsByTeamName(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        return ids.isEmpty() ? 0L : countDrawsByTeamIds(ids);
+    }
+
+    @Query(value = "select count(*) from (" + PLAYED_FROM_TEAM_PERSPECTIVE + ") x where x.gf = x.ga", nativeQuery = true)
+    long countDrawsByTeamIds(@Param("teamIds") List<Long> teamIds);
+
+    // Losses for a given team name (case-insensitive)
+    default long countLossesByTeamName(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        return ids.isEmpty() ? 0L : countLossesByTeamIds(ids);
+    }
+
+    @Query(value = "select count(*) from (" + PLAYED_FROM_TEAM_PERSPECTIVE + ") x where x.gf < x.ga", nativeQuery = true)
+    long countLossesByTeamIds(@Param("teamIds") List<Long> teamIds);
+
+    // BTTS count for a given team name (both teams scored)
+    default long countBttsByTeamName(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        return ids.isEmpty() ? 0L : countBttsByTeamIds(ids);
+    }
+
+    @Query(value = "select count(*) from (" + PLAYED_FROM_TEAM_PERSPECTIVE + ") x where x.gf > 0 and x.ga > 0", nativeQuery = true)
+    long countBttsByTeamIds(@Param("teamIds") List<Long> teamIds);
+
+    // Over 2.5 goals count for a given team name (total goals >= 3)
+    default long countOver25ByTeamName(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        return ids.isEmpty() ? 0L : countOver25ByTeamIds(ids);
+    }
+
+    @Query(value = "select count(*) from (" + PLAYED_FROM_TEAM_PERSPECTIVE + ") x where (coalesce(x.gf,0) + coalesce(x.ga,0)) >= 3", nativeQuery = true)
+    long countOver25ByTeamIds(@Param("teamIds") List<Long> teamIds);
+
+    // Over 1.5 goals count for a given team name (total goals >= 2)
+    default long countOver15ByTeamName(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        return ids.isEmpty() ? 0L : countOver15ByTeamIds(ids);
+    }
+
+    @Query(value = "select count(*) from (" + PLAYED_FROM_TEAM_PERSPECTIVE + ") x where (coalesce(x.gf,0) + coalesce(x.ga,0)) >= 2", nativeQuery = true)
+    long countOver15ByTeamIds(@Param("teamIds") List<Long> teamIds);
 
     // Last N played matches for a given team id across all leagues/seasons (most recent first)
     @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam left join fetch m.season where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (m.homeTeam.id = :teamId or m.awayTeam.id = :teamId) order by m.date desc, m.round desc")
@@ -152,32 +209,180 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     List<Match> findRecentPlayedByTeamIdAndLeague(@Param("teamId") Long teamId, @Param("leagueId") Long leagueId);
 
     // Last N played matches for a given team name across all leagues/seasons (most recent first)
-    @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam left join fetch m.season where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName))) order by m.date desc, m.round desc")
-    List<Match> findRecentPlayedByTeamName(@Param("teamName") String teamName);
-
-    // Paginated variant to efficiently cap records returned
-    @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam left join fetch m.season where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName))) order by m.date desc, m.round desc")
-    org.springframework.data.domain.Slice<Match> findRecentPlayedByTeamName(@Param("teamName") String teamName, org.springframework.data.domain.Pageable pageable);
+    default List<Match> findRecentPlayedByTeamName(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        if (ids.isEmpty()) return new java.util.ArrayList<>();
+        return findAllWithTeamsByIdsOrdered(findRecentPlayedMatchIdsByTeamIds(ids, Integer.MAX_VALUE, 0));
+    }
+
+    // Paginated variant to efficiently cap records returned (LIMIT/OFFSET pushed into the id query)
+    default org.springframework.data.domain.Slice<Match> findRecentPlayedByTeamName(String teamName, org.springframework.data.domain.Pageable pageable) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        if (ids.isEmpty()) return new org.springframework.data.domain.SliceImpl<>(new java.util.ArrayList<>(), pageable, false);
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE - 1;
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0L;
+        List<Long> matchIds = findRecentPlayedMatchIdsByTeamIds(ids, size + 1, offset);
+        boolean hasNext = matchIds.size() > size;
+        if (hasNext) matchIds = matchIds.subList(0, size);
+        return new org.springframework.data.domain.SliceImpl<>(findAllWithTeamsByIdsOrdered(matchIds), pageable, hasNext);
+    }
 
     // Batch: played matches for ANY of the provided team names across all leagues/seasons (most recent first)
-    @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam left join fetch m.season where (m.status = com.chambua.vismart.model.MatchStatus.PLAYED or (m.homeGoals is not null and m.awayGoals is not null)) and (lower(trim(m.homeTeam.name)) in :names or lower(trim(m.awayTeam.name)) in :names) order by m.date desc, m.round desc")
-    List<Match> findRecentPlayedByAnyTeamNames(@Param("names") List<String> names);
+    default List<Match> findRecentPlayedByAnyTeamNames(List<String> names) {
+        if (names == null || names.isEmpty()) return new java.util.ArrayList<>();
+        List<String> normalized = names.stream().filter(java.util.Objects::nonNull)
+                .map(com.chambua.vismart.util.TeamNameNormalizer::normalize).distinct().toList();
+        if (normalized.isEmpty()) return new java.util.ArrayList<>();
+        List<Long> ids = findTeamIdsByNormalizedNames(normalized);
+        if (ids.isEmpty()) return new java.util.ArrayList<>();
+        return findAllWithTeamsByIdsOrdered(findScoredMatchIdsByTeamIds(ids));
+    }
 
     // Seasons in which a given team name has played, ordered by Season.startDate desc (nulls last), then season id desc
-    @Query("select s.id from Match m join m.season s where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName))) group by s.id, s.startDate order by s.startDate desc nulls last, s.id desc")
-    List<Long> findSeasonIdsForTeamNameOrdered(@Param("teamName") String teamName);
+    default List<Long> findSeasonIdsForTeamNameOrdered(String teamName) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        if (ids.isEmpty()) return new java.util.ArrayList<>();
+        return findSeasonIdsForTeamIdsOrdered(ids).stream().map(Number::longValue).toList();
+    }
+
+    @Query(value = "select s.id from seasons s join (" +
+            "select m.season_id from matches m where m.home_team_id in (:teamIds) and m.status = 'PLAYED' " +
+            "union all " +
+            "select m.season_id from matches m where m.away_team_id in (:teamIds) and m.status = 'PLAYED'" +
+            ") x on x.season_id = s.id group by s.id, s.start_date order by case when s.start_date is null then 1 else 0 end, s.start_date desc, s.id desc", nativeQuery = true)
+    List<Number> findSeasonIdsForTeamIdsOrdered(@Param("teamIds") List<Long> teamIds);
 
     // Last played matches for a given team name within a specific season (most recent first)
-    @Query("select m from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.season.id = :seasonId and (lower(trim(m.homeTeam.name)) = lower(trim(:teamName)) or lower(trim(m.awayTeam.name)) = lower(trim(:teamName))) order by m.date desc, m.round desc")
-    List<Match> findRecentPlayedByTeamNameAndSeason(@Param("teamName") String teamName, @Param("seasonId") Long seasonId);
+    default List<Match> findRecentPlayedByTeamNameAndSeason(String teamName, Long seasonId) {
+        List<Long> ids = findTeamIdsForName(teamName);
+        if (ids.isEmpty()) return new java.util.ArrayList<>();
+        return findRecentPlayedByTeamIdsAndSeason(ids, seasonId);
+    }
+
+    @Query("select m from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.season.id = :seasonId and (m.homeTeam.id in :teamIds or m.awayTeam.id in :teamIds) order by m.date desc, m.round desc")
+    List<Match> findRecentPlayedByTeamIdsAndSeason(@Param("teamIds") List<Long> teamIds, @Param("seasonId") Long seasonId);
 
     // Count H2H matches between two team names regardless of orientation (case-insensitive), played only or explicit goals present
-    @Query("select count(m) from Match m where (m.status = com.chambua.vismart.model.MatchStatus.PLAYED or (m.homeGoals is not null and m.awayGoals is not null)) and ((lower(trim(m.homeTeam.name)) = lower(trim(:teamA)) and lower(trim(m.awayTeam.name)) = lower(trim(:teamB))) or (lower(trim(m.homeTeam.name)) = lower(trim(:teamB)) and lower(trim(m.awayTeam.name)) = lower(trim(:teamA))))")
-    long countH2HByNamesAnyOrientation(@Param("teamA") String teamA, @Param("teamB") String teamB);
+    default long countH2HByNamesAnyOrientation(String teamA, String teamB) {
+        List<Long> a = findTeamIdsForName(teamA);
+        List<Long> b = findTeamIdsForName(teamB);
+        if (a.isEmpty() || b.isEmpty()) return 0L;
+        return findH2HMatchIdsByTeamIdSets(a, b).stream().distinct().count();
+    }
 
     // List H2H matches between two team names regardless of orientation (case-insensitive), played only or explicit goals present
-    @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam left join fetch m.season where (m.status = com.chambua.vismart.model.MatchStatus.PLAYED or (m.homeGoals is not null and m.awayGoals is not null)) and ((lower(trim(m.homeTeam.name)) = lower(trim(:teamA)) and lower(trim(m.awayTeam.name)) = lower(trim(:teamB))) or (lower(trim(m.homeTeam.name)) = lower(trim(:teamB)) and lower(trim(m.awayTeam.name)) = lower(trim(:teamA)))) order by m.date desc, m.round desc")
-    List<Match> findH2HByNamesAnyOrientation(@Param("teamA") String teamA, @Param("teamB") String teamB);
+    default List<Match> findH2HByNamesAnyOrientation(String teamA, String teamB) {
+        List<Long> a = findTeamIdsForName(teamA);
+        List<Long> b = findTeamIdsForName(teamB);
+        if (a.isEmpty() || b.isEmpty()) return new java.util.ArrayList<>();
+        return findAllWithTeamsByIdsOrdered(findH2HMatchIdsByTeamIdSets(a, b).stream().distinct().toList());
+    }
+
+    // --- Sargable building blocks for the name-based lookups above ---
+    // Names resolve to team ids through teams.normalized_name (indexed via uk_team_normalized_league); matches are then
+    // read per side through idx_matches_home_status_date / idx_matches_away_status_date and combined with UNION ALL
+    // instead of an OR across both team columns. The away branch skips rows already returned by the home branch.
+
+    String PLAYED_FROM_TEAM_PERSPECTIVE =
+            "select m.id, m.home_goals as gf, m.away_goals as ga from matches m where m.home_team_id in (:teamIds) and m.status = 'PLAYED' " +
+            "union all " +
+            "select m.id, m.away_goals as gf, m.home_goals as ga from matches m where m.away_team_id in (:teamIds) and m.status = 'PLAYED' and m.home_team_id not in (:teamIds)";
+
+    // Single-pass conditional aggregation of every breakdown counter (total, W, D, L, BTTS, O2.5, O1.5) for one id set
+    @Query(value = "select count(*), " +
+            "coalesce(sum(case when x.gf > x.ga then 1 else 0 end), 0), " +
+            "coalesce(sum(case when x.gf = x.ga then 1 else 0 end), 0), " +
+            "coalesce(sum(case when x.gf < x.ga then 1 else 0 end), 0), " +
+            "coalesce(sum(case when x.gf > 0 and x.ga > 0 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when coalesce(x.gf,0) + coalesce(x.ga,0) >= 3 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when coalesce(x.gf,0) + coalesce(x.ga,0) >= 2 then 1 else 0 end), 0) " +
+            "from (" + PLAYED_FROM_TEAM_PERSPECTIVE + ") x", nativeQuery = true)
+    List<Object[]> aggregatePlayedByTeamIds(@Param("teamIds") List<Long> teamIds);
+
+    // Same counters (name last) grouped per normalized team name, for batches of teams. As in the single-set query, the away branch
+    // skips matches whose home team carries the same name, so a match between two rows of one name counts once
+    @Query(value = "select count(*), " +
+            "coalesce(sum(case when x.gf > x.ga then 1 else 0 end), 0), " +
+            "coalesce(sum(case when x.gf = x.ga then 1 else 0 end), 0), " +
+            "coalesce(sum(case when x.gf < x.ga then 1 else 0 end), 0), " +
+            "coalesce(sum(case when x.gf > 0 and x.ga > 0 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when coalesce(x.gf,0) + coalesce(x.ga,0) >= 3 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when coalesce(x.gf,0) + coalesce(x.ga,0) >= 2 then 1 else 0 end), 0), " +
+            "x.team_name " +
+            "from (" +
+            "select th.normalized_name as team_name, m.home_goals as gf, m.away_goals as ga from matches m join teams th on th.id = m.home_team_id " +
+            "where m.home_team_id in (:teamIds) and m.status = 'PLAYED' " +
+            "union all " +
+            "select ta.normalized_name as team_name, m.away_goals as gf, m.home_goals as ga from matches m join teams ta on ta.id = m.away_team_id " +
+            "join teams th on th.id = m.home_team_id " +
+            "where m.away_team_id in (:teamIds) and m.status = 'PLAYED' and (th.normalized_name is null or th.normalized_name <> ta.normalized_name)" +
+            ") x group by x.team_name", nativeQuery = true)
+    List<Object[]> aggregatePlayedGroupedByNormalizedName(@Param("teamIds") List<Long> teamIds);
+
+    // Played matches per (team, season, league) with the latest date and league country; input for the domestic league mapping
+    @Query(value = "select x.team_id, x.season_id, x.league_id, l.country, count(*), max(x.match_date) from (" +
+            "select m.home_team_id as team_id, m.season_id, m.league_id, m.match_date from matches m where m.home_team_id in (:teamIds) and m.status = 'PLAYED' " +
+            "union all " +
+            "select m.away_team_id as team_id, m.season_id, m.league_id, m.match_date from matches m where m.away_team_id in (:teamIds) and m.status = 'PLAYED'" +
+            ") x left join leagues l on l.id = x.league_id group by x.team_id, x.season_id, x.league_id, l.country", nativeQuery = true)
+    List<Object[]> countPlayedBySeasonAndLeagueForTeamIds(@Param("teamIds") List<Long> teamIds);
+
+    @Query(value = "select x.team_id, x.season_id, x.league_id, l.country, count(*), max(x.match_date) from (" +
+            "select m.home_team_id as team_id, m.season_id, m.league_id, m.match_date from matches m where m.status = 'PLAYED' " +
+            "union all " +
+            "select m.away_team_id as team_id, m.season_id, m.league_id, m.match_date from matches m where m.status = 'PLAYED'" +
+            ") x left join leagues l on l.id = x.league_id group by x.team_id, x.season_id, x.league_id, l.country", nativeQuery = true)
+    List<Object[]> countPlayedBySeasonAndLeagueForAllTeams();
+
+    @Query("select t.id, t.normalizedName from Team t where t.normalizedName in :normalized")
+    List<Object[]> findTeamIdsAndNormalizedNamesIn(@Param("normalized") List<String> normalized);
+
+    @Query("select t.id from Team t where t.normalizedName = :normalized")
+    List<Long> findTeamIdsByNormalizedName(@Param("normalized") String normalized);
+
+    @Query("select t.id from Team t where t.normalizedName in :normalized")
+    List<Long> findTeamIdsByNormalizedNames(@Param("normalized") List<String> normalized);
+
+    default List<Long> findTeamIdsForName(String teamName) {
+        if (teamName == null || teamName.isBlank()) return new java.util.ArrayList<>();
+        return findTeamIdsByNormalizedName(com.chambua.vismart.util.TeamNameNormalizer.normalize(teamName));
+    }
+
+    @Query(value = "select x.id from (" +
+            "select m.id, m.match_date, m.round from matches m where m.home_team_id in (:teamIds) and m.status = 'PLAYED' " +
+            "union all " +
+            "select m.id, m.match_date, m.round from matches m where m.away_team_id in (:teamIds) and m.status = 'PLAYED' and m.home_team_id not in (:teamIds)" +
+            ") x order by x.match_date desc, x.round desc limit :limit offset :offset", nativeQuery = true)
+    List<Long> findRecentPlayedMatchIdsByTeamIds(@Param("teamIds") List<Long> teamIds, @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query(value = "select x.id from (" +
+            "select m.id from matches m where m.home_team_id in (:teamIds) and (m.status = 'PLAYED' or (m.home_goals is not null and m.away_goals is not null)) " +
+            "union all " +
+            "select m.id from matches m where m.away_team_id in (:teamIds) and (m.status = 'PLAYED' or (m.home_goals is not null and m.away_goals is not null)) and m.home_team_id not in (:teamIds)" +
+            ") x", nativeQuery = true)
+    List<Long> findScoredMatchIdsByTeamIds(@Param("teamIds") List<Long> teamIds);
+
+    @Query(value = "select m.id from matches m where m.home_team_id in (:a) and m.away_team_id in (:b) and (m.status = 'PLAYED' or (m.home_goals is not null and m.away_goals is not null)) " +
+            "union all " +
+            "select m.id from matches m where m.home_team_id in (:b) and m.away_team_id in (:a) and (m.status = 'PLAYED' or (m.home_goals is not null and m.away_goals is not null))", nativeQuery = true)
+    List<Long> findH2HMatchIdsByTeamIdSets(@Param("a") List<Long> a, @Param("b") List<Long> b);
+
+    @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam left join fetch m.season where m.id in :ids order by m.date desc, m.round desc")
+    List<Match> findAllWithTeamsByIdIn(@Param("ids") List<Long> ids);
+
+    // Fetch entities for an id list, chunked to keep IN lists bounded; ordering matches the name-based queries
+    default List<Match> findAllWithTeamsByIdsOrdered(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return new java.util.ArrayList<>();
+        List<Match> out = new java.util.ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i += 1000) {
+            out.addAll(findAllWithTeamsByIdIn(ids.subList(i, Math.min(ids.size(), i + 1000))));
+        }
+        if (ids.size() > 1000) {
+            out.sort(java.util.Comparator.comparing(Match::getDate, java.util.Comparator.nullsLast(java.util.Comparator.reverseOrder()))
+                    .thenComparing(Match::getRound, java.util.Comparator.nullsLast(java.util.Comparator.reverseOrder())));
+        }
+        return out;
+    }
 
     // --- Data normalization: mark as PLAYED where goals exist and date is past or today ---
     @Modifying(clearAutomatically = true, flushAutomatically = true)
@@ -198,31 +403,56 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.date > :today")
     long countPlayedWithFutureDate(@Param("today") LocalDate today);
 
-    @Query("select m from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.date > :today order by m.date asc")
-    List<Match> findPlayedWithFutureDate(@Param("today") LocalDate today);
+    // Keyset page of ids (id > afterId, ascending); the Pageable only carries the page size
+    @Query("select m.id from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.date > :today and m.id > :afterId order by m.id asc")
+    List<Long> findPlayedWithFutureDateIds(@Param("today") LocalDate today, @Param("afterId") long afterId, org.springframework.data.domain.Pageable page);
 
     // 2) Matches with non-null goals but status not PLAYED for past or today
     @Query("select count(m) from Match m where m.status <> com.chambua.vismart.model.MatchStatus.PLAYED and m.homeGoals is not null and m.awayGoals is not null and m.date <= :today")
     long countWithGoalsButNotPlayedPast(@Param("today") LocalDate today);
 
-    @Query("select m from Match m where m.status <> com.chambua.vismart.model.MatchStatus.PLAYED and m.homeGoals is not null and m.awayGoals is not null and m.date <= :today order by m.date desc")
-    List<Match> findWithGoalsButNotPlayedPast(@Param("today") LocalDate today);
+    @Query("select m.id from Match m where m.status <> com.chambua.vismart.model.MatchStatus.PLAYED and m.homeGoals is not null and m.awayGoals is not null and m.date <= :today and m.id > :afterId order by m.id asc")
+    List<Long> findWithGoalsButNotPlayedPastIds(@Param("today") LocalDate today, @Param("afterId") long afterId, org.springframework.data.domain.Pageable page);
 
     // 3) Matches with status PLAYED but null date
     @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.date is null")
     long countPlayedWithNullDate();
 
-    @Query("select m from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.date is null")
-    List<Match> findPlayedWithNullDate();
+    @Query("select m.id from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.date is null and m.id > :afterId order by m.id asc")
+    List<Long> findPlayedWithNullDateIds(@Param("afterId") long afterId, org.springframework.data.domain.Pageable page);
 
     // 4) Matches with status PLAYED but null round
     @Query("select count(m) from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.round is null")
     long countPlayedWithNullRound();
 
-    @Query("select m from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.round is null")
-    List<Match> findPlayedWithNullRound();
+    @Query("select m.id from Match m where m.status = com.chambua.vismart.model.MatchStatus.PLAYED and m.round is null and m.id > :afterId order by m.id asc")
+    List<Long> findPlayedWithNullRoundIds(@Param("afterId") long afterId, org.springframework.data.domain.Pageable page);
+
+    // Chunked deletion (admin delete jobs): keyset id pages per league/season, then a bulk delete of the page's id range
+    @Query("select m.id from Match m where m.league.id = :leagueId and m.id > :afterId order by m.id asc")
+    List<Long> findIdsByLeagueAfter(@Param("leagueId") Long leagueId, @Param("afterId") long afterId, org.springframework.data.domain.Pageable page);
+
+    @Query("select m.id from Match m where m.season.id = :seasonId and m.id > :afterId order by m.id asc")
+    List<Long> findIdsBySeasonAfter(@Param("seasonId") Long seasonId, @Param("afterId") long afterId, org.springframework.data.domain.Pageable page);
+
+    @Query("select m.homeTeam.id, m.awayTeam.id from Match m where m.id in :ids")
+    List<Object[]> findTeamIdsByIds(@Param("ids") java.util.Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Match m where m.league.id = :leagueId and m.id between :fromId and :toId")
+    int deleteByLeagueIdAndIdBetween(@Param("leagueId") Long leagueId, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query("delete from Match m where m.season.id = :seasonId and m.id between :fromId and :toId")
+    int deleteBySeasonIdAndIdBetween(@Param("seasonId") Long seasonId, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    long countByLeagueId(Long leagueId);
 
     // Upcoming scheduled matches for a team from a date (inclusive), soonest first
     @Query("select m from Match m join fetch m.homeTeam join fetch m.awayTeam join fetch m.league left join fetch m.season where m.status = com.chambua.vismart.model.MatchStatus.SCHEDULED and (m.homeTeam.id = :teamId or m.awayTeam.id = :teamId) and m.date >= :from order by m.date asc, m.round asc, m.id asc")
     java.util.List<Match> findUpcomingByTeam(@Param("teamId") Long teamId, @Param("from") java.time.LocalDate from);
+
+    // Home/away goal totals and match count of a season (season simulator's home advantage)
+    @Query("select coalesce(sum(m.homeGoals), 0), coalesce(sum(m.awayGoals), 0), count(m) from Match m where m.league.id = :leagueId and m.season.id = :seasonId and m.homeGoals is not null and m.awayGoals is not null")
+    List<Object[]> sumGoalsByLeagueAndSeason(@Param("leagueId") Long leagueId, @Param("seasonId") Long seasonId);
 }
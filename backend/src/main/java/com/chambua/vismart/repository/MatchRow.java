@@ -0,0 +1,68 @@
+package com.chambua.vismart.repository;
+
+import com.chambua.vismart.model.Match;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only, flat view of a played match for analysis and streak computations.
+ * Rows are read straight from JDBC (see {@link MatchRowRepository}) so no League/Team/Season entities are
+ * hydrated and nothing enters the persistence context.
+ */
+public record MatchRow(Long id,
+                       Long leagueId,
+                       String leagueName,
+                       Long seasonId,
+                       String seasonName,
+                       Long homeTeamId,
+                       String homeTeamName,
+                       Long awayTeamId,
+                       String awayTeamName,
+                       LocalDate date,
+                       Integer round,
+                       Integer homeGoals,
+                       Integer awayGoals) {
+
+    public boolean hasScore() {
+        return homeGoals != null && awayGoals != null;
+    }
+
+    /** True when the home side carries the given name (case-insensitive, trimmed). */
+    public boolean isHome(String teamName) {
+        return homeTeamName != null && teamName != null && homeTeamName.trim().equalsIgnoreCase(teamName.trim());
+    }
+
+    public String opponentName(boolean home) {
+        return home ? awayTeamName : homeTeamName;
+    }
+
+    /** "W", "D" or "L" from the given side's perspective; null when the score is missing. */
+    public String outcome(boolean home) {
+        if (!hasScore()) return null;
+        int my = home ? homeGoals : awayGoals;
+        int opp = home ? awayGoals : homeGoals;
+        return my > opp ? "W" : (my == opp ? "D" : "L");
+    }
+
+    /** Entity adapter for callers still holding {@link Match} instances (e.g. when only the JPA repository is wired). */
+    public static MatchRow of(Match m) {
+        Long leagueId = null, seasonId = null, homeId = null, awayId = null;
+        String leagueName = null, seasonName = null, homeName = null, awayName = null;
+        try { if (m.getLeague() != null) { leagueId = m.getLeague().getId(); leagueName = m.getLeague().getName(); } } catch (Exception ignoredLeague) {}
+        try { if (m.getSeason() != null) { seasonId = m.getSeason().getId(); seasonName = m.getSeason().getName(); } } catch (Exception ignoredSeason) {}
+        try { if (m.getHomeTeam() != null) { homeId = m.getHomeTeam().getId(); homeName = m.getHomeTeam().getName(); } } catch (Exception ignoredHome) {}
+        try { if (m.getAwayTeam() != null) { awayId = m.getAwayTeam().getId(); awayName = m.getAwayTeam().getName(); } } catch (Exception ignoredAway) {}
+        return new MatchRow(m.getId(), leagueId, leagueName, seasonId, seasonName, homeId, homeName, awayId, awayName,
+                m.getDate(), m.getRound(), m.getHomeGoals(), m.getAwayGoals());
+    }
+
+    public static List<MatchRow> of(Collection<Match> matches) {
+        if (matches == null) return new ArrayList<>();
+        List<MatchRow> out = new ArrayList<>(matches.size());
+        for (Match m : matches) if (m != null) out.add(of(m));
+        return out;
+    }
+}
@@ -0,0 +1,226 @@
+package com.chambua.vismart.repository;
+
+import com.chambua.vismart.util.TeamNameNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JDBC reads of {@link MatchRow} projections for analysis and streak code.
+ * Uses the same team-id-set + UNION ALL per side shape as the name-based queries in {@link MatchRepository},
+ * but maps straight from the result set instead of hydrating Match/Team/League/Season entities.
+ * The fetch size is applied to every statement; with MySQL Connector/J it only streams in chunks when the URL
+ * enables {@code useCursorFetch=true}, otherwise it is a harmless hint. {@link #forEachH2H} backs an NDJSON
+ * endpoint and streams row by row on MySQL instead (see {@link JdbcStreaming}).
+ */
+@Repository
+public class MatchRowRepository {
+
+    /** Pass as {@code limit} to read a team's full played history. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private static final String SELECT_ROWS =
+            "select m.id, m.league_id, l.name as league_name, m.season_id, s.name as season_name, " +
+            "m.home_team_id, th.name as home_name, m.away_team_id, ta.name as away_name, " +
+            "m.match_date, m.round, m.home_goals, m.away_goals " +
+            "from matches m " +
+            "join teams th on th.id = m.home_team_id " +
+            "join teams ta on ta.id = m.away_team_id " +
+            "left join leagues l on l.id = m.league_id " +
+            "left join seasons s on s.id = m.season_id ";
+
+    private static final String ORDER_RECENT = " order by m.match_date desc, m.round desc";
+
+    private static final RowMapper<MatchRow> ROW_MAPPER = (rs, i) -> new MatchRow(
+            rs.getLong("id"),
+            rs.getObject("league_id", Long.class),
+            rs.getString("league_name"),
+            rs.getObject("season_id", Long.class),
+            rs.getString("season_name"),
+            rs.getObject("home_team_id", Long.class),
+            rs.getString("home_name"),
+            rs.getObject("away_team_id", Long.class),
+            rs.getString("away_name"),
+            rs.getObject("match_date", LocalDate.class),
+            rs.getObject("round", Integer.class),
+            rs.getObject("home_goals", Integer.class),
+            rs.getObject("away_goals", Integer.class));
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate streaming;
+
+    public MatchRowRepository(DataSource dataSource, @Value("${spring.datasource.url:}") String datasourceUrl,
+                              @Value("${app.match-rows.fetch-size:500}") int fetchSize) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbc = new NamedParameterJdbcTemplate(template);
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(JdbcStreaming.fetchSize(datasourceUrl, fetchSize));
+        this.streaming = new NamedParameterJdbcTemplate(streamingTemplate);
+    }
+
+    /** Most recent played matches for a team name (duplicate team rows across leagues are merged), newest first. */
+    public List<MatchRow> findRecentPlayedByTeamName(String teamName, int limit) {
+        if (teamName == null || teamName.isBlank()) return new ArrayList<>();
+        return findRecentPlayedByTeamIds(findTeamIdsByNormalizedNames(List.of(TeamNameNormalizer.normalize(teamName))), limit);
+    }
+
+    public List<MatchRow> findRecentPlayedByTeamId(Long teamId, int limit) {
+        if (teamId == null) return new ArrayList<>();
+        return findRecentPlayedByTeamIds(List.of(teamId), limit);
+    }
+
+    /** Most recent played matches for any of the team ids, newest first; the limit is applied in SQL. */
+    public List<MatchRow> findRecentPlayedByTeamIds(Collection<Long> teamIds, int limit) {
+        return findRecentPlayed(teamIds, null, null, false, limit);
+    }
+
+    /**
+     * Most recent played matches across the id set, newest first, optionally scoped to a league and/or season and
+     * to rows that carry both goals. Scope predicates are applied on each UNION ALL side before the limit.
+     */
+    public List<MatchRow> findRecentPlayed(Collection<Long> teamIds, Long leagueId, Long seasonId, boolean scoredOnly, int limit) {
+        return findRecentPlayed(teamIds, leagueId, seasonId, scoredOnly, null, limit);
+    }
+
+    /** As above; a non-null {@code asOf} also drops undated rows and rows dated after it. */
+    public List<MatchRow> findRecentPlayed(Collection<Long> teamIds, Long leagueId, Long seasonId, boolean scoredOnly, LocalDate asOf, int limit) {
+        if (teamIds == null || teamIds.isEmpty() || limit <= 0) return new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource("teamIds", teamIds).addValue("limit", limit);
+        String scope = scope(leagueId, seasonId, scoredOnly, asOf, params);
+        String sql = SELECT_ROWS +
+                "join (select x.id from (" +
+                "select m.id, m.match_date, m.round from matches m where m.home_team_id in (:teamIds) and m.status = 'PLAYED'" + scope + " " +
+                "union all " +
+                "select m.id, m.match_date, m.round from matches m where m.away_team_id in (:teamIds) and m.status = 'PLAYED' and m.home_team_id not in (:teamIds)" + scope +
+                ") x order by x.match_date desc, x.round desc limit :limit) r on r.id = m.id" +
+                ORDER_RECENT;
+        return jdbc.query(sql, params, ROW_MAPPER);
+    }
+
+    /**
+     * Last {@code limit} played matches per team id in one statement (ROW_NUMBER over each team's side of the
+     * UNION ALL). Keys are the requested ids in iteration order; a match between two requested teams is listed
+     * under both. Lists are newest first.
+     */
+    public Map<Long, List<MatchRow>> findRecentPlayedPerTeam(Collection<Long> teamIds, Long leagueId, Long seasonId, boolean scoredOnly, int limit) {
+        return findRecentPlayedPerTeam(teamIds, leagueId, seasonId, scoredOnly, null, limit);
+    }
+
+    public Map<Long, List<MatchRow>> findRecentPlayedPerTeam(Collection<Long> teamIds, Long leagueId, Long seasonId, boolean scoredOnly, LocalDate asOf, int limit) {
+        Map<Long, List<MatchRow>> out = new LinkedHashMap<>();
+        if (teamIds == null || teamIds.isEmpty() || limit <= 0) return out;
+        for (Long id : teamIds) if (id != null) out.put(id, new ArrayList<>());
+        if (out.isEmpty()) return out;
+        MapSqlParameterSource params = new MapSqlParameterSource("teamIds", out.keySet()).addValue("limit", limit);
+        String scope = scope(leagueId, seasonId, scoredOnly, asOf, params);
+        String sql = SELECT_ROWS.replace("select m.id,", "select r.team_id as for_team_id, m.id,") +
+                "join (select y.id, y.team_id from (" +
+                "select x.id, x.team_id, row_number() over (partition by x.team_id order by x.match_date desc, x.round desc) as rn from (" +
+                "select m.id, m.home_team_id as team_id, m.match_date, m.round from matches m where m.home_team_id in (:teamIds) and m.status = 'PLAYED'" + scope + " " +
+                "union all " +
+                "select m.id, m.away_team_id as team_id, m.match_date, m.round from matches m where m.away_team_id in (:teamIds) and m.status = 'PLAYED'" + scope +
+                ") x) y where y.rn <= :limit) r on r.id = m.id" +
+                " order by r.team_id," + ORDER_RECENT.substring(" order by".length());
+        jdbc.query(sql, params, rs -> {
+            List<MatchRow> list = out.get(rs.getLong("for_team_id"));
+            if (list != null) list.add(ROW_MAPPER.mapRow(rs, 0));
+        });
+        return out;
+    }
+
+    /**
+     * Streams every scored, dated PLAYED match involving a team that has played in any of {@code leagueIds}
+     * (all competitions, so cross-league history is included), oldest first by date, round, id. Rows go straight
+     * to the sink without building a result list; used to build in-memory snapshots for backtesting.
+     */
+    public void forEachScoredInvolvingLeagueTeams(Collection<Long> leagueIds, java.util.function.Consumer<MatchRow> sink) {
+        if (leagueIds == null || leagueIds.isEmpty()) return;
+        String teams = "select x.home_team_id from matches x where x.league_id in (:leagueIds) " +
+                "union select x.away_team_id from matches x where x.league_id in (:leagueIds)";
+        String sql = SELECT_ROWS +
+                "where m.status = 'PLAYED' and m.home_goals is not null and m.away_goals is not null and m.match_date is not null " +
+                "and (m.home_team_id in (" + teams + ") or m.away_team_id in (" + teams + ")) " +
+                "order by m.match_date asc, m.round asc, m.id asc";
+        jdbc.query(sql, new MapSqlParameterSource("leagueIds", leagueIds), rs -> { sink.accept(ROW_MAPPER.mapRow(rs, 0)); });
+    }
+
+    /**
+     * Streams every scored, dated PLAYED match, oldest first by date, round, id. Used to replay the full history
+     * once (team ratings); rows are not collected.
+     */
+    public void forEachScored(java.util.function.Consumer<MatchRow> sink) {
+        String sql = SELECT_ROWS +
+                "where m.status = 'PLAYED' and m.home_goals is not null and m.away_goals is not null and m.match_date is not null " +
+                "order by m.match_date asc, m.round asc, m.id asc";
+        jdbc.query(sql, new MapSqlParameterSource(), rs -> { sink.accept(ROW_MAPPER.mapRow(rs, 0)); });
+    }
+
+    /**
+     * Streams head-to-head matches between the two id sets in either orientation (PLAYED or carrying both goals),
+     * newest first, at most {@code limit}. Same filter as {@link MatchRepository#findH2HMatchIdsByTeamIdSets}; UNION
+     * drops the duplicate a team shared by both sets would produce. Returns the number of rows sent to the sink.
+     */
+    public int forEachH2H(Collection<Long> a, Collection<Long> b, int limit, java.util.function.Consumer<MatchRow> sink) {
+        if (a == null || a.isEmpty() || b == null || b.isEmpty() || limit <= 0) return 0;
+        String played = " and (m.status = 'PLAYED' or (m.home_goals is not null and m.away_goals is not null))";
+        String sql = SELECT_ROWS +
+                "join (select x.id from (" +
+                "select m.id, m.match_date, m.round from matches m where m.home_team_id in (:a) and m.away_team_id in (:b)" + played + " " +
+                "union " +
+                "select m.id, m.match_date, m.round from matches m where m.home_team_id in (:b) and m.away_team_id in (:a)" + played +
+                ") x order by x.match_date desc, x.round desc limit :limit) r on r.id = m.id" +
+                ORDER_RECENT;
+        int[] n = {0};
+        streaming.query(sql, new MapSqlParameterSource("a", a).addValue("b", b).addValue("limit", limit), rs -> {
+            sink.accept(ROW_MAPPER.mapRow(rs, n[0]++));
+        });
+        return n[0];
+    }
+
+    private static String scope(Long leagueId, Long seasonId, boolean scoredOnly, LocalDate asOf, MapSqlParameterSource params) {
+        StringBuilder scope = new StringBuilder();
+        if (leagueId != null) { scope.append(" and m.league_id = :leagueId"); params.addValue("leagueId", leagueId); }
+        if (seasonId != null) { scope.append(" and m.season_id = :seasonId"); params.addValue("seasonId", seasonId); }
+        if (scoredOnly) scope.append(" and m.home_goals is not null and m.away_goals is not null");
+        if (asOf != null) { scope.append(" and m.match_date is not null and m.match_date <= :asOf"); params.addValue("asOf", asOf); }
+        return scope.toString();
+    }
+
+    /**
+     * Played (or scored) matches for any of the given team names, newest first. Row-level counterpart of
+     * {@link MatchRepository#findRecentPlayedByAnyTeamNames(List)} used to batch-load opponent timelines.
+     */
+    public List<MatchRow> findScoredByAnyTeamNames(Collection<String> names) {
+        if (names == null || names.isEmpty()) return new ArrayList<>();
+        List<String> normalized = names.stream().filter(Objects::nonNull).map(TeamNameNormalizer::normalize).distinct().toList();
+        List<Long> ids = findTeamIdsByNormalizedNames(normalized);
+        if (ids.isEmpty()) return new ArrayList<>();
+        String sql = SELECT_ROWS +
+                "join (" +
+                "select m.id from matches m where m.home_team_id in (:teamIds) and (m.status = 'PLAYED' or (m.home_goals is not null and m.away_goals is not null)) " +
+                "union all " +
+                "select m.id from matches m where m.away_team_id in (:teamIds) and (m.status = 'PLAYED' or (m.home_goals is not null and m.away_goals is not null)) and m.home_team_id not in (:teamIds)" +
+                ") x on x.id = m.id" +
+                ORDER_RECENT;
+        return jdbc.query(sql, new MapSqlParameterSource("teamIds", ids), ROW_MAPPER);
+    }
+
+    public List<Long> findTeamIdsByNormalizedNames(Collection<String> normalized) {
+        if (normalized == null || normalized.isEmpty()) return new ArrayList<>();
+        return jdbc.queryForList("select t.id from teams t where t.normalized_name in (:names)",
+                new MapSqlParameterSource("names", normalized), Long.class);
+    }
+}
@@ -2,6 +2,15 @@ package com.chambua.vismart.repository;
 
 import com.chambua.vismart.model.MatchStats;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 
 public interface MatchStatsRepository extends JpaRepository<MatchStats, Long> {
+    // Removes stats ahead of a bulk match delete (the MySQL FK cascades, but not every schema declares it)
+    @Modifying
+    @Query("delete from MatchStats s where s.match.id in :matchIds")
+    int deleteByMatchIds(@Param("matchIds") Collection<Long> matchIds);
 }
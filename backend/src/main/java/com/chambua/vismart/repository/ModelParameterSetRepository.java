@@ -0,0 +1,26 @@
+package com.chambua.vismart.repository;
+
+import com.chambua.vismart.model.ModelParameterSet;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ModelParameterSetRepository extends JpaRepository<ModelParameterSet, Long> {
+
+    Optional<ModelParameterSet> findFirstByActiveTrueOrderByVersionDesc();
+
+    Optional<ModelParameterSet> findByVersion(int version);
+
+    List<ModelParameterSet> findAllByOrderByVersionDesc(Pageable pageable);
+
+    @Query("select coalesce(max(p.version), 0) from ModelParameterSet p")
+    int findMaxVersion();
+
+    @Modifying
+    @Query("update ModelParameterSet p set p.active = false where p.active = true")
+    int deactivateAll();
+}
@@ -20,6 +20,10 @@ public interface SeasonRepository extends JpaRepository<Season, Long> {
     @Query("SELECT s FROM Season s WHERE s.league.id = :leagueId AND EXISTS (SELECT 1 FROM Match m WHERE m.season.id = s.id AND m.status = com.chambua.vismart.model.MatchStatus.PLAYED) ORDER BY s.startDate DESC")
     Optional<Season> findLatestWithPlayedMatchesByLeagueId(@Param("leagueId") Long leagueId);
 
+    // Flat (id, leagueId, name, startDate, endDate, updatedAt) rows for the reference-data cache; no entity hydration
+    @Query("SELECT s.id, s.league.id, s.name, s.startDate, s.endDate, s.updatedAt FROM Season s")
+    List<Object[]> findAllFlat();
+
     // Deletion helper: remove all seasons for a league (before deleting the league)
     @org.springframework.data.jpa.repository.Modifying(clearAutomatically = true, flushAutomatically = true)
     @org.springframework.transaction.annotation.Transactional
@@ -14,4 +14,8 @@ public interface TeamAliasRepository extends JpaRepository<TeamAlias, Long> {
     Optional<TeamAlias> findByAlias(String alias);
     Optional<TeamAlias> findByAliasIgnoreCase(String alias);
     List<TeamAlias> findAllByAliasIgnoreCase(String alias);
+
+    // (teamId, alias) pairs for building the in-memory search index without hydrating entities
+    @org.springframework.data.jpa.repository.Query("select a.team.id, a.alias from TeamAlias a where a.team is not null")
+    List<Object[]> findAllTeamIdAliasPairs();
 }
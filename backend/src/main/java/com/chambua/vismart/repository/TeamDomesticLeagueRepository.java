@@ -0,0 +1,7 @@
+package com.chambua.vismart.repository;
+
+import com.chambua.vismart.model.TeamDomesticLeague;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TeamDomesticLeagueRepository extends JpaRepository<TeamDomesticLeague, Long> {
+}
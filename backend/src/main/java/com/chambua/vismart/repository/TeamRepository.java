@@ -16,6 +16,9 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     @org.springframework.transaction.annotation.Transactional
     long deleteByLeague_Id(Long leagueId);
 
+    @Query("select t.id from Team t where t.league.id = :leagueId")
+    List<Long> findIdsByLeagueId(@Param("leagueId") Long leagueId);
+
     // Lightweight projection: id, name, leagueName (for fallback source annotation without triggering LazyInitialization)
     interface TeamProjection {
         Long getId();
@@ -95,6 +98,18 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     @Query("select t.id as id, t.name as name, l.country as country, l.id as leagueId, l.name as leagueName from Team t join t.league l left join TeamAlias a on a.team = t where l.id = :leagueId and (t.normalizedName like concat('%', :normalizedPart, '%') or lower(a.alias) like lower(concat('%', :rawPart, '%')))")
     List<TeamSearchProjection> searchByNameWithCountryAndLeague(@Param("normalizedPart") String normalizedPart, @Param("rawPart") String rawPart, @Param("leagueId") Long leagueId);
     
+    // Full scan used only to (re)build the in-memory search index; one row per team with league id/name
+    interface TeamIndexProjection {
+        Long getId();
+        String getName();
+        String getNormalizedName();
+        Long getLeagueId();
+        String getLeagueName();
+    }
+
+    @Query("select t.id as id, t.name as name, t.normalizedName as normalizedName, l.id as leagueId, l.name as leagueName from Team t join t.league l")
+    List<TeamIndexProjection> findAllForSearchIndex();
+
     // Fetch-join variant to ensure League is initialized with Team for DTO mapping
     @Query("select distinct t from Team t left join fetch t.league l left join TeamAlias a on a.team = t where t.normalizedName = :normalized or lower(a.alias) = lower(:raw)")
     List<Team> findByNameOrAliasWithLeague(@Param("normalized") String normalized, @Param("raw") String raw);
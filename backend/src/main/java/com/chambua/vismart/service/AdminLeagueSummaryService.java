@@ -0,0 +1,126 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.AdminLeagueSummaryDTO;
+import com.chambua.vismart.repository.MatchRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admin leagues summary assembled in memory: leagues, seasons and current seasons come from
+ * {@link ReferenceDataService}, the last import per current season from one grouped query over import runs.
+ * The result is cached until reference data changes (league/season writes, day rollover) or an import run is
+ * written (see {@link ImportRunChangeListener}).
+ */
+@Service
+public class AdminLeagueSummaryService {
+
+    private static final AtomicLong IMPORT_GENERATION = new AtomicLong(1);
+
+    private final ReferenceDataService referenceData;
+    private final MatchRepository matchRepository;
+
+    private volatile Cached cached;
+
+    public AdminLeagueSummaryService(ReferenceDataService referenceData, MatchRepository matchRepository) {
+        this.referenceData = referenceData;
+        this.matchRepository = matchRepository;
+    }
+
+    private record Cached(long refGeneration, LocalDate refDay, long importGeneration, List<AdminLeagueSummaryDTO> summary) {}
+
+    /** Drop the cached summary; the next request rebuilds it. */
+    public static void invalidate() {
+        IMPORT_GENERATION.incrementAndGet();
+    }
+
+    public List<AdminLeagueSummaryDTO> summary() {
+        long importGen = IMPORT_GENERATION.get();
+        // Keyed on the snapshot actually read: while another thread reloads, that is still the previous one
+        ReferenceDataService.View refs = referenceData.view();
+        Cached c = cached;
+        if (c != null && c.refGeneration == refs.generation() && c.refDay.equals(refs.today()) && c.importGeneration == importGen) {
+            return c.summary;
+        }
+        List<AdminLeagueSummaryDTO> built = Collections.unmodifiableList(build(refs));
+        cached = new Cached(refs.generation(), refs.today(), importGen, built);
+        return built;
+    }
+
+    private List<AdminLeagueSummaryDTO> build(ReferenceDataService.View refs) {
+        List<ReferenceDataService.LeagueRef> leagues = refs.leagues();
+        // Sort by country then name for stable UI
+        leagues.sort(Comparator.comparing(ReferenceDataService.LeagueRef::country, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(ReferenceDataService.LeagueRef::name, String.CASE_INSENSITIVE_ORDER));
+
+        Set<Long> currentIds = new LinkedHashSet<>();
+        for (ReferenceDataService.LeagueRef l : leagues) {
+            refs.currentSeason(l.id()).ifPresent(cs -> currentIds.add(cs.id()));
+        }
+        Map<Long, Instant> lastImport = new HashMap<>();
+        if (!currentIds.isEmpty()) {
+            for (Object[] r : matchRepository.findLastImportFinishedAtBySeasonIds(currentIds)) {
+                if (r[0] != null && r[1] != null) lastImport.put(((Number) r[0]).longValue(), (Instant) r[1]);
+            }
+        }
+
+        List<AdminLeagueSummaryDTO> out = new ArrayList<>(leagues.size());
+        for (ReferenceDataService.LeagueRef l : leagues) {
+            List<AdminLeagueSummaryDTO.SeasonItem> seasonItems = refs.seasons(l.id()).stream()
+                    .map(s -> new AdminLeagueSummaryDTO.SeasonItem(s.id(), s.name(), s.startDate(), s.endDate()))
+                    .toList();
+            ReferenceDataService.SeasonRef current = refs.currentSeason(l.id()).orElse(null);
+            Long currentId = current != null ? current.id() : null;
+            // Prefer last import finished time; fallback to Season.updatedAt if null
+            Instant lastUpdated = null;
+            if (currentId != null) {
+                lastUpdated = lastImport.get(currentId);
+                if (lastUpdated == null) lastUpdated = current.updatedAt();
+            }
+            out.add(new AdminLeagueSummaryDTO(
+                    l.id(),
+                    l.name(),
+                    null, // category not modeled; leave null for now
+                    l.country(),
+                    seasonItems,
+                    currentId,
+                    current != null ? current.name() : null,
+                    lastUpdated
+            ));
+        }
+        return out;
+    }
+
+    /**
+     * JPA entity listener registered on ImportRun. A persisted or updated run (e.g. marked finished) invalidates the
+     * cached summary after commit, or immediately when no transaction is active.
+     */
+    public static class ImportRunChangeListener {
+        @jakarta.persistence.PostPersist
+        @jakarta.persistence.PostUpdate
+        @jakarta.persistence.PostRemove
+        public void onChange(Object run) {
+            if (!org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive()) {
+                invalidate();
+                return;
+            }
+            org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(
+                    new org.springframework.transaction.support.TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            invalidate();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,554 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.repository.MatchRowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays a league's seasons in kickoff order and scores the deterministic model ({@link DeterministicModel}) as it
+ * would have predicted each match on the morning of its matchday: form guide, H2H and league table are rebuilt
+ * from matches played strictly before that day, so no result leaks into its own prediction.
+ *
+ * Everything is read once into a {@link MatchSnapshot}; per-season state (form windows, splits, table) is updated
+ * incrementally after each matchday, and seasons are replayed in parallel on a dedicated fork/join pool.
+ *
+ * Two variants are scored: {@code poisson} (the published probabilities from the Poisson step over xG) and
+ * {@code blend} (the form/H2H/table percentages that drive the advice text). Each market reports Brier score,
+ * log-loss, hit rate and ten calibration buckets.
+ */
+@Service
+public class BacktestService {
+
+    private static final Logger log = LoggerFactory.getLogger(BacktestService.class);
+
+    public static final String VARIANT_POISSON = "poisson";
+    public static final String VARIANT_BLEND = "blend";
+    public static final String MARKET_1X2 = "1x2";
+    public static final String MARKET_BTTS = "btts";
+    public static final String MARKET_OVER15 = "over15";
+    public static final String MARKET_OVER25 = "over25";
+    public static final String MARKET_OVER35 = "over35";
+
+    static final int BUCKETS = 10;
+    private static final double EPS = 1e-6;
+    /** FormGuideService switches a team to its global history when it has fewer season matches than this. */
+    private static final int GLOBAL_FALLBACK_BELOW = 3;
+
+    /** What to replay: one league (all seasons, or just {@code seasonId}); null parameters mean the active set. */
+    public record Options(Long leagueId, Long seasonId, boolean fixturesMode, int minPriorMatches, ModelParameters parameters) {
+
+        public Options(Long leagueId, Long seasonId, boolean fixturesMode, int minPriorMatches) {
+            this(leagueId, seasonId, fixturesMode, minPriorMatches, null);
+        }
+
+        Options withParameters(ModelParameters p) {
+            return new Options(leagueId, seasonId, fixturesMode, minPriorMatches, p);
+        }
+    }
+
+    /** Calibration bucket over predicted probability [from, to). */
+    public record Bucket(double from, double to, long count, double meanPredicted, double observedRate) {}
+
+    public record MarketReport(long n, double brier, double logLoss, double hitRate, List<Bucket> calibration) {}
+
+    public record Report(Long leagueId, Long seasonId, boolean fixturesMode, int minPriorMatches, ModelParameters parameters,
+                         int seasons, long matchesEvaluated, long matchesSkipped, int snapshotMatches, long elapsedMs,
+                         Map<String, Map<String, MarketReport>> variants) {}
+
+    private final MatchRowRepository matchRowRepository;
+    private final ReferenceDataService referenceDataService;
+    private final ForkJoinPool pool;
+
+    // Active tuning constants for requests that don't pass their own; the built-in defaults when absent
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private ModelParameterService modelParameterService;
+
+    public BacktestService(MatchRowRepository matchRowRepository,
+                           ReferenceDataService referenceDataService,
+                           @Value("${app.backtest.parallelism:0}") int parallelism) {
+        this.matchRowRepository = matchRowRepository;
+        this.referenceDataService = referenceDataService;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("backtest-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public Report run(Options options) {
+        if (options == null || options.leagueId() == null) throw new IllegalArgumentException("leagueId is required");
+        long start = System.currentTimeMillis();
+        List<Long> family = familyIds(List.of(options.leagueId()));
+        MatchSnapshot snapshot = snapshot(family);
+        Report report = run(snapshot, family, options);
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("[Backtest] leagueId={} seasonId={} mode={} seasons={} evaluated={} snapshot={} ms={}", options.leagueId(), options.seasonId(),
+                options.fixturesMode() ? "fixtures" : "match", report.seasons(), report.matchesEvaluated(), snapshot.size(), elapsed);
+        return new Report(report.leagueId(), report.seasonId(), report.fixturesMode(), report.minPriorMatches(), report.parameters(), report.seasons(),
+                report.matchesEvaluated(), report.matchesSkipped(), report.snapshotMatches(), elapsed, report.variants());
+    }
+
+    /** Replays over an existing snapshot; H2H is limited to matches in {@code h2hLeagueIds}, as in the live analysis. */
+    public Report run(MatchSnapshot snapshot, List<Long> h2hLeagueIds, Options options) {
+        long start = System.currentTimeMillis();
+        Options o = resolve(options);
+        long[] seasons = seasons(snapshot, o);
+        Set<Long> h2hLeagues = new HashSet<>(h2hLeagueIds == null ? List.of() : h2hLeagueIds);
+        Scores total = seasons.length == 0
+                ? new Scores()
+                : pool.invoke(new SeasonTask(snapshot, seasons, 0, seasons.length, h2hLeagues, o));
+        return report(snapshot, o, seasons.length, total, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replays every parameter candidate over one shared snapshot and the seasons of {@code leagueIds} (or just
+     * {@code template.seasonId()}), candidates in parallel with each candidate's seasons run sequentially on its
+     * worker. Reports are in candidate order; {@code onDone} is called once per finished candidate.
+     */
+    public List<Report> runAll(MatchSnapshot snapshot, List<Long> h2hLeagueIds, List<Long> leagueIds, Options template,
+                               List<ModelParameters> candidates, Runnable onDone) {
+        if (candidates == null || candidates.isEmpty()) return List.of();
+        Set<Long> h2hLeagues = new HashSet<>(h2hLeagueIds == null ? List.of() : h2hLeagueIds);
+        long[] seasons;
+        if (template.seasonId() != null) {
+            seasons = seasons(snapshot, template);
+        } else {
+            seasons = leagueIds.stream().flatMap(l -> snapshot.seasonsOf(l).stream()).distinct().mapToLong(Long::longValue).toArray();
+        }
+        Options[] resolved = candidates.stream().map(c -> template.withParameters(c.validate())).toArray(Options[]::new);
+        Report[] out = new Report[resolved.length];
+        pool.invoke(new CandidateTask(snapshot, resolved, seasons, h2hLeagues, out, 0, resolved.length, onDone));
+        return Arrays.asList(out);
+    }
+
+    /** League family ids (same name and country) of each league, the leagues themselves included. */
+    public List<Long> familyIds(List<Long> leagueIds) {
+        List<Long> out = new ArrayList<>();
+        for (Long leagueId : leagueIds) {
+            if (leagueId == null) continue;
+            for (Long id : referenceDataService.leagueFamilyIds(leagueId)) if (!out.contains(id)) out.add(id);
+            if (!out.contains(leagueId)) out.add(leagueId);
+        }
+        return out;
+    }
+
+    public MatchSnapshot snapshot(List<Long> familyIds) {
+        return MatchSnapshot.load(matchRowRepository, familyIds);
+    }
+
+    /** True when {@code variant} reports {@code market} (e.g. poisson/1x2, blend/btts). */
+    public static boolean isMarket(String variant, String market) {
+        Map<String, MarketStats> markets = new Scores().variant(variant);
+        return markets != null && markets.containsKey(market);
+    }
+
+    private Options resolve(Options options) {
+        if (options.parameters() != null) return options.withParameters(options.parameters().validate());
+        return options.withParameters(modelParameterService != null ? modelParameterService.current() : ModelParameters.DEFAULTS);
+    }
+
+    private static long[] seasons(MatchSnapshot snapshot, Options options) {
+        List<Long> seasons = snapshot.seasonsOf(options.leagueId());
+        if (options.seasonId() != null) {
+            if (!seasons.contains(options.seasonId())) throw new IllegalArgumentException("No played matches found for selected season");
+            return new long[]{options.seasonId()};
+        }
+        return seasons.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static Report report(MatchSnapshot snapshot, Options o, int seasons, Scores total, long elapsedMs) {
+        return new Report(o.leagueId(), o.seasonId(), o.fixturesMode(), o.minPriorMatches(), o.parameters(), seasons,
+                total.evaluated, total.skipped, snapshot.size(), elapsedMs, total.report());
+    }
+
+    // ---- Fork/join over seasons ----
+
+    private static final class SeasonTask extends RecursiveTask<Scores> {
+        private final MatchSnapshot snapshot;
+        private final long[] seasons;
+        private final int from;
+        private final int to;
+        private final Set<Long> h2hLeagues;
+        private final Options options;
+
+        SeasonTask(MatchSnapshot snapshot, long[] seasons, int from, int to, Set<Long> h2hLeagues, Options options) {
+            this.snapshot = snapshot; this.seasons = seasons; this.from = from; this.to = to; this.h2hLeagues = h2hLeagues; this.options = options;
+        }
+
+        @Override
+        protected Scores compute() {
+            if (to - from == 1) return new SeasonReplay(snapshot, seasons[from], h2hLeagues, options).run();
+            int mid = (from + to) >>> 1;
+            SeasonTask left = new SeasonTask(snapshot, seasons, from, mid, h2hLeagues, options);
+            left.fork();
+            Scores right = new SeasonTask(snapshot, seasons, mid, to, h2hLeagues, options).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static final class CandidateTask extends java.util.concurrent.RecursiveAction {
+        private final MatchSnapshot snapshot;
+        private final Options[] candidates;
+        private final long[] seasons;
+        private final Set<Long> h2hLeagues;
+        private final Report[] out;
+        private final int from;
+        private final int to;
+        private final Runnable onDone;
+
+        CandidateTask(MatchSnapshot snapshot, Options[] candidates, long[] seasons, Set<Long> h2hLeagues, Report[] out, int from, int to, Runnable onDone) {
+            this.snapshot = snapshot; this.candidates = candidates; this.seasons = seasons; this.h2hLeagues = h2hLeagues;
+            this.out = out; this.from = from; this.to = to; this.onDone = onDone;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                long start = System.currentTimeMillis();
+                Scores total = new Scores();
+                for (long seasonId : seasons) total.merge(new SeasonReplay(snapshot, seasonId, h2hLeagues, candidates[from]).run());
+                out[from] = report(snapshot, candidates[from], seasons.length, total, System.currentTimeMillis() - start);
+                if (onDone != null) onDone.run();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CandidateTask(snapshot, candidates, seasons, h2hLeagues, out, from, mid, onDone),
+                    new CandidateTask(snapshot, candidates, seasons, h2hLeagues, out, mid, to, onDone));
+        }
+    }
+
+    // ---- One season, matchday by matchday ----
+
+    /** Season-to-date state of one team: its matches (chronological) plus running table columns. */
+    private static final class TeamSeason {
+        int[] all = new int[8];
+        int allSize;
+        int[] home = new int[4];
+        int homeSize;
+        int[] away = new int[4];
+        int awaySize;
+        int pts, gd, gf;
+
+        int mp() { return allSize; }
+
+        void add(int match, boolean isHome, int goalsFor, int goalsAgainst) {
+            if (allSize == all.length) all = Arrays.copyOf(all, allSize * 2);
+            all[allSize++] = match;
+            if (isHome) {
+                if (homeSize == home.length) home = Arrays.copyOf(home, homeSize * 2);
+                home[homeSize++] = match;
+            } else {
+                if (awaySize == away.length) away = Arrays.copyOf(away, awaySize * 2);
+                away[awaySize++] = match;
+            }
+            pts += goalsFor > goalsAgainst ? 3 : goalsFor == goalsAgainst ? 1 : 0;
+            gd += goalsFor - goalsAgainst;
+            gf += goalsFor;
+        }
+    }
+
+    static final class SeasonReplay {
+        private final MatchSnapshot s;
+        private final long seasonId;
+        private final Set<Long> h2hLeagues;
+        private final Options options;
+        private final ModelParameters p;
+        private final TeamSeason[] teams;
+
+        SeasonReplay(MatchSnapshot snapshot, long seasonId, Set<Long> h2hLeagues, Options options) {
+            this.s = snapshot; this.seasonId = seasonId; this.h2hLeagues = h2hLeagues; this.options = options;
+            this.p = options.parameters();
+            this.teams = new TeamSeason[snapshot.teamCount()];
+        }
+
+        Scores run() {
+            Scores scores = new Scores();
+            int[] idx = s.seasonMatches(seasonId);
+            int i = 0;
+            while (i < idx.length) {
+                int day = s.day[idx[i]];
+                int j = i;
+                while (j < idx.length && s.day[idx[j]] == day) j++;
+                int[] positions = new int[teams.length];
+                int tableSize = table(positions);
+                for (int k = i; k < j; k++) predictAndScore(idx[k], day, positions, tableSize, scores);
+                for (int k = i; k < j; k++) apply(idx[k]);
+                i = j;
+            }
+            return scores;
+        }
+
+        private void predictAndScore(int m, int day, int[] positions, int tableSize, Scores scores) {
+            int h = s.home[m], a = s.away[m];
+            TeamSeason hs = teams[h], as = teams[a];
+            int hMp = hs == null ? 0 : hs.mp(), aMp = as == null ? 0 : as.mp();
+            if (Math.min(hMp, aMp) < options.minPriorMatches()) { scores.skipped++; return; }
+            boolean fixturesMode = options.fixturesMode();
+
+            DeterministicModel.TeamForm hf = form(h, day);
+            DeterministicModel.TeamForm af = form(a, day);
+            DeterministicModel.Blend blend = DeterministicModel.formStage(p, hf, af, fixturesMode);
+            List<DeterministicModel.H2HGame> games = h2h(h, a, day);
+            if (!games.isEmpty()) {
+                DeterministicModel.H2HStage stage = DeterministicModel.h2hStage(p, blend, games, fixturesMode);
+                if (stage.window() > 0) blend = stage.blend();
+            }
+            if (fixturesMode) blend = DeterministicModel.fixturesBias(blend, games, hf, af);
+            if (positions[h] > 0 && positions[a] > 0 && tableSize > 1) {
+                blend = DeterministicModel.tableStage(blend, positions[h], positions[a], tableSize);
+            }
+            DeterministicModel.ExpectedGoals xg = DeterministicModel.expectedGoals(p, hf, af, fixturesMode);
+            int btts = xg.bttsPenalty() > 0 ? DeterministicModel.clampPercent(blend.btts() - xg.bttsPenalty()) : blend.btts();
+            DeterministicModel.Poisson poisson = DeterministicModel.poisson(xg.home(), xg.away());
+
+            int hg = s.homeGoals[m], ag = s.awayGoals[m];
+            int outcome = hg > ag ? 0 : hg == ag ? 1 : 2;
+            int total = hg + ag;
+            boolean bothScored = hg > 0 && ag > 0;
+
+            // Published (rounded) percentages, exactly as returned by the analysis endpoint
+            int pHome = (int) Math.round(poisson.home() * 100.0);
+            int pDraw = (int) Math.round(poisson.draw() * 100.0);
+            int pAway = Math.max(0, 100 - (pHome + pDraw));
+            Map<String, MarketStats> poissonScores = scores.variant(VARIANT_POISSON);
+            poissonScores.get(MARKET_1X2).outcome(new double[]{pHome / 100.0, pDraw / 100.0, pAway / 100.0}, outcome);
+            poissonScores.get(MARKET_BTTS).binary(Math.round(poisson.btts() * 100.0) / 100.0, bothScored);
+            poissonScores.get(MARKET_OVER15).binary(Math.round(poisson.over15() * 100.0) / 100.0, total >= 2);
+            poissonScores.get(MARKET_OVER25).binary(Math.round(poisson.over25() * 100.0) / 100.0, total >= 3);
+            poissonScores.get(MARKET_OVER35).binary(Math.round(poisson.over35() * 100.0) / 100.0, total >= 4);
+
+            Map<String, MarketStats> blended = scores.variant(VARIANT_BLEND);
+            blended.get(MARKET_1X2).outcome(new double[]{blend.home() / 100.0, blend.draw() / 100.0, blend.away() / 100.0}, outcome);
+            blended.get(MARKET_BTTS).binary(btts / 100.0, bothScored);
+            blended.get(MARKET_OVER25).binary(blend.over25() / 100.0, total >= 3);
+            scores.evaluated++;
+        }
+
+        private void apply(int m) {
+            int h = s.home[m], a = s.away[m];
+            int hg = s.homeGoals[m], ag = s.awayGoals[m];
+            if (teams[h] == null) teams[h] = new TeamSeason();
+            if (teams[a] == null) teams[a] = new TeamSeason();
+            teams[h].add(m, true, hg, ag);
+            teams[a].add(m, false, ag, hg);
+        }
+
+        /** Fills 1-based positions (pts, gd, gf desc, then name) for teams with matches; returns the table size. */
+        private int table(int[] positions) {
+            List<Integer> ranked = new ArrayList<>();
+            for (int t = 0; t < teams.length; t++) if (teams[t] != null && teams[t].mp() > 0) ranked.add(t);
+            ranked.sort(Comparator.<Integer>comparingInt(t -> teams[t].pts).reversed()
+                    .thenComparing(Comparator.<Integer>comparingInt(t -> teams[t].gd).reversed())
+                    .thenComparing(Comparator.<Integer>comparingInt(t -> teams[t].gf).reversed())
+                    .thenComparing(t -> s.teamNames[t] == null ? "" : s.teamNames[t]));
+            for (int i = 0; i < ranked.size(); i++) positions[ranked.get(i)] = i + 1;
+            return ranked.size();
+        }
+
+        /**
+         * The form-guide row FormGuideService would have produced on {@code day}: none before the team's first
+         * season match, global history when it has fewer than three, weighted home/away splits from the season.
+         */
+        private DeterministicModel.TeamForm form(int team, int day) {
+            TeamSeason ts = teams[team];
+            if (ts == null || ts.mp() == 0) return null;
+            int[] list = ts.all;
+            int count = ts.allSize;
+            if (count < GLOBAL_FALLBACK_BELOW) {
+                int[] global = s.teamMatches[team];
+                int before = s.countBefore(global, day);
+                if (before > 0) { list = global; count = before; }
+            }
+            int window = Math.min(count, p.formLimit());
+            int w = 0, gf = 0, ga = 0;
+            double sumW = 0.0, wPts = 0.0, wBtts = 0.0, wOv25 = 0.0, wGf = 0.0, wGa = 0.0;
+            for (int i = 0; i < window; i++) {
+                int m = list[count - 1 - i];
+                boolean isHome = s.home[m] == team;
+                int f = isHome ? s.homeGoals[m] : s.awayGoals[m];
+                int g = isHome ? s.awayGoals[m] : s.homeGoals[m];
+                double weight = p.weight(i);
+                sumW += weight;
+                gf += f; ga += g;
+                wGf += f * weight; wGa += g * weight;
+                if (f > g) { w++; wPts += 3 * weight; } else if (f == g) wPts += weight;
+                if (f > 0 && g > 0) wBtts += weight;
+                if (f + g >= 3) wOv25 += weight;
+            }
+            double ppg = sumW == 0.0 ? 0.0 : wPts / sumW;
+            int bttsPct = sumW == 0.0 ? 0 : (int) Math.round((wBtts * 100.0) / sumW);
+            int over25Pct = sumW == 0.0 ? 0 : (int) Math.round((wOv25 * 100.0) / sumW);
+            Double avgGf = sumW > 0.0 ? wGf / sumW : null;
+            Double avgGa = sumW > 0.0 ? wGa / sumW : null;
+            double[] hs = split(team, ts.home, ts.homeSize);
+            double[] as = split(team, ts.away, ts.awaySize);
+            return new DeterministicModel.TeamForm(window, w, gf, ga, DeterministicModel.round2(ppg), bttsPct, over25Pct, avgGf, avgGa,
+                    (int) hs[0], DeterministicModel.round2(hs[1]), hs[2], hs[3], (int) hs[4], (int) hs[5],
+                    (int) as[0], DeterministicModel.round2(as[1]), as[2], as[3], (int) as[4], (int) as[5]);
+        }
+
+        /** Weighted split over the last formLimit matches: {matches, ppg, avgGf, avgGa, bttsPct, over25Pct}. */
+        private double[] split(int team, int[] list, int size) {
+            int window = Math.min(p.formLimit(), size);
+            double sumW = 0.0, wGf = 0.0, wGa = 0.0, wPts = 0.0, wBtts = 0.0, wOv25 = 0.0;
+            for (int i = 0; i < window; i++) {
+                int m = list[size - 1 - i];
+                boolean isHome = s.home[m] == team;
+                int f = isHome ? s.homeGoals[m] : s.awayGoals[m];
+                int g = isHome ? s.awayGoals[m] : s.homeGoals[m];
+                double weight = p.weight(i);
+                sumW += weight;
+                wGf += f * weight; wGa += g * weight;
+                if (f > g) wPts += 3 * weight; else if (f == g) wPts += weight;
+                if (f > 0 && g > 0) wBtts += weight;
+                if (f + g >= 3) wOv25 += weight;
+            }
+            if (sumW == 0.0) return new double[]{window, 0, 0, 0, 0, 0};
+            return new double[]{window, wPts / sumW, wGf / sumW, wGa / sumW,
+                    Math.round((wBtts * 100.0) / sumW), Math.round((wOv25 * 100.0) / sumW)};
+        }
+
+        /** Prior meetings in the H2H leagues, newest first, from the home team's perspective. */
+        private List<DeterministicModel.H2HGame> h2h(int h, int a, int day) {
+            int[] pair = s.pairMatches(h, a);
+            int before = s.countBefore(pair, day);
+            List<DeterministicModel.H2HGame> games = new ArrayList<>(before);
+            for (int i = before - 1; i >= 0; i--) {
+                int m = pair[i];
+                if (!h2hLeagues.isEmpty() && !h2hLeagues.contains(s.leagueId[m])) continue;
+                boolean homePerspective = s.home[m] == h;
+                games.add(homePerspective
+                        ? new DeterministicModel.H2HGame(s.homeGoals[m], s.awayGoals[m], true)
+                        : new DeterministicModel.H2HGame(s.awayGoals[m], s.homeGoals[m], true));
+            }
+            return games;
+        }
+    }
+
+    // ---- Scoring ----
+
+    /** Per-variant, per-market accumulators plus counters; merged across seasons. */
+    static final class Scores {
+        final Map<String, Map<String, MarketStats>> variants = new LinkedHashMap<>();
+        long evaluated;
+        long skipped;
+
+        Scores() {
+            Map<String, MarketStats> poisson = new LinkedHashMap<>();
+            for (String market : List.of(MARKET_1X2, MARKET_BTTS, MARKET_OVER15, MARKET_OVER25, MARKET_OVER35)) poisson.put(market, new MarketStats());
+            Map<String, MarketStats> blend = new LinkedHashMap<>();
+            for (String market : List.of(MARKET_1X2, MARKET_BTTS, MARKET_OVER25)) blend.put(market, new MarketStats());
+            variants.put(VARIANT_POISSON, poisson);
+            variants.put(VARIANT_BLEND, blend);
+        }
+
+        Map<String, MarketStats> variant(String name) { return variants.get(name); }
+
+        Scores merge(Scores other) {
+            evaluated += other.evaluated;
+            skipped += other.skipped;
+            variants.forEach((v, markets) -> markets.forEach((k, stats) -> stats.merge(other.variants.get(v).get(k))));
+            return this;
+        }
+
+        Map<String, Map<String, MarketReport>> report() {
+            Map<String, Map<String, MarketReport>> out = new LinkedHashMap<>();
+            variants.forEach((v, markets) -> {
+                Map<String, MarketReport> m = new LinkedHashMap<>();
+                markets.forEach((k, stats) -> m.put(k, stats.report()));
+                out.put(v, m);
+            });
+            return out;
+        }
+    }
+
+    /**
+     * Brier score, log-loss and hit rate for one market, with calibration buckets. Binary markets bucket the
+     * predicted "yes" probability; 1X2 uses the multi-class Brier score (sum over outcomes) and buckets every
+     * outcome's probability one-vs-rest.
+     */
+    static final class MarketStats {
+        long n;
+        double brier;
+        double logLoss;
+        long hits;
+        final long[] bucketCount = new long[BUCKETS];
+        final double[] bucketPredicted = new double[BUCKETS];
+        final long[] bucketObserved = new long[BUCKETS];
+
+        void binary(double p, boolean observed) {
+            p = Math.max(0.0, Math.min(1.0, p));
+            double y = observed ? 1.0 : 0.0;
+            n++;
+            brier += (p - y) * (p - y);
+            logLoss += -Math.log(Math.max(EPS, observed ? p : 1.0 - p));
+            if ((p >= 0.5) == observed) hits++;
+            bucket(p, observed);
+        }
+
+        void outcome(double[] p, int actual) {
+            n++;
+            int best = 0;
+            for (int k = 0; k < p.length; k++) {
+                double y = k == actual ? 1.0 : 0.0;
+                brier += (p[k] - y) * (p[k] - y);
+                if (p[k] > p[best]) best = k;
+                bucket(p[k], k == actual);
+            }
+            logLoss += -Math.log(Math.max(EPS, p[actual]));
+            if (best == actual) hits++;
+        }
+
+        private void bucket(double p, boolean observed) {
+            int b = Math.min(BUCKETS - 1, Math.max(0, (int) Math.floor(p * BUCKETS)));
+            bucketCount[b]++;
+            bucketPredicted[b] += p;
+            if (observed) bucketObserved[b]++;
+        }
+
+        void merge(MarketStats o) {
+            n += o.n; brier += o.brier; logLoss += o.logLoss; hits += o.hits;
+            for (int b = 0; b < BUCKETS; b++) {
+                bucketCount[b] += o.bucketCount[b];
+                bucketPredicted[b] += o.bucketPredicted[b];
+                bucketObserved[b] += o.bucketObserved[b];
+            }
+        }
+
+        MarketReport report() {
+            List<Bucket> buckets = new ArrayList<>(BUCKETS);
+            for (int b = 0; b < BUCKETS; b++) {
+                long c = bucketCount[b];
+                buckets.add(new Bucket(b / (double) BUCKETS, (b + 1) / (double) BUCKETS, c,
+                        c == 0 ? 0.0 : round4(bucketPredicted[b] / c), c == 0 ? 0.0 : round4(bucketObserved[b] / (double) c)));
+            }
+            if (n == 0) return new MarketReport(0, 0.0, 0.0, 0.0, buckets);
+            return new MarketReport(n, round4(brier / n), round4(logLoss / n), round4(hits / (double) n), buckets);
+        }
+    }
+
+    private static double round4(double v) {
+        return Math.round(v * 10000.0) / 10000.0;
+    }
+}
@@ -3,6 +3,8 @@ package com.chambua.vismart.service;
 import com.chambua.vismart.dto.ImportRunSummaryDTO;
 import com.chambua.vismart.model.*;
 import com.chambua.vismart.repository.*;
+import com.chambua.vismart.util.JfrEvents;
+import com.chambua.vismart.util.PipelineMetrics;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -62,6 +64,7 @@ public class CsvArchiveImportService {
                                          String provider) throws IOException {
         Objects.requireNonNull(file, "file must not be null");
         Objects.requireNonNull(competitionCode, "competitionCode is required");
+        long started = System.nanoTime();
 
         ZoneId sourceZone = (timezone != null && !timezone.isBlank()) ? ZoneId.of(timezone) : ZoneId.of("Europe/London");
         String filename = file.getOriginalFilename();
@@ -173,7 +176,7 @@ public class CsvArchiveImportService {
                         }
 
                         if (batch.size() >= batchSize) {
-                            matchRepository.saveAll(batch);
+                            saveBatch(batch, league, season);
                             batch.clear();
                         }
                     } catch (Exception rowEx) {
@@ -194,7 +197,9 @@ public class CsvArchiveImportService {
             }
         }
 
-        if (!batch.isEmpty()) matchRepository.saveAll(batch);
+        if (!batch.isEmpty()) {
+            saveBatch(batch, league, season);
+        }
         if (!errors.isEmpty()) importErrorRepository.saveAll(errors);
 
         run.setRowsTotal(total);
@@ -203,6 +208,7 @@ public class CsvArchiveImportService {
         run.setFinishedAt(Instant.now());
         run.setStatus("COMPLETED");
         importRunRepository.save(run);
+        PipelineMetrics.importRun("archive_csv", "success", started);
 
         return new ImportRunSummaryDTO(
                 run.getId(),
@@ -219,6 +225,23 @@ public class CsvArchiveImportService {
         );
     }
 
+    private void saveBatch(List<Match> batch, League league, Season season) {
+        long st = System.nanoTime();
+        JfrEvents.ImportBatchEvent jfr = new JfrEvents.ImportBatchEvent();
+        jfr.begin();
+        matchRepository.saveAll(batch);
+        PipelineMetrics.importBatch("archive_csv", batch.size(), st);
+        if (jfr.shouldCommit()) {
+            jfr.pipeline = "archive_csv";
+            jfr.leagueId = JfrEvents.id(league.getId());
+            jfr.seasonId = JfrEvents.id(season.getId());
+            jfr.league = league.getName();
+            jfr.season = season.getName();
+            jfr.rows = batch.size();
+            jfr.commit();
+        }
+    }
+
     private Team resolveTeam(League league, String name) {
         String trimmed = name != null ? name.trim() : "";
         return teamAliasRepository.findByAlias(trimmed)
@@ -14,12 +14,15 @@ public class DataNormalizationService {
     private static final Logger log = LoggerFactory.getLogger(DataNormalizationService.class);
 
     private final MatchRepository matchRepository;
+    // The status normalization is a bulk JPQL update, which Match entity listeners never see
+    private final DataVersionService dataVersionService;
 
     @Value("${app.normalizeOnStartup:false}")
     private boolean normalizeOnStartup;
 
-    public DataNormalizationService(MatchRepository matchRepository) {
+    public DataNormalizationService(MatchRepository matchRepository, DataVersionService dataVersionService) {
         this.matchRepository = matchRepository;
+        this.dataVersionService = dataVersionService;
     }
 
     public static class NormalizationResult {
@@ -42,7 +45,7 @@ public class DataNormalizationService {
         try {
             long total = matchRepository.count();
             long affected = matchRepository.countWithGoalsButNotPlayedPast(today);
-            java.util.List<Long> sample = matchRepository.findWithGoalsButNotPlayedPast(today).stream().limit(10).map(m -> m.getId()).toList();
+            java.util.List<Long> sample = matchRepository.findWithGoalsButNotPlayedPastIds(today, 0L, org.springframework.data.domain.PageRequest.of(0, 10));
             res.expectedAffected = affected;
             res.sampleIds = sample;
             if (dryRun) {
@@ -58,6 +61,9 @@ public class DataNormalizationService {
                 throw new IllegalStateException("Operation affects too many rows (>50%)—manual review required.");
             }
             int updated = matchRepository.normalizeScoredPastMatches(today);
+            if (updated > 0) dataVersionService.bumpAll();
+            // Newly PLAYED matches are invisible to the ratings' entity listener as well
+            if (updated > 0) TeamRatingService.invalidate();
             res.updatedRows = updated;
             res.message = "Updated rows: " + updated;
             log.info("[DATA_NORMALIZATION][APPLY] today={}, total={}, affectedBefore={}, updated={}", today, total, affected, updated);
@@ -0,0 +1,249 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.DataVersion;
+import com.chambua.vismart.model.Fixture;
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.repository.DataVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persisted data versions behind the ETags of the read endpoints (see DataVersionConfig). Scopes:
+ * <ul>
+ *   <li>{@code season:{leagueId}:{seasonId}} - matches of one season (league table, form guide)</li>
+ *   <li>{@code league:{leagueId}} - anything in the league: its matches, fixtures and season list</li>
+ *   <li>{@code global} - any write at all (countries, global leaders, cross-league reads)</li>
+ * </ul>
+ * Entity writes to Match, Fixture, Season and League are picked up by {@link ChangeListener}; bulk JPQL/SQL writes
+ * skip entity listeners, so those paths call {@link #bump}, {@link #bumpLeague} or {@link #bumpAll} themselves.
+ * Versions are incremented after commit in their own transaction: a reader can at worst pair new data with the old
+ * version, which only costs one extra 200 on the next revalidation, never a stale 304.
+ *
+ * Reads are served from memory and re-read from the table after {@code vismart.data-version.cache-ttl-ms}, so other
+ * instances pick up writes within that window.
+ */
+@Service
+public class DataVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataVersionService.class);
+
+    public static final String GLOBAL = "global";
+    private static final String ALL = "*";
+    private static final String LEAGUE_ALL = "league-all:";
+
+    public static String league(Long leagueId) {
+        return "league:" + leagueId;
+    }
+
+    public static String season(Long leagueId, Long seasonId) {
+        return "season:" + leagueId + ":" + seasonId;
+    }
+
+    private record Cached(long version, long loadedAt) {}
+
+    private final DataVersionRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final ConcurrentHashMap<String, Cached> cache = new ConcurrentHashMap<>();
+    // Part of every ETag so a restart (new code, migrations, reseeded data) never revalidates old representations
+    private final String instanceStamp = Long.toString(System.currentTimeMillis(), 36);
+
+    @Value("${vismart.data-version.cache-ttl-ms:30000}")
+    private long cacheTtlMillis = 30000;
+
+    public DataVersionService(DataVersionRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long version(String key) {
+        long now = System.currentTimeMillis();
+        Cached c = cache.get(key);
+        if (c != null && now - c.loadedAt < cacheTtlMillis) return c.version;
+        long v = repository.findById(key).map(DataVersion::getVersion).orElse(0L);
+        cache.put(key, new Cached(v, now));
+        return v;
+    }
+
+    /** Strong ETag (quoted) over the given scopes. */
+    public String etag(String... keys) {
+        StringBuilder sb = new StringBuilder("\"").append(instanceStamp);
+        for (String key : keys) sb.append('-').append(version(key));
+        return sb.append('"').toString();
+    }
+
+    /** Matches of a season changed; {@code seasonId == null} means any or all seasons of the league. */
+    public void bump(Long leagueId, Long seasonId) {
+        if (leagueId == null) {
+            bumpAll();
+            return;
+        }
+        record(Set.of(seasonId != null ? season(leagueId, seasonId) : LEAGUE_ALL + leagueId));
+    }
+
+    /** League-level data (fixtures, season list) changed; season-scoped versions are left alone. */
+    public void bumpLeague(Long leagueId) {
+        if (leagueId == null) {
+            bumpAll();
+            return;
+        }
+        record(Set.of(league(leagueId)));
+    }
+
+    public void bumpAll() {
+        record(Set.of(ALL));
+    }
+
+    /** Applies after the current transaction commits (nothing on rollback), or right away outside a transaction. */
+    void record(Set<String> tokens) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(tokens);
+            return;
+        }
+        Object key = DataVersionService.class;
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(key);
+        if (pending == null) {
+            Set<String> fresh = new HashSet<>();
+            pending = fresh;
+            TransactionSynchronizationManager.bindResource(key, fresh);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(fresh);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+        }
+        pending.addAll(tokens);
+    }
+
+    private void apply(Set<String> tokens) {
+        if (tokens.isEmpty()) return;
+        try {
+            Instant now = Instant.now();
+            if (tokens.contains(ALL)) {
+                // The bulk increment only reaches existing rows; a missing one would keep reading 0
+                Set<String> all = new TreeSet<>(Set.of(GLOBAL));
+                for (Object[] row : repository.findAllLeagueSeasonIds()) {
+                    Long leagueId = (Long) row[0];
+                    all.add(league(leagueId));
+                    if (row[1] != null) all.add(season(leagueId, (Long) row[1]));
+                }
+                ensure(all);
+                requiresNew.executeWithoutResult(s -> repository.incrementAll(now));
+                cache.clear();
+                return;
+            }
+            // Sorted so concurrent writers lock rows in the same order
+            Set<String> keys = new TreeSet<>();
+            List<Long> wholeLeagues = new ArrayList<>();
+            Set<String> leagueSeasons = new TreeSet<>();
+            for (String t : tokens) {
+                if (t.startsWith(LEAGUE_ALL)) {
+                    Long leagueId = Long.valueOf(t.substring(LEAGUE_ALL.length()));
+                    wholeLeagues.add(leagueId);
+                    keys.add(league(leagueId));
+                    // incrementLeague only reaches existing rows too; seasons without one get it first
+                    for (Long seasonId : repository.findSeasonIdsByLeagueId(leagueId)) leagueSeasons.add(season(leagueId, seasonId));
+                } else {
+                    keys.add(t);
+                    if (t.startsWith("season:")) keys.add(league(Long.valueOf(t.split(":")[1])));
+                }
+            }
+            keys.add(GLOBAL);
+            Set<String> missing = new TreeSet<>(keys);
+            missing.addAll(leagueSeasons);
+            ensure(missing);
+            Set<String> direct = new TreeSet<>(keys);
+            wholeLeagues.forEach(id -> direct.remove(league(id)));
+            requiresNew.executeWithoutResult(s -> {
+                for (Long leagueId : wholeLeagues) repository.incrementLeague(leagueId, now);
+                repository.increment(direct, now);
+            });
+            if (wholeLeagues.isEmpty()) keys.forEach(cache::remove); else cache.clear();
+        } catch (Exception e) {
+            // Leaving versions unbumped would serve stale 304s; drop the cache so at least this instance re-reads
+            cache.clear();
+            log.error("[DataVersion] failed to bump {}: {}", tokens, e.toString());
+        }
+    }
+
+    /** Inserts missing rows (version 0); a concurrent insert of the same row is harmless. */
+    private void ensure(Set<String> keys) {
+        Set<String> missing = new LinkedHashSet<>(keys);
+        requiresNew.executeWithoutResult(s -> repository.findAllById(keys).forEach(v -> missing.remove(v.getScopeKey())));
+        for (String key : missing) {
+            try {
+                requiresNew.executeWithoutResult(s -> repository.saveAndFlush(newRow(key)));
+            } catch (Exception ignoredDuplicate) { /* created concurrently */ }
+        }
+    }
+
+    private static DataVersion newRow(String key) {
+        String[] parts = key.split(":");
+        Long leagueId = parts.length > 1 ? Long.valueOf(parts[1]) : null;
+        Long seasonId = parts.length > 2 ? Long.valueOf(parts[2]) : null;
+        return new DataVersion(key, leagueId, seasonId);
+    }
+
+    /**
+     * JPA entity listener registered on Match, Fixture, Season and League. Hibernate obtains it through Spring's
+     * bean container, hence the injected provider; ids are read from (possibly uninitialized) proxies, which never
+     * triggers lazy loading.
+     */
+    public static class ChangeListener {
+        private final ObjectProvider<DataVersionService> service;
+
+        public ChangeListener() {
+            this(null);
+        }
+
+        @org.springframework.beans.factory.annotation.Autowired
+        public ChangeListener(ObjectProvider<DataVersionService> service) {
+            this.service = service;
+        }
+
+        @jakarta.persistence.PostPersist
+        @jakarta.persistence.PostUpdate
+        @jakarta.persistence.PostRemove
+        public void onChange(Object entity) {
+            DataVersionService s = service != null ? service.getIfAvailable() : null;
+            if (s == null) return;
+            try {
+                if (entity instanceof Match m) {
+                    s.bump(m.getLeague() != null ? m.getLeague().getId() : null, m.getSeason() != null ? m.getSeason().getId() : null);
+                } else if (entity instanceof Fixture f) {
+                    s.bumpLeague(f.getLeague() != null ? f.getLeague().getId() : null);
+                } else if (entity instanceof Season season) {
+                    s.bumpLeague(season.getLeague() != null ? season.getLeague().getId() : null);
+                } else if (entity instanceof League l) {
+                    s.bumpLeague(l.getId());
+                }
+            } catch (Exception ignoredListener) { /* never fail the write over a version stamp */ }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.FormGuideRowDTO;
+
+import java.util.List;
+
+/**
+ * Arithmetic of the deterministic match model behind {@link MatchAnalysisService#analyzeDeterministic}, free of
+ * repositories so the live analysis and the backtester ({@link BacktestService}) score exactly the same model.
+ *
+ * Stages, in the order the analysis applies them: form W/D/L and BTTS/Over 2.5 from form-guide rows, blend toward
+ * recency-weighted H2H, fixtures-mode GD/win-rate bias, league-position shift, then xG from weighted splits and an
+ * independent Poisson model over xG (which produces the published probabilities). Tuning constants come from
+ * {@link ModelParameters}; {@link ModelParameters#DEFAULTS} reproduces the original hard-coded model.
+ */
+public final class DeterministicModel {
+
+    private static final int MAX_GOALS = 10;
+    /** Poisson pmf rows for lambdas 0.00..10.00 on the 0.01 grid (xG is always rounded to 2 decimals). */
+    private static final int PMF_GRID = 1000;
+    private static final double[][] PMF_CACHE = new double[PMF_GRID + 1][];
+
+    static {
+        for (int g = 0; g <= PMF_GRID; g++) PMF_CACHE[g] = computePmfRow(g / 100.0);
+    }
+
+    private DeterministicModel() {}
+
+    /** The form-guide values the model reads for one team (see {@link FormGuideRowDTO}). */
+    public record TeamForm(int mp, int w, int gf, int ga, double ppg, int bttsPct, int over25Pct,
+                           Double avgGfWeighted, Double avgGaWeighted,
+                           int homeMatches, double homePpg, double homeGf, double homeGa, int homeBttsPct, int homeOver25Pct,
+                           int awayMatches, double awayPpg, double awayGf, double awayGa, int awayBttsPct, int awayOver25Pct) {
+
+        public static TeamForm of(FormGuideRowDTO r) {
+            if (r == null) return null;
+            return new TeamForm(r.getMp(), r.getW(), r.getGf(), r.getGa(), r.getPpg(), r.getBttsPct(), r.getOver25Pct(),
+                    r.getAvgGfWeighted(), r.getAvgGaWeighted(),
+                    r.getWeightedHomeMatches(), r.getWeightedHomePPG(), r.getWeightedHomeGoalsFor(), r.getWeightedHomeGoalsAgainst(),
+                    r.getWeightedHomeBTTSPercent(), r.getWeightedHomeOver25Percent(),
+                    r.getWeightedAwayMatches(), r.getWeightedAwayPPG(), r.getWeightedAwayGoalsFor(), r.getWeightedAwayGoalsAgainst(),
+                    r.getWeightedAwayBTTSPercent(), r.getWeightedAwayOver25Percent());
+        }
+    }
+
+    /** One head-to-head game from the analysed home team's perspective; {@code scored} is false when goals are missing. */
+    public record H2HGame(int goalsFor, int goalsAgainst, boolean scored) {}
+
+    /** Percentages after a stage: W/D/L sum to 100. */
+    public record Blend(int home, int draw, int away, int btts, int over25) {}
+
+    /** Result of the H2H stage: the blended percentages plus the summary shown in the UI (window 0 = no H2H). */
+    public record H2HStage(Blend blend, int window, double ppgHome, double ppgAway, int bttsPct, int over25Pct) {}
+
+    /** Expected goals (clamped, 2 decimals) and the BTTS penalty applied in match mode for a weak away attack. */
+    public record ExpectedGoals(double home, double away, int bttsPenalty) {}
+
+    /** Independent Poisson probabilities (0..1) from xG. */
+    public record Poisson(double home, double draw, double away, double btts, double over15, double over25, double over35) {}
+
+    // ---- Form ----
+
+    /** W/D/L from (weighted split) PPG and BTTS/Over 2.5 from (weighted split) percentages; defaults when a row is missing. */
+    public static Blend formStage(ModelParameters p, TeamForm h, TeamForm a, boolean fixturesMode) {
+        int btts = 50;
+        int over25 = 50;
+        if (h == null || a == null) return new Blend(40, 20, 40, btts, over25);
+        double homePpg = fixturesMode ? h.ppg() : (h.homeMatches() >= 2 ? h.homePpg() : h.ppg());
+        double awayPpg = fixturesMode ? a.ppg() : (a.awayMatches() >= 2 ? a.awayPpg() : a.ppg());
+        int home, draw, away;
+        double total = homePpg + awayPpg;
+        if (total <= 0.0) {
+            // Equal probabilities with slight bias to draw
+            home = 33; away = 33; draw = 34;
+        } else {
+            double scale = p.formScale(fixturesMode);
+            home = (int) Math.round(homePpg / total * 100.0 * scale);
+            away = (int) Math.round(awayPpg / total * 100.0 * scale);
+            draw = Math.max(0, 100 - (home + away));
+        }
+        int hBtts = fixturesMode ? h.bttsPct() : h.homeBttsPct();
+        int aBtts = fixturesMode ? a.bttsPct() : a.awayBttsPct();
+        int hOv25 = fixturesMode ? h.over25Pct() : h.homeOver25Pct();
+        int aOv25 = fixturesMode ? a.over25Pct() : a.awayOver25Pct();
+        // Fall back to overall averages if weighted splits are unavailable or zero in match mode
+        if (!fixturesMode) {
+            if (hBtts <= 0) hBtts = h.bttsPct();
+            if (aBtts <= 0) aBtts = a.bttsPct();
+            if (hOv25 <= 0) hOv25 = h.over25Pct();
+            if (aOv25 <= 0) aOv25 = a.over25Pct();
+        }
+        if (hBtts > 0 && aBtts > 0) btts = (int) Math.round((hBtts + aBtts) / 2.0);
+        if (hOv25 > 0 && aOv25 > 0) over25 = (int) Math.round((hOv25 + aOv25) / 2.0);
+        return new Blend(home, draw, away, btts, over25);
+    }
+
+    // ---- Head to head ----
+
+    /** Blends toward the recency-weighted last {@code h2hLimit} H2H games, newest first. */
+    public static H2HStage h2hStage(ModelParameters p, Blend current, List<H2HGame> games, boolean fixturesMode) {
+        int window = games == null ? 0 : Math.min(p.h2hLimit(), games.size());
+        if (window == 0) return new H2HStage(current, 0, 0.0, 0.0, 0, 0);
+        double sumW = 0.0, wHome = 0.0, wDraw = 0.0, wAway = 0.0, wBtts = 0.0, wOv25 = 0.0;
+        for (int i = 0; i < window; i++) {
+            H2HGame g = games.get(i);
+            double w = p.weight(i);
+            sumW += w;
+            int hg = g.goalsFor(), ag = g.goalsAgainst();
+            if (hg > ag) wHome += 3 * w; else if (hg == ag) wDraw += w; else wAway += 3 * w;
+            if (hg > 0 && ag > 0) wBtts += w;
+            if (hg + ag >= 3) wOv25 += w;
+        }
+        double ppgHome = (wHome + wDraw) / sumW;
+        double ppgAway = (wAway + wDraw) / sumW;
+        // Convert PPG to probabilities as done for form (h2hScale band, draw is remainder)
+        double totalPpg = ppgHome + ppgAway;
+        int hPct, dPct, aPct;
+        if (totalPpg <= 0.0) {
+            hPct = 33; aPct = 33; dPct = 34;
+        } else {
+            hPct = (int) Math.round(ppgHome / totalPpg * 100.0 * p.h2hScale());
+            aPct = (int) Math.round(ppgAway / totalPpg * 100.0 * p.h2hScale());
+            dPct = Math.max(0, 100 - (hPct + aPct));
+        }
+        int bttsPct = (int) Math.round((wBtts * 100.0) / sumW);
+        int ov25Pct = (int) Math.round((wOv25 * 100.0) / sumW);
+        // Fixtures mode: softer cap to keep simpler model; match mode: stronger cap to reflect recency
+        double alphaCap = p.alphaCap(fixturesMode);
+        double alpha = Math.min(alphaCap, (window / (double) p.h2hLimit()) * alphaCap);
+        int[] t = normalizeTriplet(
+                (int) Math.round((1 - alpha) * current.home() + alpha * hPct),
+                (int) Math.round((1 - alpha) * current.draw() + alpha * dPct),
+                (int) Math.round((1 - alpha) * current.away() + alpha * aPct));
+        Blend blended = new Blend(t[0], t[1], t[2],
+                clampPercent((int) Math.round((1 - alpha) * current.btts() + alpha * bttsPct)),
+                clampPercent((int) Math.round((1 - alpha) * current.over25() + alpha * ov25Pct)));
+        return new H2HStage(blended, window, ppgHome, ppgAway, bttsPct, ov25Pct);
+    }
+
+    // ---- Fixtures-mode bias ----
+
+    /** Tilts W/D/L by aggregate H2H goal difference (all games) and the overall win-rate delta; fixtures mode only. */
+    public static Blend fixturesBias(Blend current, List<H2HGame> games, TeamForm h, TeamForm a) {
+        if (h == null || a == null || h.mp() <= 0 || a.mp() <= 0) return current;
+        int gdAgg = 0, countGd = 0;
+        if (games != null) {
+            for (H2HGame g : games) {
+                if (!g.scored()) continue;
+                gdAgg += g.goalsFor() - g.goalsAgainst();
+                countGd++;
+            }
+        }
+        // up to +/-6 points based on GD magnitude (e.g., +17 -> about +4)
+        double shiftGd = countGd >= 3 ? Math.max(-6.0, Math.min(6.0, gdAgg / 4.0)) : 0.0;
+        double deltaWr = h.w() / (double) Math.max(1, h.mp()) - a.w() / (double) Math.max(1, a.mp());
+        double shiftWr = Math.max(-4.0, Math.min(4.0, deltaWr * 10.0));
+        return shift(current, (int) Math.round(shiftGd + shiftWr));
+    }
+
+    // ---- League position ----
+
+    /**
+     * Shifts up to 10 points toward the better-placed team (positions 1..n, n > 1) and adds up to 2 points of draw
+     * when the teams are within 10% of the table of each other.
+     */
+    public static Blend tableStage(Blend current, int homePosition, int awayPosition, int n) {
+        if (n <= 1) return current;
+        double hRank = 1.0 - ((homePosition - 1.0) / (n - 1.0)); // 1.0 best, 0.0 worst
+        double aRank = 1.0 - ((awayPosition - 1.0) / (n - 1.0));
+        double delta = hRank - aRank; // positive if home is stronger
+        int maxShift = (int) Math.round(Math.min(10.0, Math.max(0.0, Math.abs(delta) * 10.0)));
+        Blend out = current;
+        if (maxShift > 0 && delta != 0) out = shift(out, delta > 0 ? maxShift : -maxShift);
+        if (Math.abs(delta) < 0.1) {
+            int inc = 2;
+            int takeH = Math.min(inc / 2, out.home());
+            int takeA = Math.min(inc - takeH, out.away());
+            int[] t = normalizeTriplet(out.home() - takeH, out.draw() + takeH + takeA, out.away() - takeA);
+            out = new Blend(t[0], t[1], t[2], out.btts(), out.over25());
+        }
+        return out;
+    }
+
+    // Positive: move points from away to home; negative: from home to away. Draw stays put.
+    private static Blend shift(Blend b, int points) {
+        if (points == 0) return b;
+        int[] t;
+        if (points > 0) {
+            int take = Math.min(points, b.away());
+            t = normalizeTriplet(b.home() + take, b.draw(), b.away() - take);
+        } else {
+            int take = Math.min(-points, b.home());
+            t = normalizeTriplet(b.home() - take, b.draw(), b.away() + take);
+        }
+        return new Blend(t[0], t[1], t[2], b.btts(), b.over25());
+    }
+
+    // ---- Expected goals and Poisson ----
+
+    /**
+     * xG per side: fixtures mode averages overall GF/GA per match; match mode averages weighted home/away splits
+     * (overall weighted averages when a split has fewer than 2 matches). Neutral 1.5 when data is missing,
+     * clamped to [xgMin, xgMax] and rounded to 2 decimals.
+     */
+    public static ExpectedGoals expectedGoals(ModelParameters p, TeamForm h, TeamForm a, boolean fixturesMode) {
+        double xgHome = 1.5;
+        double xgAway = 1.5;
+        int bttsPenalty = 0;
+        if (h != null && a != null) {
+            if (fixturesMode) {
+                double hGfPer = h.mp() > 0 ? ((double) h.gf()) / Math.max(1, h.mp()) : 0.0;
+                double hGaPer = h.mp() > 0 ? ((double) h.ga()) / Math.max(1, h.mp()) : 0.0;
+                double aGfPer = a.mp() > 0 ? ((double) a.gf()) / Math.max(1, a.mp()) : 0.0;
+                double aGaPer = a.mp() > 0 ? ((double) a.ga()) / Math.max(1, a.mp()) : 0.0;
+                if (hGfPer > 0 && aGaPer > 0) xgHome = (hGfPer + aGaPer) / 2.0;
+                if (aGfPer > 0 && hGaPer > 0) xgAway = (aGfPer + hGaPer) / 2.0;
+            } else {
+                double homeGF = (h.homeMatches() >= 2 && h.homeGf() > 0) ? h.homeGf() : positive(h.avgGfWeighted());
+                double awayGA = (a.awayMatches() >= 2 && a.awayGa() > 0) ? a.awayGa() : positive(a.avgGaWeighted());
+                double awayGF = (a.awayMatches() >= 2 && a.awayGf() > 0) ? a.awayGf() : positive(a.avgGfWeighted());
+                double homeGA = (h.homeMatches() >= 2 && h.homeGa() > 0) ? h.homeGa() : positive(h.avgGaWeighted());
+                if (homeGF > 0 && awayGA > 0) xgHome = (homeGF + awayGA) / 2.0;
+                if (awayGF > 0 && homeGA > 0) xgAway = (awayGF + homeGA) / 2.0;
+                // Damp BTTS slightly if away attack is weak in recent away splits
+                if (a.awayGf() > 0 && a.awayGf() < 1.0) bttsPenalty = 4;
+                else if (a.awayBttsPct() > 0 && a.awayBttsPct() < 45) bttsPenalty = 3;
+            }
+        }
+        xgHome = Math.max(p.xgMin(), Math.min(p.xgMax(), xgHome));
+        xgAway = Math.max(p.xgMin(), Math.min(p.xgMax(), xgAway));
+        return new ExpectedGoals(round2(xgHome), round2(xgAway), bttsPenalty);
+    }
+
+    /** Independent Poisson scorelines up to {@value #MAX_GOALS} goals per side. */
+    public static Poisson poisson(double xgHome, double xgAway) {
+        double[] ph = pmfRow(xgHome);
+        double[] pa = pmfRow(xgAway);
+        double pHome = 0.0;
+        for (int h = 0; h <= MAX_GOALS; h++) {
+            for (int a = 0; a < h; a++) pHome += ph[h] * pa[a];
+        }
+        double pDraw = 0.0;
+        for (int k = 0; k <= MAX_GOALS; k++) pDraw += ph[k] * pa[k];
+        double pAway = Math.max(0.0, 1.0 - pHome - pDraw);
+        double pBtts = 1.0 - ph[0] - pa[0] + (ph[0] * pa[0]);
+        double pOver15 = 1.0 - (ph[0] * pa[0] + ph[1] * pa[0] + ph[0] * pa[1]);
+        double pOver25 = 0.0;
+        double pOver35 = 0.0;
+        for (int h = 0; h <= MAX_GOALS; h++) {
+            for (int a = 0; a <= MAX_GOALS; a++) {
+                double p = ph[h] * pa[a];
+                int total = h + a;
+                if (total > 2) pOver25 += p;
+                if (total > 3) pOver35 += p;
+            }
+        }
+        return new Poisson(pHome, pDraw, pAway, pBtts, pOver15, pOver25, pOver35);
+    }
+
+    // Shared read-only rows for grid lambdas; anything else is computed on the fly
+    private static double[] pmfRow(double lambda) {
+        long g = Math.round(lambda * 100.0);
+        if (g >= 0 && g <= PMF_GRID && g / 100.0 == lambda) return PMF_CACHE[(int) g];
+        return computePmfRow(lambda);
+    }
+
+    private static double[] computePmfRow(double lambda) {
+        double[] row = new double[MAX_GOALS + 1];
+        for (int i = 0; i <= MAX_GOALS; i++) row[i] = pmf(lambda, i);
+        return row;
+    }
+
+    private static double pmf(double lambda, int k) {
+        double f = 1.0d;
+        for (int i = 2; i <= k; i++) f *= i;
+        return (Math.exp(-lambda) * Math.pow(lambda, k)) / f;
+    }
+
+    private static double positive(Double v) {
+        return v != null && v > 0 ? v : 0.0;
+    }
+
+    static int clampPercent(int v) { return Math.max(0, Math.min(100, v)); }
+
+    // Normalizes three integers to sum to 100 by adjusting the largest absolute error
+    static int[] normalizeTriplet(int h, int d, int a) {
+        int sum = h + d + a;
+        if (sum == 100) return new int[]{clampPercent(h), clampPercent(d), clampPercent(a)};
+        int diff = 100 - sum;
+        // adjust the component with the largest value to keep ordering
+        if (h >= d && h >= a) h += diff;
+        else if (a >= d && a >= h) a += diff;
+        else d += diff;
+        h = clampPercent(h); d = clampPercent(d); a = clampPercent(a);
+        // in rare case clamping changed sum, fix on draw
+        int fix = 100 - (h + d + a);
+        d = clampPercent(d + fix);
+        return new int[]{h, d, a};
+    }
+
+    static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,501 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.FixtureDTO;
+import com.chambua.vismart.model.Fixture;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes fixture changes to server-sent event subscribers of one calendar date ({@code GET /api/fixtures/stream}).
+ * Events:
+ * <ul>
+ *   <li>{@code ready} - sent on subscribe; fetch {@code /api/fixtures/by-date} (without refresh) after it arrives</li>
+ *   <li>{@code fixture} - a {@link FixtureDelta}: {@code upsert} with the fixture's current state, or {@code removed}</li>
+ *   <li>{@code reload} - changes could not be described per fixture (bulk replace, missed events); refetch the date</li>
+ * </ul>
+ * Changes come from {@link FixtureListener} on every Fixture entity write (FixtureRefreshService, uploads) and are
+ * sent after commit; JPQL bulk deletes, which bypass the listener, call {@link #reloadAll()}. Nothing is built for
+ * dates nobody is subscribed to.
+ *
+ * Idle subscribers only cost an async request and a set entry. Every event is serialized once per date and queued
+ * per subscriber; a small fan-out pool ({@code fanout-threads}) drains each subscriber's queue in order, so a client
+ * whose socket stalls only holds up itself. A subscriber is dropped (and reconnects with {@code Last-Event-ID}) once
+ * more than {@code max-pending} frames are waiting for it or a single send has been blocked for longer than
+ * {@code send-timeout-ms}. A send blocked in the socket write cannot be aborted (SseEmitter.complete() waits on the
+ * same monitor as send(), and the servlet API has no way to cancel a blocking write), so the pool gets a replacement
+ * thread for each such send, up to {@code max-stalled-sends}, until the container's write timeout ends it. A
+ * heartbeat comment goes out every {@code vismart.fixtures.sse.heartbeat-ms} to keep proxies open and detect dead
+ * connections. The last
+ * {@code replay-size} events per date are kept so a client reconnecting with {@code Last-Event-ID} gets what it
+ * missed, or a {@code reload} when that is no longer possible (including after a restart).
+ */
+@Service
+public class FixtureEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(FixtureEventHub.class);
+
+    public static final String UPSERT = "upsert";
+    public static final String REMOVED = "removed";
+
+    /** One fixture change; {@code fixture} is null for removals. */
+    public record FixtureDelta(String change, Long fixtureId, Long leagueId, String date, FixtureDTO fixture) {}
+
+    private record Sent(long seq, Set<ResponseBodyEmitter.DataWithMediaType> frame) {}
+
+    private static final class Topic {
+        final Set<Subscriber> subscribers = new LinkedHashSet<>();
+        final ArrayDeque<Sent> recent = new ArrayDeque<>();
+        // Events for this date after baseSeq are all still in recent
+        long baseSeq;
+        boolean closed;
+
+        Topic(long baseSeq) {
+            this.baseSeq = baseSeq;
+        }
+    }
+
+    /** One connection: frames waiting for it, sent in order by at most one fan-out thread at a time. */
+    private final class Subscriber {
+        final LocalDate date;
+        final SseEmitter emitter;
+        // Guarded by this
+        final ArrayDeque<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayDeque<>();
+        boolean draining;
+        boolean dropped;
+        // System.nanoTime() when the send in progress started; 0 when idle
+        long sendingSince;
+        // The send in progress was written off and the pool got a replacement thread for it
+        boolean replaced;
+
+        Subscriber(LocalDate date, SseEmitter emitter) {
+            this.date = date;
+            this.emitter = emitter;
+        }
+
+        /** Queues frames and starts a drain if none is running; a subscriber that fell too far behind is dropped. */
+        void offer(List<Set<ResponseBodyEmitter.DataWithMediaType>> frames) {
+            boolean start = false, overflow = false;
+            synchronized (this) {
+                if (dropped) return;
+                // A fresh subscriber's initial replay is always accepted
+                if (!queue.isEmpty() && queue.size() + frames.size() > maxPending) {
+                    overflow = true;
+                    dropped = true;
+                    queue.clear();
+                } else {
+                    queue.addAll(frames);
+                    start = !draining;
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                log.info("[FixtureSSE] dropping a subscriber of {} that is {} frames behind", date, maxPending);
+                remove(this);
+            } else if (start) {
+                fanout.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            boolean ended;
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                synchronized (this) {
+                    frame = dropped ? null : queue.poll();
+                    if (frame == null) {
+                        draining = false;
+                        queue.clear();
+                        ended = dropped;
+                        break;
+                    }
+                }
+                synchronized (this) {
+                    sendingSince = System.nanoTime();
+                }
+                sending.add(this);
+                boolean sent = send(this, frame);
+                sending.remove(this);
+                boolean release;
+                synchronized (this) {
+                    sendingSince = 0;
+                    release = replaced;
+                    replaced = false;
+                }
+                if (release) {
+                    stalledSends.decrementAndGet();
+                    resizeFanout(-1);
+                }
+                if (!sent) return;
+            }
+            // Dropped while a send was blocked: end the response now that this thread owns the emitter again
+            if (ended) {
+                try {
+                    emitter.complete();
+                } catch (Exception ignoredGone) { /* already completed */ }
+            }
+        }
+
+        /** Drops a subscriber blocked in one send beyond send-timeout and gives the pool a thread in its place. */
+        void writeOffIfStalled(long now) {
+            boolean wasDropped, replace;
+            synchronized (this) {
+                if (replaced || sendingSince == 0 || now - sendingSince <= TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis)) return;
+                wasDropped = dropped;
+                dropped = true;
+                queue.clear();
+                // At the cap the subscriber is still dropped; the next check retries the replacement
+                replace = stalledSends.getAndUpdate(n -> n < maxStalledSends ? n + 1 : n) < maxStalledSends;
+                replaced = replace;
+            }
+            if (!wasDropped) {
+                log.info("[FixtureSSE] dropping a subscriber of {} blocked in send for over {} ms", date, sendTimeoutMillis);
+                remove(this);
+            }
+            if (replace) resizeFanout(1);
+        }
+
+        void drop() {
+            synchronized (this) {
+                dropped = true;
+                queue.clear();
+            }
+            remove(this);
+        }
+    }
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keep-alive").build();
+
+    private final ObjectMapper objectMapper;
+    private final Executor fanout;
+    private final ConcurrentHashMap<LocalDate, Topic> topics = new ConcurrentHashMap<>();
+    // Subscribers with a send in progress; only these can stall
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger stalledSends = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Event ids are "<stamp>-<seq>" so ids from before a restart are recognised and answered with a reload
+    private final String instanceStamp = Long.toString(System.currentTimeMillis(), 36);
+
+    @Value("${vismart.fixtures.sse.timeout-ms:1800000}")
+    long timeoutMillis = 1_800_000L;
+
+    @Value("${vismart.fixtures.sse.max-subscribers:10000}")
+    int maxSubscribers = 10_000;
+
+    @Value("${vismart.fixtures.sse.replay-size:256}")
+    int replaySize = 256;
+
+    @Value("${vismart.fixtures.sse.max-pending:64}")
+    int maxPending = 64;
+
+    @Value("${vismart.fixtures.sse.send-timeout-ms:10000}")
+    long sendTimeoutMillis = 10_000L;
+
+    @Value("${vismart.fixtures.sse.max-stalled-sends:64}")
+    int maxStalledSends = 64;
+
+    @org.springframework.beans.factory.annotation.Autowired
+    public FixtureEventHub(ObjectMapper objectMapper, @Value("${vismart.fixtures.sse.fanout-threads:4}") int fanoutThreads) {
+        this(objectMapper, Executors.newFixedThreadPool(Math.max(1, fanoutThreads), new java.util.concurrent.ThreadFactory() {
+            private final AtomicInteger n = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "fixture-sse-fanout-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        }));
+    }
+
+    FixtureEventHub(ObjectMapper objectMapper, Executor fanout) {
+        this.objectMapper = objectMapper;
+        this.fanout = fanout;
+        Metrics.gauge("vismart.sse.subscribers", Tags.of("stream", "fixtures"), subscriberCount);
+    }
+
+    /**
+     * Registers a subscriber for {@code date}. With {@code lastEventId} (the EventSource reconnect header) the
+     * retained events after it are replayed, or a reload is sent when they are gone.
+     *
+     * @throws IllegalStateException when {@code max-subscribers} is reached
+     */
+    public SseEmitter subscribe(LocalDate date, String lastEventId) {
+        if (subscriberCount.get() >= maxSubscribers) {
+            throw new IllegalStateException("Too many fixture stream subscribers");
+        }
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(date, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        while (true) {
+            Topic topic = topics.computeIfAbsent(date, d -> new Topic(sequence.get()));
+            synchronized (topic) {
+                // Lost a race with the last subscriber leaving; that topic is gone
+                if (topic.closed) continue;
+                topic.subscribers.add(subscriber);
+                subscriberCount.incrementAndGet();
+                List<Set<ResponseBodyEmitter.DataWithMediaType>> initial = new ArrayList<>();
+                initial.add(SseEmitter.event().name("ready").reconnectTime(5000)
+                        .data("{\"date\":\"" + date + "\"}", MediaType.APPLICATION_JSON).build());
+                if (lastEventId != null && !lastEventId.isBlank()) {
+                    Long last = parseEventId(lastEventId);
+                    if (last == null || last < topic.baseSeq) {
+                        initial.add(reloadFrame(date));
+                    } else {
+                        for (Sent s : topic.recent) if (s.seq > last) initial.add(s.frame);
+                    }
+                }
+                // Queued under the topic lock, so it cannot overtake or repeat an event published concurrently
+                subscriber.offer(initial);
+            }
+            return emitter;
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public boolean hasSubscribers(LocalDate date) {
+        return date != null && topics.containsKey(date);
+    }
+
+    /** Records a fixture write; sent after the current transaction commits (nothing on rollback). */
+    public void changed(Fixture fixture, String change) {
+        if (fixture == null || fixture.getId() == null || fixture.getDateTime() == null) return;
+        LocalDate date = fixture.getDateTime().toLocalDate();
+        if (!hasSubscribers(date)) return;
+        Long leagueId = fixture.getLeague() != null ? fixture.getLeague().getId() : null;
+        FixtureDelta delta = new FixtureDelta(change, fixture.getId(), leagueId, date.toString(),
+                REMOVED.equals(change) ? null : FixtureDTO.from(fixture));
+        Pending pending = pending();
+        if (pending == null) {
+            publish(delta);
+        } else {
+            // Several flushes in one transaction: only the fixture's final state is sent
+            pending.deltas.put(delta.fixtureId(), delta);
+        }
+    }
+
+    /** Fixtures were replaced in bulk (bypassing entity listeners): every subscriber refetches after commit. */
+    public void reloadAll() {
+        Pending pending = pending();
+        if (pending == null) {
+            broadcastReload();
+        } else {
+            pending.reloadAll = true;
+        }
+    }
+
+    private static final class Pending {
+        final Map<Long, FixtureDelta> deltas = new LinkedHashMap<>();
+        boolean reloadAll;
+    }
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+        Object key = FixtureEventHub.class;
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(key);
+        if (pending == null) {
+            Pending fresh = new Pending();
+            pending = fresh;
+            TransactionSynchronizationManager.bindResource(key, fresh);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (fresh.reloadAll) {
+                        broadcastReload();
+                    } else {
+                        fresh.deltas.values().forEach(FixtureEventHub.this::publish);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+        }
+        return pending;
+    }
+
+    void publish(FixtureDelta delta) {
+        try {
+            broadcast(LocalDate.parse(delta.date()), "fixture", objectMapper.writeValueAsString(delta));
+        } catch (JsonProcessingException e) {
+            log.warn("[FixtureSSE] cannot serialize delta for fixture {}: {}", delta.fixtureId(), e.getMessage());
+        }
+    }
+
+    private void broadcastReload() {
+        for (LocalDate date : topics.keySet()) {
+            broadcast(date, "reload", "{\"date\":\"" + date + "\"}");
+        }
+    }
+
+    private void broadcast(LocalDate date, String event, String json) {
+        Topic topic = topics.get(date);
+        if (topic == null) return;
+        synchronized (topic) {
+            if (topic.closed) return;
+            long seq = sequence.incrementAndGet();
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                    .id(instanceStamp + "-" + seq).name(event).data(json, MediaType.APPLICATION_JSON).build();
+            topic.recent.addLast(new Sent(seq, frame));
+            while (topic.recent.size() > replaySize) topic.baseSeq = topic.recent.removeFirst().seq;
+            List<Set<ResponseBodyEmitter.DataWithMediaType>> frames = List.of(frame);
+            for (Subscriber subscriber : List.copyOf(topic.subscribers)) subscriber.offer(frames);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vismart.fixtures.sse.heartbeat-ms:25000}", initialDelayString = "${vismart.fixtures.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> frames = List.of(HEARTBEAT);
+        for (Topic topic : topics.values()) {
+            List<Subscriber> targets;
+            synchronized (topic) {
+                targets = List.copyOf(topic.subscribers);
+            }
+            for (Subscriber subscriber : targets) subscriber.offer(frames);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vismart.fixtures.sse.stall-check-ms:1000}", initialDelayString = "${vismart.fixtures.sse.stall-check-ms:1000}")
+    public void reapStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) subscriber.writeOffIfStalled(now);
+    }
+
+    // The pool is a ThreadPoolExecutor with an unbounded queue, so its core size is its thread count
+    private void resizeFanout(int delta) {
+        if (!(fanout instanceof ThreadPoolExecutor pool)) return;
+        synchronized (pool) {
+            int threads = pool.getCorePoolSize() + delta;
+            if (threads > pool.getMaximumPoolSize()) pool.setMaximumPoolSize(threads);
+            pool.setCorePoolSize(threads);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        try {
+            subscriber.emitter.send(frame);
+            return true;
+        } catch (Exception ignoredGone) {
+            // Disconnected or already completed; the container reports the error on its own
+            subscriber.drop();
+            return false;
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        Topic topic = topics.get(subscriber.date);
+        if (topic == null) return;
+        synchronized (topic) {
+            if (!topic.subscribers.remove(subscriber)) return;
+            subscriberCount.decrementAndGet();
+            if (topic.subscribers.isEmpty()) {
+                topic.closed = true;
+                topics.remove(subscriber.date, topic);
+            }
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> reloadFrame(LocalDate date) {
+        return SseEmitter.event().name("reload").data("{\"date\":\"" + date + "\"}", MediaType.APPLICATION_JSON).build();
+    }
+
+    private Long parseEventId(String id) {
+        int dash = id.lastIndexOf('-');
+        if (dash <= 0 || !id.substring(0, dash).equals(instanceStamp)) return null;
+        try {
+            return Long.valueOf(id.substring(dash + 1));
+        } catch (NumberFormatException ignoredBadId) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Topic topic : topics.values()) {
+            List<Subscriber> targets;
+            synchronized (topic) {
+                targets = List.copyOf(topic.subscribers);
+            }
+            targets.forEach(t -> t.emitter.complete());
+        }
+        if (fanout instanceof ExecutorService es) es.shutdownNow();
+    }
+
+    /**
+     * JPA entity listener registered on Fixture; obtained through Spring's bean container like
+     * {@link DataVersionService.ChangeListener}.
+     */
+    public static class FixtureListener {
+        private final ObjectProvider<FixtureEventHub> hub;
+
+        public FixtureListener() {
+            this(null);
+        }
+
+        @org.springframework.beans.factory.annotation.Autowired
+        public FixtureListener(ObjectProvider<FixtureEventHub> hub) {
+            this.hub = hub;
+        }
+
+        @jakarta.persistence.PostPersist
+        @jakarta.persistence.PostUpdate
+        public void onWrite(Fixture fixture) {
+            notify(fixture, UPSERT);
+        }
+
+        @jakarta.persistence.PostRemove
+        public void onRemove(Fixture fixture) {
+            notify(fixture, REMOVED);
+        }
+
+        private void notify(Fixture fixture, String change) {
+            FixtureEventHub h = hub != null ? hub.getIfAvailable() : null;
+            if (h == null) return;
+            try {
+                h.changed(fixture, change);
+            } catch (Exception ignoredListener) { /* never fail the write over a push */ }
+        }
+    }
+}
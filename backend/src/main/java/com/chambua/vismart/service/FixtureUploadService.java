@@ -9,6 +9,7 @@ import com.chambua.vismart.model.Season;
 import com.chambua.vismart.repository.FixtureRepository;
 import com.chambua.vismart.repository.LeagueRepository;
 import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.util.PipelineMetrics;
 import org.springframework.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +58,7 @@ public class FixtureUploadService {
 
         long deleted = 0;
         if (fullReplace) {
+            // Derived delete: each removal reaches stream subscribers as a per-fixture delta (see FixtureEventHub)
             deleted = fixtureRepository.deleteByLeague_Id(league.getId());
         }
         List<String> errors = new ArrayList<>();
@@ -118,6 +120,7 @@ public class FixtureUploadService {
 
         long deleted = 0;
         if (req.isFullReplace()) {
+            // Derived delete: each removal reaches stream subscribers as a per-fixture delta (see FixtureEventHub)
             deleted = fixtureRepository.deleteByLeague_Id(league.getId());
         }
 
@@ -150,6 +153,7 @@ public class FixtureUploadService {
         fixtures.sort(java.util.Comparator.comparing(Fixture::getDateTime));
 
         int insertedOrUpdated = 0;
+        long written = System.nanoTime();
         if (req.isFullReplace()) {
             // bulk insert is safe after delete
             fixtureRepository.saveAll(fixtures);
@@ -173,6 +177,7 @@ public class FixtureUploadService {
                 insertedOrUpdated++;
             }
         }
+        PipelineMetrics.importBatch("fixture_upload", insertedOrUpdated, written);
         String msg = (partial ? "Partial success: " : "") + String.format("Fixtures for %s (%s) uploaded. Total processed: %d.", league.getName(), season, insertedOrUpdated);
         UploadResultDTO ok = UploadResultDTO.ok(insertedOrUpdated, deleted, msg);
         if (warnings != null && !warnings.isEmpty()) {
@@ -0,0 +1,134 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.util.JfrEvents;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Starts, stops and dumps a single on-demand JDK Flight Recorder recording (see {@link JfrEvents} for the
+ * application events it carries next to the JDK's allocation, GC and CPU events). Only one recording is held at a
+ * time; a stopped recording's file stays downloadable until the next start. Recordings stop by themselves after
+ * {@code maxDuration} so a forgotten one cannot run indefinitely. Events that would copy credentials out of the
+ * environment or JVM arguments into the file are never recorded.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    static final List<Class<? extends jdk.jfr.Event>> APPLICATION_EVENTS = List.of(
+            JfrEvents.AnalysisEvent.class, JfrEvents.FormGuideComputeEvent.class, JfrEvents.H2HLookupEvent.class,
+            JfrEvents.ImportBatchEvent.class, JfrEvents.PdfRenderEvent.class);
+
+    // Carry environment variables (datasource password), system properties and JVM/process command lines
+    static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+
+    public record Status(String state, String settings, Instant startedAt, Instant stoppedAt, Long sizeBytes) {}
+
+    private Recording recording;
+    private String settings;
+    private Instant startedAt;
+    private Path file;
+
+    /**
+     * @param settings JDK settings to start from: {@code default} (low overhead) or {@code profile} (adds allocation
+     *                 and method sampling detail)
+     */
+    public synchronized Status start(String settings, Duration maxDuration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        String name = (settings == null || settings.isBlank()) ? "profile" : settings.trim().toLowerCase();
+        if (!name.equals("default") && !name.equals("profile")) {
+            throw new IllegalArgumentException("settings must be 'default' or 'profile'");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load JFR settings '" + name + "': " + e.getMessage(), e);
+        }
+        discard();
+        Recording r = new Recording(configuration);
+        r.setName("vismart-" + name);
+        r.setToDisk(true);
+        if (maxDuration != null) r.setDuration(maxDuration);
+        for (Class<? extends jdk.jfr.Event> type : APPLICATION_EVENTS) {
+            r.enable(type).withoutThreshold();
+        }
+        for (String type : SENSITIVE_EVENTS) {
+            r.disable(type);
+        }
+        r.start();
+        recording = r;
+        this.settings = name;
+        startedAt = Instant.now();
+        log.info("[JFR] recording started settings={} maxDuration={}", name, maxDuration);
+        return status();
+    }
+
+    /** Stops the running recording and writes it to a temp file for {@link #download()}. */
+    public synchronized Status stop() throws IOException {
+        if (recording == null) throw new IllegalStateException("No recording has been started");
+        if (recording.getState() == RecordingState.RUNNING) recording.stop();
+        if (file == null) {
+            file = Files.createTempFile("vismart-", ".jfr");
+            recording.dump(file);
+            log.info("[JFR] recording stopped; {} bytes written to {}", Files.size(file), file);
+        }
+        return status();
+    }
+
+    /** A {@code .jfr} file to send; snapshots are written per download and should be deleted once sent. */
+    public record Download(Path path, boolean snapshot) {}
+
+    /**
+     * The stopped recording's file, or a snapshot of the data so far while the recording is still running. A
+     * recording that ended on its own after maxDuration is written out first.
+     */
+    public synchronized Download download() throws IOException {
+        if (recording == null) throw new IllegalStateException("No recording has been started");
+        if (file == null && recording.getState() != RecordingState.RUNNING) stop();
+        if (file != null) return new Download(file, false);
+        Path snapshot = Files.createTempFile("vismart-snapshot-", ".jfr");
+        recording.dump(snapshot);
+        return new Download(snapshot, true);
+    }
+
+    public synchronized Status status() {
+        if (recording == null) return new Status("NONE", null, null, null, null);
+        Long size = null;
+        try {
+            size = file != null ? Files.size(file) : recording.getSize();
+        } catch (IOException ignoredSize) { /* file removed underneath us */ }
+        return new Status(recording.getState().name(), settings, startedAt, recording.getStopTime(), size);
+    }
+
+    @PreDestroy
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignoredDelete) { /* temp dir cleanup will get it */ }
+            file = null;
+        }
+    }
+}
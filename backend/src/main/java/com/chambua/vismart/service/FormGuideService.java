@@ -10,6 +10,8 @@ import org.springframework.transaction.annotation.Transactional;
 import com.chambua.vismart.repository.SeasonRepository;
 import com.chambua.vismart.model.Season;
 import com.chambua.vismart.model.Match;
+import com.chambua.vismart.util.JfrEvents;
+import com.chambua.vismart.repository.MatchRow;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -25,16 +27,25 @@ public class FormGuideService {
 
     private final com.chambua.vismart.repository.TeamRepository teamRepository;
 
+    // Batched, limit-bounded per-team history for computeForTeams; null under manual wiring (per-team queries)
+    private final TeamHistoryService teamHistoryService;
+
+    // Active recency decay for the form weights; the built-in 1/(1+i) is used when absent
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private ModelParameterService modelParameterService;
+
     // Additional constructor for tests or manual wiring
     public FormGuideService(EntityManager em) {
         this.em = em;
         this.teamRepository = null;
+        this.teamHistoryService = null;
     }
 
     @org.springframework.beans.factory.annotation.Autowired
-    public FormGuideService(EntityManager em, com.chambua.vismart.repository.TeamRepository teamRepository) {
+    public FormGuideService(EntityManager em, com.chambua.vismart.repository.TeamRepository teamRepository, TeamHistoryService teamHistoryService) {
         this.em = em;
         this.teamRepository = teamRepository;
+        this.teamHistoryService = teamHistoryService;
     }
 
 
@@ -50,6 +61,8 @@ public class FormGuideService {
         if (seasonId == null) throw new IllegalArgumentException("seasonId is required");
         if (limit <= 0) limit = 6;
         if (scope == null) scope = Scope.OVERALL;
+        JfrEvents.FormGuideComputeEvent jfr = new JfrEvents.FormGuideComputeEvent();
+        jfr.begin();
 
         // Strict filtering: do not include NULL season rows or merge by date bounds
         String baseHome =
@@ -70,8 +83,7 @@ public class FormGuideService {
             sql = "SELECT * FROM (" + baseHome + " UNION ALL " + baseAway + ") x ORDER BY team_id ASC, md DESC, CASE WHEN rnd IS NULL THEN 1 ELSE 0 END ASC, rnd DESC, match_id DESC";
         }
 
-        log.info("[FORM_GUIDE][SQL][main] {}", sql);
-        System.out.println("[DEBUG_LOG] FORM_GUIDE SQL main: " + sql);
+        log.debug("[FORM_GUIDE][SQL][main] {}", sql);
         var q = em.createNativeQuery(sql)
                 .setParameter(1, leagueId)
                 .setParameter(2, seasonId);
@@ -102,8 +114,7 @@ public class FormGuideService {
             }
 
             // Also build full home and away maps regardless of requested scope, for weighted splits
-            log.info("[FORM_GUIDE][SQL][home] SELECT * FROM (" + baseHome + ") x ORDER BY x.team_id ASC, x.md DESC, CASE WHEN x.rnd IS NULL THEN 1 ELSE 0 END ASC, x.rnd DESC, x.match_id DESC");
-            System.out.println("[DEBUG_LOG] FORM_GUIDE SQL home: SELECT * FROM (" + baseHome + ") x ORDER BY x.team_id ASC, x.md DESC, CASE WHEN x.rnd IS NULL THEN 1 ELSE 0 END ASC, x.rnd DESC, x.match_id DESC");
+            log.debug("[FORM_GUIDE][SQL][home] SELECT * FROM ({}) x ORDER BY x.team_id ASC, x.md DESC, CASE WHEN x.rnd IS NULL THEN 1 ELSE 0 END ASC, x.rnd DESC, x.match_id DESC", baseHome);
             var qHome = em.createNativeQuery("SELECT * FROM (" + baseHome + ") x ORDER BY x.team_id ASC, x.md DESC, CASE WHEN x.rnd IS NULL THEN 1 ELSE 0 END ASC, x.rnd DESC, x.match_id DESC")
                     .setParameter(1, leagueId)
                     .setParameter(2, seasonId);
@@ -123,8 +134,7 @@ public class FormGuideService {
                 homeByTeam.computeIfAbsent(teamId, k -> new ArrayList<>())
                         .add(new Row(teamId, teamName, date, round, gf, ga, true, oppName));
             }
-            log.info("[FORM_GUIDE][SQL][away] SELECT * FROM (" + baseAway + ") x ORDER BY x.team_id ASC, x.md DESC, CASE WHEN x.rnd IS NULL THEN 1 ELSE 0 END ASC, x.rnd DESC, x.match_id DESC");
-            System.out.println("[DEBUG_LOG] FORM_GUIDE SQL away: SELECT * FROM (" + baseAway + ") x ORDER BY x.team_id ASC, x.md DESC, CASE WHEN x.rnd IS NULL THEN 1 ELSE 0 END ASC, x.rnd DESC, x.match_id DESC");
+            log.debug("[FORM_GUIDE][SQL][away] SELECT * FROM ({}) x ORDER BY x.team_id ASC, x.md DESC, CASE WHEN x.rnd IS NULL THEN 1 ELSE 0 END ASC, x.rnd DESC, x.match_id DESC", baseAway);
             var qAway = em.createNativeQuery("SELECT * FROM (" + baseAway + ") x ORDER BY x.team_id ASC, x.md DESC, CASE WHEN x.rnd IS NULL THEN 1 ELSE 0 END ASC, x.rnd DESC, x.match_id DESC")
                     .setParameter(1, leagueId)
                     .setParameter(2, seasonId);
@@ -196,7 +206,7 @@ public class FormGuideService {
                     String gsql = "SELECT * FROM (" + gHome + " UNION ALL " + gAway + ") x ORDER BY md DESC, CASE WHEN rnd IS NULL THEN 1 ELSE 0 END ASC, rnd DESC, match_id DESC";
                     java.time.LocalDate today = java.time.LocalDate.now(java.time.ZoneId.of("Africa/Nairobi"));
                     log.info("[FormGuide][Fallback] Scoped matches <3 for teamId={}; using global recent.", teamId);
-                    System.out.println("[DEBUG_LOG] FormGuide Fallback global SQL: " + gsql);
+                    log.debug("[FormGuide][Fallback] global SQL: {}", gsql);
                     @SuppressWarnings("unchecked")
                     List<Object[]> gRows = em.createNativeQuery(gsql)
                             .setParameter(1, teamId)
@@ -294,24 +304,24 @@ public class FormGuideService {
             // Compute and set weighted home/away splits using same limit
             List<Row> homeList = homeByTeam.getOrDefault(first.teamId, Collections.emptyList());
             List<Row> awayList = awayByTeam.getOrDefault(first.teamId, Collections.emptyList());
-            Split homeSplit = computeWeightedSplit(homeList, limit);
-            Split awaySplit = computeWeightedSplit(awayList, limit);
-            dto.setWeightedHomeGoalsFor(homeSplit.avgGf);
-            dto.setWeightedHomeGoalsAgainst(homeSplit.avgGa);
-            dto.setWeightedAwayGoalsFor(awaySplit.avgGf);
-            dto.setWeightedAwayGoalsAgainst(awaySplit.avgGa);
-            dto.setWeightedHomePPG(round2(homeSplit.ppg));
-            dto.setWeightedAwayPPG(round2(awaySplit.ppg));
-            dto.setWeightedHomeBTTSPercent(homeSplit.bttsPct);
-            dto.setWeightedAwayBTTSPercent(awaySplit.bttsPct);
-            dto.setWeightedHomeOver15Percent(homeSplit.over15Pct);
-            dto.setWeightedAwayOver15Percent(awaySplit.over15Pct);
-            dto.setWeightedHomeOver25Percent(homeSplit.over25Pct);
-            dto.setWeightedAwayOver25Percent(awaySplit.over25Pct);
-            dto.setWeightedHomeOver35Percent(homeSplit.over35Pct);
-            dto.setWeightedAwayOver35Percent(awaySplit.over35Pct);
-            dto.setWeightedHomeMatches(homeSplit.matchCount);
-            dto.setWeightedAwayMatches(awaySplit.matchCount);
+            FormWeighting.Split homeSplit = computeWeightedSplit(homeList, limit);
+            FormWeighting.Split awaySplit = computeWeightedSplit(awayList, limit);
+            dto.setWeightedHomeGoalsFor(homeSplit.avgGf());
+            dto.setWeightedHomeGoalsAgainst(homeSplit.avgGa());
+            dto.setWeightedAwayGoalsFor(awaySplit.avgGf());
+            dto.setWeightedAwayGoalsAgainst(awaySplit.avgGa());
+            dto.setWeightedHomePPG(round2(homeSplit.ppg()));
+            dto.setWeightedAwayPPG(round2(awaySplit.ppg()));
+            dto.setWeightedHomeBTTSPercent(homeSplit.bttsPct());
+            dto.setWeightedAwayBTTSPercent(awaySplit.bttsPct());
+            dto.setWeightedHomeOver15Percent(homeSplit.over15Pct());
+            dto.setWeightedAwayOver15Percent(awaySplit.over15Pct());
+            dto.setWeightedHomeOver25Percent(homeSplit.over25Pct());
+            dto.setWeightedAwayOver25Percent(awaySplit.over25Pct());
+            dto.setWeightedHomeOver35Percent(homeSplit.over35Pct());
+            dto.setWeightedAwayOver35Percent(awaySplit.over35Pct());
+            dto.setWeightedHomeMatches(homeSplit.matchCount());
+            dto.setWeightedAwayMatches(awaySplit.matchCount());
 
             result.add(dto);
         }
@@ -338,6 +348,15 @@ public class FormGuideService {
                 .thenComparing(r -> r.getGd(), Comparator.reverseOrder())
                 .thenComparing(FormGuideRowDTO::getGf, Comparator.reverseOrder())
                 .thenComparing(FormGuideRowDTO::getTeamName));
+        if (jfr.shouldCommit()) {
+            jfr.leagueId = leagueId;
+            jfr.seasonId = seasonId;
+            jfr.scope = scope.name();
+            jfr.limit = limit;
+            jfr.matchRows = rows != null ? rows.size() : 0;
+            jfr.teams = result.size();
+            jfr.commit();
+        }
         return result;
     }
 
@@ -345,52 +364,28 @@ public class FormGuideService {
         return Math.round(v * 100.0) / 100.0;
     }
 
-    // Recency weight: i=0 most recent, then decays as 1/(1+i)
+    // Recency weight: i=0 most recent, then decays as 1/(1+decay*i) (decay 1 by default, see ModelParameters)
     private double calculateWeight(int matchIndexFromMostRecent) {
-        return 1.0 / (1 + matchIndexFromMostRecent);
+        return parameters().weight(matchIndexFromMostRecent);
     }
 
-    private static class Row {
+    private ModelParameters parameters() {
+        return modelParameterService != null ? modelParameterService.current() : ModelParameters.DEFAULTS;
+    }
+
+    private static class Row implements FormWeighting.Result {
         final Long teamId; final String teamName; final java.sql.Date date; final Integer round; final int gf; final int ga; final boolean isHome; final String oppName;
         Row(Long teamId, String teamName, java.sql.Date date, Integer round, int gf, int ga, boolean isHome, String oppName) { this.teamId = teamId; this.teamName = teamName; this.date = date; this.round = round; this.gf = gf; this.ga = ga; this.isHome = isHome; this.oppName = oppName; }
         public java.sql.Date getDate() { return date; }
         public Integer getRound() { return round; }
+        @Override public int goalsFor() { return gf; }
+        @Override public int goalsAgainst() { return ga; }
     }
 
-    private static class Split {
-        final double avgGf; final double avgGa; final double ppg; final int bttsPct; final int over15Pct; final int over25Pct; final int over35Pct; final int matchCount;
-        Split(double avgGf, double avgGa, double ppg, int bttsPct, int over15Pct, int over25Pct, int over35Pct, int matchCount) {
-            this.avgGf = avgGf; this.avgGa = avgGa; this.ppg = ppg; this.bttsPct = bttsPct; this.over15Pct = over15Pct; this.over25Pct = over25Pct; this.over35Pct = over35Pct; this.matchCount = matchCount;
-        }
-    }
-
-    private Split computeWeightedSplit(List<Row> list, int limit) {
-        if (list == null || list.isEmpty()) return new Split(0.0, 0.0, 0.0, 0, 0, 0, 0, 0);
+    private FormWeighting.Split computeWeightedSplit(List<Row> list, int limit) {
+        if (list == null || list.isEmpty()) return FormWeighting.Split.EMPTY;
         list.sort(Comparator.comparing(Row::getDate).reversed().thenComparing(Row::getRound, Comparator.nullsLast(Comparator.reverseOrder())));
-        int window = Math.min(limit, list.size());
-        double sumW = 0.0, wGf = 0.0, wGa = 0.0, wPts = 0.0, wBtts = 0.0, wOv15 = 0.0, wOv25 = 0.0, wOv35 = 0.0;
-        for (int i = 0; i < window; i++) {
-            Row r = list.get(i);
-            double w = calculateWeight(i);
-            sumW += w;
-            wGf += r.gf * w;
-            wGa += r.ga * w;
-            if (r.gf > r.ga) wPts += 3 * w; else if (r.gf == r.ga) wPts += 1 * w;
-            if (r.gf > 0 && r.ga > 0) wBtts += w;
-            int total = r.gf + r.ga;
-            if (total >= 2) wOv15 += w;
-            if (total >= 3) wOv25 += w;
-            if (total >= 4) wOv35 += w;
-        }
-        if (sumW == 0.0) return new Split(0.0, 0.0, 0.0, 0, 0, 0, 0, window);
-        double avgGf = wGf / sumW;
-        double avgGa = wGa / sumW;
-        double ppg = wPts / sumW;
-        int bttsPct = (int) Math.round((wBtts * 100.0) / sumW);
-        int over15Pct = (int) Math.round((wOv15 * 100.0) / sumW);
-        int over25Pct = (int) Math.round((wOv25 * 100.0) / sumW);
-        int over35Pct = (int) Math.round((wOv35 * 100.0) / sumW);
-        return new Split(avgGf, avgGa, ppg, bttsPct, over15Pct, over25Pct, over35Pct, window);
+        return FormWeighting.split(list, limit, parameters());
     }
 
     // New: compute forms for specific team IDs, with season-scoped first and global fallback if sparse
@@ -403,76 +398,27 @@ public class FormGuideService {
         List<FormGuideRowDTO> out = new ArrayList<>(teamIds.size());
         java.time.LocalDate today = java.time.LocalDate.now(java.time.ZoneId.of("Africa/Nairobi"));
 
+        // One windowed statement for every team's season rows (only the window and the sparse check are needed),
+        // plus one for the global fallback of sparse teams, instead of two unbounded reads per team
+        Map<Long, List<MatchRow>> scopedRows = null;
+        Map<Long, List<MatchRow>> globalRows = Map.of();
+        if (teamHistoryService != null) {
+            scopedRows = teamHistoryService.recentPerTeam(teamIds, Math.max(limit, 3),
+                    new TeamHistoryService.Filters(leagueId, seasonId, true, today));
+            List<Long> sparse = new ArrayList<>();
+            scopedRows.forEach((id, rows) -> { if (rows.size() < 3) sparse.add(id); });
+            if (!sparse.isEmpty()) globalRows = teamHistoryService.recentPerTeam(sparse, limit, TeamHistoryService.Filters.SCORED.asOf(today));
+        }
+
         for (Long teamId : teamIds) {
             if (teamId == null) continue;
-            // Season-scoped, league-scoped queries for this team
-            String sHome =
-                    "SELECT m.match_date AS md, m.round AS rnd, t.id AS team_id, t.name AS team_name, m.home_goals AS gf, m.away_goals AS ga, 1 AS is_home, opp.name AS opp_name, m.id AS match_id " +
-                    "FROM matches m JOIN teams t ON t.id = m.home_team_id JOIN teams opp ON opp.id = m.away_team_id " +
-                    "WHERE m.league_id = ?1 AND m.season_id = ?2 AND m.status = 'PLAYED' AND m.home_team_id = ?3 AND m.match_date IS NOT NULL AND m.match_date <= ?4";
-            String sAway =
-                    "SELECT m.match_date AS md, m.round AS rnd, t.id AS team_id, t.name AS team_name, m.away_goals AS gf, m.home_goals AS ga, 0 AS is_home, opp.name AS opp_name, m.id AS match_id " +
-                    "FROM matches m JOIN teams t ON t.id = m.away_team_id JOIN teams opp ON opp.id = m.home_team_id " +
-                    "WHERE m.league_id = ?1 AND m.season_id = ?2 AND m.status = 'PLAYED' AND m.away_team_id = ?3 AND m.match_date IS NOT NULL AND m.match_date <= ?4";
-            String scoped = "SELECT * FROM (" + sHome + " UNION ALL " + sAway + ") x ORDER BY md DESC, CASE WHEN rnd IS NULL THEN 1 ELSE 0 END ASC, rnd DESC, match_id DESC";
-            @SuppressWarnings("unchecked")
-            List<Object[]> rs = em.createNativeQuery(scoped)
-                    .setParameter(1, leagueId)
-                    .setParameter(2, seasonId)
-                    .setParameter(3, teamId)
-                    .setParameter(4, java.sql.Date.valueOf(today))
-                    .getResultList();
-            List<Row> list = new ArrayList<>();
-            for (Object[] r : rs) {
-                Object dateObj = r[0];
-                java.sql.Date date = (dateObj instanceof java.sql.Date)
-                        ? (java.sql.Date) dateObj
-                        : (dateObj instanceof java.time.LocalDate ? java.sql.Date.valueOf((java.time.LocalDate) dateObj) : null);
-                Integer round = r[1] == null ? 0 : ((Number) r[1]).intValue();
-                Long tId = ((Number) r[2]).longValue();
-                String tName = (String) r[3];
-                int gf = ((Number) r[4]).intValue();
-                int ga = ((Number) r[5]).intValue();
-                boolean isHome = ((Number) r[6]).intValue() == 1;
-                String oppName = (String) r[7];
-                list.add(new Row(tId, tName, date, round, gf, ga, isHome, oppName));
-                if (list.size() >= Math.max(limit, 5)) { /* only need up to limit for metrics */ }
-            }
+            List<Row> list = scopedRows != null ? toRows(teamId, scopedRows.get(teamId)) : scopedRowsForTeam(leagueId, seasonId, teamId, today);
 
             boolean usedFallback = false;
             if (list.size() < 3) {
                 // Global fallback for this team (all competitions)
-                String gHome =
-                        "SELECT m.match_date AS md, m.round AS rnd, t.id AS team_id, t.name AS team_name, m.home_goals AS gf, m.away_goals AS ga, 1 AS is_home, opp.name AS opp_name, m.id AS match_id " +
-                        "FROM matches m JOIN teams t ON t.id = m.home_team_id JOIN teams opp ON opp.id = m.away_team_id " +
-                        "WHERE (m.home_team_id = ?1) AND m.status = 'PLAYED' AND m.match_date IS NOT NULL AND m.match_date <= ?2";
-                String gAway =
-                        "SELECT m.match_date AS md, m.round AS rnd, t.id AS team_id, t.name AS team_name, m.away_goals AS gf, m.home_goals AS ga, 0 AS is_home, opp.name AS opp_name, m.id AS match_id " +
-                        "FROM matches m JOIN teams t ON t.id = m.away_team_id JOIN teams opp ON opp.id = m.home_team_id " +
-                        "WHERE (m.away_team_id = ?1) AND m.status = 'PLAYED' AND m.match_date IS NOT NULL AND m.match_date <= ?2";
-                String gsql = "SELECT * FROM (" + gHome + " UNION ALL " + gAway + ") x ORDER BY md DESC, CASE WHEN rnd IS NULL THEN 1 ELSE 0 END ASC, rnd DESC, match_id DESC";
                 log.info("[FormGuide][Fallback] Scoped matches <3 for teamId={}; using global recent.", teamId);
-                @SuppressWarnings("unchecked")
-                List<Object[]> gRows = em.createNativeQuery(gsql)
-                        .setParameter(1, teamId)
-                        .setParameter(2, java.sql.Date.valueOf(today))
-                        .getResultList();
-                list.clear();
-                for (Object[] r : gRows) {
-                    Object dateObj = r[0];
-                    java.sql.Date date = (dateObj instanceof java.sql.Date)
-                            ? (java.sql.Date) dateObj
-                            : (dateObj instanceof java.time.LocalDate ? java.sql.Date.valueOf((java.time.LocalDate) dateObj) : null);
-                    Integer round = r[1] == null ? 0 : ((Number) r[1]).intValue();
-                    Long tId = ((Number) r[2]).longValue();
-                    String tName = (String) r[3];
-                    int gf = ((Number) r[4]).intValue();
-                    int ga = ((Number) r[5]).intValue();
-                    boolean isHome = ((Number) r[6]).intValue() == 1;
-                    String oppName = (String) r[7];
-                    list.add(new Row(tId, tName, date, round, gf, ga, isHome, oppName));
-                    if (list.size() >= Math.max(limit, 5)) { /* cap for computation */ }
-                }
+                list = scopedRows != null ? toRows(teamId, globalRows.get(teamId)) : globalRowsForTeam(teamId, today);
                 usedFallback = !list.isEmpty();
             }
 
@@ -531,4 +477,76 @@ public class FormGuideService {
         }
         return out;
     }
+
+    private List<Row> scopedRowsForTeam(Long leagueId, Long seasonId, Long teamId, java.time.LocalDate today) {
+        // Season-scoped, league-scoped queries for this team
+        String sHome =
+                "SELECT m.match_date AS md, m.round AS rnd, t.id AS team_id, t.name AS team_name, m.home_goals AS gf, m.away_goals AS ga, 1 AS is_home, opp.name AS opp_name, m.id AS match_id " +
+                "FROM matches m JOIN teams t ON t.id = m.home_team_id JOIN teams opp ON opp.id = m.away_team_id " +
+                "WHERE m.league_id = ?1 AND m.season_id = ?2 AND m.status = 'PLAYED' AND m.home_team_id = ?3 AND m.match_date IS NOT NULL AND m.match_date <= ?4";
+        String sAway =
+                "SELECT m.match_date AS md, m.round AS rnd, t.id AS team_id, t.name AS team_name, m.away_goals AS gf, m.home_goals AS ga, 0 AS is_home, opp.name AS opp_name, m.id AS match_id " +
+                "FROM matches m JOIN teams t ON t.id = m.away_team_id JOIN teams opp ON opp.id = m.home_team_id " +
+                "WHERE m.league_id = ?1 AND m.season_id = ?2 AND m.status = 'PLAYED' AND m.away_team_id = ?3 AND m.match_date IS NOT NULL AND m.match_date <= ?4";
+        String scoped = "SELECT * FROM (" + sHome + " UNION ALL " + sAway + ") x ORDER BY md DESC, CASE WHEN rnd IS NULL THEN 1 ELSE 0 END ASC, rnd DESC, match_id DESC";
+        @SuppressWarnings("unchecked")
+        List<Object[]> rs = em.createNativeQuery(scoped)
+                .setParameter(1, leagueId)
+                .setParameter(2, seasonId)
+                .setParameter(3, teamId)
+                .setParameter(4, java.sql.Date.valueOf(today))
+                .getResultList();
+        return toRows(rs);
+    }
+
+    private List<Row> globalRowsForTeam(Long teamId, java.time.LocalDate today) {
+        String gHome =
+                "SELECT m.match_date AS md, m.round AS rnd, t.id AS team_id, t.name AS team_name, m.home_goals AS gf, m.away_goals AS ga, 1 AS is_home, opp.name AS opp_name, m.id AS match_id " +
+                "FROM matches m JOIN teams t ON t.id = m.home_team_id JOIN teams opp ON opp.id = m.away_team_id " +
+                "WHERE (m.home_team_id = ?1) AND m.status = 'PLAYED' AND m.match_date IS NOT NULL AND m.match_date <= ?2";
+        String gAway =
+                "SELECT m.match_date AS md, m.round AS rnd, t.id AS team_id, t.name AS team_name, m.away_goals AS gf, m.home_goals AS ga, 0 AS is_home, opp.name AS opp_name, m.id AS match_id " +
+                "FROM matches m JOIN teams t ON t.id = m.away_team_id JOIN teams opp ON opp.id = m.home_team_id " +
+                "WHERE (m.away_team_id = ?1) AND m.status = 'PLAYED' AND m.match_date IS NOT NULL AND m.match_date <= ?2";
+        String gsql = "SELECT * FROM (" + gHome + " UNION ALL " + gAway + ") x ORDER BY md DESC, CASE WHEN rnd IS NULL THEN 1 ELSE 0 END ASC, rnd DESC, match_id DESC";
+        @SuppressWarnings("unchecked")
+        List<Object[]> gRows = em.createNativeQuery(gsql)
+                .setParameter(1, teamId)
+                .setParameter(2, java.sql.Date.valueOf(today))
+                .getResultList();
+        return toRows(gRows);
+    }
+
+    private static List<Row> toRows(List<Object[]> rs) {
+        List<Row> list = new ArrayList<>(rs.size());
+        for (Object[] r : rs) {
+            Object dateObj = r[0];
+            java.sql.Date date = (dateObj instanceof java.sql.Date)
+                    ? (java.sql.Date) dateObj
+                    : (dateObj instanceof java.time.LocalDate ? java.sql.Date.valueOf((java.time.LocalDate) dateObj) : null);
+            Integer round = r[1] == null ? 0 : ((Number) r[1]).intValue();
+            Long tId = ((Number) r[2]).longValue();
+            String tName = (String) r[3];
+            int gf = ((Number) r[4]).intValue();
+            int ga = ((Number) r[5]).intValue();
+            boolean isHome = ((Number) r[6]).intValue() == 1;
+            String oppName = (String) r[7];
+            list.add(new Row(tId, tName, date, round, gf, ga, isHome, oppName));
+        }
+        return list;
+    }
+
+    /** Team-perspective rows from a per-team history batch (scored and dated, newest first). */
+    private static List<Row> toRows(Long teamId, List<MatchRow> rows) {
+        List<Row> list = new ArrayList<>();
+        if (rows == null) return list;
+        for (MatchRow r : rows) {
+            boolean isHome = teamId.equals(r.homeTeamId());
+            int gf = isHome ? r.homeGoals() : r.awayGoals();
+            int ga = isHome ? r.awayGoals() : r.homeGoals();
+            list.add(new Row(teamId, isHome ? r.homeTeamName() : r.awayTeamName(), java.sql.Date.valueOf(r.date()),
+                    r.round() == null ? 0 : r.round(), gf, ga, isHome, r.opponentName(isHome)));
+        }
+        return list;
+    }
 }
@@ -0,0 +1,55 @@
+package com.chambua.vismart.service;
+
+import java.util.List;
+
+/**
+ * Recency-weighted form window of {@link FormGuideService}: the weighted home/away splits behind the form guide and
+ * the deterministic model's xG. Pure arithmetic over goals, so it can be exercised without a database.
+ */
+public final class FormWeighting {
+
+    private FormWeighting() {}
+
+    /** Goals of one match from the team's perspective. */
+    public interface Result {
+        int goalsFor();
+        int goalsAgainst();
+    }
+
+    /** Weighted averages (goals, PPG) and percentages over the first {@code matchCount} results. */
+    public record Split(double avgGf, double avgGa, double ppg, int bttsPct, int over15Pct, int over25Pct, int over35Pct,
+                        int matchCount) {
+        public static final Split EMPTY = new Split(0.0, 0.0, 0.0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Folds the most recent {@code limit} results, newest first, with the recency weights of {@code parameters}
+     * (see {@link ModelParameters#weight(int)}).
+     */
+    public static Split split(List<? extends Result> newestFirst, int limit, ModelParameters parameters) {
+        if (newestFirst == null || newestFirst.isEmpty()) return Split.EMPTY;
+        int window = Math.min(limit, newestFirst.size());
+        double sumW = 0.0, wGf = 0.0, wGa = 0.0, wPts = 0.0, wBtts = 0.0, wOv15 = 0.0, wOv25 = 0.0, wOv35 = 0.0;
+        for (int i = 0; i < window; i++) {
+            Result r = newestFirst.get(i);
+            int gf = r.goalsFor(), ga = r.goalsAgainst();
+            double w = parameters.weight(i);
+            sumW += w;
+            wGf += gf * w;
+            wGa += ga * w;
+            if (gf > ga) wPts += 3 * w; else if (gf == ga) wPts += 1 * w;
+            if (gf > 0 && ga > 0) wBtts += w;
+            int total = gf + ga;
+            if (total >= 2) wOv15 += w;
+            if (total >= 3) wOv25 += w;
+            if (total >= 4) wOv35 += w;
+        }
+        if (sumW == 0.0) return new Split(0.0, 0.0, 0.0, 0, 0, 0, 0, window);
+        return new Split(wGf / sumW, wGa / sumW, wPts / sumW,
+                (int) Math.round((wBtts * 100.0) / sumW),
+                (int) Math.round((wOv15 * 100.0) / sumW),
+                (int) Math.round((wOv25 * 100.0) / sumW),
+                (int) Math.round((wOv35 * 100.0) / sumW),
+                window);
+    }
+}
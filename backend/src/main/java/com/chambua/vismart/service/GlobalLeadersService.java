@@ -1,6 +1,7 @@
 package com.chambua.vismart.service;
 
 import com.chambua.vismart.dto.GlobalLeaderDto;
+import com.chambua.vismart.util.PipelineMetrics;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -48,8 +49,10 @@ public class GlobalLeadersService {
         String cacheKey = cat + ":" + limit + ":" + minMatches + ":" + sc + ":" + ln + ":" + (leagueId == null ? "all" : leagueId);
         CacheEntry ce = cache.get(cacheKey);
         if (ce != null && ce.expiresAt.isAfter(Instant.now())) {
+            PipelineMetrics.cache("global_leaders", true);
             return ce.data;
         }
+        PipelineMetrics.cache("global_leaders", false);
 
         // Conditions independent of perspective (except wins)
         String condBTTS = "(f.home_goals is not null and f.away_goals is not null and f.home_goals > 0 and f.away_goals > 0)";
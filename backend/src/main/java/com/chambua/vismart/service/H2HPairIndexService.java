@@ -0,0 +1,375 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.util.TrigramIndex;
+import com.chambua.vismart.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of distinct played team-name pairs (unordered) with match counts and last played date,
+ * backing H2H suggestions.
+ *
+ * Built once from a grouped query over matches, then kept current from the ingest path: newly persisted played
+ * matches are queued after commit (see {@link MatchChangeListener}) and folded into the snapshot on the next
+ * search. Updates/removals of existing matches cannot be expressed as a delta and mark the snapshot for rebuild.
+ *
+ * A build reads up to the highest committed match id and only then drains the queue, under the build lock,
+ * skipping matches at or below that watermark; deltas are never drained into a snapshot that is being replaced.
+ * A match inserted before, but committed after, a higher id was read is only counted by the next rebuild.
+ */
+@Service
+public class H2HPairIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(H2HPairIndexService.class);
+
+    private static final AtomicLong GENERATION = new AtomicLong(1);
+    private static final ConcurrentLinkedQueue<PairDelta> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger PENDING_SIZE = new AtomicInteger();
+    // Beyond these sizes a full rebuild is cheaper than linear scans / unbounded queues
+    private static final int MAX_PENDING = 50_000;
+    private static final int MAX_OVERLAY = 2_000;
+
+    private final MatchRepository matchRepository;
+    private final TeamRepository teamRepository;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public H2HPairIndexService(MatchRepository matchRepository, TeamRepository teamRepository) {
+        this.matchRepository = matchRepository;
+        this.teamRepository = teamRepository;
+    }
+
+    public record PairSuggestion(String teamA, String teamB, long matches, LocalDate lastPlayed) {}
+
+    record PairDelta(Long matchId, String home, String away, LocalDate date) {}
+
+    /** Mark the index stale; the next search rebuilds it. */
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+    }
+
+    static void enqueue(List<PairDelta> deltas) {
+        if (deltas == null || deltas.isEmpty()) return;
+        if (PENDING_SIZE.addAndGet(deltas.size()) > MAX_PENDING) {
+            PENDING.clear();
+            PENDING_SIZE.set(0);
+            invalidate();
+            return;
+        }
+        PENDING.addAll(deltas);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            current();
+        } catch (Exception e) {
+            log.warn("[H2H][PairIndex] Warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pairs where either team name contains the query (case-insensitive), ordered by number of meetings then
+     * most recent meeting. Names inside a pair are ordered alphabetically. Empty Optional = index unavailable.
+     */
+    public Optional<List<PairSuggestion>> suggest(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) return Optional.of(List.of());
+        Snapshot snap;
+        try {
+            snap = current();
+        } catch (Exception e) {
+            log.warn("[H2H][PairIndex] Unavailable, falling back to DB: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (snap == null) return Optional.empty();
+        // A build in progress drains the queue itself once its read is done
+        if (!PENDING.isEmpty() && buildLock.tryLock()) {
+            try {
+                snap = snapshot;
+                drainPending(snap);
+            } finally {
+                buildLock.unlock();
+            }
+        }
+        return Optional.of(snap.search(query.trim().toLowerCase(Locale.ROOT), limit));
+    }
+
+    /** Folds queued deltas into the published snapshot; caller holds {@link #buildLock}. */
+    private void drainPending(Snapshot snap) {
+        PairDelta d;
+        while ((d = PENDING.poll()) != null) {
+            PENDING_SIZE.decrementAndGet();
+            // Already counted by the build's read
+            if (d.matchId() != null && d.matchId() <= snap.watermark) continue;
+            snap.apply(d);
+        }
+        if (snap.overlay.size() > MAX_OVERLAY) invalidate();
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && s.generation == GENERATION.get()) {
+            PipelineMetrics.cache("h2h_pair_index", true);
+            return s;
+        }
+        PipelineMetrics.cache("h2h_pair_index", false);
+        if (s == null) {
+            buildLock.lock();
+        } else if (!buildLock.tryLock()) {
+            return s;
+        }
+        try {
+            Snapshot again = snapshot;
+            if (again != null && again.generation == GENERATION.get()) return again;
+            long st = System.nanoTime();
+            Snapshot built = build();
+            drainPending(built);
+            PipelineMetrics.cacheRebuild("h2h_pair_index", st);
+            snapshot = built;
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private Snapshot build() {
+        long started = System.currentTimeMillis();
+        long gen = GENERATION.get();
+        // Queued deltas stay queued; the caller drains them against this watermark after the read
+        long watermark = matchRepository.findMaxId();
+
+        Map<Long, String> teamNames = new HashMap<>();
+        for (TeamRepository.TeamIndexProjection t : teamRepository.findAllForSearchIndex()) {
+            if (t != null && t.getId() != null && t.getName() != null) teamNames.put(t.getId(), t.getName());
+        }
+        Map<String, Integer> nameIds = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        Map<String, Pair> byKey = new HashMap<>();
+        List<List<Pair>> pairsByName = new ArrayList<>();
+        for (Object[] row : matchRepository.aggregatePlayedPairsByTeamIds(watermark)) {
+            if (row == null || row.length < 4 || row[0] == null || row[1] == null) continue;
+            String home = teamNames.get(((Number) row[0]).longValue());
+            String away = teamNames.get(((Number) row[1]).longValue());
+            String hk = key(home), ak = key(away);
+            if (hk.isEmpty() || ak.isEmpty() || hk.equals(ak)) continue;
+            long count = row[2] != null ? ((Number) row[2]).longValue() : 0L;
+            LocalDate last = row[3] instanceof LocalDate ld ? ld : null;
+            String pk = pairKey(hk, ak);
+            Pair p = byKey.get(pk);
+            if (p == null) {
+                p = Pair.of(home, away);
+                byKey.put(pk, p);
+                for (String nk : new String[]{p.aKey, p.bKey}) {
+                    Integer id = nameIds.get(nk);
+                    if (id == null) {
+                        id = names.size();
+                        nameIds.put(nk, id);
+                        names.add(nk);
+                        pairsByName.add(new ArrayList<>());
+                    }
+                    pairsByName.get(id).add(p);
+                }
+            }
+            p.add(count, last);
+        }
+        TrigramIndex.Builder grams = TrigramIndex.builder();
+        for (int i = 0; i < names.size(); i++) grams.add(i, names.get(i));
+        Pair[][] byName = new Pair[pairsByName.size()][];
+        for (int i = 0; i < byName.length; i++) byName[i] = pairsByName.get(i).toArray(new Pair[0]);
+
+        log.info("[H2H][PairIndex] Built pairs={}, names={} up to match {} in {} ms", byKey.size(), names.size(), watermark, System.currentTimeMillis() - started);
+        return new Snapshot(gen, watermark, names.toArray(new String[0]), grams.build(names.size()), byName, byKey);
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String pairKey(String a, String b) {
+        return a.compareTo(b) <= 0 ? a + "|" + b : b + "|" + a;
+    }
+
+    private static final class Pair {
+        final String a, b, aKey, bKey;
+        private long count;
+        private LocalDate last;
+
+        private Pair(String a, String b) {
+            this.a = a; this.b = b;
+            this.aKey = key(a); this.bKey = key(b);
+        }
+
+        static Pair of(String x, String y) {
+            // Alphabetical display order for predictability (orientation is chosen client-side)
+            return x.compareToIgnoreCase(y) <= 0 ? new Pair(x, y) : new Pair(y, x);
+        }
+
+        synchronized void add(long n, LocalDate date) {
+            count += n;
+            if (date != null && (last == null || date.isAfter(last))) last = date;
+        }
+
+        synchronized PairSuggestion view() {
+            return new PairSuggestion(a, b, count, last);
+        }
+    }
+
+    private static final class Snapshot {
+        final long generation;
+        // Highest match id covered by the build's read
+        final long watermark;
+        final String[] names;
+        final TrigramIndex grams;
+        final Pair[][] pairsByName;
+        final Map<String, Pair> byKey;
+        // Pairs first seen after the build; scanned linearly until the next rebuild
+        final List<Pair> overlay = new CopyOnWriteArrayList<>();
+
+        Snapshot(long generation, long watermark, String[] names, TrigramIndex grams, Pair[][] pairsByName, Map<String, Pair> byKey) {
+            this.generation = generation;
+            this.watermark = watermark;
+            this.names = names;
+            this.grams = grams;
+            this.pairsByName = pairsByName;
+            this.byKey = new java.util.concurrent.ConcurrentHashMap<>(byKey);
+        }
+
+        void apply(PairDelta d) {
+            String hk = key(d.home()), ak = key(d.away());
+            if (hk.isEmpty() || ak.isEmpty() || hk.equals(ak)) return;
+            Pair p = byKey.computeIfAbsent(pairKey(hk, ak), k -> {
+                Pair np = Pair.of(d.home().trim(), d.away().trim());
+                overlay.add(np);
+                return np;
+            });
+            p.add(1, d.date());
+        }
+
+        List<PairSuggestion> search(String q, int limit) {
+            Map<Pair, Boolean> seen = new IdentityHashMap<>();
+            List<PairSuggestion> hits = new ArrayList<>();
+            for (int i : grams.candidates(q)) {
+                if (!names[i].contains(q)) continue;
+                for (Pair p : pairsByName[i]) {
+                    if (seen.put(p, Boolean.TRUE) == null) hits.add(p.view());
+                }
+            }
+            for (Pair p : overlay) {
+                if ((p.aKey.contains(q) || p.bKey.contains(q)) && seen.put(p, Boolean.TRUE) == null) hits.add(p.view());
+            }
+            hits.sort((x, y) -> {
+                int c = Long.compare(y.matches(), x.matches());
+                if (c != 0) return c;
+                if (x.lastPlayed() != null || y.lastPlayed() != null) {
+                    if (x.lastPlayed() == null) return 1;
+                    if (y.lastPlayed() == null) return -1;
+                    c = y.lastPlayed().compareTo(x.lastPlayed());
+                    if (c != 0) return c;
+                }
+                c = x.teamA().compareToIgnoreCase(y.teamA());
+                return c != 0 ? c : x.teamB().compareToIgnoreCase(y.teamB());
+            });
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        }
+    }
+
+    /**
+     * JPA entity listener registered on Match. Newly persisted played matches become pair deltas applied after
+     * commit; updates and removals invalidate the index. Nothing is applied for rolled-back transactions.
+     */
+    public static class MatchChangeListener {
+        @jakarta.persistence.PostPersist
+        public void onPersist(Match m) {
+            PairDelta d = toDelta(m);
+            if (d == null) {
+                if (isPlayed(m)) afterCommit(null, true);
+                return;
+            }
+            afterCommit(d, false);
+        }
+
+        @jakarta.persistence.PostUpdate
+        @jakarta.persistence.PostRemove
+        public void onChange(Match m) {
+            afterCommit(null, true);
+        }
+
+        private static boolean isPlayed(Match m) {
+            return m != null && (m.getStatus() == MatchStatus.PLAYED || (m.getHomeGoals() != null && m.getAwayGoals() != null));
+        }
+
+        private static PairDelta toDelta(Match m) {
+            if (!isPlayed(m)) return null;
+            // Only read names from loaded teams; never trigger lazy loading inside a flush
+            if (m.getHomeTeam() == null || m.getAwayTeam() == null
+                    || !org.hibernate.Hibernate.isInitialized(m.getHomeTeam()) || !org.hibernate.Hibernate.isInitialized(m.getAwayTeam())) {
+                return null;
+            }
+            String h = m.getHomeTeam().getName();
+            String a = m.getAwayTeam().getName();
+            if (h == null || a == null) return null;
+            return new PairDelta(m.getId(), h, a, m.getDate());
+        }
+
+        private static void afterCommit(PairDelta delta, boolean invalidate) {
+            if (!org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive()) {
+                if (invalidate) invalidate();
+                if (delta != null) enqueue(List.of(delta));
+                return;
+            }
+            Object key = MatchChangeListener.class;
+            TxState state = (TxState) org.springframework.transaction.support.TransactionSynchronizationManager.getResource(key);
+            if (state == null) {
+                TxState fresh = new TxState();
+                state = fresh;
+                org.springframework.transaction.support.TransactionSynchronizationManager.bindResource(key, fresh);
+                org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(
+                        new org.springframework.transaction.support.TransactionSynchronization() {
+                            @Override
+                            public void afterCommit() {
+                                if (fresh.invalidate) invalidate();
+                                else enqueue(fresh.deltas);
+                            }
+
+                            @Override
+                            public void afterCompletion(int status) {
+                                org.springframework.transaction.support.TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                            }
+                        });
+            }
+            if (invalidate) {
+                state.invalidate = true;
+                state.deltas.clear();
+            } else if (!state.invalidate && delta != null) {
+                state.deltas.add(delta);
+            }
+        }
+
+        private static final class TxState {
+            boolean invalidate;
+            final List<PairDelta> deltas = new ArrayList<>();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.chambua.vismart.service;
 import com.chambua.vismart.model.Match;
 import com.chambua.vismart.model.Team;
 import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchRow;
 import com.chambua.vismart.repository.TeamRepository;
 import com.chambua.vismart.util.TeamNameNormalizer;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,9 @@ public class H2HService {
     private final TeamRepository teamRepository;
     private final com.chambua.vismart.config.FeatureFlags featureFlags;
 
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private TeamHistoryService teamHistoryService;
+
     public H2HService(MatchRepository matchRepository, TeamRepository teamRepository, com.chambua.vismart.config.FeatureFlags featureFlags) {
         this.matchRepository = matchRepository;
         this.teamRepository = teamRepository;
@@ -186,19 +190,19 @@ public class H2HService {
             // Recent streaks and PPG trends for each team (last-5 across all matches)
             java.util.function.Function<String, com.chambua.vismart.dto.FormSummary> fetchForm = (name) -> {
                 try {
-                    java.util.List<com.chambua.vismart.model.Match> recent = matchRepository.findRecentPlayedByTeamName(name);
+                    java.util.List<MatchRow> recent = teamHistoryService != null
+                            ? teamHistoryService.recent(name, 5, TeamHistoryService.Filters.SCORED)
+                            : TeamHistoryService.apply(MatchRow.of(matchRepository.findRecentPlayedByTeamName(name)), 5, TeamHistoryService.Filters.SCORED);
                     java.util.ArrayList<String> results = new java.util.ArrayList<>();
                     java.util.ArrayList<Double> ppg = new java.util.ArrayList<>();
                     int wins = 0, draws = 0; int cum = 0; int cnt = 0;
-                    for (com.chambua.vismart.model.Match m : recent) {
+                    for (MatchRow m : recent) {
                         if (results.size() >= 5) break;
-                        Integer hg = m.getHomeGoals(); Integer ag = m.getAwayGoals();
-                        if (hg == null || ag == null) continue;
-                        boolean isHome = (m.getHomeTeam()!=null && m.getHomeTeam().getName()!=null && m.getHomeTeam().getName().equalsIgnoreCase(name));
-                        int my = isHome ? hg : ag; int opp = isHome ? ag : hg;
+                        String res = m.outcome(m.isHome(name));
+                        if (res == null) continue;
                         int pts;
-                        if (my > opp) { results.add("W"); wins++; pts = 3; }
-                        else if (my == opp) { results.add("D"); draws++; pts = 1; }
+                        if ("W".equals(res)) { results.add("W"); wins++; pts = 3; }
+                        else if ("D".equals(res)) { results.add("D"); draws++; pts = 1; }
                         else { results.add("L"); pts = 0; }
                         cnt++; cum += pts; double p = cnt>0 ? ((double)cum)/cnt : 0.0; ppg.add(Math.round(p*10.0)/10.0);
                     }
@@ -1,6 +1,7 @@
 package com.chambua.vismart.service;
 
 import com.chambua.vismart.dto.AnalysisRequest;
+import com.chambua.vismart.util.JfrEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ClassPathResource;
@@ -37,22 +38,44 @@ public class LaTeXService {
     private static final Logger log = LoggerFactory.getLogger(LaTeXService.class);
 
     public byte[] generateAnalysisPdf(AnalysisRequest req) throws IOException, InterruptedException {
+        JfrEvents.PdfRenderEvent jfr = new JfrEvents.PdfRenderEvent();
+        jfr.begin();
+        Rendered rendered = null;
+        try {
+            rendered = renderAnalysisPdf(req);
+            return rendered.pdf();
+        } finally {
+            if (jfr.shouldCommit()) {
+                jfr.homeTeam = req.getTeamA() != null ? req.getTeamA().getName() : null;
+                jfr.awayTeam = req.getTeamB() != null ? req.getTeamB().getName() : null;
+                jfr.totalMatches = req.getTotalMatches();
+                jfr.renderer = rendered != null ? rendered.renderer() : "failed";
+                jfr.bytes = rendered != null ? rendered.pdf().length : 0;
+                jfr.commit();
+            }
+        }
+    }
+
+    /** PDF bytes and which path produced them: latex, itext (fallback) or minimal. */
+    private record Rendered(byte[] pdf, String renderer) {}
+
+    private Rendered renderAnalysisPdf(AnalysisRequest req) throws IOException, InterruptedException {
         String template = loadTemplate();
         String tex = buildLatexFromTemplate(template, req);
         try {
             if (!isLatexAvailable()) {
                 log.warn("latexmk not available on PATH; using iText fallback PDF generator");
-                return buildRichPdfFallback(req);
+                return new Rendered(buildRichPdfFallback(req), "itext");
             }
-            return compileLatex(tex);
+            return new Rendered(compileLatex(tex), "latex");
         } catch (Exception ex) {
             log.error("LaTeX compilation failed; using iText fallback PDF generator", ex);
             try {
-                return buildRichPdfFallback(req);
+                return new Rendered(buildRichPdfFallback(req), "itext");
             } catch (Exception inner) {
                 log.error("iText fallback PDF generation also failed; returning minimal PDF bytes", inner);
-                return minimalPdf(("Fixture Analysis: " + safe(req.getTeamA()!=null?req.getTeamA().getName():"") +
-                        " vs " + safe(req.getTeamB()!=null?req.getTeamB().getName():""))).getBytes(StandardCharsets.UTF_8);
+                return new Rendered(minimalPdf(("Fixture Analysis: " + safe(req.getTeamA()!=null?req.getTeamA().getName():"") +
+                        " vs " + safe(req.getTeamB()!=null?req.getTeamB().getName():""))).getBytes(StandardCharsets.UTF_8), "minimal");
             }
         }
     }
@@ -0,0 +1,413 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.AdminAudit;
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.repository.AdminAuditRepository;
+import com.chambua.vismart.repository.FixtureRepository;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchStatsRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamAliasRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background deletion of a league (matches, fixtures, team aliases, teams, seasons, then the league row) or of a
+ * single season (its matches, then the season row).
+ *
+ * Matches and fixtures are removed in keyset id chunks: each chunk reads the next {@code chunkSize} ids of the
+ * scope and bulk-deletes that id range in its own short transaction, so no request thread or long transaction
+ * holds locks over a whole league. Job state is an {@link AdminAudit} row (params = {@link Progress} JSON,
+ * affectedCount = rows deleted so far) updated in the same transaction as each chunk. Jobs run one at a time on a
+ * single worker thread and can be cancelled between chunks; rows already deleted stay deleted.
+ *
+ * Bulk deletes bypass entity listeners, so match-derived caches are invalidated explicitly when a job ends.
+ */
+@Service
+public class LeagueDeletionJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeagueDeletionJobService.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    static final String LEAGUE_ACTION = "delete_league_job";
+    static final String SEASON_ACTION = "delete_season_job";
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED;
+
+        public boolean isFinal() {
+            return this == COMPLETED || this == CANCELLED || this == FAILED;
+        }
+    }
+
+    /** Job state as stored in the audit row and returned by the admin endpoints. */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Progress {
+        public Long jobId;
+        public String scope; // "league" or "season"
+        public Long leagueId;
+        public Long seasonId;
+        public String label;
+        public Status status;
+        public String phase;
+        public long matchesTotal;
+        public long matchesDeleted;
+        public long fixturesDeleted;
+        public long teamsDeleted;
+        public long seasonsDeleted;
+        public boolean leagueDeleted;
+        public boolean cancelRequested;
+        public String error;
+        public String startedAt;
+        public String finishedAt;
+
+        long affected() {
+            return matchesDeleted + fixturesDeleted + teamsDeleted + seasonsDeleted + (leagueDeleted ? 1 : 0);
+        }
+    }
+
+    private final LeagueRepository leagueRepository;
+    private final SeasonRepository seasonRepository;
+    private final MatchRepository matchRepository;
+    private final MatchStatsRepository matchStatsRepository;
+    private final FixtureRepository fixtureRepository;
+    private final TeamRepository teamRepository;
+    private final TeamAliasRepository teamAliasRepository;
+    private final AdminAuditRepository adminAuditRepository;
+    private final TransactionTemplate chunkTx;
+    private final int chunkSize;
+    private final long chunkPauseMs;
+    private final DataVersionService dataVersionService;
+    private final FixtureEventHub fixtureEventHub;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "league-deletion");
+        t.setDaemon(true);
+        return t;
+    });
+    // Live jobs only: cancel flag per job id, job id per target ("league:1" / "season:7")
+    private final Map<Long, AtomicBoolean> cancelFlags = new ConcurrentHashMap<>();
+    private final Map<String, Long> activeByTarget = new ConcurrentHashMap<>();
+
+    public LeagueDeletionJobService(LeagueRepository leagueRepository,
+                                    SeasonRepository seasonRepository,
+                                    MatchRepository matchRepository,
+                                    MatchStatsRepository matchStatsRepository,
+                                    FixtureRepository fixtureRepository,
+                                    TeamRepository teamRepository,
+                                    TeamAliasRepository teamAliasRepository,
+                                    AdminAuditRepository adminAuditRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    DataVersionService dataVersionService,
+                                    FixtureEventHub fixtureEventHub,
+                                    @Value("${app.admin.delete.chunk-size:1000}") int chunkSize,
+                                    @Value("${app.admin.delete.chunk-pause-ms:20}") long chunkPauseMs) {
+        this.leagueRepository = leagueRepository;
+        this.seasonRepository = seasonRepository;
+        this.matchRepository = matchRepository;
+        this.matchStatsRepository = matchStatsRepository;
+        this.fixtureRepository = fixtureRepository;
+        this.teamRepository = teamRepository;
+        this.teamAliasRepository = teamAliasRepository;
+        this.adminAuditRepository = adminAuditRepository;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dataVersionService = dataVersionService;
+        this.fixtureEventHub = fixtureEventHub;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPauseMs = Math.max(0, chunkPauseMs);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        cancelFlags.values().forEach(f -> f.set(true));
+        worker.shutdown();
+    }
+
+    /** Queues deletion of a league and everything under it; empty when the league does not exist. */
+    public Optional<Progress> startLeagueDeletion(Long leagueId) {
+        League league = leagueId == null ? null : leagueRepository.findById(leagueId).orElse(null);
+        if (league == null) return Optional.empty();
+        Progress p = newProgress("league", leagueId, null, league.getName() + " (" + league.getCountry() + ")");
+        p.matchesTotal = matchRepository.countByLeagueId(leagueId);
+        return Optional.of(submit("league:" + leagueId, LEAGUE_ACTION, p));
+    }
+
+    /** Queues deletion of one season of a league and its matches; empty when the season is not in that league. */
+    public Optional<Progress> startSeasonDeletion(Long leagueId, Long seasonId) {
+        Season season = seasonId == null ? null : seasonRepository.findById(seasonId).orElse(null);
+        if (season == null || season.getLeague() == null || !season.getLeague().getId().equals(leagueId)) return Optional.empty();
+        Progress p = newProgress("season", leagueId, seasonId, season.getName());
+        p.matchesTotal = matchRepository.countBySeasonId(seasonId);
+        return Optional.of(submit("season:" + seasonId, SEASON_ACTION, p));
+    }
+
+    public Optional<Progress> status(Long jobId) {
+        if (jobId == null) return Optional.empty();
+        return adminAuditRepository.findById(jobId)
+                .filter(a -> LEAGUE_ACTION.equals(a.getAction()) || SEASON_ACTION.equals(a.getAction()))
+                .map(this::read);
+    }
+
+    /** Most recent deletion jobs, newest first. */
+    public List<Progress> recent(int limit) {
+        int n = Math.max(1, Math.min(limit, 200));
+        return adminAuditRepository.findByActionInOrderByIdDesc(List.of(LEAGUE_ACTION, SEASON_ACTION), PageRequest.of(0, n))
+                .stream().map(this::read).toList();
+    }
+
+    /** Requests cancellation; the job stops before its next chunk. Empty when the job does not exist. */
+    public Optional<Progress> cancel(Long jobId) {
+        AtomicBoolean flag = jobId == null ? null : cancelFlags.get(jobId);
+        if (flag != null) flag.set(true);
+        return status(jobId).map(p -> {
+            if (flag != null && !p.status.isFinal()) p.cancelRequested = true;
+            return p;
+        });
+    }
+
+    private Progress newProgress(String scope, Long leagueId, Long seasonId, String label) {
+        Progress p = new Progress();
+        p.scope = scope;
+        p.leagueId = leagueId;
+        p.seasonId = seasonId;
+        p.label = label;
+        p.status = Status.QUEUED;
+        p.phase = "queued";
+        return p;
+    }
+
+    private Progress submit(String target, String action, Progress p) {
+        synchronized (activeByTarget) {
+            Long running = activeByTarget.get(target);
+            if (running != null) {
+                Optional<Progress> existing = status(running);
+                if (existing.isPresent() && !existing.get().status.isFinal()) return existing.get();
+            }
+            AdminAudit audit = new AdminAudit();
+            audit.setAction(action);
+            audit.setAffectedCount(0L);
+            audit.setParams(write(p));
+            audit = adminAuditRepository.save(audit);
+            long jobId = audit.getId();
+            p.jobId = jobId;
+            AtomicBoolean cancel = new AtomicBoolean(false);
+            cancelFlags.put(jobId, cancel);
+            activeByTarget.put(target, jobId);
+            Progress view = copy(p); // the worker mutates p from now on
+            worker.execute(() -> run(jobId, target, p, cancel));
+            log.info("[LeagueDelete] Queued job {} for {} {}", jobId, target, p.label);
+            return view;
+        }
+    }
+
+    private void run(long jobId, String target, Progress p, AtomicBoolean cancel) {
+        boolean seasonScope = "season".equals(p.scope);
+        Set<Long> touchedTeams = new HashSet<>();
+        long t0 = System.currentTimeMillis();
+        try {
+            p.status = Status.RUNNING;
+            p.startedAt = Instant.now().toString();
+            p.phase = "matches";
+            save(jobId, p);
+
+            if (!deleteMatches(jobId, p, seasonScope, touchedTeams, cancel)) return;
+
+            if (seasonScope) {
+                p.phase = "season";
+                chunkTx.executeWithoutResult(s -> {
+                    seasonRepository.findById(p.seasonId).ifPresent(season -> {
+                        seasonRepository.delete(season);
+                        p.seasonsDeleted = 1;
+                    });
+                    save(jobId, p);
+                });
+            } else {
+                p.phase = "fixtures";
+                save(jobId, p);
+                if (!deleteFixtures(jobId, p, cancel)) return;
+                if (cancelled(jobId, p, cancel)) return;
+
+                p.phase = "teams";
+                touchedTeams.addAll(teamRepository.findIdsByLeagueId(p.leagueId));
+                chunkTx.executeWithoutResult(s -> {
+                    teamAliasRepository.deleteByTeam_League_Id(p.leagueId);
+                    p.teamsDeleted = teamRepository.deleteByLeague_Id(p.leagueId);
+                    save(jobId, p);
+                });
+                if (cancelled(jobId, p, cancel)) return;
+
+                p.phase = "league";
+                chunkTx.executeWithoutResult(s -> {
+                    p.seasonsDeleted = seasonRepository.deleteByLeague_Id(p.leagueId);
+                    leagueRepository.deleteById(p.leagueId);
+                    p.leagueDeleted = true;
+                    save(jobId, p);
+                });
+            }
+            finish(jobId, p, Status.COMPLETED, null);
+            log.info("[LeagueDelete] Job {} completed: {} matches, {} fixtures, {} teams, {} seasons in {} ms",
+                    jobId, p.matchesDeleted, p.fixturesDeleted, p.teamsDeleted, p.seasonsDeleted, System.currentTimeMillis() - t0);
+        } catch (Exception e) {
+            log.error("[LeagueDelete] Job {} failed in phase {}: {}", jobId, p.phase, e.getMessage(), e);
+            try {
+                finish(jobId, p, Status.FAILED, e.getMessage());
+            } catch (Exception saveFailure) {
+                log.warn("[LeagueDelete] Job {} could not be marked FAILED: {}", jobId, saveFailure.getMessage());
+            }
+        } finally {
+            // Bulk deletes skip the Match entity listeners
+            if (p.matchesDeleted > 0) {
+                H2HPairIndexService.invalidate();
+                TeamRatingService.invalidate();
+                AdminLeagueSummaryService.invalidate();
+                TeamDomesticLeagueService.markDirty(touchedTeams);
+            }
+            if (p.teamsDeleted > 0) TeamSearchIndexService.invalidate();
+            if (p.matchesDeleted > 0) dataVersionService.bump(p.leagueId, p.seasonId);
+            if (p.fixturesDeleted > 0 || p.seasonsDeleted > 0) dataVersionService.bumpLeague(p.leagueId);
+            // Fixture chunks are JPQL bulk deletes as well: stream subscribers refetch their date
+            if (p.fixturesDeleted > 0) fixtureEventHub.reloadAll();
+            activeByTarget.remove(target, jobId);
+            cancelFlags.remove(jobId);
+        }
+    }
+
+    /** Returns false when the job was cancelled. */
+    private boolean deleteMatches(long jobId, Progress p, boolean seasonScope, Set<Long> touchedTeams, AtomicBoolean cancel) {
+        PageRequest page = PageRequest.of(0, chunkSize);
+        long after = 0L;
+        while (true) {
+            if (cancelled(jobId, p, cancel)) return false;
+            List<Long> ids = seasonScope
+                    ? matchRepository.findIdsBySeasonAfter(p.seasonId, after, page)
+                    : matchRepository.findIdsByLeagueAfter(p.leagueId, after, page);
+            if (ids.isEmpty()) return true;
+            long from = ids.get(0);
+            long to = ids.get(ids.size() - 1);
+            chunkTx.executeWithoutResult(s -> {
+                for (Object[] r : matchRepository.findTeamIdsByIds(ids)) {
+                    if (r[0] != null) touchedTeams.add(((Number) r[0]).longValue());
+                    if (r[1] != null) touchedTeams.add(((Number) r[1]).longValue());
+                }
+                matchStatsRepository.deleteByMatchIds(ids);
+                p.matchesDeleted += seasonScope
+                        ? matchRepository.deleteBySeasonIdAndIdBetween(p.seasonId, from, to)
+                        : matchRepository.deleteByLeagueIdAndIdBetween(p.leagueId, from, to);
+                save(jobId, p);
+            });
+            if (ids.size() < chunkSize) return true;
+            after = to;
+            pause();
+        }
+    }
+
+    private boolean deleteFixtures(long jobId, Progress p, AtomicBoolean cancel) {
+        PageRequest page = PageRequest.of(0, chunkSize);
+        long after = 0L;
+        while (true) {
+            if (cancelled(jobId, p, cancel)) return false;
+            List<Long> ids = fixtureRepository.findIdsByLeagueAfter(p.leagueId, after, page);
+            if (ids.isEmpty()) return true;
+            long from = ids.get(0);
+            long to = ids.get(ids.size() - 1);
+            chunkTx.executeWithoutResult(s -> {
+                p.fixturesDeleted += fixtureRepository.deleteByLeagueIdAndIdBetween(p.leagueId, from, to);
+                save(jobId, p);
+            });
+            if (ids.size() < chunkSize) return true;
+            after = to;
+            pause();
+        }
+    }
+
+    private boolean cancelled(long jobId, Progress p, AtomicBoolean cancel) {
+        if (!cancel.get()) return false;
+        finish(jobId, p, Status.CANCELLED, null);
+        log.info("[LeagueDelete] Job {} cancelled in phase {} after {} matches, {} fixtures", jobId, p.phase, p.matchesDeleted, p.fixturesDeleted);
+        return true;
+    }
+
+    private void finish(long jobId, Progress p, Status status, String error) {
+        p.status = status;
+        p.error = error;
+        p.cancelRequested = false;
+        p.finishedAt = Instant.now().toString();
+        if (status == Status.COMPLETED) p.phase = "done";
+        save(jobId, p);
+    }
+
+    private void pause() {
+        if (chunkPauseMs <= 0) return;
+        try {
+            Thread.sleep(chunkPauseMs); // let interactive queries in between chunks
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void save(long jobId, Progress p) {
+        adminAuditRepository.findById(jobId).ifPresent(a -> {
+            a.setParams(write(p));
+            a.setAffectedCount(p.affected());
+            adminAuditRepository.save(a);
+        });
+    }
+
+    private Progress read(AdminAudit a) {
+        Progress p;
+        try {
+            p = JSON.readValue(a.getParams(), Progress.class);
+        } catch (Exception e) {
+            p = new Progress();
+            p.status = Status.FAILED;
+            p.error = "Unreadable job record";
+        }
+        p.jobId = a.getId();
+        if (p.status == null) p.status = Status.FAILED;
+        // A non-final record without a live worker was interrupted (e.g. by a restart)
+        if (!p.status.isFinal() && !cancelFlags.containsKey(a.getId())) {
+            p.status = Status.FAILED;
+            p.error = "Interrupted; start the deletion again to resume";
+        }
+        return p;
+    }
+
+    private static Progress copy(Progress p) {
+        try {
+            return JSON.readValue(write(p), Progress.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot copy deletion progress", e);
+        }
+    }
+
+    private static String write(Progress p) {
+        try {
+            return JSON.writeValueAsString(p);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot serialize deletion progress", e);
+        }
+    }
+}
@@ -6,8 +6,12 @@ import com.chambua.vismart.model.MatchAnalysisResult;
 import com.chambua.vismart.model.Season;
 import com.chambua.vismart.dto.LeagueTableEntryDTO;
 import com.chambua.vismart.repository.MatchAnalysisResultRepository;
+import com.chambua.vismart.repository.MatchRow;
 import com.chambua.vismart.repository.TeamAliasRepository;
 import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.util.AnalysisTrace;
+import com.chambua.vismart.util.JfrEvents;
+import com.chambua.vismart.util.PipelineMetrics;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -21,9 +25,6 @@ import java.util.*;
 @Service
 public class MatchAnalysisService {
 
-    private static final int DEFAULT_FORM_LIMIT = 6;
-    private static final int DEFAULT_H2H_LIMIT = 6;
-
     private final MatchAnalysisResultRepository cacheRepo;
     private final ObjectMapper objectMapper;
     private final FormGuideService formGuideService;
@@ -38,6 +39,25 @@ public class MatchAnalysisService {
     private H2HService h2hService;
     @Autowired(required = false)
     private com.chambua.vismart.config.FeatureFlags featureFlags;
+    // Bounded played-history reads (LIMIT pushed into SQL); entity queries are used when absent (legacy constructors/tests)
+    @Autowired(required = false)
+    private TeamHistoryService teamHistoryService;
+
+    // Cached leagues/seasons/current season/league families; repository + SeasonService queries are used when absent
+    @Autowired(required = false)
+    private ReferenceDataService referenceDataService;
+
+    // Persisted team -> domestic league mapping; falls back to counting the latest season's matches when absent
+    @Autowired(required = false)
+    private TeamDomesticLeagueService teamDomesticLeagueService;
+
+    // Active tuning constants; the built-in defaults are used when absent
+    @Autowired(required = false)
+    private ModelParameterService modelParameterService;
+
+    // Long-term Elo/attack/defence ratings shown alongside the analysis (optional)
+    @Autowired(required = false)
+    private TeamRatingService teamRatingService;
 
     public MatchAnalysisService(MatchAnalysisResultRepository cacheRepo, ObjectMapper objectMapper,
                                 FormGuideService formGuideService, SeasonService seasonService,
@@ -96,20 +116,32 @@ public class MatchAnalysisService {
         long t0 = System.currentTimeMillis();
         String at = (analysisType == null || analysisType.isBlank()) ? "match" : analysisType.trim().toLowerCase();
         boolean fixturesMode = "fixtures".equals(at);
+        ModelParameters params = modelParameterService != null ? modelParameterService.current() : ModelParameters.DEFAULTS;
+        String modelVariant = modelVariant(params);
         logger.info("[ANALYZE][REQ] type={} leagueId={} seasonId={} homeId={} awayId={} home='{}' away='{}' refresh={}", at, leagueId, seasonId, homeTeamId, awayTeamId, homeTeamName, awayTeamName, refresh);
+        JfrEvents.AnalysisEvent jfrAnalysis = new JfrEvents.AnalysisEvent();
+        jfrAnalysis.begin();
         // If we have IDs, no explicit season context, and not refreshing, try cache first (disabled for fixtures mode to avoid mixing)
         if (!fixturesMode && !refresh && seasonId == null && leagueId != null && homeTeamId != null && awayTeamId != null) {
+            long stageStart = System.nanoTime();
             Optional<MatchAnalysisResult> cached = cacheRepo.findByLeagueIdAndHomeTeamIdAndAwayTeamId(leagueId, homeTeamId, awayTeamId);
             if (cached.isPresent()) {
                 try {
                     String json = cached.get().getResultJson();
                     JsonNode node = objectMapper.readTree(json);
                     String variant = node.has("modelVariant") ? node.get("modelVariant").asText(null) : null;
-                    if ("v2.1".equals(variant)) {
-                        return objectMapper.treeToValue(node, MatchAnalysisResponse.class);
+                    if (modelVariant.equals(variant)) {
+                        MatchAnalysisResponse hit = objectMapper.treeToValue(node, MatchAnalysisResponse.class);
+                        hit.setTeamRatings(teamRatings(homeTeamId, awayTeamId));
+                        PipelineMetrics.cache("match_analysis", true);
+                        PipelineMetrics.stage("cache_lookup", stageStart);
+                        commitAnalysisEvent(jfrAnalysis, leagueId, seasonId, homeTeamId, awayTeamId, at, true, 0, 0, null);
+                        return hit;
                     }
                 } catch (Exception ignored) { /* fall through to recompute on JSON error */ }
             }
+            PipelineMetrics.cache("match_analysis", false);
+            PipelineMetrics.stage("cache_lookup", stageStart);
         }
 
         // Deterministic seed generation (still used for other mock stats only)
@@ -136,11 +168,15 @@ public class MatchAnalysisService {
         int baseHome = 33, baseDraw = 34, baseAway = 33; // sensible defaults
         int baseBtts = btts;
         int baseOver25 = over25;
+        int formRows = 0;
+        long stageStart = System.nanoTime();
         try {
-            Long sid = (seasonId != null) ? seasonId : seasonService.findCurrentSeason(leagueId).map(Season::getId).orElse(null);
+            Long sid = (seasonId != null) ? seasonId : currentSeasonId(leagueId);
             if (sid != null) {
-                List<FormGuideRowDTO> rows = formGuideService.compute(leagueId, sid, DEFAULT_FORM_LIMIT, FormGuideService.Scope.OVERALL);
+                List<FormGuideRowDTO> rows = formGuideService.compute(leagueId, sid, params.formLimit(), FormGuideService.Scope.OVERALL);
                 logger.info("[ANALYZE][FORM] leagueId={} seasonId={} rows={}", leagueId, sid, rows != null ? rows.size() : 0);
+                formRows = rows != null ? rows.size() : 0;
+                AnalysisTrace.rows(formRows);
                 if (seasonId != null && (rows == null || rows.isEmpty())) {
                     throw new IllegalArgumentException("No matches found for selected season");
                 }
@@ -148,68 +184,10 @@ public class MatchAnalysisService {
                 FormGuideRowDTO awayRow = findTeamRow(rows, awayTeamId, awayTeamName);
                 logger.info("[ANALYZE][FORM] homeRowFound={} awayRowFound={} homeId={} awayId={}", homeRow != null, awayRow != null, homeTeamId, awayTeamId);
 
-                // Determine PPG for each side with fallback to overall ppg if insufficient split matches
-                double homePpg = 0.0;
-                double awayPpg = 0.0;
-                boolean haveHome = homeRow != null;
-                boolean haveAway = awayRow != null;
-                if (haveHome) {
-                    int hm = homeRow.getWeightedHomeMatches();
-                    homePpg = (hm >= 2 ? homeRow.getWeightedHomePPG() : homeRow.getPpg());
-                    if (fixturesMode) { homePpg = homeRow.getPpg(); }
-                }
-                if (haveAway) {
-                    int am = awayRow.getWeightedAwayMatches();
-                    awayPpg = (am >= 2 ? awayRow.getWeightedAwayPPG() : awayRow.getPpg());
-                    if (fixturesMode) { awayPpg = awayRow.getPpg(); }
-                }
-
-                if (!haveHome || !haveAway) {
-                    // If any team row missing, neutral default for W/D/L per safety
-                    home = 40; draw = 20; away = 40;
-                } else {
-                    double total = homePpg + awayPpg;
-                    if (total <= 0.0) {
-                        // Equal probabilities with slight bias to draw
-                        home = 33; away = 33; draw = 34;
-                    } else {
-                        double homeWeight = homePpg / total;
-                        double awayWeight = awayPpg / total;
-                        double scale = fixturesMode ? 0.65 : 0.75;
-                        home = (int) Math.round(homeWeight * 100.0 * scale);
-                        away = (int) Math.round(awayWeight * 100.0 * scale);
-                        draw = 100 - (home + away);
-                        if (draw < 0) draw = 0; // safety
-                    }
-                }
-
-                // BTTS/Over2.5: use weighted splits for match mode; simpler overall averages for fixtures mode
-                if (haveHome && haveAway) {
-                    Integer hBtts = fixturesMode ? homeRow.getBttsPct() : homeRow.getWeightedHomeBTTSPercent();
-                    Integer aBtts = fixturesMode ? awayRow.getBttsPct() : awayRow.getWeightedAwayBTTSPercent();
-                    Integer hOv25 = fixturesMode ? homeRow.getOver25Pct() : homeRow.getWeightedHomeOver25Percent();
-                    Integer aOv25 = fixturesMode ? awayRow.getOver25Pct() : awayRow.getWeightedAwayOver25Percent();
-
-                    // Fallback to overall averages if weighted splits are unavailable or zero in match mode
-                    if (!fixturesMode) {
-                        if (hBtts == null || hBtts <= 0) hBtts = homeRow.getBttsPct();
-                        if (aBtts == null || aBtts <= 0) aBtts = awayRow.getBttsPct();
-                        if (hOv25 == null || hOv25 <= 0) hOv25 = homeRow.getOver25Pct();
-                        if (aOv25 == null || aOv25 <= 0) aOv25 = awayRow.getOver25Pct();
-                    }
-
-                    int hBttsEff = (hBtts != null && hBtts > 0) ? hBtts : 0;
-                    int aBttsEff = (aBtts != null && aBtts > 0) ? aBtts : 0;
-                    int hOv25Eff = (hOv25 != null && hOv25 > 0) ? hOv25 : 0;
-                    int aOv25Eff = (aOv25 != null && aOv25 > 0) ? aOv25 : 0;
-
-                    if (hBttsEff > 0 && aBttsEff > 0) {
-                        btts = (int) Math.round((hBttsEff + aBttsEff) / 2.0);
-                    }
-                    if (hOv25Eff > 0 && aOv25Eff > 0) {
-                        over25 = (int) Math.round((hOv25Eff + aOv25Eff) / 2.0);
-                    }
-                }
+                // W/D/L from (weighted split) PPG, BTTS/Over2.5 from (weighted split) percentages
+                DeterministicModel.Blend form = DeterministicModel.formStage(params,
+                        DeterministicModel.TeamForm.of(homeRow), DeterministicModel.TeamForm.of(awayRow), fixturesMode);
+                home = form.home(); draw = form.draw(); away = form.away(); btts = form.btts(); over25 = form.over25();
                 // capture base after form computation
                 baseHome = home; baseDraw = draw; baseAway = away; baseBtts = btts; baseOver25 = over25;
             } else {
@@ -222,16 +200,25 @@ public class MatchAnalysisService {
             home = 40; draw = 20; away = 40;
             baseHome = home; baseDraw = draw; baseAway = away; baseBtts = btts; baseOver25 = over25;
         }
+        PipelineMetrics.stage("form", stageStart);
         
         // Integrate Head-to-Head (H2H) recency-weighted adjustments over last N matches
         int h2hWindow = 0; double h2hPpgHome = 0.0, h2hPpgAway = 0.0; int h2hBttsPct = 0, h2hOv25Pct = 0;
         java.util.List<com.chambua.vismart.model.Match> h2hUsed = null;
+        // Which lookup tier produced the H2H matches (exported as vismart.analysis.h2h.resolution)
+        String h2hTier = "none";
+        JfrEvents.H2HLookupEvent jfrH2h = new JfrEvents.H2HLookupEvent();
+        jfrH2h.begin();
+        stageStart = System.nanoTime();
         try {
             // Allow H2H retrieval if we have a league and either IDs or names for both teams
             if (leagueId != null && ((homeTeamId != null && awayTeamId != null) || (homeTeamName != null && awayTeamName != null))) {
                 List<com.chambua.vismart.model.Match> h2h = null;
                 List<Long> leagueIds = null;
-                if (leagueRepository != null) {
+                if (referenceDataService != null) {
+                    try { leagueIds = referenceDataService.leagueFamilyIds(leagueId); } catch (Exception ignoredRef) { /* fall back to repository */ }
+                }
+                if ((leagueIds == null || leagueIds.isEmpty()) && leagueRepository != null) {
                     try {
                         var leagueOpt = leagueRepository.findById(leagueId);
                         if (leagueOpt.isPresent()) {
@@ -246,21 +233,27 @@ public class MatchAnalysisService {
                         // Prefer strict season-scoped H2H when seasonId provided
                         if (seasonId != null) {
                             h2h = matchRepository.findHeadToHeadBySeason(leagueId, seasonId, homeTeamId, awayTeamId);
+                            h2hTier = "season";
                         }
                         // If none found or no season provided, try within league family or same league
                         if (h2h == null || h2h.isEmpty()) {
                             if (leagueIds != null && !leagueIds.isEmpty()) {
                                 h2h = matchRepository.findHeadToHeadAcrossLeagues(leagueIds, homeTeamId, awayTeamId);
+                                h2hTier = "league_family";
                             } else {
                                 // Fallback: same-league only
                                 h2h = matchRepository.findHeadToHead(leagueId, homeTeamId, awayTeamId);
+                                h2hTier = "league";
                             }
                         }
-                    } catch (Exception ignored2) { h2h = matchRepository.findHeadToHead(leagueId, homeTeamId, awayTeamId); }
+                    } catch (Exception ignored2) { h2h = matchRepository.findHeadToHead(leagueId, homeTeamId, awayTeamId); h2hTier = "league"; }
                 }
 
                 // Fallback or primary path: resolve via name/alias-based ID sets within the league family if IDs missing or strict lookup empty
                 if ((h2h == null || h2h.isEmpty()) && teamRepository != null && (homeTeamName != null || awayTeamName != null)) {
+                    long stNames = System.nanoTime();
+                    // New team ids contributed by exact name, name-containing and alias matches
+                    int[] nameMatches = new int[3];
                     Set<Long> homeIds = new LinkedHashSet<>();
                     Set<Long> awayIds = new LinkedHashSet<>();
                     if (homeTeamId != null) homeIds.add(homeTeamId);
@@ -270,16 +263,16 @@ public class MatchAnalysisService {
                         try {
                             if (leagueIds != null && !leagueIds.isEmpty()) {
                                 for (Long lid : leagueIds) {
-                                    try { teamRepository.findAllByLeagueIdAndNameIgnoreCase(lid, hn).forEach(t -> { if (t.getId()!=null) homeIds.add(t.getId()); }); } catch (Exception ignored3) {}
-                                    try { teamRepository.findAllByLeagueIdAndNameContainingIgnoreCase(lid, hn).forEach(t -> { if (t.getId()!=null) homeIds.add(t.getId()); }); } catch (Exception ignored3) {}
+                                    try { addTeamIds(homeIds, teamRepository.findAllByLeagueIdAndNameIgnoreCase(lid, hn), nameMatches, 0); } catch (Exception ignored3) {}
+                                    try { addTeamIds(homeIds, teamRepository.findAllByLeagueIdAndNameContainingIgnoreCase(lid, hn), nameMatches, 1); } catch (Exception ignored3) {}
                                 }
                             } else {
-                                teamRepository.findAllByLeagueIdAndNameIgnoreCase(leagueId, hn).forEach(t -> { if (t.getId()!=null) homeIds.add(t.getId()); });
-                                teamRepository.findAllByLeagueIdAndNameContainingIgnoreCase(leagueId, hn).forEach(t -> { if (t.getId()!=null) homeIds.add(t.getId()); });
+                                addTeamIds(homeIds, teamRepository.findAllByLeagueIdAndNameIgnoreCase(leagueId, hn), nameMatches, 0);
+                                addTeamIds(homeIds, teamRepository.findAllByLeagueIdAndNameContainingIgnoreCase(leagueId, hn), nameMatches, 1);
                             }
                         } catch (Exception ignored2) {}
                         if (teamAliasRepository != null) {
-                            try { teamAliasRepository.findAllByAliasIgnoreCase(hn).forEach(a -> { if (a.getTeam()!=null && a.getTeam().getId()!=null) homeIds.add(a.getTeam().getId()); }); } catch (Exception ignored2) {}
+                            try { teamAliasRepository.findAllByAliasIgnoreCase(hn).forEach(a -> { if (a.getTeam()!=null && a.getTeam().getId()!=null && homeIds.add(a.getTeam().getId())) nameMatches[2]++; }); } catch (Exception ignored2) {}
                         }
                     }
                     if (awayTeamName != null && !awayTeamName.isBlank()) {
@@ -287,16 +280,16 @@ public class MatchAnalysisService {
                         try {
                             if (leagueIds != null && !leagueIds.isEmpty()) {
                                 for (Long lid : leagueIds) {
-                                    try { teamRepository.findAllByLeagueIdAndNameIgnoreCase(lid, an).forEach(t -> { if (t.getId()!=null) awayIds.add(t.getId()); }); } catch (Exception ignored3) {}
-                                    try { teamRepository.findAllByLeagueIdAndNameContainingIgnoreCase(lid, an).forEach(t -> { if (t.getId()!=null) awayIds.add(t.getId()); }); } catch (Exception ignored3) {}
+                                    try { addTeamIds(awayIds, teamRepository.findAllByLeagueIdAndNameIgnoreCase(lid, an), nameMatches, 0); } catch (Exception ignored3) {}
+                                    try { addTeamIds(awayIds, teamRepository.findAllByLeagueIdAndNameContainingIgnoreCase(lid, an), nameMatches, 1); } catch (Exception ignored3) {}
                                 }
                             } else {
-                                teamRepository.findAllByLeagueIdAndNameIgnoreCase(leagueId, an).forEach(t -> { if (t.getId()!=null) awayIds.add(t.getId()); });
-                                teamRepository.findAllByLeagueIdAndNameContainingIgnoreCase(leagueId, an).forEach(t -> { if (t.getId()!=null) awayIds.add(t.getId()); });
+                                addTeamIds(awayIds, teamRepository.findAllByLeagueIdAndNameIgnoreCase(leagueId, an), nameMatches, 0);
+                                addTeamIds(awayIds, teamRepository.findAllByLeagueIdAndNameContainingIgnoreCase(leagueId, an), nameMatches, 1);
                             }
                         } catch (Exception ignored2) {}
                         if (teamAliasRepository != null) {
-                            try { teamAliasRepository.findAllByAliasIgnoreCase(an).forEach(a -> { if (a.getTeam()!=null && a.getTeam().getId()!=null) awayIds.add(a.getTeam().getId()); }); } catch (Exception ignored2) {}
+                            try { teamAliasRepository.findAllByAliasIgnoreCase(an).forEach(a -> { if (a.getTeam()!=null && a.getTeam().getId()!=null && awayIds.add(a.getTeam().getId())) nameMatches[2]++; }); } catch (Exception ignored2) {}
                         }
                     }
                     if (!homeIds.isEmpty() && !awayIds.isEmpty()) {
@@ -311,129 +304,73 @@ public class MatchAnalysisService {
                             }
                             if (h2hSets != null && !h2hSets.isEmpty()) {
                                 h2h = h2hSets;
+                                h2hTier = "name_sets";
                             }
                         } catch (Exception ignored2) { /* keep empty */ }
                     }
+                    AnalysisTrace.note("h2hNameMatches", "exact=" + nameMatches[0] + " containing=" + nameMatches[1] + " alias=" + nameMatches[2]);
+                    PipelineMetrics.stage("h2h_name_resolution", stNames);
                 }
                 if (h2h != null && !h2h.isEmpty()) {
                     h2hUsed = h2h;
-                    int window = Math.min(DEFAULT_H2H_LIMIT, h2h.size());
-                    logger.info("[ANALYZE][H2H] pairsFound={} usingWindow={}", h2h.size(), window);
-                    double sumW = 0.0, wHome = 0.0, wDraw = 0.0, wAway = 0.0, wBtts = 0.0, wOv25 = 0.0, wOv15 = 0.0;
-                    for (int i = 0; i < window; i++) {
-                        var m = h2h.get(i); // already sorted desc by date
-                        double w = 1.0 / (1 + i); // recency weighting
-                        sumW += w;
-                        int hg, ag;
-                        boolean perspectiveHomeIsHome = (m.getHomeTeam() != null && m.getHomeTeam().getId() != null && m.getHomeTeam().getId().equals(homeTeamId));
-                        if (perspectiveHomeIsHome) { hg = nvl(m.getHomeGoals()); ag = nvl(m.getAwayGoals()); }
-                        else { hg = nvl(m.getAwayGoals()); ag = nvl(m.getHomeGoals()); }
-                        if (hg > ag) wHome += 3 * w; else if (hg == ag) wDraw += 1 * w; else wAway += 3 * w;
-                        int total = hg + ag;
-                        if (hg > 0 && ag > 0) wBtts += w;
-                        if (total >= 2) wOv15 += w;
-                        if (total >= 3) wOv25 += w;
-                    }
-                    if (sumW > 0.0) {
-                        h2hPpgHome = (wHome + wDraw) / sumW; // 3*win + 1*draw normalized by weights -> PPG
-                        h2hPpgAway = (wAway + wDraw) / sumW;
-                        h2hWindow = window;
-                        // Convert to probabilities from PPG as done for form (scale to 75% band, draw is remainder)
-                        double totalPpg = h2hPpgHome + h2hPpgAway;
-                        int h2hHomePct, h2hDrawPct, h2hAwayPct;
-                        if (totalPpg <= 0.0) {
-                            h2hHomePct = 33; h2hAwayPct = 33; h2hDrawPct = 34;
-                        } else {
-                            double hW = h2hPpgHome / totalPpg;
-                            double aW = h2hPpgAway / totalPpg;
-                            h2hHomePct = (int) Math.round(hW * 100.0 * 0.75);
-                            h2hAwayPct = (int) Math.round(aW * 100.0 * 0.75);
-                            h2hDrawPct = 100 - (h2hHomePct + h2hAwayPct);
-                            if (h2hDrawPct < 0) h2hDrawPct = 0;
-                        }
-                        h2hBttsPct = (int) Math.round((wBtts * 100.0) / sumW);
-                        h2hOv25Pct = (int) Math.round((wOv25 * 100.0) / sumW);
-
-                        // Blend factor alpha based on number of H2H considered.
-                        // Fixtures mode: softer cap (35%) to keep simpler model; Match mode: stronger cap (60%) to reflect recency.
-                        double alphaCap = fixturesMode ? 0.35 : 0.60;
-                        double alpha = Math.min(alphaCap, (window / (double) DEFAULT_H2H_LIMIT) * alphaCap);
-                        logger.info("[ANALYZE][H2H_BLEND] type={} alpha={} form={{H:{},D:{},A:{}}} h2h={{H:{},D:{},A:{}}}", fixturesMode?"fixtures":"match", String.format("%.2f", alpha), home, draw, away, h2hHomePct, h2hDrawPct, h2hAwayPct);
-                        // Blend W/D/L
-                        double bHome = (1 - alpha) * home + alpha * h2hHomePct;
-                        double bAway = (1 - alpha) * away + alpha * h2hAwayPct;
-                        double bDraw = (1 - alpha) * draw + alpha * h2hDrawPct;
-                        // Normalize to 100 with rounding safety
-                        int[] triplet = normalizeTriplet((int) Math.round(bHome), (int) Math.round(bDraw), (int) Math.round(bAway));
-                        home = triplet[0]; draw = triplet[1]; away = triplet[2];
-
-                        // Blend BTTS and Over2.5
-                        btts = clampPercent((int) Math.round((1 - alpha) * btts + alpha * h2hBttsPct));
-                        over25 = clampPercent((int) Math.round((1 - alpha) * over25 + alpha * h2hOv25Pct));
+                    AnalysisTrace.rows(h2h.size());
+                    DeterministicModel.H2HStage stage = DeterministicModel.h2hStage(params,
+                            new DeterministicModel.Blend(home, draw, away, btts, over25), h2hGames(h2h, homeTeamId), fixturesMode);
+                    logger.info("[ANALYZE][H2H] pairsFound={} usingWindow={}", h2h.size(), stage.window());
+                    if (stage.window() > 0) {
+                        h2hWindow = stage.window();
+                        h2hPpgHome = stage.ppgHome();
+                        h2hPpgAway = stage.ppgAway();
+                        h2hBttsPct = stage.bttsPct();
+                        h2hOv25Pct = stage.over25Pct();
+                        logger.info("[ANALYZE][H2H_BLEND] type={} form={{H:{},D:{},A:{}}} blended={{H:{},D:{},A:{}}}", fixturesMode?"fixtures":"match", home, draw, away, stage.blend().home(), stage.blend().draw(), stage.blend().away());
+                        home = stage.blend().home(); draw = stage.blend().draw(); away = stage.blend().away();
+                        btts = stage.blend().btts(); over25 = stage.blend().over25();
                     }
                 }
             }
         } catch (Exception ignored) { /* fallback: keep form-only values */ }
+        PipelineMetrics.h2hResolved(h2hUsed != null ? h2hTier : "none");
+        PipelineMetrics.stage("h2h", stageStart);
+        int h2hRows = h2hUsed != null ? h2hUsed.size() : 0;
+        if (jfrH2h.shouldCommit()) {
+            jfrH2h.leagueId = JfrEvents.id(leagueId);
+            jfrH2h.seasonId = JfrEvents.id(seasonId);
+            jfrH2h.homeTeamId = JfrEvents.id(homeTeamId);
+            jfrH2h.awayTeamId = JfrEvents.id(awayTeamId);
+            jfrH2h.path = h2hUsed != null ? h2hTier : "none";
+            jfrH2h.rows = h2hRows;
+            jfrH2h.commit();
+        }
         
         // Fixtures-mode simple bias: use aggregate H2H GD and overall win-rate delta to tilt W/D/L slightly
+        stageStart = System.nanoTime();
         try {
             if (fixturesMode) {
-                int gdAgg = 0; int countGd = 0;
-                if (h2hUsed != null && !h2hUsed.isEmpty()) {
-                    for (com.chambua.vismart.model.Match m : h2hUsed) {
-                        Integer hg = m.getHomeGoals(); Integer ag = m.getAwayGoals();
-                        if (hg == null || ag == null) continue;
-                        boolean perspectiveHomeIsHome = (m.getHomeTeam() != null && m.getHomeTeam().getId() != null && m.getHomeTeam().getId().equals(homeTeamId));
-                        int scored = perspectiveHomeIsHome ? hg : ag;
-                        int conceded = perspectiveHomeIsHome ? ag : hg;
-                        gdAgg += (scored - conceded);
-                        countGd++;
-                    }
-                }
-                double shiftGd = 0.0;
-                if (countGd >= 3) {
-                    // up to +/-6 points based on GD magnitude (e.g., +17 -> about +4)
-                    shiftGd = Math.max(-6.0, Math.min(6.0, gdAgg / 4.0));
+                Long sid2 = (seasonId != null) ? seasonId : currentSeasonId(leagueId);
+                if (sid2 != null) {
+                    java.util.List<FormGuideRowDTO> rows2 = formGuideService.compute(leagueId, sid2, params.formLimit(), FormGuideService.Scope.OVERALL);
+                    DeterministicModel.Blend biased = DeterministicModel.fixturesBias(
+                            new DeterministicModel.Blend(home, draw, away, btts, over25),
+                            h2hUsed != null ? h2hGames(h2hUsed, homeTeamId) : java.util.List.of(),
+                            DeterministicModel.TeamForm.of(findTeamRow(rows2, homeTeamId, homeTeamName)),
+                            DeterministicModel.TeamForm.of(findTeamRow(rows2, awayTeamId, awayTeamName)));
+                    home = biased.home(); draw = biased.draw(); away = biased.away();
                 }
-                // Overall win-rate delta influence up to +/-4
-                try {
-                    Long sid2 = (seasonId != null) ? seasonId : seasonService.findCurrentSeason(leagueId).map(Season::getId).orElse(null);
-                    if (sid2 != null) {
-                        java.util.List<FormGuideRowDTO> rows2 = formGuideService.compute(leagueId, sid2, DEFAULT_FORM_LIMIT, FormGuideService.Scope.OVERALL);
-                        FormGuideRowDTO hr = findTeamRow(rows2, homeTeamId, homeTeamName);
-                        FormGuideRowDTO ar = findTeamRow(rows2, awayTeamId, awayTeamName);
-                        if (hr != null && ar != null && hr.getMp() > 0 && ar.getMp() > 0) {
-                            double hWR = hr.getW() / (double) Math.max(1, hr.getMp());
-                            double aWR = ar.getW() / (double) Math.max(1, ar.getMp());
-                            double deltaWR = hWR - aWR; // -1..+1
-                            double shiftWr = Math.max(-4.0, Math.min(4.0, deltaWR * 10.0));
-                            int totalShift = (int) Math.round(shiftGd + shiftWr);
-                            if (totalShift != 0) {
-                                if (totalShift > 0) {
-                                    int take = Math.min(totalShift, away);
-                                    int[] trip = normalizeTriplet(home + take, draw, away - take);
-                                    home = trip[0]; draw = trip[1]; away = trip[2];
-                                } else {
-                                    int mag = -totalShift;
-                                    int take = Math.min(mag, home);
-                                    int[] trip = normalizeTriplet(home - take, draw, away + take);
-                                    home = trip[0]; draw = trip[1]; away = trip[2];
-                                }
-                            }
-                        }
-                    }
-                } catch (Exception ignoredBias) { /* keep without bias */ }
             }
-        } catch (Exception ignoredBiasOuter) { /* ignore */ }
+        } catch (Exception ignoredBias) { /* keep without bias */ }
+        if (fixturesMode) PipelineMetrics.stage("fixtures_bias", stageStart);
         
         // League position/strength adjustment (season-scoped)
+        stageStart = System.nanoTime();
         try {
             if (leagueId != null) {
-                Long sid = (seasonId != null) ? seasonId : seasonService.findCurrentSeason(leagueId).map(Season::getId).orElse(null);
+                Long sid = (seasonId != null) ? seasonId : currentSeasonId(leagueId);
                 if (sid != null) {
                     List<LeagueTableEntryDTO> table = leagueTableService.computeTableBySeasonId(leagueId, sid);
                     if (table != null && !table.isEmpty()) {
                         int n = table.size();
+                        AnalysisTrace.rows(n);
                         LeagueTableEntryDTO hEntry = null, aEntry = null;
                         for (LeagueTableEntryDTO e : table) {
                             if (hEntry == null && homeTeamId != null && Objects.equals(e.getTeamId(), homeTeamId)) hEntry = e;
@@ -452,147 +389,51 @@ public class MatchAnalysisService {
                         }
                         boolean usable = hEntry != null && aEntry != null && hEntry.getMp() > 0 && aEntry.getMp() > 0 && n > 1;
                         if (usable) {
-                            double hRank = 1.0 - ((hEntry.getPosition() - 1.0) / (n - 1.0)); // 1.0 best, 0.0 worst
-                            double aRank = 1.0 - ((aEntry.getPosition() - 1.0) / (n - 1.0));
-                            double delta = hRank - aRank; // positive if home is stronger
-                            // Max shift up to 10 points based on absolute delta
-                            int maxShift = (int) Math.round(Math.min(10.0, Math.max(0.0, Math.abs(delta) * 10.0)));
-                            if (maxShift > 0) {
-                                if (delta > 0) {
-                                    // shift from away to home, keep draw stable
-                                    int take = Math.min(maxShift, away);
-                                    int[] trip = normalizeTriplet(home + take, draw, away - take);
-                                    home = trip[0]; draw = trip[1]; away = trip[2];
-                                } else if (delta < 0) {
-                                    int take = Math.min(maxShift, home);
-                                    int[] trip = normalizeTriplet(home - take, draw, away + take);
-                                    home = trip[0]; draw = trip[1]; away = trip[2];
-                                }
-                            }
-                            // If teams are very close (|delta| < 0.1), slightly increase draw by up to 2 points, borrowed evenly
-                            if (Math.abs(delta) < 0.1) {
-                                int inc = 2;
-                                int takeH = Math.min(inc / 2, home);
-                                int takeA = Math.min(inc - takeH, away);
-                                int[] trip = normalizeTriplet(home - takeH, draw + takeH + takeA, away - takeA);
-                                home = trip[0]; draw = trip[1]; away = trip[2];
-                            }
+                            DeterministicModel.Blend shifted = DeterministicModel.tableStage(
+                                    new DeterministicModel.Blend(home, draw, away, btts, over25), hEntry.getPosition(), aEntry.getPosition(), n);
+                            home = shifted.home(); draw = shifted.draw(); away = shifted.away();
                         }
                     }
                 }
             }
         } catch (Exception ignored) { /* on any failure, skip league adjustment */ }
+        PipelineMetrics.stage("league_adjustment", stageStart);
         
         // Compute xG using mode-specific logic:
         // - fixtures: overall per-match GF/GA averages (simpler, less reactive)
         // - match: weighted split GF/GA (home vs away) emphasizing recent form
         double xgHome = 1.5; // neutral default per spec when no valid data
         double xgAway = 1.5; // neutral default per spec when no valid data
+        stageStart = System.nanoTime();
         try {
-            Long sid = (seasonId != null) ? seasonId : seasonService.findCurrentSeason(leagueId).map(Season::getId).orElse(null);
+            Long sid = (seasonId != null) ? seasonId : currentSeasonId(leagueId);
             if (sid != null) {
-                List<FormGuideRowDTO> rows = formGuideService.compute(leagueId, sid, DEFAULT_FORM_LIMIT, FormGuideService.Scope.OVERALL);
-                FormGuideRowDTO homeRow = findTeamRow(rows, homeTeamId, homeTeamName);
-                FormGuideRowDTO awayRow = findTeamRow(rows, awayTeamId, awayTeamName);
-                if (homeRow != null && awayRow != null) {
-                    // home attack
-                    double homeGF = (homeRow.getWeightedHomeMatches() >= 2 && homeRow.getWeightedHomeGoalsFor() > 0)
-                            ? homeRow.getWeightedHomeGoalsFor()
-                            : (homeRow.getAvgGfWeighted() != null && homeRow.getAvgGfWeighted() > 0 ? homeRow.getAvgGfWeighted() : 0.0);
-                    // away defense
-                    double awayGA = (awayRow.getWeightedAwayMatches() >= 2 && awayRow.getWeightedAwayGoalsAgainst() > 0)
-                            ? awayRow.getWeightedAwayGoalsAgainst()
-                            : (awayRow.getAvgGaWeighted() != null && awayRow.getAvgGaWeighted() > 0 ? awayRow.getAvgGaWeighted() : 0.0);
-                    // away attack
-                    double awayGF = (awayRow.getWeightedAwayMatches() >= 2 && awayRow.getWeightedAwayGoalsFor() > 0)
-                            ? awayRow.getWeightedAwayGoalsFor()
-                            : (awayRow.getAvgGfWeighted() != null && awayRow.getAvgGfWeighted() > 0 ? awayRow.getAvgGfWeighted() : 0.0);
-                    // home defense
-                    double homeGA = (homeRow.getWeightedHomeMatches() >= 2 && homeRow.getWeightedHomeGoalsAgainst() > 0)
-                            ? homeRow.getWeightedHomeGoalsAgainst()
-                            : (homeRow.getAvgGaWeighted() != null && homeRow.getAvgGaWeighted() > 0 ? homeRow.getAvgGaWeighted() : 0.0);
-
-                    boolean haveHomeX = homeGF > 0 && awayGA > 0;
-                    boolean haveAwayX = awayGF > 0 && homeGA > 0;
-                    if (fixturesMode) {
-                        // Overall per-match averages
-                        double hGfPer = homeRow.getMp() > 0 ? ((double) homeRow.getGf()) / Math.max(1, homeRow.getMp()) : 0.0;
-                        double hGaPer = homeRow.getMp() > 0 ? ((double) homeRow.getGa()) / Math.max(1, homeRow.getMp()) : 0.0;
-                        double aGfPer = awayRow.getMp() > 0 ? ((double) awayRow.getGf()) / Math.max(1, awayRow.getMp()) : 0.0;
-                        double aGaPer = awayRow.getMp() > 0 ? ((double) awayRow.getGa()) / Math.max(1, awayRow.getMp()) : 0.0;
-                        boolean haveH = hGfPer > 0 && aGaPer > 0;
-                        boolean haveA = aGfPer > 0 && hGaPer > 0;
-                        if (haveH) xgHome = (hGfPer + aGaPer) / 2.0;
-                        if (haveA) xgAway = (aGfPer + hGaPer) / 2.0;
-                    } else {
-                        if (haveHomeX) xgHome = (homeGF + awayGA) / 2.0;
-                        if (haveAwayX) xgAway = (awayGF + homeGA) / 2.0;
-                        // Damp BTTS slightly if away attack is weak in recent away splits
-                        try {
-                            double aGFw = awayRow.getWeightedAwayGoalsFor();
-                            int aBttsW = awayRow.getWeightedAwayBTTSPercent();
-                            if (aGFw > 0 && aGFw < 1.0) { btts = clampPercent(btts - 4); }
-                            else if (aBttsW > 0 && aBttsW < 45) { btts = clampPercent(btts - 3); }
-                        } catch (Exception ignoredMatchBTTS) {}
-                    }
-                }
+                List<FormGuideRowDTO> rows = formGuideService.compute(leagueId, sid, params.formLimit(), FormGuideService.Scope.OVERALL);
+                DeterministicModel.ExpectedGoals xg = DeterministicModel.expectedGoals(params,
+                        DeterministicModel.TeamForm.of(findTeamRow(rows, homeTeamId, homeTeamName)),
+                        DeterministicModel.TeamForm.of(findTeamRow(rows, awayTeamId, awayTeamName)), fixturesMode);
+                xgHome = xg.home();
+                xgAway = xg.away();
+                if (xg.bttsPenalty() > 0) btts = clampPercent(btts - xg.bttsPenalty());
             }
         } catch (Exception ignored) {
             // keep defaults
         }
-        // Clamp and round to 2 decimals, and lower-bound to 0.3 for realism
-        xgHome = Math.max(0.3, Math.min(3.0, xgHome));
-        xgAway = Math.max(0.3, Math.min(3.0, xgAway));
-        xgHome = Math.round(xgHome * 100.0) / 100.0;
-        xgAway = Math.round(xgAway * 100.0) / 100.0;
+        PipelineMetrics.stage("expected_goals", stageStart);
 
         int confidence = 60 + random.nextInt(21); // 60..80
         String advice = (over25 >= 52 ? "Likely Over 2.5" : "Under 2.5 risk") +
                 ", " + (btts >= 55 ? "BTTS Yes" : "BTTS Lean No");
 
         // Recompute probabilities using independent Poisson model from expected goals (xG)
-        final int MAX_GOALS = 10;
-        java.util.function.BiFunction<Double, Integer, Double> pmf = (lambda, k) -> {
-            double f = 1.0d;
-            for (int i = 2; i <= k; i++) f *= i;
-            return (Math.exp(-lambda) * Math.pow(lambda, k)) / f;
-        };
-        double[] ph = new double[MAX_GOALS + 1];
-        double[] pa = new double[MAX_GOALS + 1];
-        for (int i = 0; i <= MAX_GOALS; i++) { ph[i] = pmf.apply(xgHome, i); pa[i] = pmf.apply(xgAway, i); }
-        double pHomeWinD = 0.0;
-        for (int h = 0; h <= MAX_GOALS; h++) {
-            double phh = ph[h];
-            for (int a2 = 0; a2 < h; a2++) pHomeWinD += phh * pa[a2];
-        }
-        double pDrawD = 0.0;
-        for (int k2 = 0; k2 <= MAX_GOALS; k2++) pDrawD += ph[k2] * pa[k2];
-        double pAwayWinD = Math.max(0.0, 1.0 - pHomeWinD - pDrawD);
-        double pHome0 = ph[0];
-        double pAway0 = pa[0];
-        double pBttsD = 1.0 - pHome0 - pAway0 + (pHome0 * pAway0);
-        double p00 = pHome0 * pAway0;
-        double p10 = ph[1] * pAway0;
-        double p01 = pHome0 * pa[1];
-        double pOver15D = 1.0 - (p00 + p10 + p01);
-        double pOver25D = 0.0;
-        double pOver35D = 0.0;
-        for (int h = 0; h <= MAX_GOALS; h++) {
-            for (int a2 = 0; a2 <= MAX_GOALS; a2++) {
-                double p = ph[h] * pa[a2];
-                int total = h + a2;
-                if (total > 2) pOver25D += p;
-                if (total > 3) pOver35D += p;
-            }
-        }
-        int pHomeWin = (int) Math.round(pHomeWinD * 100.0);
-        int pDraw = (int) Math.round(pDrawD * 100.0);
+        stageStart = System.nanoTime();
+        DeterministicModel.Poisson poisson = DeterministicModel.poisson(xgHome, xgAway);
+        PipelineMetrics.stage("poisson", stageStart);
+        int pHomeWin = (int) Math.round(poisson.home() * 100.0);
+        int pDraw = (int) Math.round(poisson.draw() * 100.0);
         int pAwayWin = Math.max(0, 100 - (pHomeWin + pDraw));
-        int pBtts = (int) Math.round(pBttsD * 100.0);
-        int pOv25 = (int) Math.round(pOver25D * 100.0);
-        // Keep existing confidence/advice for now; over25 in advice updated from Poisson
-        int pOv15 = (int) Math.round(pOver15D * 100.0);
-        int pOv35 = (int) Math.round(pOver35D * 100.0);
+        int pBtts = (int) Math.round(poisson.btts() * 100.0);
+        int pOv25 = (int) Math.round(poisson.over25() * 100.0);
         // Build response using Poisson-based probabilities
         MatchAnalysisResponse response = new MatchAnalysisResponse(
                 homeTeamName,
@@ -605,8 +446,10 @@ public class MatchAnalysisService {
                 confidence,
                 advice
         );
+        response.setTeamRatings(teamRatings(homeTeamId, awayTeamId));
         // attach summaries for UI (optional)
         response.setFormSummary(new MatchAnalysisResponse.FormSummary(baseHome, baseDraw, baseAway, baseBtts, baseOver25));
+        stageStart = System.nanoTime();
         if (h2hWindow > 0) {
             MatchAnalysisResponse.H2HSummary sum = new MatchAnalysisResponse.H2HSummary(h2hWindow,
                     round2(h2hPpgHome), round2(h2hPpgAway), h2hBttsPct, h2hOv25Pct);
@@ -812,9 +655,11 @@ public class MatchAnalysisService {
                 int flatCount = (response.getHeadToHeadMatches() != null) ? response.getHeadToHeadMatches().size() : 0;
                 logger.info("[ANALYZE][H2H][OUT] h2hUsed={} compact={} flat={}", srcCount, compactCount, flatCount);
             } catch (Exception ignored2) {}
+            PipelineMetrics.stage("h2h_summary", stageStart);
         }
 
         // Ensure streak insights are available for UI even if no H2H window or predictive flags are off
+        stageStart = System.nanoTime();
         try {
             if (response.getHomeStreakInsight() == null) {
                 com.chambua.vismart.dto.FormSummary hf = computeFormLastFive(homeTeamId, homeTeamName);
@@ -833,14 +678,16 @@ public class MatchAnalysisService {
                 }
             }
         } catch (Exception ignoredEnsureSI) { /* non-fatal */ }
+        PipelineMetrics.stage("streaks", stageStart);
 
         // Save to cache only for non-season-specific calls if IDs are available
         if (!fixturesMode && seasonId == null && leagueId != null && homeTeamId != null && awayTeamId != null) {
+            stageStart = System.nanoTime();
             try {
                 // Inject modelVariant into cached JSON to prevent cross-version mixing
                 JsonNode node = objectMapper.valueToTree(response);
                 if (node instanceof ObjectNode) {
-                    ((ObjectNode) node).put("modelVariant", "v2.1");
+                    ((ObjectNode) node).put("modelVariant", modelVariant);
                 }
                 String json = objectMapper.writeValueAsString(node);
                 MatchAnalysisResult entity = cacheRepo.findByLeagueIdAndHomeTeamIdAndAwayTeamId(leagueId, homeTeamId, awayTeamId)
@@ -851,12 +698,35 @@ public class MatchAnalysisService {
             } catch (JsonProcessingException e) {
                 // ignore caching if serialization fails
             }
+            PipelineMetrics.stage("cache_store", stageStart);
         }
 
         logger.info("[ANALYZE][RESP] W/D/L={{H:{},D:{},A:{}}} BTTS={} O2.5={} xG={{H:{},A:{}}} conf={} ms={}", response.getWinProbabilities().getHomeWin(), response.getWinProbabilities().getDraw(), response.getWinProbabilities().getAwayWin(), response.getBttsProbability(), response.getOver25Probability(), String.format("%.2f", response.getExpectedGoals().getHome()), String.format("%.2f", response.getExpectedGoals().getAway()), response.getConfidenceScore(), (System.currentTimeMillis()-t0));
+        commitAnalysisEvent(jfrAnalysis, leagueId, seasonId, homeTeamId, awayTeamId, at, false, formRows, h2hRows, h2hUsed != null ? h2hTier : "none");
         return response;
     }
 
+    private static void commitAnalysisEvent(JfrEvents.AnalysisEvent event, Long leagueId, Long seasonId, Long homeTeamId, Long awayTeamId,
+                                            String analysisType, boolean cached, int formRows, int h2hRows, String h2hPath) {
+        if (!event.shouldCommit()) return;
+        event.leagueId = JfrEvents.id(leagueId);
+        event.seasonId = JfrEvents.id(seasonId);
+        event.homeTeamId = JfrEvents.id(homeTeamId);
+        event.awayTeamId = JfrEvents.id(awayTeamId);
+        event.analysisType = analysisType;
+        event.cached = cached;
+        event.formRows = formRows;
+        event.h2hRows = h2hRows;
+        event.h2hPath = h2hPath;
+        event.commit();
+    }
+
+    private static void addTeamIds(Set<Long> ids, List<com.chambua.vismart.model.Team> teams, int[] counts, int slot) {
+        for (com.chambua.vismart.model.Team t : teams) {
+            if (t.getId() != null && ids.add(t.getId())) counts[slot]++;
+        }
+    }
+
     private FormGuideRowDTO findTeamRow(List<FormGuideRowDTO> rows, Long teamId, String teamName) {
         if (rows == null || rows.isEmpty()) return null;
         if (teamId != null) {
@@ -882,52 +752,59 @@ public class MatchAnalysisService {
         return seed;
     }
 
-    private static int nvl(Integer v) { return v == null ? 0 : v; }
-
-    private static int clampPercent(int v) { return Math.max(0, Math.min(100, v)); }
+    // H2H results from the perspective of the requested home team (null goals count as 0, unscored games never count)
+    private static List<DeterministicModel.H2HGame> h2hGames(List<com.chambua.vismart.model.Match> h2h, Long homeTeamId) {
+        List<DeterministicModel.H2HGame> games = new ArrayList<>(h2h.size());
+        for (com.chambua.vismart.model.Match m : h2h) {
+            boolean scored = m.getHomeGoals() != null && m.getAwayGoals() != null;
+            int hg = m.getHomeGoals() == null ? 0 : m.getHomeGoals();
+            int ag = m.getAwayGoals() == null ? 0 : m.getAwayGoals();
+            boolean homePerspective = m.getHomeTeam() != null && m.getHomeTeam().getId() != null && m.getHomeTeam().getId().equals(homeTeamId);
+            games.add(homePerspective ? new DeterministicModel.H2HGame(hg, ag, scored) : new DeterministicModel.H2HGame(ag, hg, scored));
+        }
+        return games;
+    }
 
-    // Normalizes three integers to sum to 100 by adjusting the largest absolute error
-    private static int[] normalizeTriplet(int h, int d, int a) {
-        int sum = h + d + a;
-        if (sum == 100) return new int[]{clampPercent(h), clampPercent(d), clampPercent(a)};
-        int diff = 100 - sum;
-        // adjust the component with the largest value to keep ordering
-        if (h >= d && h >= a) h += diff;
-        else if (a >= d && a >= h) a += diff;
-        else d += diff;
-        // clamp again
-        h = clampPercent(h); d = clampPercent(d); a = clampPercent(a);
-        // in rare case clamping changed sum, fix on draw
-        int fix = 100 - (h + d + a);
-        d = clampPercent(d + fix);
-        return new int[]{h, d, a};
+    // Ratings move with every result, so they are read live rather than taken from the cached analysis
+    private MatchAnalysisResponse.TeamRatings teamRatings(Long homeTeamId, Long awayTeamId) {
+        if (teamRatingService == null) return null;
+        try {
+            return teamRatingService.matchup(homeTeamId, awayTeamId)
+                    .map(m -> new MatchAnalysisResponse.TeamRatings(m.home().elo(), m.away().elo(), m.homeExpectedScore(),
+                            m.home().attack(), m.home().defence(), m.away().attack(), m.away().defence()))
+                    .orElse(null);
+        } catch (Exception ignoredRatings) {
+            return null;
+        }
     }
 
-    private static double round2(double v) {
-        return Math.round(v * 100.0) / 100.0;
+    // Cached analyses are only reused for the parameter version that produced them
+    private static String modelVariant(ModelParameters params) {
+        return params.version() == 0 ? "v2.1" : "v2.1-p" + params.version();
     }
 
+    private static int clampPercent(int v) { return DeterministicModel.clampPercent(v); }
+
+    private static double round2(double v) { return DeterministicModel.round2(v); }
+
     // Determine the likely domestic league for a team in the latest season: pick the league with the most played matches
     private Long determineDomesticLeagueId(Long teamId) {
         if (teamId == null) return null;
-        java.util.List<com.chambua.vismart.model.Match> recentAll;
-        try { recentAll = matchRepository.findRecentPlayedByTeamId(teamId); } catch (Exception e) { return null; }
-        if (recentAll == null || recentAll.isEmpty()) return null;
-        Long latestSeasonId = null;
+        if (teamDomesticLeagueService != null) {
+            try { return teamDomesticLeagueService.domesticLeagueId(teamId); } catch (Exception ignoredLookup) { /* fall back to scanning the latest season */ }
+        }
+        java.util.List<MatchRow> seasonRows;
         try {
-            com.chambua.vismart.model.Season s = recentAll.get(0).getSeason();
-            if (s != null) latestSeasonId = s.getId();
-        } catch (Exception ignored) {}
+            java.util.List<MatchRow> latest = history(teamId, 1, TeamHistoryService.Filters.NONE);
+            if (latest.isEmpty()) return null;
+            Long latestSeasonId = latest.get(0).seasonId();
+            seasonRows = history(teamId, TeamHistoryService.ALL, latestSeasonId != null ? TeamHistoryService.Filters.season(latestSeasonId) : TeamHistoryService.Filters.NONE);
+        } catch (Exception e) { return null; }
         java.util.Map<Long, Integer> counts = new java.util.HashMap<>();
-        for (com.chambua.vismart.model.Match m : recentAll) {
-            try {
-                if (latestSeasonId != null) {
-                    if (m.getSeason() == null || m.getSeason().getId() == null || !java.util.Objects.equals(m.getSeason().getId(), latestSeasonId)) continue;
-                }
-                if (m.getLeague() == null || m.getLeague().getId() == null) continue;
-                Long lid = m.getLeague().getId();
-                counts.put(lid, 1 + counts.getOrDefault(lid, 0));
-            } catch (Exception ignored2) {}
+        for (MatchRow m : seasonRows) {
+            Long lid = m.leagueId();
+            if (lid == null) continue;
+            counts.put(lid, 1 + counts.getOrDefault(lid, 0));
         }
         if (counts.isEmpty()) return null;
         Long best = null; int max = -1;
@@ -949,10 +826,10 @@ public class MatchAnalysisService {
             out.setPattern(targetPattern);
         }
         // Fetch full history (played) most-recent-first
-        java.util.List<com.chambua.vismart.model.Match> list;
+        java.util.List<MatchRow> list;
         try {
-            if (teamId != null) list = matchRepository.findRecentPlayedByTeamId(teamId);
-            else if (teamName != null && !teamName.isBlank()) list = matchRepository.findRecentPlayedByTeamName(teamName.trim());
+            if (teamId != null) list = history(teamId, TeamHistoryService.ALL, TeamHistoryService.Filters.NONE);
+            else if (teamName != null && !teamName.isBlank()) list = history(teamName.trim(), TeamHistoryService.ALL, TeamHistoryService.Filters.NONE);
             else list = java.util.Collections.emptyList();
         } catch (Exception ex) { list = java.util.Collections.emptyList(); }
         if (list == null || list.isEmpty()) {
@@ -960,23 +837,21 @@ public class MatchAnalysisService {
             return out;
         }
         // Build chronological order (oldest -> newest)
-        java.util.List<com.chambua.vismart.model.Match> chron = new java.util.ArrayList<>(list);
+        java.util.List<MatchRow> chron = new java.util.ArrayList<>(list);
         java.util.Collections.reverse(chron);
         int prevCount = 0; String prevType = null; // current streak before each match
         int totalInstances = 0;
         int nextW = 0, nextD = 0, nextL = 0, nextBTTS = 0, nextOv15 = 0, nextOv25 = 0, nextOv35 = 0;
-        for (com.chambua.vismart.model.Match m : chron) {
-            Integer hg = m.getHomeGoals();
-            Integer ag = m.getAwayGoals();
+        for (MatchRow m : chron) {
+            Integer hg = m.homeGoals();
+            Integer ag = m.awayGoals();
             if (hg == null || ag == null) continue;
             boolean isHome = false;
-            try {
-                if (teamId != null && m.getHomeTeam() != null && m.getHomeTeam().getId() != null) {
-                    isHome = m.getHomeTeam().getId().equals(teamId);
-                } else if (teamId == null && teamName != null && m.getHomeTeam() != null && m.getHomeTeam().getName() != null) {
-                    isHome = m.getHomeTeam().getName().equalsIgnoreCase(teamName);
-                }
-            } catch (Exception ignored) {}
+            if (teamId != null) {
+                isHome = teamId.equals(m.homeTeamId());
+            } else if (teamName != null && m.homeTeamName() != null) {
+                isHome = m.homeTeamName().equalsIgnoreCase(teamName);
+            }
             int my = isHome ? hg : ag;
             int opp = isHome ? ag : hg;
             String res = (my > opp) ? "W" : (my == opp ? "D" : "L");
@@ -1049,59 +924,38 @@ public class MatchAnalysisService {
 
     // Competition-aware variant: when leagueContextId is provided, STRICTLY use that league only (no cross-competition fallback)
     private com.chambua.vismart.dto.FormSummary computeFormLastFive(Long teamId, String teamName, Long leagueContextId) {
-        java.util.List<com.chambua.vismart.model.Match> list = java.util.Collections.emptyList();
+        java.util.List<MatchRow> list = java.util.Collections.emptyList();
         try {
             if (teamId != null) {
                 if (leagueContextId != null) {
                     // Strict: only matches from the specified league (domestic context for cross-league fixtures)
-                    java.util.List<com.chambua.vismart.model.Match> byLeague = matchRepository.findRecentPlayedByTeamIdAndLeague(teamId, leagueContextId);
-                    list = (byLeague != null) ? byLeague : java.util.Collections.emptyList();
+                    list = history(teamId, 5, TeamHistoryService.Filters.league(leagueContextId).scored());
                 } else {
                     // No league context: default to latest season for the team across competitions
-                    List<com.chambua.vismart.model.Match> recentAll = matchRepository.findRecentPlayedByTeamId(teamId);
-                    Long latestSeasonId = null;
-                    if (recentAll != null && !recentAll.isEmpty()) {
-                        com.chambua.vismart.model.Season s = recentAll.get(0).getSeason();
-                        if (s != null) latestSeasonId = s.getId();
-                    }
-                    if (latestSeasonId != null) {
-                        list = new java.util.ArrayList<>();
-                        for (com.chambua.vismart.model.Match m : recentAll) {
-                            if (m.getSeason() != null && java.util.Objects.equals(m.getSeason().getId(), latestSeasonId)) {
-                                list.add(m);
-                            }
-                        }
-                    } else {
-                        list = recentAll;
-                    }
+                    java.util.List<MatchRow> latest = history(teamId, 1, TeamHistoryService.Filters.NONE);
+                    Long latestSeasonId = latest.isEmpty() ? null : latest.get(0).seasonId();
+                    list = history(teamId, 5, latestSeasonId != null ? TeamHistoryService.Filters.season(latestSeasonId).scored() : TeamHistoryService.Filters.SCORED);
                 }
             } else if (teamName != null && !teamName.isBlank()) {
                 String q = teamName.trim();
                 if (leagueContextId != null) {
                     // Strict name-based: only matches from the specified league
-                    java.util.List<com.chambua.vismart.model.Match> chosen = matchRepository.findRecentPlayedByTeamName(q);
-                    java.util.List<com.chambua.vismart.model.Match> flt = new java.util.ArrayList<>();
-                    for (com.chambua.vismart.model.Match m : chosen) {
-                        if (m.getLeague() != null && m.getLeague().getId() != null && java.util.Objects.equals(m.getLeague().getId(), leagueContextId)) {
-                            flt.add(m);
-                        }
-                    }
-                    list = flt; // may be empty; strict
+                    list = history(q, 5, TeamHistoryService.Filters.league(leagueContextId).scored()); // may be empty; strict
                 } else {
                     // Default: latest season for the named team
                     java.util.List<Long> seasonIds = matchRepository.findSeasonIdsForTeamNameOrdered(q);
-                    java.util.List<com.chambua.vismart.model.Match> chosen = java.util.Collections.emptyList();
+                    java.util.List<MatchRow> chosen = java.util.Collections.emptyList();
                     if (seasonIds != null && !seasonIds.isEmpty()) {
                         for (Long sid : seasonIds) {
                             if (sid == null) continue;
                             try {
-                                java.util.List<com.chambua.vismart.model.Match> attempt = matchRepository.findRecentPlayedByTeamNameAndSeason(q, sid);
+                                java.util.List<MatchRow> attempt = history(q, 5, TeamHistoryService.Filters.season(sid).scored());
                                 if (attempt != null && !attempt.isEmpty()) { chosen = attempt; break; }
                             } catch (Exception ignored2) {}
                         }
                     }
                     if (chosen == null || chosen.isEmpty()) {
-                        chosen = matchRepository.findRecentPlayedByTeamName(q);
+                        chosen = history(q, 5, TeamHistoryService.Filters.SCORED);
                     }
                     list = chosen;
                 }
@@ -1110,13 +964,13 @@ public class MatchAnalysisService {
         if (list == null || list.isEmpty()) return new com.chambua.vismart.dto.FormSummary();
         java.util.ArrayList<String> results = new java.util.ArrayList<>();
         int wins = 0, draws = 0;
-        for (com.chambua.vismart.model.Match m : list) {
+        for (MatchRow m : list) {
             if (results.size() >= 5) break;
-            Integer hg = m.getHomeGoals();
-            Integer ag = m.getAwayGoals();
+            Integer hg = m.homeGoals();
+            Integer ag = m.awayGoals();
             if (hg == null || ag == null) continue; // skip invalid
-            boolean isHome = (m.getHomeTeam() != null && m.getHomeTeam().getId() != null && teamId != null && m.getHomeTeam().getId().equals(teamId))
-                    || (teamId == null && m.getHomeTeam() != null && m.getHomeTeam().getName() != null && teamName != null && m.getHomeTeam().getName().equalsIgnoreCase(teamName));
+            boolean isHome = (teamId != null && teamId.equals(m.homeTeamId()))
+                    || (teamId == null && m.homeTeamName() != null && teamName != null && m.homeTeamName().equalsIgnoreCase(teamName));
             int my = isHome ? hg : ag;
             int opp = isHome ? ag : hg;
             if (my > opp) { results.add("W"); wins++; }
@@ -1185,7 +1039,7 @@ public class MatchAnalysisService {
             }
         } catch (Exception ignored) {}
 
-        java.util.List<com.chambua.vismart.model.Match> recent;
+        java.util.List<MatchRow> recent;
         try {
             String qName = (resolvedName != null && !resolvedName.isBlank()) ? resolvedName.trim() : null;
             if (qName == null && teamId != null) {
@@ -1196,10 +1050,10 @@ public class MatchAnalysisService {
             }
             if (qName != null) {
                 // Use team-name based retrieval to aggregate across all leagues/seasons (aligns with Fixtures Analysis)
-                recent = matchRepository.findRecentPlayedByTeamName(qName);
+                recent = history(qName, TeamHistoryService.ALL, TeamHistoryService.Filters.NONE);
             } else if (teamId != null) {
                 // Fallback to ID if name unavailable
-                recent = matchRepository.findRecentPlayedByTeamId(teamId);
+                recent = history(teamId, TeamHistoryService.ALL, TeamHistoryService.Filters.NONE);
             } else {
                 recent = java.util.Collections.emptyList();
             }
@@ -1212,7 +1066,7 @@ public class MatchAnalysisService {
         if (recent == null || recent.isEmpty()) return out;
 
         // Chronological (oldest -> newest)
-        java.util.List<com.chambua.vismart.model.Match> chron = new java.util.ArrayList<>(recent);
+        java.util.List<MatchRow> chron = new java.util.ArrayList<>(recent);
         java.util.Collections.reverse(chron);
         out.setTotalMatchesConsidered(chron.size());
 
@@ -1230,20 +1084,20 @@ public class MatchAnalysisService {
         int runLen = 0;
         java.time.LocalDate runStart = null;
         for (int i = 0; i < chron.size(); i++) {
-            com.chambua.vismart.model.Match m = chron.get(i);
-            Integer hg = m.getHomeGoals();
-            Integer ag = m.getAwayGoals();
+            MatchRow m = chron.get(i);
+            Integer hg = m.homeGoals();
+            Integer ag = m.awayGoals();
             if (hg == null || ag == null) continue;
             int total = hg + ag;
             boolean ok = total >= 2;
-            java.time.LocalDate d = m.getDate();
+            java.time.LocalDate d = m.date();
             if (ok) {
                 if (runLen == 0) runStart = d;
                 runLen++;
             } else {
                 if (runLen > 0) {
                     // finalize previous run ending at previous match date
-                    java.time.LocalDate runEnd = chron.get(i - 1).getDate();
+                    java.time.LocalDate runEnd = chron.get(i - 1).date();
                     if (runLen > bestLen) {
                         bestLen = runLen; bestStart = runStart; bestEnd = runEnd; mostRecentBestStart = runStart; mostRecentBestEnd = runEnd;
                     } else if (runLen == bestLen && runLen > 0) {
@@ -1256,7 +1110,7 @@ public class MatchAnalysisService {
         }
         // tail run at end of chron
         if (runLen > 0) {
-            java.time.LocalDate runEnd = chron.get(chron.size() - 1).getDate();
+            java.time.LocalDate runEnd = chron.get(chron.size() - 1).date();
             if (runLen > bestLen) {
                 bestLen = runLen; bestStart = runStart; bestEnd = runEnd; mostRecentBestStart = runStart; mostRecentBestEnd = runEnd;
             } else if (runLen == bestLen) {
@@ -1266,18 +1120,18 @@ public class MatchAnalysisService {
 
         // Compute current streak from most recent backwards
         for (int i = recent.size() - 1; i >= 0; i--) {
-            com.chambua.vismart.model.Match m = recent.get(recent.size() - 1 - (recent.size() - 1 - i)); // identity; keep variable names similar
+            MatchRow m = recent.get(recent.size() - 1 - (recent.size() - 1 - i)); // identity; keep variable names similar
             m = recent.get(recent.size() - 1 - (recent.size() - 1 - i));
         }
         // Simpler: iterate from most recent to older until break
         currLen = 0; currStart = null; currEnd = null;
         for (int i = 0; i < recent.size(); i++) {
-            com.chambua.vismart.model.Match m = recent.get(i); // recent is newest first
-            Integer hg = m.getHomeGoals(); Integer ag = m.getAwayGoals(); if (hg == null || ag == null) break;
+            MatchRow m = recent.get(i); // recent is newest first
+            Integer hg = m.homeGoals(); Integer ag = m.awayGoals(); if (hg == null || ag == null) break;
             int total = hg + ag; if (total >= 2) {
                 currLen++;
-                if (currEnd == null) currEnd = m.getDate();
-                currStart = m.getDate();
+                if (currEnd == null) currEnd = m.date();
+                currStart = m.date();
             } else {
                 break;
             }
@@ -1297,9 +1151,9 @@ public class MatchAnalysisService {
         int considered = 0;
         int over15 = 0;
         for (int i = 0; i < window; i++) {
-            com.chambua.vismart.model.Match m = recent.get(i);
-            Integer hg = m.getHomeGoals();
-            Integer ag = m.getAwayGoals();
+            MatchRow m = recent.get(i);
+            Integer hg = m.homeGoals();
+            Integer ag = m.awayGoals();
             if (hg == null || ag == null) continue;
             considered++;
             if ((hg + ag) >= 2) over15++;
@@ -1313,4 +1167,22 @@ public class MatchAnalysisService {
 
         return out;
     }
+
+    private Long currentSeasonId(Long leagueId) {
+        if (referenceDataService != null) {
+            try { return referenceDataService.currentSeasonId(leagueId); } catch (Exception ignoredRef) { /* fall back to SeasonService */ }
+        }
+        return seasonService.findCurrentSeason(leagueId).map(Season::getId).orElse(null);
+    }
+
+    // --- Played-history reads as MatchRow (newest first, at most n) ---
+    private java.util.List<MatchRow> history(Long teamId, int n, TeamHistoryService.Filters filters) {
+        if (teamHistoryService != null) return teamHistoryService.recent(teamId, n, filters);
+        return TeamHistoryService.apply(MatchRow.of(matchRepository.findRecentPlayedByTeamId(teamId)), n, filters);
+    }
+
+    private java.util.List<MatchRow> history(String teamName, int n, TeamHistoryService.Filters filters) {
+        if (teamHistoryService != null) return teamHistoryService.recent(teamName, n, filters);
+        return TeamHistoryService.apply(MatchRow.of(matchRepository.findRecentPlayedByTeamName(teamName)), n, filters);
+    }
 }
@@ -0,0 +1,96 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.repository.MatchRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+/**
+ * Match data anomalies (counts and offending ids) for admin diagnostics and normalization.
+ * Ids are read with keyset pagination ({@code id > afterId order by id limit n}), so neither samples nor full
+ * listings ever materialize Match entities or an unbounded result list.
+ */
+@Service
+public class MatchAnomalyService {
+
+    /** Page size used when walking a full listing. */
+    static final int STREAM_PAGE_SIZE = 1000;
+    public static final int MAX_PAGE_SIZE = 5000;
+
+    public enum Kind {
+        PLAYED_FUTURE_DATE("played-future-date"),
+        SCORED_NOT_PLAYED_PAST("scored-not-played-past"),
+        PLAYED_NULL_DATE("played-null-date"),
+        PLAYED_NULL_ROUND("played-null-round");
+
+        private final String slug;
+
+        Kind(String slug) { this.slug = slug; }
+
+        public String slug() { return slug; }
+
+        public static Optional<Kind> fromSlug(String slug) {
+            if (slug == null) return Optional.empty();
+            return Arrays.stream(values()).filter(k -> k.slug.equalsIgnoreCase(slug.trim())).findFirst();
+        }
+    }
+
+    /** One keyset page; {@code nextAfterId} is null when there are no further rows. */
+    public record IdPage(List<Long> ids, Long nextAfterId) {}
+
+    private final MatchRepository matchRepository;
+
+    public MatchAnomalyService(MatchRepository matchRepository) {
+        this.matchRepository = matchRepository;
+    }
+
+    public long count(Kind kind, LocalDate today) {
+        return switch (kind) {
+            case PLAYED_FUTURE_DATE -> matchRepository.countPlayedWithFutureDate(today);
+            case SCORED_NOT_PLAYED_PAST -> matchRepository.countWithGoalsButNotPlayedPast(today);
+            case PLAYED_NULL_DATE -> matchRepository.countPlayedWithNullDate();
+            case PLAYED_NULL_ROUND -> matchRepository.countPlayedWithNullRound();
+        };
+    }
+
+    /** Up to {@code size} ids greater than {@code afterId}, ascending. */
+    public IdPage page(Kind kind, LocalDate today, long afterId, int size) {
+        int n = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Long> ids = fetch(kind, today, afterId, n);
+        Long next = ids.size() < n ? null : ids.get(ids.size() - 1);
+        return new IdPage(ids, next);
+    }
+
+    /** First {@code limit} offending ids (lowest ids first). */
+    public List<Long> sample(Kind kind, LocalDate today, int limit) {
+        return fetch(kind, today, 0L, Math.max(1, limit));
+    }
+
+    /** Walks every offending id page by page; returns the number of ids emitted. */
+    public long forEachId(Kind kind, LocalDate today, LongConsumer sink) {
+        long emitted = 0;
+        long after = 0L;
+        while (true) {
+            List<Long> ids = fetch(kind, today, after, STREAM_PAGE_SIZE);
+            for (Long id : ids) sink.accept(id);
+            emitted += ids.size();
+            if (ids.size() < STREAM_PAGE_SIZE) return emitted;
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private List<Long> fetch(Kind kind, LocalDate today, long afterId, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        return switch (kind) {
+            case PLAYED_FUTURE_DATE -> matchRepository.findPlayedWithFutureDateIds(today, afterId, page);
+            case SCORED_NOT_PLAYED_PAST -> matchRepository.findWithGoalsButNotPlayedPastIds(today, afterId, page);
+            case PLAYED_NULL_DATE -> matchRepository.findPlayedWithNullDateIds(afterId, page);
+            case PLAYED_NULL_ROUND -> matchRepository.findPlayedWithNullRoundIds(afterId, page);
+        };
+    }
+}
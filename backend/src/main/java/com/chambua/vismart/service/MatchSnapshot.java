@@ -0,0 +1,209 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.repository.MatchRow;
+import com.chambua.vismart.repository.MatchRowRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, columnar in-memory copy of scored played matches, oldest first (date, round, id), with per-team,
+ * per-pair and per-season index arrays into the columns. Built once from a single streamed read so replaying
+ * a league's history never goes back to the database per match; safe to share between threads.
+ *
+ * Teams are addressed by a dense index ({@link #teamIndex(Long)}); dates are epoch days; a null round is 0, as in
+ * {@link FormGuideService}.
+ */
+public final class MatchSnapshot {
+
+    final int size;
+    final long[] matchId;
+    final long[] leagueId;
+    final long[] seasonId;
+    final int[] home;
+    final int[] away;
+    final int[] day;
+    final int[] round;
+    final int[] homeGoals;
+    final int[] awayGoals;
+
+    final long[] teamIds;
+    final String[] teamNames;
+    private final Map<Long, Integer> teamIndex;
+    /** Per team index: match indices in chronological order. */
+    final int[][] teamMatches;
+    private final Map<Long, int[]> pairMatches;
+    private final Map<Long, int[]> seasonMatches;
+    private final Map<Long, List<Long>> seasonsByLeague;
+
+    private MatchSnapshot(Builder b) {
+        this.size = b.size;
+        this.matchId = Arrays.copyOf(b.matchId, b.size);
+        this.leagueId = Arrays.copyOf(b.leagueId, b.size);
+        this.seasonId = Arrays.copyOf(b.seasonId, b.size);
+        this.home = Arrays.copyOf(b.home, b.size);
+        this.away = Arrays.copyOf(b.away, b.size);
+        this.day = Arrays.copyOf(b.day, b.size);
+        this.round = Arrays.copyOf(b.round, b.size);
+        this.homeGoals = Arrays.copyOf(b.homeGoals, b.size);
+        this.awayGoals = Arrays.copyOf(b.awayGoals, b.size);
+        this.teamIds = b.teamIds.stream().mapToLong(Long::longValue).toArray();
+        this.teamNames = b.teamNames.toArray(new String[0]);
+        this.teamIndex = Map.copyOf(b.teamIndex);
+
+        // Counting pass then fill pass keeps every per-team/per-pair/per-season array chronological
+        int[] perTeam = new int[teamIds.length];
+        Map<Long, int[]> pairCount = new HashMap<>();
+        Map<Long, int[]> seasonCount = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            perTeam[home[i]]++;
+            if (away[i] != home[i]) perTeam[away[i]]++;
+            pairCount.computeIfAbsent(pairKey(home[i], away[i]), k -> new int[1])[0]++;
+            if (seasonId[i] != 0L) seasonCount.computeIfAbsent(seasonId[i], k -> new int[1])[0]++;
+        }
+        int[][] byTeam = new int[teamIds.length][];
+        for (int t = 0; t < byTeam.length; t++) byTeam[t] = new int[perTeam[t]];
+        Map<Long, int[]> pairs = new HashMap<>(pairCount.size() * 2);
+        pairCount.forEach((k, c) -> pairs.put(k, new int[c[0]]));
+        Map<Long, int[]> seasons = new LinkedHashMap<>();
+        seasonCount.forEach((k, c) -> seasons.put(k, new int[c[0]]));
+        int[] teamFill = new int[teamIds.length];
+        Map<Long, int[]> pairFill = new HashMap<>();
+        Map<Long, int[]> seasonFill = new HashMap<>();
+        Map<Long, List<Long>> leagueSeasons = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            byTeam[home[i]][teamFill[home[i]]++] = i;
+            if (away[i] != home[i]) byTeam[away[i]][teamFill[away[i]]++] = i;
+            long pk = pairKey(home[i], away[i]);
+            pairs.get(pk)[pairFill.computeIfAbsent(pk, k -> new int[1])[0]++] = i;
+            if (seasonId[i] != 0L) {
+                long sk = seasonId[i];
+                seasons.get(sk)[seasonFill.computeIfAbsent(sk, k -> new int[1])[0]++] = i;
+                List<Long> ls = leagueSeasons.computeIfAbsent(leagueId[i], k -> new ArrayList<>());
+                if (!ls.contains(sk)) ls.add(sk);
+            }
+        }
+        this.teamMatches = byTeam;
+        this.pairMatches = pairs;
+        this.seasonMatches = seasons;
+        leagueSeasons.replaceAll((k, v) -> List.copyOf(v));
+        this.seasonsByLeague = leagueSeasons;
+    }
+
+    /** Streams the matches of every team that has played in {@code leagueIds} (all their competitions). */
+    public static MatchSnapshot load(MatchRowRepository repository, Collection<Long> leagueIds) {
+        Builder b = new Builder();
+        repository.forEachScoredInvolvingLeagueTeams(leagueIds, b::add);
+        return b.build();
+    }
+
+    /** Snapshot of rows that are already ordered oldest first (date, round, id). */
+    public static MatchSnapshot of(Collection<MatchRow> rows) {
+        Builder b = new Builder();
+        rows.forEach(b::add);
+        return b.build();
+    }
+
+    public int size() { return size; }
+
+    public int teamCount() { return teamIds.length; }
+
+    /** Dense index of a team id, or -1 when the team has no matches in the snapshot. */
+    public int teamIndex(Long teamId) {
+        Integer i = teamId == null ? null : teamIndex.get(teamId);
+        return i == null ? -1 : i;
+    }
+
+    /** Seasons of a league in order of their first match. */
+    public List<Long> seasonsOf(Long leagueId) {
+        return seasonsByLeague.getOrDefault(leagueId == null ? 0L : leagueId, List.of());
+    }
+
+    /** Chronological match indices of a season (empty when unknown). */
+    int[] seasonMatches(long seasonId) {
+        int[] idx = seasonMatches.get(seasonId);
+        return idx == null ? new int[0] : idx;
+    }
+
+    /** Chronological match indices between two teams in either orientation. */
+    int[] pairMatches(int teamA, int teamB) {
+        int[] idx = pairMatches.get(pairKey(teamA, teamB));
+        return idx == null ? new int[0] : idx;
+    }
+
+    /** Number of leading entries of a chronological index array that were played strictly before {@code epochDay}. */
+    int countBefore(int[] chronological, int epochDay) {
+        int lo = 0, hi = chronological.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (day[chronological[mid]] < epochDay) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static long pairKey(int a, int b) {
+        int lo = Math.min(a, b), hi = Math.max(a, b);
+        return ((long) lo << 32) | (hi & 0xffffffffL);
+    }
+
+    private static final class Builder {
+        int size;
+        long[] matchId = new long[1024];
+        long[] leagueId = new long[1024];
+        long[] seasonId = new long[1024];
+        int[] home = new int[1024];
+        int[] away = new int[1024];
+        int[] day = new int[1024];
+        int[] round = new int[1024];
+        int[] homeGoals = new int[1024];
+        int[] awayGoals = new int[1024];
+        final List<Long> teamIds = new ArrayList<>();
+        final List<String> teamNames = new ArrayList<>();
+        final Map<Long, Integer> teamIndex = new HashMap<>();
+
+        void add(MatchRow r) {
+            if (r == null || !r.hasScore() || r.date() == null || r.homeTeamId() == null || r.awayTeamId() == null) return;
+            if (size == matchId.length) grow();
+            matchId[size] = r.id() == null ? 0L : r.id();
+            leagueId[size] = r.leagueId() == null ? 0L : r.leagueId();
+            seasonId[size] = r.seasonId() == null ? 0L : r.seasonId();
+            home[size] = team(r.homeTeamId(), r.homeTeamName());
+            away[size] = team(r.awayTeamId(), r.awayTeamName());
+            day[size] = (int) r.date().toEpochDay();
+            round[size] = r.round() == null ? 0 : r.round();
+            homeGoals[size] = r.homeGoals();
+            awayGoals[size] = r.awayGoals();
+            size++;
+        }
+
+        private int team(Long id, String name) {
+            return teamIndex.computeIfAbsent(id, k -> {
+                teamIds.add(k);
+                teamNames.add(name);
+                return teamIds.size() - 1;
+            });
+        }
+
+        private void grow() {
+            int n = matchId.length * 2;
+            matchId = Arrays.copyOf(matchId, n);
+            leagueId = Arrays.copyOf(leagueId, n);
+            seasonId = Arrays.copyOf(seasonId, n);
+            home = Arrays.copyOf(home, n);
+            away = Arrays.copyOf(away, n);
+            day = Arrays.copyOf(day, n);
+            round = Arrays.copyOf(round, n);
+            homeGoals = Arrays.copyOf(homeGoals, n);
+            awayGoals = Arrays.copyOf(awayGoals, n);
+        }
+
+        MatchSnapshot build() {
+            return new MatchSnapshot(this);
+        }
+    }
+}
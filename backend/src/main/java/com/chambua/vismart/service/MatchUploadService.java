@@ -8,6 +8,8 @@ import com.chambua.vismart.model.Team;
 import com.chambua.vismart.repository.LeagueRepository;
 import com.chambua.vismart.repository.MatchRepository;
 import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.util.JfrEvents;
+import com.chambua.vismart.util.PipelineMetrics;
 import com.chambua.vismart.util.TeamNameNormalizer;
 import com.chambua.vismart.repository.SeasonRepository;
 import com.chambua.vismart.model.Season;
@@ -207,6 +209,35 @@ public class MatchUploadService {
 
     @Transactional
     public UploadResult uploadCsv(String leagueName, String country, String season, Long seasonId, MultipartFile file, boolean fullReplace, boolean incrementalUpdate, boolean fixtureMode, boolean strict, boolean dryRun, boolean allowSeasonAutoCreate) {
+        long started = System.nanoTime();
+        JfrEvents.ImportBatchEvent jfr = new JfrEvents.ImportBatchEvent();
+        jfr.begin();
+        String outcome = "error";
+        try {
+            UploadResult result = doUploadCsv(leagueName, country, season, seasonId, file, fullReplace, incrementalUpdate, fixtureMode, strict, dryRun, allowSeasonAutoCreate);
+            outcome = result.success() ? "success" : "failed";
+            if (!dryRun) {
+                PipelineMetrics.importRows("match_upload_csv", result.insertedCount());
+                commitImportEvent(jfr, "match_upload_csv", leagueName, season, seasonId, result.insertedCount());
+            }
+            return result;
+        } finally {
+            PipelineMetrics.importRun("match_upload_csv", outcome, started);
+        }
+    }
+
+    /** Uploads persist in one transaction, so the whole call is reported as a single import batch. */
+    private static void commitImportEvent(JfrEvents.ImportBatchEvent event, String pipeline, String leagueName, String season, Long seasonId, int rows) {
+        if (!event.shouldCommit()) return;
+        event.pipeline = pipeline;
+        event.seasonId = JfrEvents.id(seasonId);
+        event.league = leagueName;
+        event.season = season;
+        event.rows = rows;
+        event.commit();
+    }
+
+    private UploadResult doUploadCsv(String leagueName, String country, String season, Long seasonId, MultipartFile file, boolean fullReplace, boolean incrementalUpdate, boolean fixtureMode, boolean strict, boolean dryRun, boolean allowSeasonAutoCreate) {
         List<String> errors = new ArrayList<>();
         List<UpdateLog> updatedLogs = new ArrayList<>();
         List<SkipLog> skippedLogs = new ArrayList<>();
@@ -450,6 +481,24 @@ public class MatchUploadService {
 
     @Transactional
     public UploadResult uploadText(String leagueName, String country, String season, Long seasonId, String text, boolean fullReplace, boolean incrementalUpdate, boolean fixtureMode, boolean autoCreateTeams, boolean strict, boolean dryRun, boolean allowSeasonAutoCreate) {
+        long started = System.nanoTime();
+        JfrEvents.ImportBatchEvent jfr = new JfrEvents.ImportBatchEvent();
+        jfr.begin();
+        String outcome = "error";
+        try {
+            UploadResult result = doUploadText(leagueName, country, season, seasonId, text, fullReplace, incrementalUpdate, fixtureMode, autoCreateTeams, strict, dryRun, allowSeasonAutoCreate);
+            outcome = result.success() ? "success" : "failed";
+            if (!dryRun) {
+                PipelineMetrics.importRows("match_upload_text", result.insertedCount());
+                commitImportEvent(jfr, "match_upload_text", leagueName, season, seasonId, result.insertedCount());
+            }
+            return result;
+        } finally {
+            PipelineMetrics.importRun("match_upload_text", outcome, started);
+        }
+    }
+
+    private UploadResult doUploadText(String leagueName, String country, String season, Long seasonId, String text, boolean fullReplace, boolean incrementalUpdate, boolean fixtureMode, boolean autoCreateTeams, boolean strict, boolean dryRun, boolean allowSeasonAutoCreate) {
         List<String> errors = new ArrayList<>();
         List<UpdateLog> updatedLogs = new ArrayList<>();
         List<SkipLog> skippedLogs = new ArrayList<>();
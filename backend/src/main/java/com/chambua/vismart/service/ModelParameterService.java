@@ -0,0 +1,133 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.ModelParameterSet;
+import com.chambua.vismart.repository.ModelParameterSetRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Versioned, hot-reloadable {@link ModelParameters}. Saved sets are numbered 1, 2, ...; the active one (or the
+ * built-in {@link ModelParameters#DEFAULTS}, version 0, when none is active) is held in memory and re-read on a
+ * fixed delay so an activation on one instance reaches the others without a restart.
+ */
+@Service
+public class ModelParameterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelParameterService.class);
+
+    public record Version(int version, boolean active, String note, Instant createdAt, ModelParameters parameters) {}
+
+    private final ModelParameterSetRepository repository;
+    private final ObjectMapper objectMapper;
+    private final AtomicReference<ModelParameters> current = new AtomicReference<>(ModelParameters.DEFAULTS);
+
+    public ModelParameterService(ModelParameterSetRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    /** The parameters analyses use right now; never null. */
+    public ModelParameters current() {
+        return current.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.model.parameters.reload-ms:60000}", initialDelayString = "${app.model.parameters.reload-ms:60000}")
+    public void reload() {
+        try {
+            ModelParameters next = repository.findFirstByActiveTrueOrderByVersionDesc().map(this::parse).orElse(ModelParameters.DEFAULTS);
+            ModelParameters prev = current.getAndSet(next);
+            if (prev.version() != next.version()) log.info("[ModelParams] Active version {} -> {}", prev.version(), next.version());
+        } catch (Exception e) {
+            log.warn("[ModelParams] Reload failed, keeping version {}: {}", current.get().version(), e.getMessage());
+        }
+    }
+
+    public List<Version> history(int limit) {
+        List<Version> out = new ArrayList<>();
+        for (ModelParameterSet s : repository.findAllByOrderByVersionDesc(PageRequest.of(0, Math.max(1, Math.min(limit, 200))))) {
+            out.add(new Version(s.getVersion(), s.isActive(), s.getNote(), s.getCreatedAt(), parse(s)));
+        }
+        return out;
+    }
+
+    /** Stores {@code parameters} under the next version number, optionally activating it. */
+    @Transactional
+    public Version save(ModelParameters parameters, String note, boolean activate) {
+        if (parameters == null) throw new IllegalArgumentException("parameters are required");
+        ModelParameters p = parameters.withVersion(repository.findMaxVersion() + 1).validate();
+        ModelParameterSet row = new ModelParameterSet(p.version(), write(p), note);
+        if (activate) {
+            repository.deactivateAll();
+            row.setActive(true);
+        }
+        row = repository.save(row);
+        if (activate) afterCommit(p);
+        return new Version(row.getVersion(), row.isActive(), row.getNote(), row.getCreatedAt(), p);
+    }
+
+    /** Activates a saved version (0 restores the built-in defaults); empty when the version does not exist. */
+    @Transactional
+    public Optional<ModelParameters> activate(int version) {
+        if (version == 0) {
+            repository.deactivateAll();
+            afterCommit(ModelParameters.DEFAULTS);
+            return Optional.of(ModelParameters.DEFAULTS);
+        }
+        Optional<ModelParameterSet> row = repository.findByVersion(version);
+        if (row.isEmpty()) return Optional.empty();
+        ModelParameters p = parse(row.get());
+        repository.deactivateAll();
+        row.get().setActive(true);
+        repository.save(row.get());
+        afterCommit(p);
+        return Optional.of(p);
+    }
+
+    private void afterCommit(ModelParameters p) {
+        if (org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive()) {
+            org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(
+                    new org.springframework.transaction.support.TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() { swap(p); }
+                    });
+        } else {
+            swap(p);
+        }
+    }
+
+    private void swap(ModelParameters p) {
+        ModelParameters prev = current.getAndSet(p);
+        log.info("[ModelParams] Activated version {} (was {})", p.version(), prev.version());
+    }
+
+    private ModelParameters parse(ModelParameterSet s) {
+        try {
+            return objectMapper.readValue(s.getParams(), ModelParameters.class).withVersion(s.getVersion());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable model parameters version " + s.getVersion(), e);
+        }
+    }
+
+    private String write(ModelParameters p) {
+        try {
+            return objectMapper.writeValueAsString(p);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize model parameters", e);
+        }
+    }
+}
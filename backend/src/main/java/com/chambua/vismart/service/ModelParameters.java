@@ -0,0 +1,68 @@
+package com.chambua.vismart.service;
+
+/**
+ * Tuning constants of the deterministic model ({@link DeterministicModel}) and the form guide recency weight.
+ * {@link #DEFAULTS} (version 0) reproduces the historical hard-coded values; persisted sets carry the version they
+ * were saved under (see {@link ModelParameterService}).
+ *
+ * @param formLimit         form guide window (last N matches)
+ * @param h2hLimit          H2H window; also the count at which the H2H blend reaches its cap
+ * @param recencyDecay      weight of the i-th most recent match is {@code 1 / (1 + recencyDecay * i)}
+ * @param formScaleFixtures share of 100 split between home/away by PPG in fixtures mode (rest is draw)
+ * @param formScaleMatch    same, match mode
+ * @param h2hScale          same, for H2H PPG
+ * @param alphaCapFixtures  maximum weight of H2H in the blend, fixtures mode
+ * @param alphaCapMatch     maximum weight of H2H in the blend, match mode
+ * @param xgMin             lower clamp of expected goals
+ * @param xgMax             upper clamp of expected goals
+ */
+public record ModelParameters(int version,
+                              int formLimit,
+                              int h2hLimit,
+                              double recencyDecay,
+                              double formScaleFixtures,
+                              double formScaleMatch,
+                              double h2hScale,
+                              double alphaCapFixtures,
+                              double alphaCapMatch,
+                              double xgMin,
+                              double xgMax) {
+
+    public static final ModelParameters DEFAULTS = new ModelParameters(0, 6, 6, 1.0, 0.65, 0.75, 0.75, 0.35, 0.60, 0.3, 3.0);
+
+    /** Recency weight of the match {@code i} places from the most recent (i = 0). */
+    public double weight(int i) {
+        return 1.0 / (1 + recencyDecay * i);
+    }
+
+    public double formScale(boolean fixturesMode) {
+        return fixturesMode ? formScaleFixtures : formScaleMatch;
+    }
+
+    public double alphaCap(boolean fixturesMode) {
+        return fixturesMode ? alphaCapFixtures : alphaCapMatch;
+    }
+
+    public ModelParameters withVersion(int v) {
+        return new ModelParameters(v, formLimit, h2hLimit, recencyDecay, formScaleFixtures, formScaleMatch, h2hScale,
+                alphaCapFixtures, alphaCapMatch, xgMin, xgMax);
+    }
+
+    /** Throws {@link IllegalArgumentException} when a value is outside the range the model can use. */
+    public ModelParameters validate() {
+        if (formLimit < 1 || formLimit > 50) throw new IllegalArgumentException("formLimit must be between 1 and 50");
+        if (h2hLimit < 1 || h2hLimit > 50) throw new IllegalArgumentException("h2hLimit must be between 1 and 50");
+        if (!(recencyDecay >= 0.0 && recencyDecay <= 10.0)) throw new IllegalArgumentException("recencyDecay must be between 0 and 10");
+        requireShare("formScaleFixtures", formScaleFixtures);
+        requireShare("formScaleMatch", formScaleMatch);
+        requireShare("h2hScale", h2hScale);
+        requireShare("alphaCapFixtures", alphaCapFixtures);
+        requireShare("alphaCapMatch", alphaCapMatch);
+        if (!(xgMin > 0.0 && xgMin < xgMax && xgMax <= 10.0)) throw new IllegalArgumentException("xG clamps must satisfy 0 < xgMin < xgMax <= 10");
+        return this;
+    }
+
+    private static void requireShare(String name, double v) {
+        if (!(v >= 0.0 && v <= 1.0)) throw new IllegalArgumentException(name + " must be between 0 and 1");
+    }
+}
@@ -0,0 +1,277 @@
+package com.chambua.vismart.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline optimizer for {@link ModelParameters}: a grid or random search whose candidates are all replayed by
+ * {@link BacktestService#runAll} over one shared {@link MatchSnapshot}, ranked by mean log-loss of the chosen
+ * market (lower is better). Sweeps run one at a time in the background; results are kept in memory and can be
+ * saved as a new parameter version through {@link ModelParameterService}.
+ */
+@Service
+public class ParameterSweepService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParameterSweepService.class);
+
+    /** Tunable parameter names (components of {@link ModelParameters} other than the version). */
+    public static final List<String> PARAMETERS = List.of("formLimit", "h2hLimit", "recencyDecay", "formScaleFixtures",
+            "formScaleMatch", "h2hScale", "alphaCapFixtures", "alphaCapMatch", "xgMin", "xgMax");
+
+    private static final int KEEP_SWEEPS = 20;
+
+    public enum Mode { GRID, RANDOM }
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * A sweep over one or more leagues. GRID takes every combination of {@code grid} values; RANDOM draws
+     * {@code samples} candidates uniformly from the {@code [min, max]} of each entry in {@code ranges} (limits are
+     * rounded to integers). Parameters not mentioned keep the active set's values.
+     */
+    public record Request(List<Long> leagueIds, Long seasonId, boolean fixturesMode, int minPriorMatches,
+                          Mode mode, Map<String, List<Double>> grid, Map<String, List<Double>> ranges,
+                          Integer samples, Long seed, String variant, String market, Integer top) {}
+
+    public record Ranked(int rank, double logLoss, double brier, double hitRate, long n, ModelParameters parameters) {}
+
+    public static class Sweep {
+        public String id;
+        public Status status;
+        public List<Long> leagueIds;
+        public Long seasonId;
+        public boolean fixturesMode;
+        public String variant;
+        public String market;
+        /** Replays in this sweep, the baseline (active parameters) included. */
+        public int candidates;
+        public int evaluated;
+        public int snapshotMatches;
+        public long matchesPerCandidate;
+        public Instant startedAt;
+        public Instant finishedAt;
+        public Long elapsedMs;
+        public String error;
+        public Ranked baseline;
+        public List<Ranked> top = List.of();
+    }
+
+    private final BacktestService backtestService;
+    private final ModelParameterService modelParameterService;
+    private final int maxCandidates;
+    private final Map<String, Sweep> sweeps = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> progress = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "parameter-sweep");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ParameterSweepService(BacktestService backtestService, ModelParameterService modelParameterService,
+                                 @Value("${app.model.sweep.max-candidates:20000}") int maxCandidates) {
+        this.backtestService = backtestService;
+        this.modelParameterService = modelParameterService;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /** Validates the request, expands its candidates and queues the sweep; returns its initial status. */
+    public Sweep start(Request request) {
+        if (request == null || request.leagueIds() == null || request.leagueIds().isEmpty()) throw new IllegalArgumentException("leagueIds are required");
+        String variant = request.variant() == null ? BacktestService.VARIANT_POISSON : request.variant();
+        String market = request.market() == null ? BacktestService.MARKET_1X2 : request.market();
+        if (!BacktestService.isMarket(variant, market)) {
+            throw new IllegalArgumentException("Unknown variant/market: " + variant + "/" + market);
+        }
+        ModelParameters base = modelParameterService.current();
+        List<ModelParameters> candidates = candidates(base, request);
+        if (candidates.isEmpty()) throw new IllegalArgumentException("No valid parameter candidates");
+
+        Sweep sweep = new Sweep();
+        sweep.id = Long.toString(System.currentTimeMillis(), 36) + "-" + sequence.incrementAndGet();
+        sweep.status = Status.RUNNING;
+        sweep.leagueIds = List.copyOf(request.leagueIds());
+        sweep.seasonId = request.seasonId();
+        sweep.fixturesMode = request.fixturesMode();
+        sweep.variant = variant;
+        sweep.market = market;
+        sweep.candidates = candidates.size() + 1; // the active set is replayed too, as the baseline
+        sweep.startedAt = Instant.now();
+        sweeps.put(sweep.id, sweep);
+        progress.put(sweep.id, new AtomicInteger());
+        trim();
+        int top = request.top() == null ? 20 : Math.max(1, Math.min(request.top(), 500));
+        worker.submit(() -> run(sweep, request, base, candidates, top));
+        return status(sweep.id).orElseThrow();
+    }
+
+    public Optional<Sweep> status(String id) {
+        Sweep s = id == null ? null : sweeps.get(id);
+        if (s == null) return Optional.empty();
+        // Copy under the lock: the worker thread keeps updating the live object
+        synchronized (s) {
+            Sweep c = new Sweep();
+            c.id = s.id; c.status = s.status; c.leagueIds = s.leagueIds; c.seasonId = s.seasonId; c.fixturesMode = s.fixturesMode;
+            c.variant = s.variant; c.market = s.market; c.candidates = s.candidates; c.snapshotMatches = s.snapshotMatches;
+            c.matchesPerCandidate = s.matchesPerCandidate; c.startedAt = s.startedAt; c.finishedAt = s.finishedAt;
+            c.elapsedMs = s.elapsedMs; c.error = s.error; c.baseline = s.baseline; c.top = s.top;
+            AtomicInteger done = progress.get(id);
+            c.evaluated = done != null ? done.get() : s.evaluated;
+            return Optional.of(c);
+        }
+    }
+
+    public List<Sweep> recent() {
+        List<Sweep> out = new ArrayList<>();
+        sweeps.keySet().forEach(id -> status(id).ifPresent(out::add));
+        out.sort(Comparator.comparing((Sweep s) -> s.startedAt).reversed());
+        return out;
+    }
+
+    private void run(Sweep sweep, Request request, ModelParameters base, List<ModelParameters> candidates, int top) {
+        long start = System.currentTimeMillis();
+        try {
+            List<Long> family = backtestService.familyIds(request.leagueIds());
+            MatchSnapshot snapshot = backtestService.snapshot(family);
+            BacktestService.Options template = new BacktestService.Options(request.leagueIds().get(0), request.seasonId(),
+                    request.fixturesMode(), Math.max(0, request.minPriorMatches()), null);
+            AtomicInteger done = progress.get(sweep.id);
+            List<ModelParameters> all = new ArrayList<>(candidates.size() + 1);
+            all.add(base);
+            all.addAll(candidates);
+            List<BacktestService.Report> reports = backtestService.runAll(snapshot, family, request.leagueIds(), template, all, done::incrementAndGet);
+
+            List<Ranked> ranked = new ArrayList<>(reports.size() - 1);
+            for (int i = 1; i < reports.size(); i++) ranked.add(rank(0, reports.get(i), sweep));
+            ranked.sort(Comparator.comparingDouble(Ranked::logLoss).thenComparingDouble(Ranked::brier));
+            List<Ranked> best = new ArrayList<>(Math.min(top, ranked.size()));
+            for (int i = 0; i < Math.min(top, ranked.size()); i++) {
+                Ranked r = ranked.get(i);
+                best.add(new Ranked(i + 1, r.logLoss(), r.brier(), r.hitRate(), r.n(), r.parameters()));
+            }
+            synchronized (sweep) {
+                sweep.snapshotMatches = snapshot.size();
+                sweep.matchesPerCandidate = reports.get(0).matchesEvaluated();
+                sweep.baseline = rank(0, reports.get(0), sweep);
+                sweep.top = best;
+                sweep.evaluated = done.get();
+                sweep.status = Status.COMPLETED;
+            }
+            log.info("[Sweep] id={} leagues={} candidates={} snapshot={} best={} baseline={} ms={}", sweep.id, request.leagueIds(),
+                    candidates.size(), snapshot.size(), best.isEmpty() ? null : best.get(0).logLoss(), sweep.baseline.logLoss(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("[Sweep] id={} failed: {}", sweep.id, e.toString());
+            synchronized (sweep) {
+                sweep.status = Status.FAILED;
+                sweep.error = e.getMessage();
+            }
+        } finally {
+            synchronized (sweep) {
+                sweep.finishedAt = Instant.now();
+                sweep.elapsedMs = System.currentTimeMillis() - start;
+            }
+        }
+    }
+
+    private static Ranked rank(int rank, BacktestService.Report report, Sweep sweep) {
+        BacktestService.MarketReport m = report.variants().get(sweep.variant).get(sweep.market);
+        return new Ranked(rank, m.logLoss(), m.brier(), m.hitRate(), m.n(), report.parameters());
+    }
+
+    // ---- Candidate generation ----
+
+    List<ModelParameters> candidates(ModelParameters base, Request request) {
+        Mode mode = request.mode() == null ? Mode.GRID : request.mode();
+        LinkedHashSet<ModelParameters> out = new LinkedHashSet<>();
+        if (mode == Mode.GRID) {
+            Map<String, List<Double>> grid = new LinkedHashMap<>();
+            if (request.grid() != null) request.grid().forEach((k, v) -> { requireKnown(k); if (v != null && !v.isEmpty()) grid.put(k, v); });
+            long combinations = 1;
+            for (List<Double> values : grid.values()) combinations *= values.size();
+            if (combinations > maxCandidates) throw new IllegalArgumentException("Grid has " + combinations + " combinations; the limit is " + maxCandidates);
+            expand(base, new ArrayList<>(grid.entrySet()), 0, out);
+        } else {
+            int samples = request.samples() == null ? 1000 : request.samples();
+            if (samples < 1 || samples > maxCandidates) throw new IllegalArgumentException("samples must be between 1 and " + maxCandidates);
+            Map<String, List<Double>> ranges = request.ranges() == null ? Map.of() : request.ranges();
+            ranges.forEach((k, v) -> {
+                requireKnown(k);
+                if (v == null || v.size() != 2 || v.get(0) > v.get(1)) throw new IllegalArgumentException("Range for " + k + " must be [min, max]");
+            });
+            SplittableRandom random = new SplittableRandom(request.seed() == null ? 42L : request.seed());
+            for (int i = 0; i < samples; i++) {
+                ModelParameters p = base;
+                for (Map.Entry<String, List<Double>> e : ranges.entrySet()) {
+                    double lo = e.getValue().get(0), hi = e.getValue().get(1);
+                    p = with(p, e.getKey(), lo == hi ? lo : lo + random.nextDouble() * (hi - lo));
+                }
+                addIfValid(p, out);
+            }
+        }
+        return new ArrayList<>(out);
+    }
+
+    private void expand(ModelParameters p, List<Map.Entry<String, List<Double>>> axes, int i, LinkedHashSet<ModelParameters> out) {
+        if (i == axes.size()) { addIfValid(p, out); return; }
+        for (Double v : axes.get(i).getValue()) {
+            if (v != null) expand(with(p, axes.get(i).getKey(), v), axes, i + 1, out);
+        }
+    }
+
+    private static void addIfValid(ModelParameters p, LinkedHashSet<ModelParameters> out) {
+        try {
+            out.add(p.withVersion(0).validate());
+        } catch (IllegalArgumentException ignoredInvalid) { /* skip combinations outside the usable range */ }
+    }
+
+    private static void requireKnown(String name) {
+        if (!PARAMETERS.contains(name)) throw new IllegalArgumentException("Unknown parameter: " + name + " (expected one of " + PARAMETERS + ")");
+    }
+
+    static ModelParameters with(ModelParameters p, String name, double v) {
+        return switch (name) {
+            case "formLimit" -> new ModelParameters(p.version(), (int) Math.round(v), p.h2hLimit(), p.recencyDecay(), p.formScaleFixtures(), p.formScaleMatch(), p.h2hScale(), p.alphaCapFixtures(), p.alphaCapMatch(), p.xgMin(), p.xgMax());
+            case "h2hLimit" -> new ModelParameters(p.version(), p.formLimit(), (int) Math.round(v), p.recencyDecay(), p.formScaleFixtures(), p.formScaleMatch(), p.h2hScale(), p.alphaCapFixtures(), p.alphaCapMatch(), p.xgMin(), p.xgMax());
+            case "recencyDecay" -> new ModelParameters(p.version(), p.formLimit(), p.h2hLimit(), v, p.formScaleFixtures(), p.formScaleMatch(), p.h2hScale(), p.alphaCapFixtures(), p.alphaCapMatch(), p.xgMin(), p.xgMax());
+            case "formScaleFixtures" -> new ModelParameters(p.version(), p.formLimit(), p.h2hLimit(), p.recencyDecay(), v, p.formScaleMatch(), p.h2hScale(), p.alphaCapFixtures(), p.alphaCapMatch(), p.xgMin(), p.xgMax());
+            case "formScaleMatch" -> new ModelParameters(p.version(), p.formLimit(), p.h2hLimit(), p.recencyDecay(), p.formScaleFixtures(), v, p.h2hScale(), p.alphaCapFixtures(), p.alphaCapMatch(), p.xgMin(), p.xgMax());
+            case "h2hScale" -> new ModelParameters(p.version(), p.formLimit(), p.h2hLimit(), p.recencyDecay(), p.formScaleFixtures(), p.formScaleMatch(), v, p.alphaCapFixtures(), p.alphaCapMatch(), p.xgMin(), p.xgMax());
+            case "alphaCapFixtures" -> new ModelParameters(p.version(), p.formLimit(), p.h2hLimit(), p.recencyDecay(), p.formScaleFixtures(), p.formScaleMatch(), p.h2hScale(), v, p.alphaCapMatch(), p.xgMin(), p.xgMax());
+            case "alphaCapMatch" -> new ModelParameters(p.version(), p.formLimit(), p.h2hLimit(), p.recencyDecay(), p.formScaleFixtures(), p.formScaleMatch(), p.h2hScale(), p.alphaCapFixtures(), v, p.xgMin(), p.xgMax());
+            case "xgMin" -> new ModelParameters(p.version(), p.formLimit(), p.h2hLimit(), p.recencyDecay(), p.formScaleFixtures(), p.formScaleMatch(), p.h2hScale(), p.alphaCapFixtures(), p.alphaCapMatch(), v, p.xgMax());
+            case "xgMax" -> new ModelParameters(p.version(), p.formLimit(), p.h2hLimit(), p.recencyDecay(), p.formScaleFixtures(), p.formScaleMatch(), p.h2hScale(), p.alphaCapFixtures(), p.alphaCapMatch(), p.xgMin(), v);
+            default -> throw new IllegalArgumentException("Unknown parameter: " + name);
+        };
+    }
+
+    private void trim() {
+        if (sweeps.size() <= KEEP_SWEEPS) return;
+        sweeps.values().stream()
+                .filter(s -> s.status != Status.RUNNING)
+                .sorted(Comparator.comparing((Sweep s) -> s.startedAt))
+                .limit(sweeps.size() - KEEP_SWEEPS)
+                .forEach(s -> { sweeps.remove(s.id); progress.remove(s.id); });
+    }
+}
@@ -36,6 +36,10 @@ public class QuickInsightsService {
     private final MatchAnalysisService matchAnalysisService;
     private final SeasonService seasonService;
 
+    // Cached current-season resolution; SeasonService is queried per fixture when absent
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private ReferenceDataService referenceDataService;
+
     public QuickInsightsService(FixtureRepository fixtureRepository,
                                 LeagueRepository leagueRepository,
                                 TeamRepository teamRepository,
@@ -80,7 +84,7 @@ public class QuickInsightsService {
                 String awayName = safe(f.getAwayTeam());
 
                 // Determine season context (current season for league)
-                Long seasonId = seasonService.findCurrentSeason(leagueId).map(com.chambua.vismart.model.Season::getId).orElse(null);
+                Long seasonId = currentSeasonId(leagueId);
 
                 // Run blended analysis using our deterministic analyzer
                 MatchAnalysisResponse mar = matchAnalysisService.analyzeDeterministic(
@@ -127,7 +131,7 @@ public class QuickInsightsService {
                     Long awayId = teamRepository.findAllByLeagueIdAndNameIgnoreCase(leagueId, safe(f.getAwayTeam())).stream().findFirst().map(t -> t.getId()).orElse(null);
                     String homeName = safe(f.getHomeTeam());
                     String awayName = safe(f.getAwayTeam());
-                    Long seasonId = seasonService.findCurrentSeason(leagueId).map(com.chambua.vismart.model.Season::getId).orElse(null);
+                    Long seasonId = currentSeasonId(leagueId);
                     MatchAnalysisResponse mar = matchAnalysisService.analyzeDeterministic(leagueId, homeId, awayId, seasonId, league.getName(), homeName, awayName, false, "match");
                     if (mar == null) continue;
                     int best = 0;
@@ -176,4 +180,9 @@ public class QuickInsightsService {
     }
 
     private static String safe(String s) { return s == null ? "" : s.trim(); }
+
+    private Long currentSeasonId(Long leagueId) {
+        if (referenceDataService != null) return referenceDataService.currentSeasonId(leagueId);
+        return seasonService.findCurrentSeason(leagueId).map(com.chambua.vismart.model.Season::getId).orElse(null);
+    }
 }
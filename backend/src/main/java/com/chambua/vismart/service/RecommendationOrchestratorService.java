@@ -3,6 +3,8 @@ package com.chambua.vismart.service;
 import com.chambua.vismart.dto.MatchAnalysisResponse;
 import com.chambua.vismart.dto.RecommendationSummary;
 import com.chambua.vismart.dto.StreakInsight;
+import com.chambua.vismart.util.AnalysisTrace;
+import com.chambua.vismart.util.PipelineMetrics;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -40,15 +42,21 @@ public class RecommendationOrchestratorService {
                                            String leagueName,
                                            String homeTeamName,
                                            String awayTeamName) {
+        long stageStart = System.nanoTime();
         String key = cacheKey(fixtureId, leagueId, seasonId, homeTeamId, awayTeamId, homeTeamName, awayTeamName);
         CacheEntry ce = cache.get(key);
         long now = System.currentTimeMillis();
         if (ce != null && (now - ce.timestamp) < TTL_MILLIS) {
+            PipelineMetrics.cache("recommendations", true);
+            PipelineMetrics.stage("recommendation_cache_lookup", stageStart);
             return ce.summary;
         }
+        PipelineMetrics.cache("recommendations", false);
+        PipelineMetrics.stage("recommendation_cache_lookup", stageStart);
+        stageStart = System.nanoTime();
 
         // Orchestrate in parallel with timeouts
-        Future<MatchAnalysisResponse> faFuture = pool.submit(() ->
+        Future<MatchAnalysisResponse> faFuture = pool.submit(AnalysisTrace.propagate("analysis", () ->
                 matchAnalysisService.analyzeDeterministic(
                         leagueId,
                         homeTeamId,
@@ -60,10 +68,10 @@ public class RecommendationOrchestratorService {
                         false,
                         "fixtures"
                 )
-        );
+        ));
         // Use last-5 form to infer current streak pattern, then compute streak insight
-        Future<StreakInsight> homeStreakFuture = pool.submit(() -> computeCurrentStreakInsight(homeTeamId, homeTeamName));
-        Future<StreakInsight> awayStreakFuture = pool.submit(() -> computeCurrentStreakInsight(awayTeamId, awayTeamName));
+        Future<StreakInsight> homeStreakFuture = pool.submit(AnalysisTrace.propagate("home_streak", () -> computeCurrentStreakInsight(homeTeamId, homeTeamName)));
+        Future<StreakInsight> awayStreakFuture = pool.submit(AnalysisTrace.propagate("away_streak", () -> computeCurrentStreakInsight(awayTeamId, awayTeamName)));
 
         MatchAnalysisResponse mar = null;
         StreakInsight hStreak = null;
@@ -77,7 +85,9 @@ public class RecommendationOrchestratorService {
         try {
             aStreak = awayStreakFuture.get(5, TimeUnit.SECONDS);
         } catch (Exception ignored) {}
+        PipelineMetrics.stage("recommendation_parallel", stageStart);
 
+        stageStart = System.nanoTime();
         RecommendationSummary out = fuse(mar, hStreak, aStreak);
         out.setFixtureId(fixtureId);
         out.setLeagueId(leagueId);
@@ -87,12 +97,14 @@ public class RecommendationOrchestratorService {
         out.setAwayTeam(awayTeamName);
 
         cache.put(key, new CacheEntry(out));
+        PipelineMetrics.stage("recommendation_fuse", stageStart);
         return out;
     }
 
     private StreakInsight computeCurrentStreakInsight(Long teamId, String teamName) {
         // Derive current streak using existing private helper via reflection, then compute streak insight
         String pattern = "0";
+        long stageStart = System.nanoTime();
         try {
             java.lang.reflect.Method mForm = MatchAnalysisService.class.getDeclaredMethod("computeFormLastFive", Long.class, String.class);
             mForm.setAccessible(true);
@@ -101,6 +113,8 @@ public class RecommendationOrchestratorService {
                 pattern = fs.getCurrentStreak();
             }
         } catch (Exception ignored) {}
+        PipelineMetrics.stage("streak_form", stageStart);
+        stageStart = System.nanoTime();
         // computeStreakInsight expects a target pattern like "3W". When pattern is "0", it will return an empty summary.
         try {
             java.lang.reflect.Method m = MatchAnalysisService.class.getDeclaredMethod("computeStreakInsight", Long.class, String.class, String.class);
@@ -113,6 +127,8 @@ public class RecommendationOrchestratorService {
             si.setPattern("0");
             si.setSummaryText(teamName + ": no active streak detected.");
             return si;
+        } finally {
+            PipelineMetrics.stage("streak_insight", stageStart);
         }
     }
 
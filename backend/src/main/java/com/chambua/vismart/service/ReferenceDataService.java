@@ -0,0 +1,290 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache of league/season reference data: leagues, seasons per league, the current season per league
+ * and league families (same name + country across seasons).
+ *
+ * Loaded from two flat queries into an immutable snapshot. Season/League writes invalidate it after commit
+ * (see {@link ReferenceChangeListener}). "Current" depends on today's date in Africa/Nairobi, so the current-season
+ * map is recomputed when the date changes (checked on access and refreshed at midnight).
+ */
+@Service
+public class ReferenceDataService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataService.class);
+    private static final ZoneId ZONE = ZoneId.of("Africa/Nairobi");
+
+    private static final AtomicLong GENERATION = new AtomicLong(1);
+
+    private final LeagueRepository leagueRepository;
+    private final SeasonRepository seasonRepository;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataService(LeagueRepository leagueRepository, SeasonRepository seasonRepository) {
+        this.leagueRepository = leagueRepository;
+        this.seasonRepository = seasonRepository;
+    }
+
+    public record LeagueRef(Long id, String name, String country, String season) {}
+
+    public record SeasonRef(Long id, Long leagueId, String name, LocalDate startDate, LocalDate endDate, Instant updatedAt) {}
+
+    /** Mark the cache stale; the next read reloads it. */
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+    }
+
+    /** Changes whenever the cached reference data is invalidated; lets dependent caches detect staleness. */
+    public static long generation() {
+        return GENERATION.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            current();
+        } catch (Exception e) {
+            log.warn("[RefData] Warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    // Day rollover in Nairobi: "current season" may change even without writes
+    @Scheduled(cron = "0 0 0 * * *", zone = "Africa/Nairobi")
+    public void refreshAtMidnight() {
+        invalidate();
+        warmUp();
+    }
+
+    public Optional<LeagueRef> league(Long leagueId) {
+        if (leagueId == null) return Optional.empty();
+        return Optional.ofNullable(current().leagues.get(leagueId));
+    }
+
+    /** All leagues in id order. */
+    public List<LeagueRef> leagues() {
+        return new ArrayList<>(current().leagues.values());
+    }
+
+    /** Seasons of a league, latest start date first (null start dates last). */
+    public List<SeasonRef> seasons(Long leagueId) {
+        if (leagueId == null) return List.of();
+        return current().seasonsByLeague.getOrDefault(leagueId, List.of());
+    }
+
+    public Optional<SeasonRef> season(Long seasonId) {
+        if (seasonId == null) return Optional.empty();
+        return Optional.ofNullable(current().seasonsById.get(seasonId));
+    }
+
+    /** Season containing today (Nairobi), else the most recent by start date; same rule as SeasonService. */
+    public Optional<SeasonRef> currentSeason(Long leagueId) {
+        if (leagueId == null) return Optional.empty();
+        return Optional.ofNullable(current().currentByLeague.get(leagueId));
+    }
+
+    public Long currentSeasonId(Long leagueId) {
+        return currentSeason(leagueId).map(SeasonRef::id).orElse(null);
+    }
+
+    /** Ids of all leagues sharing the league's name and country (case-insensitive), including itself. */
+    public List<Long> leagueFamilyIds(Long leagueId) {
+        LeagueRef l = league(leagueId).orElse(null);
+        if (l == null) return List.of();
+        return leagueFamilyIds(l.name(), l.country());
+    }
+
+    public List<Long> leagueFamilyIds(String name, String country) {
+        if (name == null || country == null) return List.of();
+        return current().families.getOrDefault(familyKey(name, country), List.of());
+    }
+
+    /**
+     * All reference data from one snapshot, for callers that read several things and cache what they derive: key
+     * that cache on {@link View#generation()} and {@link View#today()} rather than on {@link #generation()}, which may
+     * already be ahead of the snapshot served while another thread reloads.
+     */
+    public View view() {
+        return new View(current());
+    }
+
+    public static final class View {
+        private final Snapshot snapshot;
+
+        private View(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        public long generation() {
+            return snapshot.generation;
+        }
+
+        public LocalDate today() {
+            return snapshot.today;
+        }
+
+        /** All leagues in id order. */
+        public List<LeagueRef> leagues() {
+            return new ArrayList<>(snapshot.leagues.values());
+        }
+
+        public List<SeasonRef> seasons(Long leagueId) {
+            if (leagueId == null) return List.of();
+            return snapshot.seasonsByLeague.getOrDefault(leagueId, List.of());
+        }
+
+        public Optional<SeasonRef> currentSeason(Long leagueId) {
+            if (leagueId == null) return Optional.empty();
+            return Optional.ofNullable(snapshot.currentByLeague.get(leagueId));
+        }
+    }
+
+    private Snapshot current() {
+        LocalDate today = LocalDate.now(ZONE);
+        Snapshot s = snapshot;
+        if (s != null && s.generation == GENERATION.get()) {
+            if (!today.equals(s.today)) {
+                s = s.forDay(today);
+                snapshot = s;
+            }
+            PipelineMetrics.cache("reference_data", true);
+            return s;
+        }
+        PipelineMetrics.cache("reference_data", false);
+        if (s == null) {
+            buildLock.lock();
+        } else if (!buildLock.tryLock()) {
+            return s; // another thread is reloading; serve the previous snapshot meanwhile
+        }
+        try {
+            Snapshot again = snapshot;
+            if (again != null && again.generation == GENERATION.get() && today.equals(again.today)) return again;
+            long st = System.nanoTime();
+            Snapshot built = build(today);
+            PipelineMetrics.cacheRebuild("reference_data", st);
+            snapshot = built;
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private Snapshot build(LocalDate today) {
+        long gen = GENERATION.get();
+        long t0 = System.currentTimeMillis();
+        Map<Long, LeagueRef> leagues = new LinkedHashMap<>();
+        leagueRepository.findAll().stream()
+                .sorted(Comparator.comparing(l -> l.getId()))
+                .forEach(l -> leagues.put(l.getId(), new LeagueRef(l.getId(), l.getName(), l.getCountry(), l.getSeason())));
+        Map<Long, SeasonRef> seasonsById = new HashMap<>();
+        Map<Long, List<SeasonRef>> seasonsByLeague = new HashMap<>();
+        for (Object[] r : seasonRepository.findAllFlat()) {
+            SeasonRef sr = new SeasonRef((Long) r[0], (Long) r[1], (String) r[2], (LocalDate) r[3], (LocalDate) r[4], (Instant) r[5]);
+            seasonsById.put(sr.id(), sr);
+            seasonsByLeague.computeIfAbsent(sr.leagueId(), k -> new ArrayList<>()).add(sr);
+        }
+        Comparator<SeasonRef> latestFirst = Comparator.comparing(SeasonRef::startDate, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder())).reversed();
+        seasonsByLeague.replaceAll((k, v) -> {
+            v.sort(latestFirst);
+            return Collections.unmodifiableList(v);
+        });
+        Map<String, List<Long>> families = new HashMap<>();
+        for (LeagueRef l : leagues.values()) {
+            if (l.name() == null || l.country() == null) continue;
+            families.computeIfAbsent(familyKey(l.name(), l.country()), k -> new ArrayList<>()).add(l.id());
+        }
+        families.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        Snapshot s = new Snapshot(gen, today, leagues, seasonsById, seasonsByLeague, families, currentSeasons(seasonsByLeague, today));
+        log.info("[RefData] Loaded {} leagues, {} seasons in {} ms", leagues.size(), seasonsById.size(), System.currentTimeMillis() - t0);
+        return s;
+    }
+
+    private static Map<Long, SeasonRef> currentSeasons(Map<Long, List<SeasonRef>> seasonsByLeague, LocalDate today) {
+        Map<Long, SeasonRef> out = new HashMap<>();
+        seasonsByLeague.forEach((leagueId, seasons) -> {
+            Optional<SeasonRef> byDate = seasons.stream()
+                    .filter(s -> (s.startDate() == null || !today.isBefore(s.startDate()))
+                            && (s.endDate() == null || !today.isAfter(s.endDate())))
+                    .max(Comparator.comparing(SeasonRef::startDate, Comparator.nullsLast(Comparator.naturalOrder())));
+            SeasonRef cur = byDate.orElseGet(() -> seasons.stream()
+                    .sorted(Comparator.comparing(SeasonRef::startDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder())).reversed()
+                            .thenComparing(SeasonRef::id, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .findFirst().orElse(null));
+            if (cur != null) out.put(leagueId, cur);
+        });
+        return out;
+    }
+
+    private static String familyKey(String name, String country) {
+        return name.toLowerCase(Locale.ROOT) + "|" + country.toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(long generation,
+                            LocalDate today,
+                            Map<Long, LeagueRef> leagues,
+                            Map<Long, SeasonRef> seasonsById,
+                            Map<Long, List<SeasonRef>> seasonsByLeague,
+                            Map<String, List<Long>> families,
+                            Map<Long, SeasonRef> currentByLeague) {
+        Snapshot forDay(LocalDate day) {
+            return new Snapshot(generation, day, leagues, seasonsById, seasonsByLeague, families, currentSeasons(seasonsByLeague, day));
+        }
+    }
+
+    /**
+     * JPA entity listener registered on League and Season. Any persist/update/remove invalidates the cache after
+     * commit (immediately when no transaction is active); rolled-back writes leave it untouched.
+     */
+    public static class ReferenceChangeListener {
+        @jakarta.persistence.PostPersist
+        @jakarta.persistence.PostUpdate
+        @jakarta.persistence.PostRemove
+        public void onChange(Object entity) {
+            if (!org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive()) {
+                invalidate();
+                return;
+            }
+            Object key = ReferenceChangeListener.class;
+            if (org.springframework.transaction.support.TransactionSynchronizationManager.hasResource(key)) return;
+            org.springframework.transaction.support.TransactionSynchronizationManager.bindResource(key, Boolean.TRUE);
+            org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(
+                    new org.springframework.transaction.support.TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            invalidate();
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                            org.springframework.transaction.support.TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                        }
+                    });
+        }
+    }
+}
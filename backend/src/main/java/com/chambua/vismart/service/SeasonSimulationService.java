@@ -0,0 +1,417 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.LeagueTableEntryDTO;
+import com.chambua.vismart.model.Fixture;
+import com.chambua.vismart.model.FixtureStatus;
+import com.chambua.vismart.repository.FixtureRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.util.TeamNameNormalizer;
+import com.chambua.vismart.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulation of the rest of a season: the current standings ({@link LeagueTableService}) plus the
+ * league's remaining fixtures, each played out many times with independent Poisson scorelines.
+ *
+ * Expected goals per fixture come from shrunk attack/defence ratios (goals for/against per game relative to the
+ * league mean), a home factor estimated from the season's home/away goal totals, and the xG clamps of the active
+ * {@link ModelParameters}. Iterations are split into a fixed number of chunks, each with its own
+ * {@link SplittableRandom} split from the seed, so a (data, seed) pair always gives the same answer whatever the
+ * parallelism. Results are cached per data version: a hash of the standings, fixtures, goal totals and parameter
+ * version, so any upload that changes the inputs changes the key.
+ */
+@Service
+public class SeasonSimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeasonSimulationService.class);
+
+    public static final int DEFAULT_ITERATIONS = 100_000;
+    private static final int CHUNKS = 64;
+    private static final int MAX_GOALS = 10;
+    private static final int CDF_LEN = MAX_GOALS + 1;
+    private static final long ONE = 1L << 32;
+    private static final int MAX_TEAMS = 255;
+    private static final int CACHE_SIZE = 64;
+    // Shrinkage toward the league mean, in games, for attack/defence ratios
+    private static final double PRIOR_GAMES = 4.0;
+    // Prior for the home factor: PRIOR_MATCHES games at typical home/away scoring rates
+    private static final double PRIOR_MATCHES = 20.0;
+    private static final double PRIOR_HOME_GOALS = 1.45;
+    private static final double PRIOR_AWAY_GOALS = 1.15;
+    private static final double DEFAULT_GOALS_PER_TEAM = 1.3;
+
+    public record Options(Long leagueId, Long seasonId, int iterations, Long seed, int top, int relegation) {}
+
+    /** One remaining fixture as table indices with its expected goals. */
+    record Pairing(int home, int away, double xgHome, double xgAway) {}
+
+    /**
+     * @param positions probability of finishing in each position (index 0 = first)
+     */
+    public record TeamOutlook(int position, Long teamId, String teamName, int mp, int points, int remaining,
+                              double expectedPoints, double expectedPosition,
+                              double title, double top, double relegation, double[] positions) {}
+
+    public record Result(Long leagueId, Long seasonId, int iterations, long seed, int top, int relegation,
+                         int remainingFixtures, int unresolvedFixtures, String dataVersion, boolean cached, long elapsedMs,
+                         List<TeamOutlook> teams) {
+        Result asCached() {
+            return new Result(leagueId, seasonId, iterations, seed, top, relegation, remainingFixtures, unresolvedFixtures,
+                    dataVersion, true, elapsedMs, teams);
+        }
+    }
+
+    private record CacheKey(Long leagueId, Long seasonId, int iterations, Long seed, int top, int relegation, String dataVersion) {}
+
+    private final LeagueTableService leagueTableService;
+    private final FixtureRepository fixtureRepository;
+    private final MatchRepository matchRepository;
+    private final TeamRepository teamRepository;
+    private final ReferenceDataService referenceDataService;
+    private final int maxIterations;
+    private final ForkJoinPool pool;
+
+    private final Map<CacheKey, Result> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Result> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private ModelParameterService modelParameterService;
+
+    public SeasonSimulationService(LeagueTableService leagueTableService,
+                                   FixtureRepository fixtureRepository,
+                                   MatchRepository matchRepository,
+                                   TeamRepository teamRepository,
+                                   ReferenceDataService referenceDataService,
+                                   @Value("${app.simulation.parallelism:0}") int parallelism,
+                                   @Value("${app.simulation.max-iterations:1000000}") int maxIterations) {
+        this.leagueTableService = leagueTableService;
+        this.fixtureRepository = fixtureRepository;
+        this.matchRepository = matchRepository;
+        this.teamRepository = teamRepository;
+        this.referenceDataService = referenceDataService;
+        this.maxIterations = maxIterations;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("season-sim-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public Result simulate(Options o) {
+        if (o == null || o.leagueId() == null) throw new IllegalArgumentException("leagueId is required");
+        Long seasonId = o.seasonId() != null ? o.seasonId() : referenceDataService.currentSeasonId(o.leagueId());
+        if (seasonId == null) throw new IllegalArgumentException("No season found for league " + o.leagueId());
+        ReferenceDataService.SeasonRef season = referenceDataService.season(seasonId)
+                .filter(s -> o.leagueId().equals(s.leagueId()))
+                .orElseThrow(() -> new IllegalArgumentException("Season " + seasonId + " does not belong to league " + o.leagueId()));
+        int iterations = o.iterations() > 0 ? o.iterations() : DEFAULT_ITERATIONS;
+        if (iterations > maxIterations) throw new IllegalArgumentException("iterations must be at most " + maxIterations);
+
+        List<LeagueTableEntryDTO> table = new ArrayList<>(leagueTableService.computeTableBySeasonId(o.leagueId(), seasonId));
+        List<int[]> pairs = new ArrayList<>();
+        int unresolved = resolveFixtures(o.leagueId(), season, table, pairs);
+        if (table.isEmpty()) throw new IllegalArgumentException("No teams found for season " + seasonId);
+        if (table.size() > MAX_TEAMS) throw new IllegalArgumentException("Too many teams to simulate: " + table.size());
+        int top = Math.max(0, Math.min(o.top(), table.size()));
+        int relegation = Math.max(0, Math.min(o.relegation(), table.size()));
+
+        long[] goals = goalTotals(o.leagueId(), seasonId);
+        ModelParameters params = modelParameterService != null ? modelParameterService.current() : ModelParameters.DEFAULTS;
+        String dataVersion = dataVersion(table, pairs, goals, params);
+        CacheKey key = new CacheKey(o.leagueId(), seasonId, iterations, o.seed(), top, relegation, dataVersion);
+        synchronized (cache) {
+            Result hit = cache.get(key);
+            PipelineMetrics.cache("season_simulation", hit != null);
+            if (hit != null) return hit.asCached();
+        }
+
+        long started = System.nanoTime();
+        List<Pairing> fixtures = pairings(table, pairs, goals[0], goals[1], goals[2], params);
+        long seed = o.seed() != null ? o.seed() : dataVersion.hashCode();
+        long[] counts = run(table, fixtures, iterations, seed);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        Result result = new Result(o.leagueId(), seasonId, iterations, seed, top, relegation, fixtures.size(), unresolved,
+                dataVersion, false, elapsedMs, outlooks(table, fixtures, counts, iterations, top, relegation));
+        log.info("[SeasonSim] league={} season={} teams={} fixtures={} iterations={} in {} ms",
+                o.leagueId(), seasonId, table.size(), fixtures.size(), iterations, elapsedMs);
+        synchronized (cache) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    // Maps remaining fixtures onto table rows (adding teams that have not played yet); returns the number skipped
+    private int resolveFixtures(Long leagueId, ReferenceDataService.SeasonRef season, List<LeagueTableEntryDTO> table, List<int[]> out) {
+        LocalDateTime from = season.startDate() != null ? season.startDate().atStartOfDay() : null;
+        LocalDateTime to = season.endDate() != null ? season.endDate().plusDays(1).atStartOfDay() : null;
+        Map<String, Integer> byName = new HashMap<>();
+        Map<Long, Integer> byId = new HashMap<>();
+        for (int i = 0; i < table.size(); i++) {
+            byName.put(TeamNameNormalizer.normalize(table.get(i).getTeamName()), i);
+            byId.put(table.get(i).getTeamId(), i);
+        }
+        int unresolved = 0;
+        for (Fixture f : fixtureRepository.findByLeague_IdAndStatusInOrderByDateTimeAsc(leagueId, EnumSet.of(FixtureStatus.UPCOMING, FixtureStatus.LIVE))) {
+            if (f.getHomeScore() != null && f.getAwayScore() != null) continue;
+            if ("Postp".equalsIgnoreCase(f.getHomeTeam())) continue;
+            if (f.getDateTime() != null && ((from != null && f.getDateTime().isBefore(from)) || (to != null && !f.getDateTime().isBefore(to)))) continue;
+            Integer h = resolveTeam(f.getHomeTeam(), leagueId, table, byName, byId);
+            Integer a = resolveTeam(f.getAwayTeam(), leagueId, table, byName, byId);
+            if (h == null || a == null || h.equals(a)) {
+                unresolved++;
+                continue;
+            }
+            out.add(new int[]{h, a});
+        }
+        if (unresolved > 0) log.warn("[SeasonSim] league={} season={}: {} fixture(s) with unknown teams skipped", leagueId, season.id(), unresolved);
+        return unresolved;
+    }
+
+    private Integer resolveTeam(String name, Long leagueId, List<LeagueTableEntryDTO> table, Map<String, Integer> byName, Map<Long, Integer> byId) {
+        String key = TeamNameNormalizer.normalize(name);
+        if (key == null || key.isEmpty()) return null;
+        Integer idx = byName.get(key);
+        if (idx != null) return idx;
+        com.chambua.vismart.model.Team t = teamRepository.findByNameOrAliasInLeague(name, leagueId).orElse(null);
+        if (t == null) return null;
+        idx = byId.get(t.getId());
+        if (idx == null) {
+            // On the fixture list but no result yet this season: joins the table on zero
+            idx = table.size();
+            table.add(new LeagueTableEntryDTO(idx + 1, t.getId(), t.getName(), 0, 0, 0, 0, 0, 0, 0, 0));
+            byId.put(t.getId(), idx);
+        }
+        byName.put(key, idx);
+        return idx;
+    }
+
+    private long[] goalTotals(Long leagueId, Long seasonId) {
+        List<Object[]> rows = matchRepository.sumGoalsByLeagueAndSeason(leagueId, seasonId);
+        if (rows == null || rows.isEmpty() || rows.get(0) == null) return new long[]{0, 0, 0};
+        Object[] r = rows.get(0);
+        return new long[]{((Number) r[0]).longValue(), ((Number) r[1]).longValue(), ((Number) r[2]).longValue()};
+    }
+
+    static String dataVersion(List<LeagueTableEntryDTO> table, List<int[]> pairs, long[] goals, ModelParameters params) {
+        long h = 1125899906842597L;
+        for (LeagueTableEntryDTO e : table) {
+            h = 31 * h + (e.getTeamId() != null ? e.getTeamId() : 0);
+            h = 31 * h + e.getMp();
+            h = 31 * h + e.getPts();
+            h = 31 * h + e.getGf();
+            h = 31 * h + e.getGa();
+        }
+        for (int[] p : pairs) h = 31 * h + (p[0] * 1024L + p[1]);
+        for (long g : goals) h = 31 * h + g;
+        return params.version() + "-" + Long.toHexString(h);
+    }
+
+    /** Expected goals for each remaining fixture. */
+    static List<Pairing> pairings(List<LeagueTableEntryDTO> table, List<int[]> pairs, long homeGoals, long awayGoals, long matches,
+                                  ModelParameters p) {
+        long teamGames = 0, totalGoals = 0;
+        for (LeagueTableEntryDTO e : table) {
+            teamGames += e.getMp();
+            totalGoals += e.getGf();
+        }
+        double mu = teamGames > 0 ? Math.max(0.2, (double) totalGoals / teamGames) : DEFAULT_GOALS_PER_TEAM;
+        double homeFactor = Math.sqrt((homeGoals + PRIOR_MATCHES * PRIOR_HOME_GOALS) / (awayGoals + PRIOR_MATCHES * PRIOR_AWAY_GOALS));
+        double[] attack = new double[table.size()];
+        double[] defence = new double[table.size()];
+        for (int i = 0; i < table.size(); i++) {
+            LeagueTableEntryDTO e = table.get(i);
+            attack[i] = (e.getGf() + PRIOR_GAMES * mu) / (e.getMp() + PRIOR_GAMES) / mu;
+            defence[i] = (e.getGa() + PRIOR_GAMES * mu) / (e.getMp() + PRIOR_GAMES) / mu;
+        }
+        List<Pairing> out = new ArrayList<>(pairs.size());
+        for (int[] pr : pairs) {
+            double xh = mu * homeFactor * attack[pr[0]] * defence[pr[1]];
+            double xa = mu / homeFactor * attack[pr[1]] * defence[pr[0]];
+            out.add(new Pairing(pr[0], pr[1], Math.max(p.xgMin(), Math.min(p.xgMax(), xh)), Math.max(p.xgMin(), Math.min(p.xgMax(), xa))));
+        }
+        return out;
+    }
+
+    /**
+     * Plays the remaining fixtures {@code iterations} times. Returns finishing-position counts, flattened as
+     * {@code team * n + position}, followed by the summed final points of each team.
+     */
+    long[] run(List<LeagueTableEntryDTO> table, List<Pairing> fixtures, int iterations, long seed) {
+        int n = table.size();
+        int[] points = new int[n], gd = new int[n], gf = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = table.get(i).getPts();
+            gd[i] = table.get(i).getGd();
+            gf[i] = table.get(i).getGf();
+        }
+        int m = fixtures.size();
+        int[] home = new int[m], away = new int[m];
+        // Per fixture: home then away goal CDF as 32-bit fixed point, one flat array for locality
+        long[] cdfs = new long[m * 2 * CDF_LEN];
+        for (int k = 0; k < m; k++) {
+            Pairing f = fixtures.get(k);
+            home[k] = f.home();
+            away[k] = f.away();
+            cdf(f.xgHome(), cdfs, k * 2 * CDF_LEN);
+            cdf(f.xgAway(), cdfs, k * 2 * CDF_LEN + CDF_LEN);
+        }
+        int chunks = Math.min(CHUNKS, iterations);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] rngs = new SplittableRandom[chunks];
+        int[] sizes = new int[chunks];
+        for (int c = 0; c < chunks; c++) {
+            rngs[c] = root.split();
+            sizes[c] = iterations / chunks + (c < iterations % chunks ? 1 : 0);
+        }
+        Board board = new Board(n, points, gd, gf, home, away, cdfs);
+        return chunks == 1 ? board.play(rngs[0], sizes[0]) : pool.invoke(new ChunkTask(board, rngs, sizes, 0, chunks));
+    }
+
+    // Inverse-CDF table for goals 0..MAX_GOALS scaled to 2^32 (the tail is folded into the last bucket)
+    private static void cdf(double lambda, long[] out, int offset) {
+        double p = Math.exp(-lambda), acc = 0.0;
+        for (int k = 0; k <= MAX_GOALS; k++) {
+            acc += p;
+            out[offset + k] = Math.min(ONE, (long) Math.ceil(acc * ONE));
+            p = p * lambda / (k + 1);
+        }
+        out[offset + MAX_GOALS] = ONE;
+    }
+
+    private static List<TeamOutlook> outlooks(List<LeagueTableEntryDTO> table, List<Pairing> fixtures, long[] counts,
+                                              int iterations, int top, int relegation) {
+        int n = table.size();
+        int[] remaining = new int[n];
+        for (Pairing f : fixtures) {
+            remaining[f.home()]++;
+            remaining[f.away()]++;
+        }
+        List<TeamOutlook> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            LeagueTableEntryDTO e = table.get(i);
+            double[] pos = new double[n];
+            double expectedPos = 0.0, topP = 0.0, relP = 0.0;
+            for (int k = 0; k < n; k++) {
+                pos[k] = (double) counts[i * n + k] / iterations;
+                expectedPos += (k + 1) * pos[k];
+                if (k < top) topP += pos[k];
+                if (k >= n - relegation) relP += pos[k];
+            }
+            out.add(new TeamOutlook(i + 1, e.getTeamId(), e.getTeamName(), e.getMp(), e.getPts(), remaining[i],
+                    round3((double) counts[n * n + i] / iterations), round3(expectedPos), pos[0], topP, relP, pos));
+        }
+        return out;
+    }
+
+    private static double round3(double v) {
+        return Math.round(v * 1000.0) / 1000.0;
+    }
+
+    /** Immutable inputs of a simulation; {@link #play} owns all mutable state, so chunks share one board. */
+    private record Board(int n, int[] points, int[] gd, int[] gf, int[] home, int[] away, long[] cdfs) {
+
+        long[] play(SplittableRandom rng, int iterations) {
+            long[] acc = new long[n * n + n];
+            int[] pts = new int[n], d = new int[n], g = new int[n];
+            long[] keys = new long[n];
+            int m = home.length;
+            for (int it = 0; it < iterations; it++) {
+                System.arraycopy(points, 0, pts, 0, n);
+                System.arraycopy(gd, 0, d, 0, n);
+                System.arraycopy(gf, 0, g, 0, n);
+                for (int k = 0; k < m; k++) {
+                    // One 64-bit draw gives both sides' 32-bit uniforms
+                    long r = rng.nextLong();
+                    int base = k * 2 * CDF_LEN;
+                    int hg = sample(cdfs, base, r >>> 32);
+                    int ag = sample(cdfs, base + CDF_LEN, r & 0xFFFFFFFFL);
+                    int h = home[k], a = away[k];
+                    g[h] += hg;
+                    g[a] += ag;
+                    d[h] += hg - ag;
+                    d[a] += ag - hg;
+                    if (hg > ag) pts[h] += 3;
+                    else if (hg < ag) pts[a] += 3;
+                    else {
+                        pts[h]++;
+                        pts[a]++;
+                    }
+                }
+                // Points, goal difference, goals scored, then current table order (low bits hold the inverted index)
+                for (int i = 0; i < n; i++) {
+                    long gdKey = Math.max(0, Math.min(2047, d[i] + 1024));
+                    long gfKey = Math.max(0, Math.min(2047, g[i]));
+                    keys[i] = ((long) pts[i] << 30) | (gdKey << 19) | (gfKey << 8) | (MAX_TEAMS - i);
+                    acc[n * n + i] += pts[i];
+                }
+                Arrays.sort(keys);
+                for (int r = 0; r < n; r++) {
+                    int team = MAX_TEAMS - (int) (keys[n - 1 - r] & 0xFF);
+                    acc[team * n + r]++;
+                }
+            }
+            return acc;
+        }
+
+        private static int sample(long[] cdfs, int offset, long u) {
+            int k = 0;
+            while (u >= cdfs[offset + k]) k++;
+            return k;
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveTask<long[]> {
+        private final Board board;
+        private final SplittableRandom[] rngs;
+        private final int[] sizes;
+        private final int from, to;
+
+        ChunkTask(Board board, SplittableRandom[] rngs, int[] sizes, int from, int to) {
+            this.board = board;
+            this.rngs = rngs;
+            this.sizes = sizes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from == 1) return board.play(rngs[from], sizes[from]);
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(board, rngs, sizes, from, mid);
+            left.fork();
+            long[] right = new ChunkTask(board, rngs, sizes, mid, to).compute();
+            long[] out = left.join();
+            for (int i = 0; i < out.length; i++) out[i] += right[i];
+            return out;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.util.TeamNameNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a production-shaped dataset for load and scale testing: countries with tiers of leagues, many seasons
+ * of double round robins with promotion-like squad churn, teams with aliases and cross-league duplicates (the same
+ * club name under two leagues), played results from a Poisson strength model, and the current season's upcoming
+ * matches and fixtures.
+ *
+ * Output is a pure function of {@link Spec} (seed and anchor date included) and the first id per table, so two
+ * runs with the same inputs produce identical rows. Rows are streamed to a {@link RowWriter}; nothing larger
+ * than one league is held in memory, which keeps millions of matches cheap.
+ */
+@Service
+public class SyntheticDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    public static final String ALIAS_SOURCE = "synthetic";
+
+    private static final String[] TIERS = {"Premier League", "Championship", "League One", "League Two", "National League"};
+    private static final String[] SYLLABLES = {"ba", "ro", "ka", "len", "mar", "to", "vi", "sel", "dor", "an", "bri", "gal",
+            "ne", "os", "tor", "la", "mi", "ven", "stad", "ber", "co", "ru", "zan", "fel", "ki", "mon", "sa", "ler", "do", "ga"};
+    private static final String[] CLUB_PATTERNS = {"%s United", "%s City", "FC %s", "%s Rovers", "Real %s", "%s Athletic",
+            "Sporting %s", "%s", "%s Wanderers", "%s Town", "Dynamo %s", "%s FC"};
+    private static final LocalTime[] KICKOFFS = {LocalTime.of(12, 30), LocalTime.of(15, 0), LocalTime.of(17, 30), LocalTime.of(20, 0)};
+    // Kick-off day relative to the round's Saturday: mostly Saturday, some Friday/Sunday/Monday games
+    private static final int[] DAY_OFFSETS = {0, 0, 0, 0, 1, 1, -1, 2};
+
+    // Goal model: log-rate = ln(base) + home advantage + attack - defence (see goals())
+    private static final double BASE_GOALS = 1.30;
+    private static final double HOME_ADVANTAGE = 0.22;
+    private static final double POSTPONED_RATE = 0.002;
+
+    /** Target tables in foreign-key order; a writer must flush a table's parents before the table itself. */
+    public enum Table {
+        LEAGUES("leagues", "id", "name", "country", "season"),
+        SEASONS("seasons", "id", "league_id", "name", "start_date", "end_date"),
+        TEAMS("teams", "id", "name", "normalized_name", "league_id"),
+        TEAM_ALIAS("team_alias", "id", "alias", "team_id", "source"),
+        MATCHES("matches", "id", "league_id", "season_id", "home_team_id", "away_team_id", "match_date", "round",
+                "home_goals", "away_goals", "status", "source_type", "is_archived", "is_auto_corrected"),
+        FIXTURES("fixtures", "id", "league_id", "round", "date_time", "home_team", "away_team", "home_score", "away_score", "status");
+
+        public final String table;
+        public final List<String> columns;
+
+        Table(String table, String... columns) {
+            this.table = table;
+            this.columns = List.of(columns);
+        }
+    }
+
+    /**
+     * What to generate. {@code anchor} is "today" for the dataset: current-season matches before it are played,
+     * the rest are scheduled and also written as upcoming fixtures.
+     */
+    public record Spec(long seed, int leagues, int seasons, int teamsPerLeague, int leaguesPerCountry,
+                       double aliasRate, double duplicateRate, LocalDate anchor, int batchSize) {
+
+        public Spec validate() {
+            if (leagues < 1 || leagues > 100_000) throw new IllegalArgumentException("leagues must be between 1 and 100000");
+            if (seasons < 1 || seasons > 100) throw new IllegalArgumentException("seasons must be between 1 and 100");
+            if (teamsPerLeague < 4 || teamsPerLeague > 40 || teamsPerLeague % 2 != 0) {
+                throw new IllegalArgumentException("teamsPerLeague must be an even number between 4 and 40");
+            }
+            if (leaguesPerCountry < 1) throw new IllegalArgumentException("leaguesPerCountry must be at least 1");
+            if (!(aliasRate >= 0.0 && aliasRate <= 1.0)) throw new IllegalArgumentException("aliasRate must be between 0 and 1");
+            if (!(duplicateRate >= 0.0 && duplicateRate <= 0.5)) throw new IllegalArgumentException("duplicateRate must be between 0 and 0.5");
+            if (anchor == null) throw new IllegalArgumentException("anchor date is required");
+            if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+            return this;
+        }
+
+        /** Matches written for the whole dataset (played, postponed and scheduled). */
+        public long expectedMatches() {
+            return (long) leagues * seasons * teamsPerLeague * (teamsPerLeague - 1);
+        }
+    }
+
+    public record Stats(long leagues, long seasons, long teams, long aliases, long matches, long playedMatches,
+                        long fixtures, long millis) {}
+
+    /** Receives generated rows, values in {@link Table#columns} order. */
+    public interface RowWriter extends AutoCloseable {
+        void write(Table table, Object[] row);
+
+        @Override
+        void close();
+    }
+
+    @Autowired(required = false)
+    private JdbcTemplate jdbcTemplate;
+
+    public SyntheticDataGenerator() {}
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Generates {@code spec} and inserts it with batched JDBC, ids continuing after the current maximum per table. */
+    public Stats load(Spec spec) {
+        if (jdbcTemplate == null) throw new IllegalStateException("No datasource configured");
+        spec.validate();
+        try (RowWriter out = new JdbcBatchWriter(jdbcTemplate, spec.batchSize())) {
+            return generate(spec, nextIds(), out);
+        }
+    }
+
+    /** Generates {@code spec} as one CSV per table plus {@code load.sql} (MySQL {@code LOAD DATA LOCAL INFILE}). */
+    public Stats exportCsv(Spec spec, Path dir) {
+        spec.validate();
+        long[] firstIds = jdbcTemplate != null ? nextIds() : new long[]{1, 1, 1, 1, 1, 1};
+        try (RowWriter out = new CsvWriter(dir)) {
+            return generate(spec, firstIds, out);
+        }
+    }
+
+    public long existingLeagues() {
+        if (jdbcTemplate == null) return 0;
+        Long n = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM leagues", Long.class);
+        return n == null ? 0 : n;
+    }
+
+    private long[] nextIds() {
+        long[] ids = new long[Table.values().length];
+        for (Table t : Table.values()) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + t.table, Long.class);
+            ids[t.ordinal()] = (max == null ? 0 : max) + 1;
+        }
+        return ids;
+    }
+
+    // ---- Generation ----
+
+    /** Mutable per-run counters; ids are handed out sequentially per table starting at {@code firstIds}. */
+    private static final class Ids {
+        final long[] next;
+        long played;
+
+        Ids(long[] firstIds) {
+            this.next = firstIds.clone();
+        }
+
+        long take(Table t) {
+            return next[t.ordinal()]++;
+        }
+
+        long count(Table t, long[] firstIds) {
+            return next[t.ordinal()] - firstIds[t.ordinal()];
+        }
+    }
+
+    /** One club of a league's pool: its team row, name and latent strength. */
+    private record Club(long id, String name, double attack, double defence) {}
+
+    public Stats generate(Spec spec, long[] firstIds, RowWriter out) {
+        spec.validate();
+        long started = System.currentTimeMillis();
+        Ids ids = new Ids(firstIds);
+        int currentStartYear = spec.anchor().getMonthValue() >= 7 ? spec.anchor().getYear() : spec.anchor().getYear() - 1;
+        String currentSeason = seasonName(currentStartYear);
+        SplittableRandom names = new SplittableRandom(spec.seed());
+
+        String country = null;
+        List<String> upperTierNames = List.of();
+        Set<String> countries = new HashSet<>();
+        for (int l = 0; l < spec.leagues(); l++) {
+            int tier = l % spec.leaguesPerCountry();
+            if (tier == 0) {
+                country = uniqueName(names, countries);
+                upperTierNames = List.of();
+            }
+            // Each league has its own stream so adding leagues never changes the earlier ones
+            SplittableRandom rnd = new SplittableRandom(Long.rotateLeft(spec.seed() * 0xBF58476D1CE4E5B9L, 31) ^ ((l + 1) * 0x94D049BB133111EBL));
+            String leagueName = tier < TIERS.length ? TIERS[tier] : "Division " + (tier + 1);
+            long leagueId = ids.take(Table.LEAGUES);
+            out.write(Table.LEAGUES, new Object[]{leagueId, leagueName, country, currentSeason});
+
+            List<Club> pool = clubs(spec, rnd, leagueId, upperTierNames, ids, out);
+            upperTierNames = pool.stream().map(Club::name).toList();
+            double leagueGoals = Math.log(BASE_GOALS) + (rnd.nextDouble() - 0.5) * 0.3;
+
+            for (int s = 0; s < spec.seasons(); s++) {
+                int startYear = currentStartYear - spec.seasons() + 1 + s;
+                long seasonId = ids.take(Table.SEASONS);
+                out.write(Table.SEASONS, new Object[]{seasonId, leagueId, seasonName(startYear),
+                        LocalDate.of(startYear, 7, 1), LocalDate.of(startYear + 1, 6, 30)});
+                season(spec, rnd, leagueId, seasonId, startYear, s, pool, leagueGoals, ids, out);
+            }
+            if ((l + 1) % 100 == 0) {
+                log.info("[Synthetic] {}/{} leagues, {} matches", l + 1, spec.leagues(), ids.count(Table.MATCHES, firstIds));
+            }
+        }
+        return new Stats(ids.count(Table.LEAGUES, firstIds), ids.count(Table.SEASONS, firstIds), ids.count(Table.TEAMS, firstIds),
+                ids.count(Table.TEAM_ALIAS, firstIds), ids.count(Table.MATCHES, firstIds), ids.played,
+                ids.count(Table.FIXTURES, firstIds), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * The league's club pool: a quarter more clubs than places so squads churn between seasons. A share of names
+     * is copied from the tier above, giving the same club name under two leagues like promoted or relegated clubs.
+     */
+    private List<Club> clubs(Spec spec, SplittableRandom rnd, long leagueId, List<String> upperTierNames, Ids ids, RowWriter out) {
+        int size = spec.teamsPerLeague() + Math.max(1, spec.teamsPerLeague() / 4);
+        Set<String> used = new LinkedHashSet<>();
+        for (String n : upperTierNames) {
+            if (used.size() >= Math.round(size * spec.duplicateRate())) break;
+            if (rnd.nextDouble() < 0.5) used.add(n);
+        }
+        Set<String> normalized = new HashSet<>();
+        for (String n : used) normalized.add(TeamNameNormalizer.normalize(n));
+        while (used.size() < size) {
+            String town = capitalize(word(rnd, 2 + rnd.nextInt(2)));
+            String name = String.format(CLUB_PATTERNS[rnd.nextInt(CLUB_PATTERNS.length)], town);
+            if (normalized.add(TeamNameNormalizer.normalize(name))) used.add(name);
+        }
+        List<Club> pool = new ArrayList<>(size);
+        for (String name : used) {
+            long teamId = ids.take(Table.TEAMS);
+            out.write(Table.TEAMS, new Object[]{teamId, name, TeamNameNormalizer.normalize(name), leagueId});
+            if (rnd.nextDouble() < spec.aliasRate()) {
+                for (String alias : aliases(name)) {
+                    out.write(Table.TEAM_ALIAS, new Object[]{ids.take(Table.TEAM_ALIAS), alias, teamId, ALIAS_SOURCE});
+                }
+            }
+            pool.add(new Club(teamId, name, gaussian(rnd) * 0.25, gaussian(rnd) * 0.2));
+        }
+        return pool;
+    }
+
+    /** Spelling variants seen in uploaded data: without the club prefix/suffix, abbreviated, and a short code. */
+    static List<String> aliases(String name) {
+        Set<String> out = new LinkedHashSet<>();
+        String bare = name.replaceFirst("^(FC|Real|Sporting|Dynamo) ", "")
+                .replaceFirst(" (United|City|Rovers|Athletic|Wanderers|Town|FC)$", "");
+        if (!bare.equals(name)) out.add(bare);
+        if (name.endsWith(" United")) out.add(name.replace(" United", " Utd"));
+        else if (name.endsWith(" Athletic")) out.add(name.replace(" Athletic", " Ath."));
+        else if (!name.startsWith("FC ") && !name.endsWith(" FC")) out.add(name + " FC");
+        String code = bare.replace(" ", "");
+        if (code.length() >= 3) out.add(code.substring(0, 3).toUpperCase());
+        out.remove(name);
+        return new ArrayList<>(out);
+    }
+
+    /** One double round robin (circle method, second half mirrored), one round per weekend from early August. */
+    private void season(Spec spec, SplittableRandom rnd, long leagueId, long seasonId, int startYear, int seasonIndex,
+                        List<Club> pool, double leagueGoals, Ids ids, RowWriter out) {
+        int n = spec.teamsPerLeague();
+        // Rotate three clubs in and out per season, like promotion and relegation
+        Club[] teams = new Club[n];
+        for (int k = 0; k < n; k++) teams[k] = pool.get((seasonIndex * 3 + k) % pool.size());
+        // Shuffle so the fixture order differs by season
+        for (int k = n - 1; k > 0; k--) {
+            int j = rnd.nextInt(k + 1);
+            Club t = teams[k]; teams[k] = teams[j]; teams[j] = t;
+        }
+        // Season form: small drift on top of the club's latent strength
+        double[] att = new double[n], def = new double[n];
+        for (int k = 0; k < n; k++) {
+            att[k] = teams[k].attack() + gaussian(rnd) * 0.08;
+            def[k] = teams[k].defence() + gaussian(rnd) * 0.08;
+        }
+        LocalDate firstSaturday = LocalDate.of(startYear, 8, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+        int rounds = 2 * (n - 1);
+        for (int r = 0; r < rounds; r++) {
+            LocalDate saturday = firstSaturday.plusWeeks(r + (r >= n - 1 ? 2 : 0)); // winter break between halves
+            int half = r % (n - 1);
+            for (int k = 0; k < n / 2; k++) {
+                int a = k == 0 ? n - 1 : (half + k) % (n - 1);
+                int b = (half + n - 1 - k) % (n - 1);
+                if (k == 0 && half % 2 == 1) { int t = a; a = b; b = t; }
+                int h = r < n - 1 ? a : b, w = r < n - 1 ? b : a;
+                LocalDate date = saturday.plusDays(DAY_OFFSETS[rnd.nextInt(DAY_OFFSETS.length)]);
+                int hg = goals(rnd, Math.exp(leagueGoals + HOME_ADVANTAGE + att[h] - def[w]));
+                int ag = goals(rnd, Math.exp(leagueGoals + att[w] - def[h]));
+                boolean played = date.isBefore(spec.anchor());
+                boolean postponed = played && rnd.nextDouble() < POSTPONED_RATE;
+                String status = postponed ? "POSTPONED" : played ? "PLAYED" : "SCHEDULED";
+                out.write(Table.MATCHES, new Object[]{ids.take(Table.MATCHES), leagueId, seasonId, teams[h].id(), teams[w].id(),
+                        date, r + 1, played && !postponed ? hg : null, played && !postponed ? ag : null, status, "CURRENT", false, false});
+                if (played && !postponed) ids.played++;
+                // The fixtures board covers the current season from two weeks back onwards
+                if (seasonIndex == spec.seasons() - 1 && !date.isBefore(spec.anchor().minusDays(14))) {
+                    out.write(Table.FIXTURES, new Object[]{ids.take(Table.FIXTURES), leagueId, "Round " + (r + 1),
+                            date.atTime(KICKOFFS[rnd.nextInt(KICKOFFS.length)]), teams[h].name(), teams[w].name(),
+                            played && !postponed ? hg : null, played && !postponed ? ag : null, played && !postponed ? "FINISHED" : "UPCOMING"});
+                }
+            }
+        }
+    }
+
+    static String seasonName(int startYear) {
+        return startYear + "/" + (startYear + 1);
+    }
+
+    /** Knuth's method; the means used here stay well below the range where it gets slow. */
+    static int goals(SplittableRandom rnd, double mean) {
+        double limit = Math.exp(-Math.min(mean, 6.0)), p = 1.0;
+        int k = 0;
+        do { k++; p *= rnd.nextDouble(); } while (p > limit);
+        return k - 1;
+    }
+
+    private static double gaussian(SplittableRandom rnd) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u = 1.0 - rnd.nextDouble(), v = rnd.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+    }
+
+    private static String word(SplittableRandom rnd, int syllables) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < syllables; i++) sb.append(SYLLABLES[rnd.nextInt(SYLLABLES.length)]);
+        return sb.toString();
+    }
+
+    private static String uniqueName(SplittableRandom rnd, Set<String> used) {
+        for (int attempt = 0; ; attempt++) {
+            String name = capitalize(word(rnd, 2 + attempt / 50));
+            if (used.add(name)) return name;
+        }
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    // ---- Writers ----
+
+    /** Buffers rows per table and inserts them with JDBC batches, flushing parent tables first. */
+    static final class JdbcBatchWriter implements RowWriter {
+        private final JdbcTemplate jdbc;
+        private final int batchSize;
+        private final Map<Table, List<Object[]>> buffers = new EnumMap<>(Table.class);
+        private final Map<Table, String> sql = new EnumMap<>(Table.class);
+
+        JdbcBatchWriter(JdbcTemplate jdbc, int batchSize) {
+            this.jdbc = jdbc;
+            this.batchSize = batchSize;
+            for (Table t : Table.values()) {
+                buffers.put(t, new ArrayList<>(batchSize));
+                sql.put(t, "INSERT INTO " + t.table + " (" + String.join(", ", t.columns) + ") VALUES ("
+                        + String.join(", ", java.util.Collections.nCopies(t.columns.size(), "?")) + ")");
+            }
+        }
+
+        @Override
+        public void write(Table table, Object[] row) {
+            List<Object[]> buffer = buffers.get(table);
+            buffer.add(row);
+            if (buffer.size() >= batchSize) flushThrough(table);
+        }
+
+        private void flushThrough(Table last) {
+            for (Table t : Table.values()) {
+                List<Object[]> buffer = buffers.get(t);
+                if (!buffer.isEmpty()) {
+                    jdbc.batchUpdate(sql.get(t), buffer);
+                    buffer.clear();
+                }
+                if (t == last) return;
+            }
+        }
+
+        @Override
+        public void close() {
+            flushThrough(Table.FIXTURES);
+        }
+    }
+
+    /** Writes {@code <table>.csv} files ({@code \N} for NULL) and a {@code load.sql} that bulk-loads them in order. */
+    static final class CsvWriter implements RowWriter {
+        private final Path dir;
+        private final Map<Table, BufferedWriter> files = new EnumMap<>(Table.class);
+
+        CsvWriter(Path dir) {
+            this.dir = dir.toAbsolutePath();
+            try {
+                Files.createDirectories(this.dir);
+                for (Table t : Table.values()) {
+                    BufferedWriter w = Files.newBufferedWriter(this.dir.resolve(t.table + ".csv"), StandardCharsets.UTF_8);
+                    files.put(t, w);
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void write(Table table, Object[] row) {
+            try {
+                BufferedWriter w = files.get(table);
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) w.write(',');
+                    w.write(csv(row[i]));
+                }
+                w.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        static String csv(Object v) {
+            if (v == null) return "\\N";
+            if (v instanceof Boolean b) return b ? "1" : "0";
+            if (v instanceof java.time.LocalDateTime dt) return dt.toLocalDate() + " " + dt.toLocalTime();
+            String s = v.toString();
+            if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() {
+            IOException failure = null;
+            for (BufferedWriter w : files.values()) {
+                try { w.close(); } catch (IOException e) { failure = e; }
+            }
+            if (files.size() == Table.values().length) {
+                StringBuilder sql = new StringBuilder("-- mysql --local-infile=1 <db> < load.sql\nSET foreign_key_checks = 0;\n");
+                for (Table t : Table.values()) {
+                    sql.append("LOAD DATA LOCAL INFILE '").append(dir.resolve(t.table + ".csv").toString().replace("\\", "/"))
+                            .append("' INTO TABLE ").append(t.table)
+                            .append(" CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' LINES TERMINATED BY '\\n' (")
+                            .append(String.join(", ", t.columns)).append(");\n");
+                }
+                sql.append("SET foreign_key_checks = 1;\n");
+                try {
+                    Files.writeString(dir.resolve("load.sql"), sql, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) throw new UncheckedIOException(failure);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.TeamAggregatesDTO;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.util.TeamNameNormalizer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Team results breakdown counters (played, W/D/L, BTTS, over 2.5, over 1.5) computed with a single conditional
+ * aggregation per request instead of one count query per counter.
+ */
+@Service
+public class TeamAggregatesService {
+
+    private final MatchRepository matchRepository;
+
+    public TeamAggregatesService(MatchRepository matchRepository) {
+        this.matchRepository = matchRepository;
+    }
+
+    /** Counters for one team name (case/whitespace-insensitive; duplicate team rows across leagues are merged). */
+    public TeamAggregatesDTO forTeamName(String teamName) {
+        String name = teamName == null ? "" : teamName.trim();
+        if (name.isEmpty()) return TeamAggregatesDTO.empty(name);
+        List<Long> ids = matchRepository.findTeamIdsForName(name);
+        if (ids.isEmpty()) return TeamAggregatesDTO.empty(name);
+        List<Object[]> rows = matchRepository.aggregatePlayedByTeamIds(ids);
+        if (rows == null || rows.isEmpty() || rows.get(0) == null) return TeamAggregatesDTO.empty(name);
+        return toDto(name, rows.get(0));
+    }
+
+    /**
+     * Counters for many team names in one round trip. Keys preserve the caller's names and order;
+     * unknown names map to zeroed counters. Counters are grouped by normalized name in SQL, so duplicate team rows
+     * are merged and a match between two of them counts once, exactly as in {@link #forTeamName}.
+     */
+    public Map<String, TeamAggregatesDTO> forTeamNames(List<String> teamNames) {
+        Map<String, TeamAggregatesDTO> out = new LinkedHashMap<>();
+        if (teamNames == null || teamNames.isEmpty()) return out;
+        Map<String, List<String>> requestedByNormalized = new LinkedHashMap<>();
+        for (String n : teamNames) {
+            if (n == null || n.isBlank()) continue;
+            String raw = n.trim();
+            out.put(raw, TeamAggregatesDTO.empty(raw));
+            requestedByNormalized.computeIfAbsent(TeamNameNormalizer.normalize(raw), k -> new ArrayList<>()).add(raw);
+        }
+        if (requestedByNormalized.isEmpty()) return out;
+
+        List<Long> ids = new ArrayList<>();
+        for (Object[] r : matchRepository.findTeamIdsAndNormalizedNamesIn(new ArrayList<>(requestedByNormalized.keySet()))) {
+            if (r != null && r[0] != null) ids.add(((Number) r[0]).longValue());
+        }
+        if (ids.isEmpty()) return out;
+
+        for (Object[] r : matchRepository.aggregatePlayedGroupedByNormalizedName(ids)) {
+            if (r == null || r.length < 8 || r[7] == null) continue;
+            for (String raw : requestedByNormalized.getOrDefault(r[7].toString(), List.of())) {
+                out.put(raw, toDto(raw, r));
+            }
+        }
+        return out;
+    }
+
+    private static TeamAggregatesDTO toDto(String name, Object[] r) {
+        return new TeamAggregatesDTO(name, num(r[0]), num(r[1]), num(r[2]), num(r[3]), num(r[4]), num(r[5]), num(r[6]));
+    }
+
+    private static long num(Object o) {
+        return o instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -0,0 +1,305 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.TeamDomesticLeague;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.TeamDomesticLeagueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Team id -> domestic league id, i.e. the league in which the team played most matches during its latest season.
+ *
+ * The mapping is persisted in {@code team_domestic_league} and mirrored in memory, so lookups are a map read.
+ * It is derived from one grouped count per (team, season, league) instead of scanning a team's history per call.
+ * Lookups never write: match writes mark their home/away teams dirty after commit (see {@link MatchChangeListener})
+ * and {@link #flushDirty()} recomputes them in the background with batched JDBC writes, so a dirty team keeps its
+ * last known league until then. Teams without a mapping yet are computed on lookup and persisted by the same flush.
+ * An empty table is rebuilt for all teams on startup.
+ */
+@Service
+public class TeamDomesticLeagueService {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamDomesticLeagueService.class);
+
+    // Teams touched by committed match writes (or first seen on lookup), recomputed by the next flush
+    private static final Set<Long> DIRTY = ConcurrentHashMap.newKeySet();
+    // Marker for "computed, team has no played matches" so misses are not recomputed on every call
+    private static final long NONE = -1L;
+
+    private static final String UPDATE =
+            "update team_domestic_league set league_id = :leagueId, country = :country, season_id = :seasonId, " +
+            "match_count = :matchCount, updated_at = :updatedAt where team_id = :teamId";
+    private static final String INSERT =
+            "insert into team_domestic_league (team_id, league_id, country, season_id, match_count, updated_at) " +
+            "values (:teamId, :leagueId, :country, :seasonId, :matchCount, :updatedAt)";
+
+    private final MatchRepository matchRepository;
+    private final TeamDomesticLeagueRepository mappingRepository;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate writeTx;
+
+    private final Map<Long, Long> byTeam = new ConcurrentHashMap<>();
+    private final AtomicBoolean loaded = new AtomicBoolean(false);
+    // Set when a lookup found the table empty and served an in-memory rebuild that still has to be written
+    private final AtomicBoolean rebuildPending = new AtomicBoolean(false);
+
+    public TeamDomesticLeagueService(MatchRepository matchRepository,
+                                     TeamDomesticLeagueRepository mappingRepository,
+                                     DataSource dataSource,
+                                     PlatformTransactionManager transactionManager) {
+        this.matchRepository = matchRepository;
+        this.mappingRepository = mappingRepository;
+        this.jdbc = new NamedParameterJdbcTemplate(dataSource);
+        // Own transaction: flushes may be triggered from callers with a read-only transaction open
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            ensureLoaded();
+            flushDirty();
+        } catch (Exception e) {
+            log.warn("[DomesticLeague] Warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    /** Domestic league id for the team, or null when the team has no played matches. */
+    public Long domesticLeagueId(Long teamId) {
+        if (teamId == null) return null;
+        ensureLoaded();
+        Long lid = byTeam.get(teamId);
+        if (lid == null) {
+            TeamDomesticLeague row = choose(matchRepository.countPlayedBySeasonAndLeagueForTeamIds(List.of(teamId))).get(teamId);
+            lid = row != null ? row.getLeagueId() : NONE;
+            byTeam.putIfAbsent(teamId, lid);
+            if (row != null) DIRTY.add(teamId);
+        }
+        return lid == NONE ? null : lid;
+    }
+
+    /**
+     * Recomputes the teams marked dirty since the last run and persists them; lookups keep serving the previous
+     * mapping meanwhile. Failed batches stay dirty for the next run.
+     */
+    @Scheduled(fixedDelayString = "${vismart.domestic-league.flush-ms:2000}", initialDelayString = "${vismart.domestic-league.flush-ms:2000}")
+    public synchronized void flushDirty() {
+        if (!loaded.get()) return;
+        if (rebuildPending.getAndSet(false)) {
+            try {
+                rebuildAll();
+            } catch (Exception e) {
+                rebuildPending.set(true);
+                log.warn("[DomesticLeague] Deferred rebuild failed: {}", e.getMessage());
+                return;
+            }
+        }
+        if (DIRTY.isEmpty()) return;
+        List<Long> batch = new ArrayList<>(DIRTY);
+        DIRTY.removeAll(batch);
+        try {
+            refresh(batch);
+        } catch (Exception e) {
+            DIRTY.addAll(batch);
+            log.warn("[DomesticLeague] Refresh of {} dirty teams failed: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /** Recompute and persist the mapping for the given teams. */
+    public void refresh(Collection<Long> teamIds) {
+        if (teamIds == null || teamIds.isEmpty()) return;
+        List<Long> ids = teamIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) return;
+        Map<Long, TeamDomesticLeague> computed = choose(matchRepository.countPlayedBySeasonAndLeagueForTeamIds(ids));
+        List<Long> gone = new ArrayList<>();
+        for (Long id : ids) if (!computed.containsKey(id)) gone.add(id);
+        writeTx.executeWithoutResult(status -> {
+            if (!gone.isEmpty()) jdbc.update("delete from team_domestic_league where team_id in (:ids)", new MapSqlParameterSource("ids", gone));
+            upsert(computed.values(), false);
+        });
+        for (Long id : ids) {
+            TeamDomesticLeague row = computed.get(id);
+            byTeam.put(id, row != null ? row.getLeagueId() : NONE);
+        }
+    }
+
+    /** Recompute the mapping for every team from one grouped query and replace the table contents. */
+    public int rebuildAll() {
+        Map<Long, TeamDomesticLeague> computed = choose(matchRepository.countPlayedBySeasonAndLeagueForAllTeams());
+        writeTx.executeWithoutResult(status -> {
+            jdbc.getJdbcOperations().update("delete from team_domestic_league");
+            upsert(computed.values(), true);
+        });
+        byTeam.clear();
+        computed.forEach((id, row) -> byTeam.put(id, row.getLeagueId()));
+        DIRTY.clear();
+        log.info("[DomesticLeague] Rebuilt mapping for {} teams", computed.size());
+        return computed.size();
+    }
+
+    // Batched update, then one batched insert for the rows it did not find: no per-row select as with a JPA merge
+    // of an assigned id, and no vendor upsert syntax (MySQL in production, plain H2 in tests)
+    private void upsert(Collection<TeamDomesticLeague> rows, boolean tableEmpty) {
+        if (rows.isEmpty()) return;
+        Timestamp now = Timestamp.from(Instant.now());
+        MapSqlParameterSource[] batch = new MapSqlParameterSource[rows.size()];
+        int i = 0;
+        for (TeamDomesticLeague r : rows) {
+            batch[i++] = new MapSqlParameterSource("teamId", r.getTeamId())
+                    .addValue("leagueId", r.getLeagueId())
+                    .addValue("country", r.getCountry())
+                    .addValue("seasonId", r.getSeasonId())
+                    .addValue("matchCount", r.getMatchCount())
+                    .addValue("updatedAt", now);
+        }
+        if (tableEmpty) {
+            jdbc.batchUpdate(INSERT, batch);
+            return;
+        }
+        int[] updated = jdbc.batchUpdate(UPDATE, batch);
+        List<MapSqlParameterSource> missing = new ArrayList<>();
+        for (int k = 0; k < batch.length; k++) if (updated[k] == 0) missing.add(batch[k]);
+        if (!missing.isEmpty()) jdbc.batchUpdate(INSERT, missing.toArray(new MapSqlParameterSource[0]));
+    }
+
+    // Reads only: an empty table is served from an in-memory rebuild and written by the next flush
+    private void ensureLoaded() {
+        if (loaded.get()) return;
+        synchronized (byTeam) {
+            if (loaded.get()) return;
+            List<TeamDomesticLeague> rows = mappingRepository.findAll();
+            if (rows.isEmpty()) {
+                choose(matchRepository.countPlayedBySeasonAndLeagueForAllTeams()).forEach((id, row) -> byTeam.put(id, row.getLeagueId()));
+                if (!byTeam.isEmpty()) rebuildPending.set(true);
+            } else {
+                for (TeamDomesticLeague r : rows) byTeam.put(r.getTeamId(), r.getLeagueId());
+            }
+            loaded.set(true);
+        }
+    }
+
+    /**
+     * Rows are (team_id, season_id, league_id, country, count, max_date). Per team: the latest season is the one
+     * holding the most recent match; within it the league with most matches wins (ties: more recent, then lower id).
+     */
+    static Map<Long, TeamDomesticLeague> choose(List<Object[]> rows) {
+        record Group(Long seasonId, Long leagueId, String country, int count, LocalDate last) {}
+        Map<Long, List<Group>> byTeamId = new HashMap<>();
+        for (Object[] r : rows) {
+            if (r == null || r[0] == null || r[2] == null) continue;
+            byTeamId.computeIfAbsent(((Number) r[0]).longValue(), k -> new ArrayList<>()).add(new Group(
+                    r[1] != null ? ((Number) r[1]).longValue() : null,
+                    ((Number) r[2]).longValue(),
+                    r[3] != null ? r[3].toString() : null,
+                    ((Number) r[4]).intValue(),
+                    toLocalDate(r[5])));
+        }
+        Map<Long, TeamDomesticLeague> out = new HashMap<>();
+        for (Map.Entry<Long, List<Group>> e : byTeamId.entrySet()) {
+            Group latest = null;
+            for (Group g : e.getValue()) {
+                if (latest == null || (g.last() != null && (latest.last() == null || g.last().isAfter(latest.last())))) latest = g;
+            }
+            if (latest == null) continue;
+            Group best = null;
+            for (Group g : e.getValue()) {
+                if (!Objects.equals(g.seasonId(), latest.seasonId())) continue;
+                if (best == null || g.count() > best.count()
+                        || (g.count() == best.count() && compareDates(g.last(), best.last()) > 0)
+                        || (g.count() == best.count() && compareDates(g.last(), best.last()) == 0 && g.leagueId() < best.leagueId())) {
+                    best = g;
+                }
+            }
+            out.put(e.getKey(), new TeamDomesticLeague(e.getKey(), best.leagueId(), best.country(), best.seasonId(), best.count()));
+        }
+        return out;
+    }
+
+    private static int compareDates(LocalDate a, LocalDate b) {
+        if (a == null) return b == null ? 0 : -1;
+        if (b == null) return 1;
+        return a.compareTo(b);
+    }
+
+    private static LocalDate toLocalDate(Object v) {
+        if (v == null) return null;
+        if (v instanceof LocalDate d) return d;
+        if (v instanceof java.sql.Date d) return d.toLocalDate();
+        if (v instanceof java.sql.Timestamp t) return t.toLocalDateTime().toLocalDate();
+        try { return LocalDate.parse(v.toString().substring(0, 10)); } catch (Exception ignored) { return null; }
+    }
+
+    static void markDirty(Collection<Long> teamIds) {
+        for (Long id : teamIds) if (id != null) DIRTY.add(id);
+    }
+
+    /**
+     * JPA entity listener registered on Match. Home/away team ids of persisted, updated or removed matches are
+     * marked dirty after commit; nothing is marked for rolled-back transactions. Ids are read from (possibly
+     * uninitialized) proxies, which never triggers lazy loading.
+     */
+    public static class MatchChangeListener {
+        @jakarta.persistence.PostPersist
+        @jakarta.persistence.PostUpdate
+        @jakarta.persistence.PostRemove
+        public void onChange(Match m) {
+            if (m == null) return;
+            Set<Long> ids = new HashSet<>(2);
+            try { if (m.getHomeTeam() != null) ids.add(m.getHomeTeam().getId()); } catch (Exception ignoredHome) {}
+            try { if (m.getAwayTeam() != null) ids.add(m.getAwayTeam().getId()); } catch (Exception ignoredAway) {}
+            ids.remove(null);
+            if (ids.isEmpty()) return;
+            if (!org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive()) {
+                markDirty(ids);
+                return;
+            }
+            Object key = MatchChangeListener.class;
+            @SuppressWarnings("unchecked")
+            Set<Long> pending = (Set<Long>) org.springframework.transaction.support.TransactionSynchronizationManager.getResource(key);
+            if (pending == null) {
+                Set<Long> fresh = new HashSet<>();
+                pending = fresh;
+                org.springframework.transaction.support.TransactionSynchronizationManager.bindResource(key, fresh);
+                org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(
+                        new org.springframework.transaction.support.TransactionSynchronization() {
+                            @Override
+                            public void afterCommit() {
+                                markDirty(fresh);
+                            }
+
+                            @Override
+                            public void afterCompletion(int status) {
+                                org.springframework.transaction.support.TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                            }
+                        });
+            }
+            pending.addAll(ids);
+        }
+    }
+}
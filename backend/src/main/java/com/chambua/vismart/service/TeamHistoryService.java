@@ -0,0 +1,96 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.repository.MatchRow;
+import com.chambua.vismart.repository.MatchRowRepository;
+import com.chambua.vismart.util.TeamNameNormalizer;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded "last N played matches" reads for a team (by id, id set or name). The limit and any league/season/scored
+ * filter are pushed into SQL, so callers that only need a handful of rows never load a club's full archive.
+ * Multi-team batches use a per-team ROW_NUMBER window in a single statement.
+ */
+@Service
+public class TeamHistoryService {
+
+    /** Pass as {@code n} when the whole played history is needed (e.g. longest-streak scans). */
+    public static final int ALL = MatchRowRepository.UNBOUNDED;
+
+    /** Optional scope for history reads; null ids mean "any", a null {@code asOf} means "any date". */
+    public record Filters(Long leagueId, Long seasonId, boolean scoredOnly, LocalDate asOf) {
+        public static final Filters NONE = new Filters(null, null, false);
+        public static final Filters SCORED = new Filters(null, null, true);
+
+        public Filters(Long leagueId, Long seasonId, boolean scoredOnly) { this(leagueId, seasonId, scoredOnly, null); }
+
+        public static Filters league(Long leagueId) { return new Filters(leagueId, null, false); }
+        public static Filters season(Long seasonId) { return new Filters(null, seasonId, false); }
+        public Filters scored() { return new Filters(leagueId, seasonId, true, asOf); }
+        /** Only dated rows on or before {@code date}. */
+        public Filters asOf(LocalDate date) { return new Filters(leagueId, seasonId, scoredOnly, date); }
+    }
+
+    private final MatchRowRepository matchRowRepository;
+
+    public TeamHistoryService(MatchRowRepository matchRowRepository) {
+        this.matchRowRepository = matchRowRepository;
+    }
+
+    public List<MatchRow> recent(Long teamId, int n, Filters filters) {
+        if (teamId == null) return new ArrayList<>();
+        return recent(List.of(teamId), n, filters);
+    }
+
+    /** By name: every team row sharing the normalized name (duplicates across leagues) is merged. */
+    public List<MatchRow> recent(String teamName, int n, Filters filters) {
+        if (teamName == null || teamName.isBlank()) return new ArrayList<>();
+        return recent(matchRowRepository.findTeamIdsByNormalizedNames(List.of(TeamNameNormalizer.normalize(teamName))), n, filters);
+    }
+
+    public List<MatchRow> recent(Collection<Long> teamIds, int n, Filters filters) {
+        Filters f = filters == null ? Filters.NONE : filters;
+        return matchRowRepository.findRecentPlayed(teamIds, f.leagueId(), f.seasonId(), f.scoredOnly(), f.asOf(), n);
+    }
+
+    /** Last {@code n} per team id, keyed in request order. */
+    public Map<Long, List<MatchRow>> recentPerTeam(Collection<Long> teamIds, int n, Filters filters) {
+        Filters f = filters == null ? Filters.NONE : filters;
+        return matchRowRepository.findRecentPlayedPerTeam(teamIds, f.leagueId(), f.seasonId(), f.scoredOnly(), f.asOf(), n);
+    }
+
+    /** Season of the team's most recent played match, or null when it has none. */
+    public Long latestSeasonId(Long teamId) {
+        List<MatchRow> last = recent(teamId, 1, Filters.NONE);
+        return last.isEmpty() ? null : last.get(0).seasonId();
+    }
+
+    /** Full played/scored history for a set of names, newest first (opponent batches for streak timelines). */
+    public List<MatchRow> scoredForAnyTeamNames(Collection<String> names) {
+        return matchRowRepository.findScoredByAnyTeamNames(names);
+    }
+
+    /**
+     * In-memory equivalent of the SQL scope + limit, for callers that only have already-loaded rows
+     * (legacy constructors and unit tests without a JDBC repository). Input is expected newest first.
+     */
+    public static List<MatchRow> apply(List<MatchRow> rows, int n, Filters filters) {
+        List<MatchRow> out = new ArrayList<>();
+        if (rows == null || n <= 0) return out;
+        Filters f = filters == null ? Filters.NONE : filters;
+        for (MatchRow r : rows) {
+            if (f.leagueId() != null && !f.leagueId().equals(r.leagueId())) continue;
+            if (f.seasonId() != null && !f.seasonId().equals(r.seasonId())) continue;
+            if (f.scoredOnly() && !r.hasScore()) continue;
+            if (f.asOf() != null && (r.date() == null || r.date().isAfter(f.asOf()))) continue;
+            out.add(r);
+            if (out.size() >= n) break;
+        }
+        return out;
+    }
+}
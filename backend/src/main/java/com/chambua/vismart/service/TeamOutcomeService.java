@@ -1,9 +1,8 @@
 package com.chambua.vismart.service;
 
 import com.chambua.vismart.dto.PriorOutcomeResponse;
-import com.chambua.vismart.model.Match;
-import com.chambua.vismart.model.MatchStatus;
 import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchRow;
 import com.chambua.vismart.repository.TeamRepository;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +13,9 @@ public class TeamOutcomeService {
     private final MatchRepository matchRepository;
     private final TeamRepository teamRepository;
 
+    @org.springframework.beans.factory.annotation.Autowired(required = false)
+    private TeamHistoryService teamHistoryService;
+
     public TeamOutcomeService(MatchRepository matchRepository, TeamRepository teamRepository) {
         this.matchRepository = matchRepository;
         this.teamRepository = teamRepository;
@@ -28,7 +30,7 @@ public class TeamOutcomeService {
         if (tn == null || tn.isEmpty()) {
             return new com.chambua.vismart.dto.TopOutcomeStreaksResponse("Unknown", 0, java.util.List.of());
         }
-        java.util.List<com.chambua.vismart.model.Match> recent = matchRepository.findRecentPlayedByTeamName(tn);
+        java.util.List<MatchRow> recent = recentRows(tn, 40, TeamHistoryService.Filters.SCORED);
         if (recent == null || recent.isEmpty()) {
             return new com.chambua.vismart.dto.TopOutcomeStreaksResponse(tn, 0, java.util.List.of());
         }
@@ -37,17 +39,10 @@ public class TeamOutcomeService {
         // Build sequence of outcomes and dates (most ancient -> most recent)
         java.util.ArrayList<String> outcomes = new java.util.ArrayList<>();
         java.util.ArrayList<java.time.LocalDate> dates = new java.util.ArrayList<>();
-        for (com.chambua.vismart.model.Match m : recent) {
-            if (m.getStatus() != com.chambua.vismart.model.MatchStatus.PLAYED) continue;
-            Integer hg = m.getHomeGoals();
-            Integer ag = m.getAwayGoals();
-            if (hg == null || ag == null) continue;
-            boolean home = (m.getHomeTeam() != null && m.getHomeTeam().getName() != null && m.getHomeTeam().getName().trim().equalsIgnoreCase(tn));
-            int my = home ? (hg == null ? 0 : hg) : (ag == null ? 0 : ag);
-            int opp = home ? (ag == null ? 0 : ag) : (hg == null ? 0 : hg);
-            String res = (my > opp) ? "W" : (my == opp ? "D" : "L");
-            outcomes.add(res);
-            dates.add(m.getDate());
+        for (MatchRow m : recent) {
+            if (!m.hasScore()) continue;
+            outcomes.add(m.outcome(m.isHome(tn)));
+            dates.add(m.date());
         }
         // Consider only the most recent 40
         int n = outcomes.size();
@@ -96,7 +91,7 @@ public class TeamOutcomeService {
         }
         String teamName = teamOpt.get().getName();
         // Use NAME-based retrieval to include all matches across duplicate team IDs/leagues
-        List<Match> matches = matchRepository.findRecentPlayedByTeamName(teamName);
+        List<MatchRow> matches = recentRows(teamName, TeamHistoryService.ALL, TeamHistoryService.Filters.NONE);
         if (matches == null || matches.isEmpty()) {
             return new PriorOutcomeResponse(teamName, List.of());
         }
@@ -106,9 +101,9 @@ public class TeamOutcomeService {
         record Key(String priorResult, String priorScore) {}
         Map<Key, int[]> buckets = new LinkedHashMap<>(); // [wins, draws, losses]
 
-        Match prev = null;
-        for (Match m : matches) {
-            if (m.getStatus() != MatchStatus.PLAYED || m.getHomeGoals() == null || m.getAwayGoals() == null) {
+        MatchRow prev = null;
+        for (MatchRow m : matches) {
+            if (!m.hasScore()) {
                 continue;
             }
             if (prev == null) { prev = m; continue; }
@@ -148,49 +143,28 @@ public class TeamOutcomeService {
         return new PriorOutcomeResponse(teamName, list);
     }
 
-    private static String scorelineForTeam(Match m, Long teamId) {
-        Integer gf; Integer ga;
-        boolean home = (m.getHomeTeam() != null && m.getHomeTeam().getId() != null && m.getHomeTeam().getId().equals(teamId));
-        if (home) {
-            gf = m.getHomeGoals(); ga = m.getAwayGoals();
-        } else {
-            gf = m.getAwayGoals(); ga = m.getHomeGoals();
-        }
-        int gfi = gf == null ? 0 : gf;
-        int gai = ga == null ? 0 : ga;
-        return gfi + "-" + gai;
-    }
-
-    private static String resultForTeam(Match m, Long teamId) {
-        boolean home = (m.getHomeTeam() != null && m.getHomeTeam().getId() != null && m.getHomeTeam().getId().equals(teamId));
-        Integer hg = m.getHomeGoals();
-        Integer ag = m.getAwayGoals();
-        if (hg == null || ag == null) return "Draw"; // should not happen for PLAYED; neutral default
-        int cmp = Integer.compare(home ? hg : ag, home ? ag : hg);
-        return cmp > 0 ? "Win" : (cmp == 0 ? "Draw" : "Loss");
-    }
-
     private static double round2(double v) {
         return Math.round(v * 100.0) / 100.0;
     }
 
-    private static String scorelineForName(Match m, String teamName) {
-        String tn = teamName == null ? "" : teamName.trim();
-        boolean home = (m.getHomeTeam() != null && m.getHomeTeam().getName() != null && m.getHomeTeam().getName().trim().equalsIgnoreCase(tn));
-        Integer gf = home ? m.getHomeGoals() : m.getAwayGoals();
-        Integer ga = home ? m.getAwayGoals() : m.getHomeGoals();
+    private static String scorelineForName(MatchRow m, String teamName) {
+        boolean home = m.isHome(teamName);
+        Integer gf = home ? m.homeGoals() : m.awayGoals();
+        Integer ga = home ? m.awayGoals() : m.homeGoals();
         int gfi = gf == null ? 0 : gf;
         int gai = ga == null ? 0 : ga;
         return gfi + "-" + gai;
     }
 
-    private static String resultForName(Match m, String teamName) {
-        String tn = teamName == null ? "" : teamName.trim();
-        boolean home = (m.getHomeTeam() != null && m.getHomeTeam().getName() != null && m.getHomeTeam().getName().trim().equalsIgnoreCase(tn));
-        Integer hg = m.getHomeGoals();
-        Integer ag = m.getAwayGoals();
-        if (hg == null || ag == null) return "Draw"; // neutral default
-        int cmp = Integer.compare(home ? hg : ag, home ? ag : hg);
-        return cmp > 0 ? "Win" : (cmp == 0 ? "Draw" : "Loss");
+    private static String resultForName(MatchRow m, String teamName) {
+        String res = m.outcome(m.isHome(teamName));
+        if (res == null) return "Draw"; // neutral default
+        return "W".equals(res) ? "Win" : ("D".equals(res) ? "Draw" : "Loss");
+    }
+
+    // Played history as flat rows, newest first, at most n; entity fallback when the history service is not wired (unit tests)
+    private List<MatchRow> recentRows(String teamName, int n, TeamHistoryService.Filters filters) {
+        if (teamHistoryService != null) return teamHistoryService.recent(teamName, n, filters);
+        return TeamHistoryService.apply(MatchRow.of(matchRepository.findRecentPlayedByTeamName(teamName)), n, filters);
     }
 }
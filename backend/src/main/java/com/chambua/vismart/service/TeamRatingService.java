@@ -0,0 +1,537 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.repository.MatchRow;
+import com.chambua.vismart.repository.MatchRowRepository;
+import com.chambua.vismart.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Long-term team strength: an Elo rating (home advantage, margin-of-victory multiplier) plus attack/defence
+ * ratings from an online Poisson fit (log-linear, one gradient step per match).
+ *
+ * All played matches are replayed once, oldest first, into in-memory state. New results then arrive from the
+ * ingest path (see {@link MatchChangeListener}) and are applied in O(1) on the next read, provided neither team
+ * already has a later match. A result that would need to go back in time, a changed score or a removed match
+ * marks the state for a full replay. Every applied match appends one entry to each team's history (primitive
+ * arrays, about 16 bytes per entry), which answers "rating as of date" queries by binary search.
+ */
+@Service
+public class TeamRatingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamRatingService.class);
+
+    private static final AtomicLong GENERATION = new AtomicLong(1);
+    private static final ConcurrentLinkedQueue<Result> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger PENDING_SIZE = new AtomicInteger();
+    private static final int MAX_PENDING = 50_000;
+
+    static final double INITIAL_ELO = 1500.0;
+    static final double K = 20.0;
+    static final double HOME_ADVANTAGE = 60.0;
+    // Learning rate of the attack/defence fit, and of the league-wide home/away scoring baselines
+    static final double ETA = 0.04;
+    static final double BASELINE_ETA = 0.002;
+    static final double MAX_LOG_RATING = 1.5;
+    static final double INITIAL_HOME_GOALS = 1.45;
+    static final double INITIAL_AWAY_GOALS = 1.15;
+
+    private final MatchRowRepository matchRowRepository;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private volatile State state;
+
+    public TeamRatingService(MatchRowRepository matchRowRepository) {
+        this.matchRowRepository = matchRowRepository;
+    }
+
+    /**
+     * @param attack  multiplicative scoring strength (1.0 = league average)
+     * @param defence multiplicative conceding rate (1.0 = league average, lower is better)
+     */
+    public record Rating(Long teamId, String teamName, Long leagueId, double elo, double attack, double defence,
+                         int matches, LocalDate lastPlayed) {}
+
+    public record HistoryPoint(LocalDate date, double elo, double attack, double defence) {}
+
+    /** Elo expectancy and attack/defence expected goals for a pairing, from the current ratings. */
+    public record Matchup(Rating home, Rating away, double homeExpectedScore, double xgHome, double xgAway) {}
+
+    /** One scored match; also the unit queued from the ingest path. */
+    record Result(long matchId, Long leagueId, long homeId, String homeName, long awayId, String awayName,
+                  LocalDate date, int homeGoals, int awayGoals) {
+        static Result of(MatchRow r) {
+            return new Result(r.id(), r.leagueId(), r.homeTeamId(), r.homeTeamName(), r.awayTeamId(), r.awayTeamName(),
+                    r.date(), r.homeGoals(), r.awayGoals());
+        }
+
+        /** A match that is no longer scored; only forces a replay when its old score was already applied. */
+        static Result withdrawn(long matchId) {
+            return new Result(matchId, null, 0, null, 0, null, null, -1, -1);
+        }
+
+        boolean isWithdrawn() {
+            return homeGoals < 0;
+        }
+    }
+
+    /** Mark the ratings stale; the next read replays all matches. */
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+    }
+
+    static void enqueue(List<Result> results) {
+        if (results == null || results.isEmpty()) return;
+        if (PENDING_SIZE.addAndGet(results.size()) > MAX_PENDING) {
+            PENDING.clear();
+            PENDING_SIZE.set(0);
+            invalidate();
+            return;
+        }
+        PENDING.addAll(results);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            current();
+        } catch (Exception e) {
+            log.warn("[Ratings] Warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    public Optional<Rating> rating(Long teamId) {
+        if (teamId == null) return Optional.empty();
+        State s = current();
+        s.lock.readLock().lock();
+        try {
+            Integer slot = s.slots.get(teamId);
+            return slot == null ? Optional.empty() : Optional.of(s.rating(slot));
+        } finally {
+            s.lock.readLock().unlock();
+        }
+    }
+
+    /** The team's ratings after all its matches dated on or before {@code date}; empty before its first match. */
+    public Optional<Rating> ratingAt(Long teamId, LocalDate date) {
+        if (teamId == null) return Optional.empty();
+        if (date == null) return rating(teamId);
+        State s = current();
+        s.lock.readLock().lock();
+        try {
+            Integer slot = s.slots.get(teamId);
+            return slot == null ? Optional.empty() : s.ratingAt(slot, date);
+        } finally {
+            s.lock.readLock().unlock();
+        }
+    }
+
+    public List<HistoryPoint> history(Long teamId, LocalDate from, LocalDate to) {
+        if (teamId == null) return List.of();
+        State s = current();
+        s.lock.readLock().lock();
+        try {
+            Integer slot = s.slots.get(teamId);
+            if (slot == null) return List.of();
+            History h = s.history[slot];
+            int start = from == null ? 0 : h.indexAfter((int) from.toEpochDay() - 1) + 1;
+            int end = to == null ? h.size - 1 : h.indexAfter((int) to.toEpochDay());
+            List<HistoryPoint> out = new ArrayList<>(Math.max(0, end - start + 1));
+            for (int i = start; i <= end; i++) {
+                out.add(new HistoryPoint(LocalDate.ofEpochDay(h.days[i]), round1(h.elo[i]), round3(Math.exp(h.attack[i])), round3(Math.exp(h.defence[i]))));
+            }
+            return out;
+        } finally {
+            s.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Teams ordered by Elo, strongest first. {@code leagueId} restricts to teams whose latest match was in that
+     * league; {@code date} rates every team as of that day (teams without a match by then are left out).
+     */
+    public List<Rating> ranking(Long leagueId, LocalDate date, int limit) {
+        State s = current();
+        List<Rating> out = new ArrayList<>();
+        s.lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < s.size; slot++) {
+                if (leagueId != null && !leagueId.equals(s.leagueIds[slot])) continue;
+                if (date == null) out.add(s.rating(slot));
+                else s.ratingAt(slot, date).ifPresent(out::add);
+            }
+        } finally {
+            s.lock.readLock().unlock();
+        }
+        out.sort(Comparator.comparingDouble(Rating::elo).reversed());
+        return limit > 0 && out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+    }
+
+    public Optional<Matchup> matchup(Long homeTeamId, Long awayTeamId) {
+        if (homeTeamId == null || awayTeamId == null) return Optional.empty();
+        State s = current();
+        s.lock.readLock().lock();
+        try {
+            Integer h = s.slots.get(homeTeamId), a = s.slots.get(awayTeamId);
+            if (h == null || a == null) return Optional.empty();
+            double xgHome = s.homeGoals * Math.exp(s.attack[h] + s.defence[a]);
+            double xgAway = s.awayGoals * Math.exp(s.attack[a] + s.defence[h]);
+            return Optional.of(new Matchup(s.rating(h), s.rating(a), round3(expectedScore(s.elo[h] + HOME_ADVANTAGE - s.elo[a])),
+                    DeterministicModel.round2(xgHome), DeterministicModel.round2(xgAway)));
+        } finally {
+            s.lock.readLock().unlock();
+        }
+    }
+
+    private State current() {
+        State s = state;
+        boolean fresh = s != null && s.generation == GENERATION.get();
+        PipelineMetrics.cache("team_ratings", fresh);
+        if (!fresh) {
+            if (s == null) {
+                buildLock.lock();
+            } else if (!buildLock.tryLock()) {
+                return s;
+            }
+            try {
+                State again = state;
+                if (again == null || again.generation != GENERATION.get()) {
+                    long st = System.nanoTime();
+                    again = build();
+                    PipelineMetrics.cacheRebuild("team_ratings", st);
+                    state = again;
+                }
+                s = again;
+            } finally {
+                buildLock.unlock();
+            }
+        }
+        // A result that cannot be appended invalidates the state; replay right away rather than serve it stale
+        return drainPending(s) ? s : current();
+    }
+
+    private State build() {
+        long started = System.currentTimeMillis();
+        long gen = GENERATION.get();
+        // Results queued so far are covered by the DB read below; later duplicates are recognised by match id
+        PENDING.clear();
+        PENDING_SIZE.set(0);
+        State s = new State(gen);
+        matchRowRepository.forEachScored(r -> {
+            if (r.homeTeamId() != null && r.awayTeamId() != null && r.hasScore() && r.date() != null) s.apply(Result.of(r));
+        });
+        log.info("[Ratings] Replayed {} matches for {} teams in {} ms", s.matches, s.size, System.currentTimeMillis() - started);
+        return s;
+    }
+
+    private boolean drainPending(State s) {
+        if (PENDING.isEmpty()) return true;
+        s.lock.writeLock().lock();
+        try {
+            Result r;
+            while ((r = PENDING.poll()) != null) {
+                PENDING_SIZE.decrementAndGet();
+                if (!s.offer(r)) {
+                    log.info("[Ratings] Match {} is out of order, changed or withdrawn; scheduling a full replay", r.matchId());
+                    invalidate();
+                    PENDING.clear();
+                    PENDING_SIZE.set(0);
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            s.lock.writeLock().unlock();
+        }
+    }
+
+    static double expectedScore(double eloDiff) {
+        return 1.0 / (1.0 + Math.pow(10.0, -eloDiff / 400.0));
+    }
+
+    // World Football Elo margin-of-victory multiplier
+    static double marginMultiplier(int goalDiff) {
+        int d = Math.abs(goalDiff);
+        if (d <= 1) return 1.0;
+        if (d == 2) return 1.5;
+        return (11.0 + d) / 8.0;
+    }
+
+    private static double round1(double v) {
+        return Math.round(v * 10.0) / 10.0;
+    }
+
+    private static double round3(double v) {
+        return Math.round(v * 1000.0) / 1000.0;
+    }
+
+    /** Ratings of every team seen so far, indexed by slot; guarded by {@link #lock} once published. */
+    static final class State {
+        final long generation;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, Integer> slots = new HashMap<>();
+        int size;
+        long[] teamIds = new long[256];
+        String[] names = new String[256];
+        Long[] leagueIds = new Long[256];
+        double[] elo = new double[256];
+        double[] attack = new double[256];
+        double[] defence = new double[256];
+        int[] games = new int[256];
+        int[] lastDay = new int[256];
+        History[] history = new History[256];
+        double homeGoals = INITIAL_HOME_GOALS;
+        double awayGoals = INITIAL_AWAY_GOALS;
+        long matches;
+        // Applied score per match id, packed as (home << 16 | away) + 1; 0 = not applied
+        int[] scores = new int[1024];
+
+        State(long generation) {
+            this.generation = generation;
+        }
+
+        /**
+         * Applies a result arriving after the initial replay. False when it cannot be applied incrementally
+         * (changed or withdrawn score, or either team already has a later match).
+         */
+        boolean offer(Result r) {
+            int applied = appliedScore(r.matchId());
+            if (r.isWithdrawn()) return applied == 0;
+            if (applied != 0) return applied == pack(r);
+            int day = (int) r.date().toEpochDay();
+            Integer h = slots.get(r.homeId()), a = slots.get(r.awayId());
+            if ((h != null && lastDay[h] > day) || (a != null && lastDay[a] > day)) return false;
+            apply(r);
+            return true;
+        }
+
+        void apply(Result r) {
+            if (r.homeId() == r.awayId() || appliedScore(r.matchId()) != 0) return;
+            int h = slot(r.homeId(), r.homeName()), a = slot(r.awayId(), r.awayName());
+            int hg = r.homeGoals(), ag = r.awayGoals();
+
+            double w = hg > ag ? 1.0 : hg == ag ? 0.5 : 0.0;
+            double delta = K * marginMultiplier(hg - ag) * (w - expectedScore(elo[h] + HOME_ADVANTAGE - elo[a]));
+            elo[h] += delta;
+            elo[a] -= delta;
+
+            double eh = homeGoals * Math.exp(attack[h] + defence[a]);
+            double ea = awayGoals * Math.exp(attack[a] + defence[h]);
+            attack[h] = clamp(attack[h] + ETA * (hg - eh));
+            defence[a] = clamp(defence[a] + ETA * (hg - eh));
+            attack[a] = clamp(attack[a] + ETA * (ag - ea));
+            defence[h] = clamp(defence[h] + ETA * (ag - ea));
+            homeGoals += BASELINE_ETA * (hg - homeGoals);
+            awayGoals += BASELINE_ETA * (ag - awayGoals);
+
+            int day = (int) r.date().toEpochDay();
+            for (int t : new int[]{h, a}) {
+                games[t]++;
+                lastDay[t] = Math.max(lastDay[t], day);
+                if (r.leagueId() != null) leagueIds[t] = r.leagueId();
+                history[t].add(day, elo[t], attack[t], defence[t]);
+            }
+            markApplied(r.matchId(), pack(r));
+            matches++;
+        }
+
+        Rating rating(int slot) {
+            return new Rating(teamIds[slot], names[slot], leagueIds[slot], round1(elo[slot]), round3(Math.exp(attack[slot])),
+                    round3(Math.exp(defence[slot])), games[slot], games[slot] > 0 ? LocalDate.ofEpochDay(lastDay[slot]) : null);
+        }
+
+        Optional<Rating> ratingAt(int slot, LocalDate date) {
+            History h = history[slot];
+            int i = h.indexAfter((int) date.toEpochDay());
+            if (i < 0) return Optional.empty();
+            return Optional.of(new Rating(teamIds[slot], names[slot], leagueIds[slot], round1(h.elo[i]), round3(Math.exp(h.attack[i])),
+                    round3(Math.exp(h.defence[i])), i + 1, LocalDate.ofEpochDay(h.days[i])));
+        }
+
+        private int slot(long teamId, String name) {
+            Integer existing = slots.get(teamId);
+            if (existing != null) {
+                if (name != null) names[existing] = name;
+                return existing;
+            }
+            if (size == teamIds.length) grow(size * 2);
+            int s = size++;
+            teamIds[s] = teamId;
+            names[s] = name;
+            elo[s] = INITIAL_ELO;
+            history[s] = new History();
+            slots.put(teamId, s);
+            return s;
+        }
+
+        private void grow(int capacity) {
+            teamIds = Arrays.copyOf(teamIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            leagueIds = Arrays.copyOf(leagueIds, capacity);
+            elo = Arrays.copyOf(elo, capacity);
+            attack = Arrays.copyOf(attack, capacity);
+            defence = Arrays.copyOf(defence, capacity);
+            games = Arrays.copyOf(games, capacity);
+            lastDay = Arrays.copyOf(lastDay, capacity);
+            history = Arrays.copyOf(history, capacity);
+        }
+
+        private int appliedScore(long matchId) {
+            return matchId >= 0 && matchId < scores.length ? scores[(int) matchId] : 0;
+        }
+
+        private void markApplied(long matchId, int packed) {
+            if (matchId < 0 || matchId >= Integer.MAX_VALUE - 8) return;
+            if (matchId >= scores.length) scores = Arrays.copyOf(scores, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(matchId + 1, (long) scores.length * 2)));
+            scores[(int) matchId] = packed;
+        }
+
+        private static int pack(Result r) {
+            return ((Math.min(r.homeGoals(), 0x7FFF) << 16) | Math.min(r.awayGoals(), 0xFFFF)) + 1;
+        }
+
+        private static double clamp(double v) {
+            return Math.max(-MAX_LOG_RATING, Math.min(MAX_LOG_RATING, v));
+        }
+    }
+
+    /** Append-only per-team rating history in parallel primitive arrays, ordered by day. */
+    static final class History {
+        int size;
+        int[] days = new int[8];
+        float[] elo = new float[8];
+        float[] attack = new float[8];
+        float[] defence = new float[8];
+
+        void add(int day, double e, double att, double def) {
+            if (size == days.length) {
+                int cap = size * 2;
+                days = Arrays.copyOf(days, cap);
+                elo = Arrays.copyOf(elo, cap);
+                attack = Arrays.copyOf(attack, cap);
+                defence = Arrays.copyOf(defence, cap);
+            }
+            days[size] = day;
+            elo[size] = (float) e;
+            attack[size] = (float) att;
+            defence[size] = (float) def;
+            size++;
+        }
+
+        /** Index of the last entry on or before {@code day}; -1 when there is none. */
+        int indexAfter(int day) {
+            int lo = 0, hi = size - 1, found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (days[mid] <= day) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * JPA entity listener registered on Match. Scored matches that are persisted, or updated into a scored state,
+     * are queued after commit; updates out of a scored state queue a withdrawal, which forces a full replay when the
+     * match had been applied, and removals always do. Nothing is applied for rolled-back transactions.
+     */
+    public static class MatchChangeListener {
+        @jakarta.persistence.PostPersist
+        public void onChange(Match m) {
+            Result r = toResult(m);
+            if (r != null) afterCommit(r, false);
+        }
+
+        @jakarta.persistence.PostUpdate
+        public void onUpdate(Match m) {
+            Result r = toResult(m);
+            if (r == null && m != null && m.getId() != null) r = Result.withdrawn(m.getId());
+            if (r != null) afterCommit(r, false);
+        }
+
+        @jakarta.persistence.PostRemove
+        public void onRemove(Match m) {
+            if (m != null && (m.getStatus() == MatchStatus.PLAYED || (m.getHomeGoals() != null && m.getAwayGoals() != null))) {
+                afterCommit(null, true);
+            }
+        }
+
+        private static Result toResult(Match m) {
+            if (m == null || m.getId() == null || m.getStatus() != MatchStatus.PLAYED || m.getHomeGoals() == null
+                    || m.getAwayGoals() == null || m.getDate() == null || m.getHomeTeam() == null || m.getAwayTeam() == null) {
+                return null;
+            }
+            // Ids are read without initializing proxies; names only when already loaded
+            Long h = m.getHomeTeam().getId(), a = m.getAwayTeam().getId();
+            if (h == null || a == null) return null;
+            String hn = org.hibernate.Hibernate.isInitialized(m.getHomeTeam()) ? m.getHomeTeam().getName() : null;
+            String an = org.hibernate.Hibernate.isInitialized(m.getAwayTeam()) ? m.getAwayTeam().getName() : null;
+            Long leagueId = m.getLeague() != null ? m.getLeague().getId() : null;
+            return new Result(m.getId(), leagueId, h, hn, a, an, m.getDate(), m.getHomeGoals(), m.getAwayGoals());
+        }
+
+        private static void afterCommit(Result result, boolean invalidate) {
+            if (!org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive()) {
+                if (invalidate) invalidate();
+                if (result != null) enqueue(List.of(result));
+                return;
+            }
+            Object key = MatchChangeListener.class;
+            TxState state = (TxState) org.springframework.transaction.support.TransactionSynchronizationManager.getResource(key);
+            if (state == null) {
+                TxState fresh = new TxState();
+                state = fresh;
+                org.springframework.transaction.support.TransactionSynchronizationManager.bindResource(key, fresh);
+                org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(
+                        new org.springframework.transaction.support.TransactionSynchronization() {
+                            @Override
+                            public void afterCommit() {
+                                if (fresh.invalidate) invalidate();
+                                else enqueue(new ArrayList<>(fresh.results.values()));
+                            }
+
+                            @Override
+                            public void afterCompletion(int status) {
+                                org.springframework.transaction.support.TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                            }
+                        });
+            }
+            if (invalidate) {
+                state.invalidate = true;
+                state.results.clear();
+            } else if (!state.invalidate && result != null) {
+                // Last write per match wins within a transaction, in flush order
+                state.results.remove(result.matchId());
+                state.results.put(result.matchId(), result);
+            }
+        }
+
+        private static final class TxState {
+            boolean invalidate;
+            final Map<Long, Result> results = new java.util.LinkedHashMap<>();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.TeamDto;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.TeamAliasRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.util.TeamNameNormalizer;
+import com.chambua.vismart.util.TrigramIndex;
+import com.chambua.vismart.util.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory trigram index over team names and aliases backing the type-ahead search.
+ *
+ * The index is an immutable snapshot swapped atomically on rebuild. Any committed change to a Team or TeamAlias
+ * bumps a generation counter (see {@link EntityChangeListener}); the next search notices and rebuilds, while
+ * concurrent searches keep answering from the previous snapshot. Activity counts (played matches) are refreshed
+ * on the same rebuild, and at least every {@link #MAX_SNAPSHOT_AGE_MILLIS}.
+ */
+@Service
+public class TeamSearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamSearchIndexService.class);
+
+    private static final AtomicLong GENERATION = new AtomicLong(1);
+    private static final long MAX_SNAPSHOT_AGE_MILLIS = 15 * 60 * 1000L;
+
+    private final TeamRepository teamRepository;
+    private final TeamAliasRepository teamAliasRepository;
+    private final MatchRepository matchRepository;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public TeamSearchIndexService(TeamRepository teamRepository, TeamAliasRepository teamAliasRepository, MatchRepository matchRepository) {
+        this.teamRepository = teamRepository;
+        this.teamAliasRepository = teamAliasRepository;
+        this.matchRepository = matchRepository;
+    }
+
+    /** Mark the index stale; the next search rebuilds it. */
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            current();
+        } catch (Exception e) {
+            log.warn("[Team][SearchIndex] Warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Search teams whose normalized name or alias contains the query, ranked by match quality then activity.
+     * Returns empty Optional when the index cannot be built so callers can fall back to the database.
+     */
+    public Optional<List<TeamDto>> search(String query, Long leagueId, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) return Optional.of(List.of());
+        Snapshot snap;
+        try {
+            snap = current();
+        } catch (Exception e) {
+            log.warn("[Team][SearchIndex] Unavailable, falling back to DB: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (snap == null) return Optional.empty();
+        return Optional.of(snap.search(query, leagueId, limit));
+    }
+
+    /** Number of teams currently indexed (diagnostics). */
+    public int size() {
+        Snapshot s = snapshot;
+        return s == null ? 0 : s.entries.length;
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        long gen = GENERATION.get();
+        boolean stale = s == null || s.generation != gen || (System.currentTimeMillis() - s.builtAt) > MAX_SNAPSHOT_AGE_MILLIS;
+        PipelineMetrics.cache("team_search_index", !stale);
+        if (!stale) return s;
+        if (s == null) {
+            // Nothing to serve yet: everyone waits for the first build
+            buildLock.lock();
+        } else if (!buildLock.tryLock()) {
+            // Another thread is rebuilding; keep serving the previous snapshot meanwhile
+            return s;
+        }
+        try {
+            Snapshot again = snapshot;
+            if (again != null && again.generation == GENERATION.get()
+                    && (System.currentTimeMillis() - again.builtAt) <= MAX_SNAPSHOT_AGE_MILLIS) {
+                return again;
+            }
+            long st = System.nanoTime();
+            Snapshot built = build();
+            PipelineMetrics.cacheRebuild("team_search_index", st);
+            snapshot = built;
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private Snapshot build() {
+        long started = System.currentTimeMillis();
+        // Capture generation before reading so changes committed during the build trigger another rebuild
+        long gen = GENERATION.get();
+
+        List<TeamRepository.TeamIndexProjection> teams = teamRepository.findAllForSearchIndex();
+        Map<Long, List<String>> aliasesByTeam = new HashMap<>();
+        for (Object[] row : teamAliasRepository.findAllTeamIdAliasPairs()) {
+            if (row == null || row.length < 2 || row[0] == null || row[1] == null) continue;
+            String alias = row[1].toString().toLowerCase();
+            if (alias.isBlank()) continue;
+            aliasesByTeam.computeIfAbsent(((Number) row[0]).longValue(), k -> new ArrayList<>(2)).add(alias);
+        }
+        Map<Long, Long> activity = new HashMap<>();
+        try {
+            accumulate(activity, matchRepository.countPlayedGroupedByHomeTeam());
+            accumulate(activity, matchRepository.countPlayedGroupedByAwayTeam());
+        } catch (Exception ignoredActivity) {
+            // Ranking degrades to match quality + name only
+        }
+
+        Entry[] entries = new Entry[teams.size()];
+        TrigramIndex.Builder grams = TrigramIndex.builder();
+        int idx = 0;
+        for (TeamRepository.TeamIndexProjection t : teams) {
+            if (t == null || t.getId() == null || t.getName() == null) continue;
+            String normalized = t.getNormalizedName() != null ? t.getNormalizedName() : TeamNameNormalizer.normalize(t.getName());
+            List<String> aliases = aliasesByTeam.getOrDefault(t.getId(), List.of());
+            Entry e = new Entry(t.getId(), t.getName(), t.getLeagueId(), t.getLeagueName(), normalized,
+                    aliases.toArray(new String[0]), activity.getOrDefault(t.getId(), 0L));
+            entries[idx] = e;
+            grams.add(idx, normalized);
+            for (String a : e.aliases) grams.add(idx, a);
+            idx++;
+        }
+        if (idx < entries.length) entries = Arrays.copyOf(entries, idx);
+
+        TrigramIndex index = grams.build(entries.length);
+
+        log.info("[Team][SearchIndex] Built teams={}, aliases={}, grams={} in {} ms",
+                entries.length, aliasesByTeam.values().stream().mapToInt(List::size).sum(), index.gramCount(),
+                System.currentTimeMillis() - started);
+        return new Snapshot(gen, System.currentTimeMillis(), entries, index);
+    }
+
+    private static void accumulate(Map<Long, Long> into, List<Object[]> rows) {
+        if (rows == null) return;
+        for (Object[] r : rows) {
+            if (r == null || r.length < 2 || r[0] == null || r[1] == null) continue;
+            into.merge(((Number) r[0]).longValue(), ((Number) r[1]).longValue(), Long::sum);
+        }
+    }
+
+    private record Entry(Long id, String name, Long leagueId, String leagueName, String normalized, String[] aliases, long activity) {}
+
+    private record Candidate(Entry entry, int rank) {}
+
+    private static final class Snapshot {
+        final long generation;
+        final long builtAt;
+        final Entry[] entries;
+        final TrigramIndex grams;
+
+        Snapshot(long generation, long builtAt, Entry[] entries, TrigramIndex grams) {
+            this.generation = generation;
+            this.builtAt = builtAt;
+            this.entries = entries;
+            this.grams = grams;
+        }
+
+        List<TeamDto> search(String query, Long leagueId, int limit) {
+            // Same semantics as TeamRepository.searchByNameWithCountry: normalized name contains normalized query,
+            // or lower(alias) contains lower(raw query)
+            String normalized = TeamNameNormalizer.normalize(query);
+            String rawLower = query.trim().toLowerCase();
+            List<Candidate> hits = new ArrayList<>();
+            for (int i : candidates(normalized, rawLower)) {
+                Entry e = entries[i];
+                if (leagueId != null && !leagueId.equals(e.leagueId)) continue;
+                int rank = rank(e, normalized, rawLower);
+                if (rank >= 0) hits.add(new Candidate(e, rank));
+            }
+            hits.sort((a, b) -> {
+                int c = Integer.compare(a.rank, b.rank);
+                if (c != 0) return c;
+                c = Long.compare(b.entry.activity, a.entry.activity);
+                if (c != 0) return c;
+                c = Integer.compare(a.entry.name.length(), b.entry.name.length());
+                if (c != 0) return c;
+                c = a.entry.name.compareToIgnoreCase(b.entry.name);
+                return c != 0 ? c : Long.compare(a.entry.id, b.entry.id);
+            });
+            List<TeamDto> out = new ArrayList<>(Math.min(limit, hits.size()));
+            for (int i = 0; i < hits.size() && out.size() < limit; i++) {
+                Entry e = hits.get(i).entry;
+                out.add(new TeamDto(e.id, e.name, null, e.leagueId, e.leagueName));
+            }
+            return out;
+        }
+
+        private int[] candidates(String normalized, String rawLower) {
+            int[] a = grams.candidates(normalized);
+            if (rawLower.equals(normalized)) return a;
+            return TrigramIndex.union(a, grams.candidates(rawLower));
+        }
+
+        /** Lower is better: exact, prefix, word prefix, substring; alias matches rank just behind name matches. -1 = no match. */
+        private static int rank(Entry e, String normalized, String rawLower) {
+            int best = quality(e.normalized, normalized);
+            if (best >= 0) best = best * 2;
+            for (String a : e.aliases) {
+                int q = quality(a, rawLower);
+                if (q >= 0 && (best < 0 || q * 2 + 1 < best)) best = q * 2 + 1;
+            }
+            return best;
+        }
+
+        private static int quality(String key, String q) {
+            if (key == null || q.isEmpty()) return -1;
+            int pos = key.indexOf(q);
+            if (pos < 0) return -1;
+            if (key.length() == q.length()) return 0;
+            if (pos == 0) return 1;
+            if (key.charAt(pos - 1) == ' ' || key.contains(" " + q)) return 2;
+            return 3;
+        }
+    }
+
+    /**
+     * JPA entity listener registered on Team and TeamAlias. Invalidates the index once the surrounding
+     * transaction commits (or immediately when there is none), so a rebuild never misses the change.
+     */
+    public static class EntityChangeListener {
+        @jakarta.persistence.PostPersist
+        @jakarta.persistence.PostUpdate
+        @jakarta.persistence.PostRemove
+        public void onChange(Object entity) {
+            if (org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Register once per transaction; bulk imports touch thousands of teams/aliases
+                if (org.springframework.transaction.support.TransactionSynchronizationManager.hasResource(EntityChangeListener.class)) return;
+                org.springframework.transaction.support.TransactionSynchronizationManager.bindResource(EntityChangeListener.class, Boolean.TRUE);
+                org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(
+                        new org.springframework.transaction.support.TransactionSynchronization() {
+                            @Override
+                            public void afterCommit() {
+                                invalidate();
+                            }
+
+                            @Override
+                            public void afterCompletion(int status) {
+                                org.springframework.transaction.support.TransactionSynchronizationManager.unbindResourceIfPossible(EntityChangeListener.class);
+                            }
+                        });
+            } else {
+                invalidate();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.chambua.vismart.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Opt-in per-request stage trace behind {@code debug=timings}. While a trace is open on the thread, every
+ * {@link PipelineMetrics#stage} call closes a stage entry carrying its duration, the SQL statements issued since the
+ * previous stage (via {@link QueryCounter}), the rows the stage reported through {@link #rows(int)} and the cache
+ * hits/misses seen meanwhile; {@link #note} records decisions such as which H2H path answered. Without an open trace
+ * the hooks cost one ThreadLocal read.
+ *
+ * Work handed to an executor is traced with {@link #propagate}: the task runs under a child trace whose stages are
+ * merged into the parent with a label prefix.
+ */
+public final class AnalysisTrace {
+
+    private static final ThreadLocal<AnalysisTrace> CURRENT = new ThreadLocal<>();
+
+    public record Stage(String name, double ms, int queries, int rows, int cacheHits, int cacheMisses) {}
+
+    public record Report(double totalMs, int queries, double dbMs, List<Stage> stages, Map<String, String> notes) {}
+
+    private final long started = System.nanoTime();
+    private final QueryCounter.Scope queries = QueryCounter.open();
+    private final List<Stage> stages = new ArrayList<>();
+    private final Map<String, String> notes = new LinkedHashMap<>();
+    private int childQueries;
+    private long childDbNanos;
+    private int queriesAtLastStage;
+    private int rows;
+    private int hits;
+    private int misses;
+    private boolean finished;
+
+    private AnalysisTrace() {}
+
+    /** Opens a trace on this thread; call {@link #finish()} on the same thread. */
+    public static AnalysisTrace start() {
+        AnalysisTrace trace = new AnalysisTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    public static void rows(int n) {
+        AnalysisTrace t = CURRENT.get();
+        if (t != null) t.rows += n;
+    }
+
+    public static void note(String key, String value) {
+        AnalysisTrace t = CURRENT.get();
+        if (t != null) {
+            synchronized (t) {
+                t.notes.put(key, value);
+            }
+        }
+    }
+
+    static void stage(String name, long startNanos) {
+        AnalysisTrace t = CURRENT.get();
+        if (t == null) return;
+        long now = System.nanoTime();
+        synchronized (t) {
+            int q = t.queries.count();
+            t.stages.add(new Stage(name, millis(now - startNanos), q - t.queriesAtLastStage, t.rows, t.hits, t.misses));
+            t.queriesAtLastStage = q;
+            t.rows = 0;
+            t.hits = 0;
+            t.misses = 0;
+        }
+    }
+
+    static void cache(boolean hit) {
+        AnalysisTrace t = CURRENT.get();
+        if (t == null) return;
+        if (hit) t.hits++; else t.misses++;
+    }
+
+    /** Wraps {@code task} to run under a child trace when one is open here; otherwise returns it unchanged. */
+    public static <T> Callable<T> propagate(String label, Callable<T> task) {
+        AnalysisTrace parent = CURRENT.get();
+        if (parent == null) return task;
+        return () -> {
+            AnalysisTrace child = start();
+            try {
+                return task.call();
+            } finally {
+                parent.merge(label, child.finish());
+            }
+        };
+    }
+
+    private synchronized void merge(String label, Report child) {
+        if (finished) return; // the parent gave up waiting; its report is already out
+        for (Stage s : child.stages()) {
+            stages.add(new Stage(label + "/" + s.name(), s.ms(), s.queries(), s.rows(), s.cacheHits(), s.cacheMisses()));
+        }
+        child.notes().forEach((k, v) -> notes.put(label + "/" + k, v));
+        childQueries += child.queries();
+        childDbNanos += Math.round(child.dbMs() * 1_000_000);
+    }
+
+    /** Closes the trace and its query scope; the report includes statements issued by propagated tasks. */
+    public synchronized Report finish() {
+        if (CURRENT.get() == this) CURRENT.remove();
+        queries.close();
+        finished = true;
+        return new Report(millis(System.nanoTime() - started), queries.count() + childQueries,
+                millis(queries.dbNanos() + childDbNanos), List.copyOf(stages), new LinkedHashMap<>(notes));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.chambua.vismart.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the hot paths, so allocation/GC spikes in a recording can be lined up with the
+ * league, season and teams being worked on. They are only written while a recording is running (started from
+ * {@code /api/admin/jfr} or {@code -XX:StartFlightRecording}); otherwise {@code shouldCommit()} is false and the
+ * fields are never filled. Ids are 0 when unknown.
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {}
+
+    public static long id(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    @Name("com.chambua.vismart.Analysis")
+    @Label("Match Analysis")
+    @Description("One analyzeDeterministic call")
+    @Category({"ChambuaViSmart", "Analysis"})
+    @StackTrace(false)
+    public static class AnalysisEvent extends Event {
+        @Label("League Id") public long leagueId;
+        @Label("Season Id") public long seasonId;
+        @Label("Home Team Id") public long homeTeamId;
+        @Label("Away Team Id") public long awayTeamId;
+        @Label("Analysis Type") public String analysisType;
+        @Label("Served From Cache") public boolean cached;
+        @Label("Form Rows") public int formRows;
+        @Label("H2H Rows") public int h2hRows;
+        @Label("H2H Path") public String h2hPath;
+    }
+
+    @Name("com.chambua.vismart.FormGuideCompute")
+    @Label("Form Guide Compute")
+    @Category({"ChambuaViSmart", "Analysis"})
+    @StackTrace(false)
+    public static class FormGuideComputeEvent extends Event {
+        @Label("League Id") public long leagueId;
+        @Label("Season Id") public long seasonId;
+        @Label("Scope") public String scope;
+        @Label("Limit") public int limit;
+        @Label("Match Rows") public int matchRows;
+        @Label("Teams") public int teams;
+    }
+
+    @Name("com.chambua.vismart.H2HLookup")
+    @Label("H2H Lookup")
+    @Description("Head-to-head resolution inside an analysis; path is the tier that answered")
+    @Category({"ChambuaViSmart", "Analysis"})
+    @StackTrace(false)
+    public static class H2HLookupEvent extends Event {
+        @Label("League Id") public long leagueId;
+        @Label("Season Id") public long seasonId;
+        @Label("Home Team Id") public long homeTeamId;
+        @Label("Away Team Id") public long awayTeamId;
+        @Label("Path") public String path;
+        @Label("Rows") public int rows;
+    }
+
+    @Name("com.chambua.vismart.ImportBatch")
+    @Label("Import Batch")
+    @Category({"ChambuaViSmart", "Import"})
+    @StackTrace(false)
+    public static class ImportBatchEvent extends Event {
+        @Label("Pipeline") public String pipeline;
+        @Label("League Id") public long leagueId;
+        @Label("Season Id") public long seasonId;
+        @Label("League") public String league;
+        @Label("Season") public String season;
+        @Label("Rows") public int rows;
+    }
+
+    @Name("com.chambua.vismart.PdfRender")
+    @Label("PDF Render")
+    @Category({"ChambuaViSmart", "PDF"})
+    @StackTrace(false)
+    public static class PdfRenderEvent extends Event {
+        @Label("Home Team") public String homeTeam;
+        @Label("Away Team") public String awayTeam;
+        @Label("Total Matches") public long totalMatches;
+        @Label("Renderer") @Description("latex, itext or minimal") public String renderer;
+        @Label("Size") @DataAmount public long bytes;
+    }
+}
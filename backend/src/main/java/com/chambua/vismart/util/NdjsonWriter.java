@@ -0,0 +1,76 @@
+package com.chambua.vismart.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes one JSON document per line ({@code application/x-ndjson}) straight to the response stream, so large
+ * listings are never held as a full list or serialized into one buffer. The first line is flushed right away (time
+ * to first byte), later ones every {@link #FLUSH_EVERY} lines.
+ */
+public final class NdjsonWriter {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    static final int FLUSH_EVERY = 100;
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(NdjsonWriter out) throws IOException;
+    }
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private long lines;
+
+    public NdjsonWriter(ObjectMapper mapper, OutputStream out) throws IOException {
+        ObjectMapper m = mapper != null ? mapper : DEFAULT_MAPPER;
+        this.generator = m.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.writer = m.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /** 200 response whose body is produced by {@code body} on the async request thread. */
+    public static ResponseEntity<StreamingResponseBody> response(ObjectMapper mapper, Body body) {
+        StreamingResponseBody stream = os -> {
+            NdjsonWriter out = new NdjsonWriter(mapper, os);
+            body.writeTo(out);
+            out.close();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(stream);
+    }
+
+    public void write(Object value) throws IOException {
+        writer.writeValue(generator, value);
+        generator.writeRaw('\n');
+        if (++lines == 1 || lines % FLUSH_EVERY == 0) generator.flush();
+    }
+
+    /** For row callbacks that cannot throw checked exceptions. */
+    public void writeUnchecked(Object value) {
+        try {
+            write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long lines() {
+        return lines;
+    }
+
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,70 @@
+package com.chambua.vismart.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the analysis pipeline, in-memory caches and import paths. Recorded against Micrometer's global
+ * registry, which Spring Boot links to the application registry (exported on /actuator/prometheus); in plain unit
+ * tests nothing is attached and every call is a no-op, so services need no registry wiring. Stage, cache and H2H
+ * tier events also feed the {@link AnalysisTrace} when one is open ({@code debug=timings}).
+ *
+ * <ul>
+ *   <li>{@code vismart.analysis.stage{stage}} - time per analyzeDeterministic stage</li>
+ *   <li>{@code vismart.analysis.h2h.resolution{tier}} - which H2H lookup tier produced the matches</li>
+ *   <li>{@code vismart.cache.gets{cache,result=hit|miss}} and {@code vismart.cache.rebuild{cache}}</li>
+ *   <li>{@code vismart.import.batch{pipeline}}, {@code vismart.import.rows{pipeline}} and
+ *       {@code vismart.import.run{pipeline,outcome}}; rows/sec is {@code rate(vismart_import_rows_total[1m])}</li>
+ *   <li>{@code vismart.http.db.queries{uri}} and {@code vismart.http.db.time{uri}} - SQL statements per request</li>
+ * </ul>
+ */
+public final class PipelineMetrics {
+
+    private PipelineMetrics() {}
+
+    /** Records the time since {@code startNanos} (from {@link System#nanoTime()}) for an analysis stage. */
+    public static void stage(String stage, long startNanos) {
+        Metrics.timer("vismart.analysis.stage", "stage", stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        AnalysisTrace.stage(stage, startNanos);
+    }
+
+    public static void h2hResolved(String tier) {
+        Metrics.counter("vismart.analysis.h2h.resolution", "tier", tier).increment();
+        AnalysisTrace.note("h2hPath", tier);
+    }
+
+    public static void cache(String cache, boolean hit) {
+        Metrics.counter("vismart.cache.gets", "cache", cache, "result", hit ? "hit" : "miss").increment();
+        AnalysisTrace.cache(hit);
+    }
+
+    public static void cacheRebuild(String cache, long startNanos) {
+        Metrics.timer("vismart.cache.rebuild", "cache", cache).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** One persisted batch: its latency and the rows it wrote. */
+    public static void importBatch(String pipeline, int rows, long startNanos) {
+        Metrics.timer("vismart.import.batch", "pipeline", pipeline).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        importRows(pipeline, rows);
+    }
+
+    public static void importRows(String pipeline, long rows) {
+        if (rows > 0) Metrics.counter("vismart.import.rows", "pipeline", pipeline).increment(rows);
+    }
+
+    /** Statement count and driver time of one HTTP request (see QueryCountConfig). */
+    public static void requestQueries(String uri, int statements, long dbNanos) {
+        DistributionSummary.builder("vismart.http.db.queries").tag("uri", uri).baseUnit("statements")
+                .register(Metrics.globalRegistry).record(statements);
+        Metrics.timer("vismart.http.db.time", "uri", uri).record(dbNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** A whole upload/import call; {@code outcome} is success, failed or error (threw). */
+    public static void importRun(String pipeline, String outcome, long startNanos) {
+        Timer.builder("vismart.import.run").tag("pipeline", pipeline).tag("outcome", outcome)
+                .register(Metrics.globalRegistry).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,94 @@
+package com.chambua.vismart.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements executed on the current thread while a {@link Scope} is open, together with the time
+ * spent in the driver. Statements are fed in by the data source proxy from QueryCountConfig, so JPA, Spring Data and
+ * the JdbcTemplate-based repositories are all covered. Scopes nest (an HTTP request inside a test budget, say): every
+ * open scope on the thread sees the statement. With no scope open recording is a single ThreadLocal read.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {}
+
+    /** Starts counting on this thread; close the scope (try-with-resources) on the same thread. */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    /** Called once per executed statement (a JDBC batch counts once). */
+    public static void record(String sql, long nanos) {
+        for (Scope s = CURRENT.get(); s != null; s = s.parent) {
+            if (!s.closed) s.add(sql, nanos);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final Map<String, int[]> bySql = new LinkedHashMap<>();
+        private int count;
+        private long nanos;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void add(String sql, long elapsed) {
+            count++;
+            nanos += elapsed;
+            bySql.computeIfAbsent(sql == null ? "" : sql, k -> new int[1])[0]++;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public long dbNanos() {
+            return nanos;
+        }
+
+        public double dbMillis() {
+            return nanos / 1_000_000.0;
+        }
+
+        /** Statements issued at least {@code min} times with identical SQL (the N+1 signature), most frequent first. */
+        public List<Map.Entry<String, Integer>> repeated(int min) {
+            List<Map.Entry<String, Integer>> out = new ArrayList<>();
+            for (Map.Entry<String, int[]> e : bySql.entrySet()) {
+                if (e.getValue()[0] >= min) out.add(Map.entry(e.getKey(), e.getValue()[0]));
+            }
+            out.sort(Comparator.comparing(Map.Entry<String, Integer>::getValue).reversed());
+            return out;
+        }
+
+        /** Distinct statements with their counts in first-seen order, for failure messages. */
+        public String describe() {
+            StringBuilder sb = new StringBuilder();
+            bySql.forEach((sql, n) -> sb.append(String.format("%4dx %s%n", n[0], sql)));
+            return sb.toString();
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            if (CURRENT.get() == this) {
+                if (parent == null) CURRENT.remove(); else CURRENT.set(parent);
+            }
+        }
+    }
+}
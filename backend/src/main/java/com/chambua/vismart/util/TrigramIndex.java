@@ -0,0 +1,115 @@
+package com.chambua.vismart.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable trigram posting-list index over short strings (team names, aliases).
+ *
+ * Documents are dense int ids in [0, size). {@link #candidates(String)} returns the sorted ids whose keys contain
+ * every trigram of the query; callers must still verify with {@code String#contains} since trigram co-occurrence
+ * does not imply a contiguous substring. Queries shorter than a trigram return every id.
+ */
+public final class TrigramIndex {
+
+    public static final int GRAM = 3;
+
+    private final Map<String, int[]> grams;
+    private final int size;
+
+    private TrigramIndex(Map<String, int[]> grams, int size) {
+        this.grams = grams;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() { return size; }
+
+    public int gramCount() { return grams.size(); }
+
+    public int[] candidates(String key) {
+        if (key == null) return new int[0];
+        if (key.length() < GRAM) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) all[i] = i;
+            return all;
+        }
+        List<int[]> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            int[] p = grams.get(key.substring(i, i + GRAM));
+            if (p == null) return new int[0];
+            lists.add(p);
+        }
+        // Intersect smallest-first so the working set only shrinks
+        lists.sort((x, y) -> Integer.compare(x.length, y.length));
+        int[] acc = lists.get(0);
+        for (int i = 1; i < lists.size() && acc.length > 0; i++) {
+            int[] next = lists.get(i);
+            if (next == acc) continue;
+            int[] tmp = new int[acc.length];
+            int n = 0;
+            for (int v : acc) {
+                if (Arrays.binarySearch(next, v) >= 0) tmp[n++] = v;
+            }
+            acc = Arrays.copyOf(tmp, n);
+        }
+        return acc;
+    }
+
+    /** Sorted-set union of two ascending id arrays. */
+    public static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            int v;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) v = a[i++];
+            else if (i >= a.length || b[j] < a[i]) v = b[j++];
+            else { v = a[i++]; j++; }
+            out[n++] = v;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    public static final class Builder {
+        private final Map<String, IntList> postings = new HashMap<>();
+        private int maxDoc = -1;
+
+        /** Index a key for a document. Documents must be added in non-decreasing id order. */
+        public Builder add(int doc, String key) {
+            if (doc > maxDoc) maxDoc = doc;
+            if (key == null) return this;
+            for (int i = 0; i + GRAM <= key.length(); i++) {
+                IntList list = postings.computeIfAbsent(key.substring(i, i + GRAM), k -> new IntList());
+                // Ids arrive in increasing order, so a duplicate can only be the last element
+                if (list.size == 0 || list.data[list.size - 1] != doc) list.add(doc);
+            }
+            return this;
+        }
+
+        public TrigramIndex build(int size) {
+            Map<String, int[]> grams = new HashMap<>(postings.size() * 2);
+            for (Map.Entry<String, IntList> p : postings.entrySet()) grams.put(p.getKey(), p.getValue().toArray());
+            return new TrigramIndex(grams, Math.max(size, maxDoc + 1));
+        }
+    }
+
+    private static final class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- Versioned tuning constants of the deterministic analysis model (see ModelParameterService).
+-- At most one row is active; no active row means the built-in defaults (version 0).
+CREATE TABLE IF NOT EXISTS model_parameter_set (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    version INT NOT NULL,
+    params TEXT NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT FALSE,
+    note VARCHAR(255) NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_model_parameter_set_version UNIQUE (version)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_model_parameter_set_active ON model_parameter_set (active);
@@ -0,0 +1,13 @@
+-- Data version stamps for conditional GETs (see DataVersionService).
+-- One row per scope: 'global', 'league:{leagueId}' or 'season:{leagueId}:{seasonId}'. Every committed write to
+-- matches, fixtures, seasons or leagues increments the affected rows; read endpoints derive their ETag from them.
+CREATE TABLE IF NOT EXISTS data_version (
+    scope_key VARCHAR(64) NOT NULL,
+    league_id BIGINT NULL,
+    season_id BIGINT NULL,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (scope_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_data_version_league ON data_version (league_id);
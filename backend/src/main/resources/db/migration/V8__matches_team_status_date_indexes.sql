@@ -0,0 +1,32 @@
+-- Per-side indexes backing the id-set rewrites of the name-based match queries (MatchRepository).
+-- Team names resolve to ids via teams.normalized_name (already leading column of uk_team_normalized_league),
+-- then each side is read through (team_id, status, match_date) and combined with UNION ALL instead of OR.
+-- MySQL 8 safe and idempotent.
+
+SET @idx_home := (
+  SELECT COUNT(1) FROM INFORMATION_SCHEMA.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'matches' AND INDEX_NAME = 'idx_matches_home_status_date'
+);
+SET @sql := IF(@idx_home = 0,
+  'ALTER TABLE matches ADD INDEX idx_matches_home_status_date (home_team_id, status, match_date)',
+  'SELECT 1');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+SET @idx_away := (
+  SELECT COUNT(1) FROM INFORMATION_SCHEMA.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'matches' AND INDEX_NAME = 'idx_matches_away_status_date'
+);
+SET @sql2 := IF(@idx_away = 0,
+  'ALTER TABLE matches ADD INDEX idx_matches_away_status_date (away_team_id, status, match_date)',
+  'SELECT 1');
+PREPARE stmt2 FROM @sql2; EXECUTE stmt2; DEALLOCATE PREPARE stmt2;
+
+-- Guard: environments that predate R__25 may lack a usable index on normalized_name
+SET @idx_norm := (
+  SELECT COUNT(1) FROM INFORMATION_SCHEMA.STATISTICS
+  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'teams' AND COLUMN_NAME = 'normalized_name' AND SEQ_IN_INDEX = 1
+);
+SET @sql3 := IF(@idx_norm = 0,
+  'ALTER TABLE teams ADD INDEX idx_teams_normalized_name (normalized_name)',
+  'SELECT 1');
+PREPARE stmt3 FROM @sql3; EXECUTE stmt3; DEALLOCATE PREPARE stmt3;
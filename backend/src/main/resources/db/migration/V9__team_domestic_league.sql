@@ -0,0 +1,14 @@
+-- Persisted team -> domestic league mapping (see TeamDomesticLeagueService).
+-- One row per team id: the league in which the team played most matches during its latest season.
+-- Maintained incrementally after match writes; rebuilt from matches when the table is empty.
+CREATE TABLE IF NOT EXISTS team_domestic_league (
+    team_id BIGINT NOT NULL,
+    league_id BIGINT NOT NULL,
+    country VARCHAR(255) NULL,
+    season_id BIGINT NULL,
+    match_count INT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (team_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_team_domestic_league_league ON team_domestic_league (league_id);
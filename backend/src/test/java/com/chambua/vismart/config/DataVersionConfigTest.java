@@ -0,0 +1,74 @@
+package com.chambua.vismart.config;
+
+import com.chambua.vismart.controller.CountriesController;
+import com.chambua.vismart.repository.CountryRepository;
+import com.chambua.vismart.service.DataVersionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = CountriesController.class)
+@Import(DataVersionConfig.class)
+@ActiveProfiles("test")
+class DataVersionConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CountryRepository countryRepository;
+
+    @MockBean
+    private DataVersionService dataVersionService;
+
+    @Test
+    void firstRequestGetsETagAndNoCache() throws Exception {
+        when(dataVersionService.etag(any(String[].class))).thenReturn("\"abc-7\"");
+        when(countryRepository.findAllByOrderByNameAsc()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/countries"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc-7\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+        verify(dataVersionService).etag(DataVersionService.GLOBAL);
+    }
+
+    @Test
+    void matchingIfNoneMatchIs304WithoutCallingTheController() throws Exception {
+        when(dataVersionService.etag(any(String[].class))).thenReturn("\"abc-7\"");
+
+        mockMvc.perform(get("/api/countries").header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc-7\""));
+        verifyNoInteractions(countryRepository);
+    }
+
+    @Test
+    void staleETagIsServedInFull() throws Exception {
+        when(dataVersionService.etag(any(String[].class))).thenReturn("\"abc-8\"");
+        when(countryRepository.findAllByOrderByNameAsc()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/countries").header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc-8\""));
+        verify(countryRepository).findAllByOrderByNameAsc();
+    }
+
+    @Test
+    void nonGetRequestsAreNotConditional() throws Exception {
+        mockMvc.perform(post("/api/countries").header("If-None-Match", "*"));
+        verifyNoInteractions(dataVersionService);
+    }
+}
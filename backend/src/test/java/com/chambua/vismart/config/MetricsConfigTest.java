@@ -0,0 +1,54 @@
+package com.chambua.vismart.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.stereotype.Repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsConfigTest {
+
+    @Repository
+    static class RowsRepository {
+        private final int base;
+        RowsRepository(int base) { this.base = base; }
+        public int count(int extra) { return base + extra; }
+        public int fail() { throw new IllegalStateException("boom"); }
+    }
+
+    static class PlainService {
+        public int count() { return 1; }
+    }
+
+    private static BeanPostProcessor processor(MeterRegistry registry) {
+        AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+        ctx.registerBean(MeterRegistry.class, () -> registry);
+        ctx.refresh();
+        return MetricsConfig.jdbcRepositoryTimingPostProcessor(ctx.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void timesRepositoryMethodsWithOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RowsRepository repo = (RowsRepository) processor(registry).postProcessAfterInitialization(new RowsRepository(40), "rows");
+
+        assertThat(repo.count(2)).isEqualTo(42);
+        assertThat(repo.count(3)).isEqualTo(43);
+        assertThatThrownBy(repo::fail).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("vismart.repository.invocations")
+                .tags("repository", "RowsRepository", "method", "count", "exception", "none").timer().count()).isEqualTo(2);
+        assertThat(registry.get("vismart.repository.invocations")
+                .tags("method", "fail", "exception", "IllegalStateException").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesOtherBeansAlone() {
+        PlainService service = new PlainService();
+        assertThat(processor(new SimpleMeterRegistry()).postProcessAfterInitialization(service, "plain")).isSameAs(service);
+    }
+}
@@ -0,0 +1,111 @@
+package com.chambua.vismart.controller;
+
+import com.chambua.vismart.model.Fixture;
+import com.chambua.vismart.model.FixtureStatus;
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.repository.FixtureRepository;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.service.FixtureEventHub;
+import com.chambua.vismart.service.FixtureUploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.jpa.hibernate.ddl-auto=create-drop", "spring.flyway.enabled=false"})
+@AutoConfigureMockMvc
+class FixtureStreamTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private FixtureRepository fixtureRepository;
+    @Autowired private FixtureEventHub hub;
+    @Autowired private FixtureUploadService fixtureUploadService;
+
+    private static String awaitContent(MockHttpServletResponse response, String needle) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String body = response.getContentAsString();
+            if (body.contains(needle)) return body;
+            Thread.sleep(20);
+        }
+        return response.getContentAsString();
+    }
+
+    @Test
+    void committedFixtureWritesArePushedToSubscribersOfThatDate() throws Exception {
+        LocalDate day = LocalDate.of(2031, 3, 8);
+        League league = leagueRepository.save(new League("SSE " + UUID.randomUUID(), "KE", "2030/2031"));
+        Fixture fixture = new Fixture();
+        fixture.setLeague(league);
+        fixture.setRound("Round 1");
+        fixture.setDateTime(day.atTime(16, 0));
+        fixture.setHomeTeam("Tusker");
+        fixture.setAwayTeam("Bandari");
+        fixture = fixtureRepository.save(fixture);
+
+        MvcResult result = mvc.perform(get("/api/fixtures/stream").param("date", day.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(awaitContent(response, "event:ready")).contains("event:ready");
+
+        fixture.setHomeScore(2);
+        fixture.setAwayScore(0);
+        fixture.setStatus(FixtureStatus.FINISHED);
+        fixtureRepository.save(fixture);
+
+        String body = awaitContent(response, "event:fixture");
+        assertThat(body).contains("event:fixture").contains("\"fixtureId\":" + fixture.getId())
+                .contains("\"homeScore\":2").contains("\"status\":\"FINISHED\"");
+        assertThat(hub.hasSubscribers(day)).isTrue();
+    }
+
+    @Test
+    void fullReplaceUploadSendsPerFixtureDeltasInsteadOfReloadingEveryDate() throws Exception {
+        LocalDate day = LocalDate.of(2031, 3, 8);
+        LocalDate otherDay = LocalDate.of(2031, 3, 9);
+        League league = leagueRepository.save(new League("SSE " + UUID.randomUUID(), "KE", "2031"));
+        Fixture old = new Fixture();
+        old.setLeague(league);
+        old.setRound("Round 1");
+        old.setDateTime(day.atTime(16, 0));
+        old.setHomeTeam("Tusker");
+        old.setAwayTeam("Bandari");
+        old = fixtureRepository.save(old);
+
+        MockHttpServletResponse response = mvc.perform(get("/api/fixtures/stream").param("date", day.toString()))
+                .andExpect(request().asyncStarted()).andReturn().getResponse();
+        MockHttpServletResponse other = mvc.perform(get("/api/fixtures/stream").param("date", otherDay.toString()))
+                .andExpect(request().asyncStarted()).andReturn().getResponse();
+        awaitContent(response, "event:ready");
+        awaitContent(other, "event:ready");
+
+        fixtureUploadService.uploadCsv(league.getId(), "2031", true,
+                "round,date,time,home,away,home_score,away_score\nRound 2,08.03.,18:00,Gor Mahia,Ulinzi,-,-");
+
+        String body = awaitContent(response, "Gor Mahia");
+        assertThat(body).contains("\"change\":\"removed\",\"fixtureId\":" + old.getId())
+                .contains("\"change\":\"upsert\"").contains("Gor Mahia")
+                .doesNotContain("event:reload");
+        assertThat(other.getContentAsString()).doesNotContain("event:reload").doesNotContain("event:fixture");
+    }
+
+    @Test
+    void invalidDateIsRejected() throws Exception {
+        mvc.perform(get("/api/fixtures/stream").param("date", "08-03-2031"))
+                .andExpect(status().isBadRequest());
+    }
+}
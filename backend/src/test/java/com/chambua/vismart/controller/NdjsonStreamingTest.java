@@ -0,0 +1,130 @@
+package com.chambua.vismart.controller;
+
+import com.chambua.vismart.model.*;
+import com.chambua.vismart.repository.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/** The .ndjson variants must carry exactly the items of their JSON counterparts, one per line. */
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.jpa.hibernate.ddl-auto=create-drop", "spring.flyway.enabled=false"})
+@AutoConfigureMockMvc
+class NdjsonStreamingTest {
+
+    @Autowired private MockMvc mvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private ImportRunRepository importRunRepository;
+    @Autowired private ImportErrorRepository importErrorRepository;
+
+    private String[] seedTeams() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        League league = leagueRepository.save(new League("NDJSON " + suffix, "KE", "2025/2026"));
+        Season season = seasonRepository.save(new Season(league, "2025/2026", LocalDate.of(2025, 7, 1), LocalDate.of(2026, 6, 30)));
+        Team a = teamRepository.save(new Team("Alpha " + suffix, league));
+        Team b = teamRepository.save(new Team("Bravo " + suffix, league));
+        Team c = teamRepository.save(new Team("Charlie " + suffix, league));
+        int[][] scores = {{2, 1}, {0, 0}, {1, 3}, {2, 2}, {4, 0}};
+        for (int i = 0; i < scores.length; i++) {
+            Match ab = new Match(league, i % 2 == 0 ? a : b, i % 2 == 0 ? b : a, LocalDate.of(2025, 8, 1 + i * 2), i + 1, scores[i][0], scores[i][1]);
+            ab.setSeason(season);
+            matchRepository.save(ab);
+            Match bc = new Match(league, b, c, LocalDate.of(2025, 8, 2 + i * 2), i + 1, scores[i][1], scores[i][0]);
+            bc.setSeason(season);
+            matchRepository.save(bc);
+        }
+        return new String[]{a.getName(), b.getName()};
+    }
+
+    private JsonNode json(String url) throws Exception {
+        return objectMapper.readTree(mvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+    }
+
+    private List<JsonNode> ndjson(String url) throws Exception {
+        MvcResult started = mvc.perform(get(url)).andExpect(request().asyncStarted()).andReturn();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> lines = new ArrayList<>();
+        if (!body.isEmpty()) {
+            assertThat(body).endsWith("\n");
+            for (String line : body.split("\n")) lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static List<JsonNode> elements(JsonNode array) {
+        List<JsonNode> out = new ArrayList<>();
+        array.forEach(out::add);
+        return out;
+    }
+
+    @Test
+    void h2hStreamMatchesJsonListIncludingLimit() throws Exception {
+        String[] teams = seedTeams();
+        String url = "/api/matches/h2h/matches-any-orientation?teamA=" + teams[0] + "&teamB=" + teams[1];
+
+        JsonNode list = json(url);
+        assertThat(list.size()).isEqualTo(5);
+        // Newest first
+        assertThat(list.get(0).get("date").asText()).isGreaterThan(list.get(4).get("date").asText());
+        assertThat(ndjson(url.replace("matches-any-orientation", "matches-any-orientation.ndjson"))).isEqualTo(elements(list));
+
+        JsonNode limited = json(url + "&limit=2");
+        assertThat(limited.size()).isEqualTo(2);
+        assertThat(ndjson(url.replace("matches-any-orientation", "matches-any-orientation.ndjson") + "&limit=2")).isEqualTo(elements(limited));
+    }
+
+    @Test
+    void streakStreamMatchesJsonListLatestFirst() throws Exception {
+        String[] teams = seedTeams();
+        String url = "/api/matches/streak-insights/by-team-name?name=" + teams[1];
+
+        JsonNode list = json(url);
+        assertThat(list.size()).isEqualTo(10);
+        assertThat(list.get(0).get("date").asText()).isGreaterThan(list.get(9).get("date").asText());
+        // Pre-match context: the oldest item has no streak yet
+        assertThat(list.get(9).get("activeStreakCount").asInt()).isZero();
+        assertThat(ndjson(url.replace("by-team-name", "by-team-name.ndjson"))).isEqualTo(elements(list));
+    }
+
+    @Test
+    void importErrorStreamMatchesJsonList() throws Exception {
+        ImportRun run = new ImportRun();
+        run.setFileHash("ndjson-" + UUID.randomUUID());
+        run = importRunRepository.save(run);
+        for (int i = 1; i <= 3; i++) {
+            ImportError e = new ImportError();
+            e.setImportRun(run);
+            e.setRowNumber(i);
+            e.setReason("bad row " + i);
+            e.setPayload("{\"row\":" + i + "}");
+            importErrorRepository.save(e);
+        }
+        String url = "/archives/import/runs/" + run.getId() + "/errors";
+
+        JsonNode list = json(url);
+        assertThat(list.size()).isEqualTo(3);
+        assertThat(ndjson(url + ".ndjson")).isEqualTo(elements(list));
+        assertThat(ndjson("/archives/import/runs/-1/errors.ndjson")).isEmpty();
+    }
+}
@@ -0,0 +1,108 @@
+package com.chambua.vismart.repository;
+
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.model.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class MatchRepositoryNameQueriesIT {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private SeasonRepository seasonRepository;
+
+    private Match played(League l, Season s, Team h, Team a, LocalDate d, int round, int hg, int ag) {
+        Match m = new Match(l, h, a, d, round, hg, ag);
+        m.setSeason(s);
+        m.setStatus(MatchStatus.PLAYED);
+        return m;
+    }
+
+    @Test
+    void name_based_queries_resolve_ids_across_duplicate_teams() {
+        League l1 = leagueRepository.save(new League("EPL", "England", "2023/2024"));
+        League l2 = leagueRepository.save(new League("FA Cup", "England", "2023/2024"));
+        Season s1 = seasonRepository.save(new Season(l1, "2023/2024", LocalDate.of(2023, 8, 1), LocalDate.of(2024, 5, 31)));
+        Season s2 = seasonRepository.save(new Season(l2, "2023/2024", LocalDate.of(2023, 9, 1), LocalDate.of(2024, 5, 31)));
+
+        Team a1 = teamRepository.save(new Team("Arsenal", l1));
+        Team c1 = teamRepository.save(new Team("Chelsea", l1));
+        Team a2 = teamRepository.save(new Team("Arsenal", l2)); // duplicate team row in another competition
+        Team e2 = teamRepository.save(new Team("Everton", l2));
+
+        matchRepository.saveAll(List.of(
+                played(l1, s1, a1, c1, LocalDate.of(2023, 9, 1), 1, 2, 0),   // arsenal W
+                played(l1, s1, c1, a1, LocalDate.of(2023, 10, 1), 2, 1, 1),  // draw, btts
+                played(l2, s2, e2, a2, LocalDate.of(2023, 11, 1), 1, 3, 1),  // arsenal L, over 2.5, btts
+                played(l1, s1, c1, a1, LocalDate.of(2023, 12, 1), 3, 0, 1)   // arsenal W (away)
+        ));
+        Match scheduled = new Match(l1, a1, c1, LocalDate.of(2024, 3, 1), 4, null, null);
+        scheduled.setSeason(s1);
+        matchRepository.save(scheduled);
+
+        assertThat(matchRepository.countPlayedByTeamName("  ARSENAL ")).isEqualTo(4);
+        assertThat(matchRepository.countWinsByTeamName("arsenal")).isEqualTo(2);
+        assertThat(matchRepository.countDrawsByTeamName("arsenal")).isEqualTo(1);
+        assertThat(matchRepository.countLossesByTeamName("arsenal")).isEqualTo(1);
+        assertThat(matchRepository.countBttsByTeamName("arsenal")).isEqualTo(2);
+        assertThat(matchRepository.countOver25ByTeamName("arsenal")).isEqualTo(1);
+        assertThat(matchRepository.countOver15ByTeamName("arsenal")).isEqualTo(3);
+        assertThat(matchRepository.countPlayedByTeamName("unknown fc")).isZero();
+
+        List<Match> recent = matchRepository.findRecentPlayedByTeamName("Arsenal");
+        assertThat(recent).extracting(Match::getDate).containsExactly(
+                LocalDate.of(2023, 12, 1), LocalDate.of(2023, 11, 1), LocalDate.of(2023, 10, 1), LocalDate.of(2023, 9, 1));
+
+        Slice<Match> page = matchRepository.findRecentPlayedByTeamName("arsenal", PageRequest.of(0, 3));
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.getContent().get(0).getDate()).isEqualTo(LocalDate.of(2023, 12, 1));
+
+        assertThat(matchRepository.findSeasonIdsForTeamNameOrdered("arsenal")).containsExactly(s2.getId(), s1.getId());
+        assertThat(matchRepository.findRecentPlayedByTeamNameAndSeason("arsenal", s1.getId())).hasSize(3);
+
+        assertThat(matchRepository.countH2HByNamesAnyOrientation("arsenal", "chelsea")).isEqualTo(3);
+        assertThat(matchRepository.findH2HByNamesAnyOrientation("Chelsea", "Arsenal")).hasSize(3);
+        assertThat(matchRepository.findPlayedByExactNames("chelsea", "arsenal")).hasSize(2);
+        assertThat(matchRepository.findRecentPlayedByAnyTeamNames(List.of("everton", "chelsea"))).hasSize(4);
+
+        // Single-pass aggregation agrees with the individual counters
+        Object[] agg = matchRepository.aggregatePlayedByTeamIds(matchRepository.findTeamIdsForName("arsenal")).get(0);
+        assertThat(java.util.Arrays.stream(agg).map(o -> ((Number) o).longValue()).toList()).containsExactly(4L, 2L, 1L, 1L, 2L, 1L, 3L);
+        List<Object[]> grouped = matchRepository.aggregatePlayedGroupedByNormalizedName(List.of(a1.getId(), a2.getId(), e2.getId()));
+        assertThat(grouped).hasSize(2);
+        Object[] arsenal = grouped.stream().filter(r -> "arsenal".equals(r[7])).findFirst().orElseThrow();
+        assertThat(java.util.Arrays.stream(arsenal, 0, 7).map(o -> ((Number) o).longValue()).toList()).containsExactly(4L, 2L, 1L, 1L, 2L, 1L, 3L);
+    }
+
+    @Test
+    void batch_aggregate_counts_a_match_between_rows_of_one_name_once() {
+        League l1 = leagueRepository.save(new League("EPL", "England", "2023/2024"));
+        League l2 = leagueRepository.save(new League("FA Cup", "England", "2023/2024"));
+        Season s1 = seasonRepository.save(new Season(l1, "2023/2024", LocalDate.of(2023, 8, 1), LocalDate.of(2024, 5, 31)));
+        Team a1 = teamRepository.save(new Team("Arsenal", l1));
+        Team a2 = teamRepository.save(new Team("Arsenal", l2));
+        matchRepository.save(played(l1, s1, a1, a2, LocalDate.of(2023, 9, 1), 1, 2, 1));
+
+        List<Long> ids = matchRepository.findTeamIdsForName("arsenal");
+        long single = ((Number) matchRepository.aggregatePlayedByTeamIds(ids).get(0)[0]).longValue();
+        List<Object[]> grouped = matchRepository.aggregatePlayedGroupedByNormalizedName(ids);
+        assertThat(single).isEqualTo(1);
+        assertThat(grouped).singleElement().satisfies(r -> assertThat(((Number) r[0]).longValue()).isEqualTo(single));
+    }
+}
@@ -0,0 +1,155 @@
+package com.chambua.vismart.repository;
+
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.model.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(MatchRowRepository.class)
+class MatchRowRepositoryIT {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private MatchRowRepository matchRowRepository;
+    @Autowired private org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager em;
+
+    private Match played(League l, Season s, Team h, Team a, LocalDate d, int round, int hg, int ag) {
+        Match m = new Match(l, h, a, d, round, hg, ag);
+        m.setSeason(s);
+        m.setStatus(MatchStatus.PLAYED);
+        return m;
+    }
+
+    @Test
+    void rows_match_entity_queries_and_push_limit_into_sql() {
+        League l1 = leagueRepository.save(new League("EPL", "England", "2023/2024"));
+        League l2 = leagueRepository.save(new League("FA Cup", "England", "2023/2024"));
+        Season s1 = seasonRepository.save(new Season(l1, "2023/2024", LocalDate.of(2023, 8, 1), LocalDate.of(2024, 5, 31)));
+        Season s2 = seasonRepository.save(new Season(l2, "2023/2024", LocalDate.of(2023, 9, 1), LocalDate.of(2024, 5, 31)));
+
+        Team a1 = teamRepository.save(new Team("Arsenal", l1));
+        Team c1 = teamRepository.save(new Team("Chelsea", l1));
+        Team a2 = teamRepository.save(new Team("Arsenal", l2));
+        Team e2 = teamRepository.save(new Team("Everton", l2));
+
+        matchRepository.saveAll(List.of(
+                played(l1, s1, a1, c1, LocalDate.of(2023, 9, 1), 1, 2, 0),
+                played(l1, s1, c1, a1, LocalDate.of(2023, 10, 1), 2, 1, 1),
+                played(l2, s2, e2, a2, LocalDate.of(2023, 11, 1), 1, 3, 1),
+                played(l1, s1, c1, a1, LocalDate.of(2023, 12, 1), 3, 0, 1)
+        ));
+        Match scheduled = new Match(l1, a1, c1, LocalDate.of(2024, 3, 1), 4, null, null);
+        scheduled.setSeason(s1);
+        matchRepository.saveAndFlush(scheduled);
+        em.clear(); // compare against entities read back from the database, not the persistence context
+        List<Match> entities = matchRepository.findRecentPlayedByTeamName("arsenal");
+
+        List<MatchRow> all = matchRowRepository.findRecentPlayedByTeamName(" ARSENAL ", MatchRowRepository.UNBOUNDED);
+        assertThat(all).hasSize(4);
+        assertThat(all).extracting(MatchRow::id).containsExactlyElementsOf(entities.stream().map(Match::getId).toList());
+        assertThat(all).extracting(MatchRow::date).containsExactlyElementsOf(entities.stream().map(Match::getDate).toList());
+
+        MatchRow latest = all.get(0);
+        assertThat(latest.homeTeamName()).isEqualToIgnoringCase("Chelsea");
+        assertThat(latest.awayTeamId()).isEqualTo(a1.getId());
+        assertThat(latest.leagueName()).isEqualTo("EPL");
+        assertThat(latest.seasonId()).isEqualTo(s1.getId());
+        assertThat(latest.outcome(latest.isHome("arsenal"))).isEqualTo("W");
+
+        assertThat(matchRowRepository.findRecentPlayedByTeamName("arsenal", 2)).hasSize(2);
+        assertThat(matchRowRepository.findRecentPlayedByTeamId(a1.getId(), MatchRowRepository.UNBOUNDED)).hasSize(3);
+        assertThat(matchRowRepository.findRecentPlayed(List.of(a1.getId()), l2.getId(), null, false, 10)).isEmpty();
+        assertThat(matchRowRepository.findRecentPlayed(List.of(a1.getId(), a2.getId()), null, s2.getId(), true, 10))
+                .extracting(MatchRow::homeTeamId).containsExactly(e2.getId());
+        assertThat(matchRowRepository.findScoredByAnyTeamNames(List.of("everton", "chelsea"))).hasSize(4);
+        assertThat(matchRowRepository.findRecentPlayedByTeamName("unknown fc", 10)).isEmpty();
+    }
+
+    @Test
+    void scoped_reads_and_per_team_window_apply_limit_per_team() {
+        League l1 = leagueRepository.save(new League("EPL", "England", "2023/2024"));
+        Season s1 = seasonRepository.save(new Season(l1, "2023/2024", LocalDate.of(2023, 8, 1), LocalDate.of(2024, 5, 31)));
+        Team a = teamRepository.save(new Team("Arsenal", l1));
+        Team c = teamRepository.save(new Team("Chelsea", l1));
+        Team e = teamRepository.save(new Team("Everton", l1));
+
+        matchRepository.saveAll(List.of(
+                played(l1, s1, a, c, LocalDate.of(2023, 9, 1), 1, 2, 0),
+                played(l1, s1, e, a, LocalDate.of(2023, 9, 8), 2, 1, 1),
+                played(l1, s1, c, e, LocalDate.of(2023, 9, 15), 3, 0, 2),
+                played(l1, s1, a, e, LocalDate.of(2023, 9, 22), 4, 3, 1)
+        ));
+        Match unscored = new Match(l1, c, a, LocalDate.of(2023, 9, 29), 5, null, null);
+        unscored.setSeason(s1);
+        unscored.setStatus(MatchStatus.PLAYED);
+        matchRepository.saveAndFlush(unscored);
+        em.clear();
+
+        assertThat(matchRowRepository.findRecentPlayed(List.of(a.getId()), null, null, false, 10)).hasSize(4);
+        List<MatchRow> scored = matchRowRepository.findRecentPlayed(List.of(a.getId()), l1.getId(), s1.getId(), true, 2);
+        assertThat(scored).hasSize(2).allMatch(MatchRow::hasScore);
+        assertThat(scored).extracting(MatchRow::round).containsExactly(4, 2);
+
+        java.util.Map<Long, List<MatchRow>> perTeam = matchRowRepository.findRecentPlayedPerTeam(
+                List.of(e.getId(), a.getId(), c.getId()), null, null, true, 2);
+        assertThat(perTeam.keySet()).containsExactly(e.getId(), a.getId(), c.getId());
+        assertThat(perTeam.get(a.getId())).extracting(MatchRow::round).containsExactly(4, 2);
+        assertThat(perTeam.get(e.getId())).extracting(MatchRow::round).containsExactly(4, 3);
+        assertThat(perTeam.get(c.getId())).extracting(MatchRow::round).containsExactly(3, 1);
+        assertThat(matchRowRepository.findRecentPlayedPerTeam(List.of(a.getId()), null, null, false, 1).get(a.getId()))
+                .extracting(MatchRow::round).containsExactly(5);
+    }
+
+    @Test
+    void snapshot_stream_covers_league_teams_in_every_competition_oldest_first() {
+        League l1 = leagueRepository.save(new League("EPL", "England", "2023/2024"));
+        League l2 = leagueRepository.save(new League("FA Cup", "England", "2023/2024"));
+        League other = leagueRepository.save(new League("La Liga", "Spain", "2023/2024"));
+        Season s1 = seasonRepository.save(new Season(l1, "2023/2024", LocalDate.of(2023, 8, 1), LocalDate.of(2024, 5, 31)));
+        Season s2 = seasonRepository.save(new Season(l2, "2023/2024", LocalDate.of(2023, 9, 1), LocalDate.of(2024, 5, 31)));
+        Season s3 = seasonRepository.save(new Season(other, "2023/2024", LocalDate.of(2023, 8, 1), LocalDate.of(2024, 5, 31)));
+        Team a = teamRepository.save(new Team("Arsenal", l1));
+        Team c = teamRepository.save(new Team("Chelsea", l1));
+        Team e = teamRepository.save(new Team("Everton", l2));
+        Team r = teamRepository.save(new Team("Real", other));
+        Team b = teamRepository.save(new Team("Barca", other));
+
+        matchRepository.saveAll(List.of(
+                played(l1, s1, c, a, LocalDate.of(2023, 10, 1), 2, 1, 1),
+                played(l1, s1, a, c, LocalDate.of(2023, 9, 1), 1, 2, 0),
+                played(l2, s2, e, a, LocalDate.of(2023, 11, 1), 1, 3, 1),
+                played(other, s3, r, b, LocalDate.of(2023, 9, 2), 1, 0, 0)
+        ));
+        Match unscored = new Match(l1, a, c, LocalDate.of(2023, 12, 1), 3, null, null);
+        unscored.setSeason(s1);
+        unscored.setStatus(MatchStatus.PLAYED);
+        matchRepository.saveAndFlush(unscored);
+        em.clear();
+
+        List<MatchRow> rows = new java.util.ArrayList<>();
+        matchRowRepository.forEachScoredInvolvingLeagueTeams(List.of(l1.getId()), rows::add);
+        assertThat(rows).extracting(MatchRow::leagueName).containsExactly("EPL", "EPL", "FA Cup");
+        assertThat(rows).extracting(MatchRow::round).containsExactly(1, 2, 1);
+        assertThat(rows).allMatch(MatchRow::hasScore);
+
+        // Full replay stream (team ratings): every league, still oldest first
+        List<MatchRow> all = new java.util.ArrayList<>();
+        matchRowRepository.forEachScored(all::add);
+        assertThat(all).extracting(MatchRow::leagueName).containsExactly("EPL", "La Liga", "EPL", "FA Cup");
+    }
+}
@@ -0,0 +1,105 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.AdminLeagueSummaryDTO;
+import com.chambua.vismart.model.ImportRun;
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.model.Team;
+import com.chambua.vismart.repository.ImportRunRepository;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional: cache invalidation happens after commit of import-run and season writes
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({AdminLeagueSummaryService.class, ReferenceDataService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AdminLeagueSummaryServiceIT {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private ImportRunRepository importRunRepository;
+    @Autowired private AdminLeagueSummaryService service;
+
+    @AfterEach
+    void cleanUp() {
+        matchRepository.deleteAllInBatch();
+        importRunRepository.deleteAllInBatch();
+        seasonRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        leagueRepository.deleteAllInBatch();
+        ReferenceDataService.invalidate();
+    }
+
+    private ImportRun finishedRun(Instant finishedAt) {
+        ImportRun run = new ImportRun();
+        run.setFileHash("h" + finishedAt.toEpochMilli());
+        run.setFinishedAt(finishedAt);
+        return importRunRepository.save(run);
+    }
+
+    @Test
+    void builds_summary_from_batched_queries_and_caches_until_next_import() {
+        LocalDate today = LocalDate.now(ZoneId.of("Africa/Nairobi"));
+        League spain = leagueRepository.save(new League("La Liga", "Spain", "2024/2025"));
+        League england = leagueRepository.save(new League("EPL", "England", "2024/2025"));
+        Season old = seasonRepository.save(new Season(england, "old", today.minusYears(2), today.minusYears(1)));
+        Season cur = seasonRepository.save(new Season(england, "current", today.minusMonths(2), today.plusMonths(2)));
+        Team a = teamRepository.save(new Team("Arsenal", england));
+        Team c = teamRepository.save(new Team("Chelsea", england));
+        Instant firstImport = Instant.now().minus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        Match m = new Match(england, a, c, today.minusDays(7), 1, 1, 0);
+        m.setSeason(cur);
+        m.setStatus(MatchStatus.PLAYED);
+        m.setImportRun(finishedRun(firstImport));
+        matchRepository.save(m);
+
+        List<AdminLeagueSummaryDTO> summary = service.summary();
+        assertThat(summary).extracting(d -> d.name).containsExactly("EPL", "La Liga"); // country, then name
+        AdminLeagueSummaryDTO epl = summary.get(0);
+        assertThat(epl.seasons).extracting(s -> s.id).containsExactly(cur.getId(), old.getId());
+        assertThat(epl.currentSeasonId).isEqualTo(cur.getId());
+        assertThat(epl.currentSeasonName).isEqualTo("current");
+        assertThat(epl.lastUpdatedAt).isEqualTo(firstImport);
+        assertThat(summary.get(1).leagueId).isEqualTo(spain.getId());
+        assertThat(summary.get(1).currentSeasonId).isNull();
+        assertThat(service.summary()).isSameAs(summary);
+
+        // A newer finished import for the current season invalidates the cached summary
+        Instant secondImport = firstImport.plus(1, ChronoUnit.DAYS);
+        Match m2 = new Match(england, c, a, today.minusDays(1), 2, 2, 2);
+        m2.setSeason(cur);
+        m2.setStatus(MatchStatus.PLAYED);
+        m2.setImportRun(finishedRun(secondImport));
+        matchRepository.save(m2);
+        List<AdminLeagueSummaryDTO> refreshed = service.summary();
+        assertThat(refreshed).isNotSameAs(summary);
+        assertThat(refreshed.get(0).lastUpdatedAt).isEqualTo(secondImport);
+
+        // Season writes invalidate it as well
+        seasonRepository.save(new Season(spain, "2024/2025", today.minusMonths(1), today.plusMonths(5)));
+        assertThat(service.summary().get(1).currentSeasonName).isEqualTo("2024/2025");
+    }
+}
@@ -0,0 +1,149 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.repository.MatchRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BacktestServiceTest {
+
+    private static final long LEAGUE = 1L;
+
+    private final BacktestService sequential = new BacktestService(null, null, 1);
+    private final BacktestService parallel = new BacktestService(null, null, 4);
+
+    @AfterEach
+    void tearDown() {
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    private static MatchRow row(long id, long seasonId, long home, long away, LocalDate date, int round, int hg, int ag) {
+        return new MatchRow(id, LEAGUE, "League", seasonId, "S" + seasonId, home, "Team " + home, away, "Team " + away, date, round, hg, ag);
+    }
+
+    // Double round robin between four teams, one matchday per week, deterministic but varied scores
+    private static List<MatchRow> season(long seasonId, LocalDate start, long firstId) {
+        long[][] pairs = {{1, 2}, {3, 4}, {1, 3}, {2, 4}, {1, 4}, {2, 3}};
+        List<MatchRow> rows = new ArrayList<>();
+        long id = firstId;
+        for (int leg = 0; leg < 2; leg++) {
+            for (int p = 0; p < pairs.length; p++) {
+                int round = leg * 3 + p / 2 + 1;
+                long h = leg == 0 ? pairs[p][0] : pairs[p][1];
+                long a = leg == 0 ? pairs[p][1] : pairs[p][0];
+                int hg = (int) ((id * 7 + seasonId) % 4);
+                int ag = (int) ((id * 3 + seasonId * 5) % 3);
+                rows.add(row(id++, seasonId, h, a, start.plusWeeks(round - 1), round, hg, ag));
+            }
+        }
+        return rows;
+    }
+
+    private static BacktestService.Options options(Long seasonId, int minPrior) {
+        return new BacktestService.Options(LEAGUE, seasonId, false, minPrior);
+    }
+
+    @Test
+    void first_matchday_is_predicted_without_its_own_results() {
+        LocalDate d = LocalDate.of(2024, 8, 10);
+        MatchSnapshot snapshot = MatchSnapshot.of(List.of(row(1, 10, 1, 2, d, 1, 5, 0), row(2, 10, 3, 4, d, 1, 0, 4)));
+
+        BacktestService.Report report = sequential.run(snapshot, List.of(LEAGUE), options(null, 0));
+
+        assertThat(report.matchesEvaluated()).isEqualTo(2);
+        // No prior matches: form defaults (40/20/40) and neutral xG 1.5 v 1.5 for both games
+        List<BacktestService.Bucket> blend1x2 = report.variants().get(BacktestService.VARIANT_BLEND).get(BacktestService.MARKET_1X2).calibration();
+        assertThat(blend1x2.get(4).count()).isEqualTo(4);
+        assertThat(blend1x2.get(2).count()).isEqualTo(2);
+        DeterministicModel.Poisson neutral = DeterministicModel.poisson(1.5, 1.5);
+        double over25 = Math.round(neutral.over25() * 100.0) / 100.0;
+        BacktestService.MarketReport ov25 = report.variants().get(BacktestService.VARIANT_POISSON).get(BacktestService.MARKET_OVER25);
+        assertThat(ov25.calibration().get((int) Math.floor(over25 * 10)).count()).isEqualTo(2);
+        assertThat(ov25.calibration().get((int) Math.floor(over25 * 10)).meanPredicted()).isEqualTo(over25);
+    }
+
+    @Test
+    void scores_every_market_with_consistent_calibration_counts() {
+        MatchSnapshot snapshot = MatchSnapshot.of(season(10, LocalDate.of(2023, 8, 5), 1));
+
+        BacktestService.Report report = sequential.run(snapshot, List.of(LEAGUE), options(10L, 0));
+
+        assertThat(report.seasons()).isEqualTo(1);
+        assertThat(report.matchesEvaluated()).isEqualTo(12);
+        assertThat(report.variants().keySet()).containsExactly(BacktestService.VARIANT_POISSON, BacktestService.VARIANT_BLEND);
+        assertThat(report.variants().get(BacktestService.VARIANT_POISSON).keySet())
+                .containsExactly("1x2", "btts", "over15", "over25", "over35");
+        for (Map<String, BacktestService.MarketReport> markets : report.variants().values()) {
+            markets.forEach((market, r) -> {
+                long buckets = r.calibration().stream().mapToLong(BacktestService.Bucket::count).sum();
+                assertThat(buckets).isEqualTo(market.equals("1x2") ? 3 * r.n() : r.n());
+                assertThat(r.n()).isEqualTo(12);
+                assertThat(r.brier()).isBetween(0.0, market.equals("1x2") ? 2.0 : 1.0);
+                assertThat(r.logLoss()).isPositive();
+                assertThat(r.hitRate()).isBetween(0.0, 1.0);
+            });
+        }
+    }
+
+    @Test
+    void min_prior_matches_skips_cold_start_games() {
+        MatchSnapshot snapshot = MatchSnapshot.of(season(10, LocalDate.of(2023, 8, 5), 1));
+
+        BacktestService.Report report = sequential.run(snapshot, List.of(LEAGUE), options(null, 2));
+
+        // Every team has played 0 matches before week 1 and 1 before week 2
+        assertThat(report.matchesSkipped()).isEqualTo(4);
+        assertThat(report.matchesEvaluated()).isEqualTo(8);
+    }
+
+    @Test
+    void parallel_replay_matches_sequential_replay() {
+        List<MatchRow> rows = new ArrayList<>();
+        rows.addAll(season(10, LocalDate.of(2021, 8, 7), 1));
+        rows.addAll(season(11, LocalDate.of(2022, 8, 6), 100));
+        rows.addAll(season(12, LocalDate.of(2023, 8, 5), 200));
+        MatchSnapshot snapshot = MatchSnapshot.of(rows);
+
+        BacktestService.Report a = sequential.run(snapshot, List.of(LEAGUE), options(null, 0));
+        BacktestService.Report b = parallel.run(snapshot, List.of(LEAGUE), options(null, 0));
+
+        assertThat(a.seasons()).isEqualTo(3);
+        assertThat(a.matchesEvaluated()).isEqualTo(36);
+        assertThat(b.variants()).isEqualTo(a.variants());
+    }
+
+    @Test
+    void unknown_season_is_rejected() {
+        MatchSnapshot snapshot = MatchSnapshot.of(season(10, LocalDate.of(2023, 8, 5), 1));
+
+        assertThatThrownBy(() -> sequential.run(snapshot, List.of(LEAGUE), options(99L, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void run_all_scores_each_candidate_over_the_shared_snapshot() {
+        List<MatchRow> rows = new ArrayList<>();
+        rows.addAll(season(10, LocalDate.of(2022, 8, 6), 1));
+        rows.addAll(season(11, LocalDate.of(2023, 8, 5), 100));
+        MatchSnapshot snapshot = MatchSnapshot.of(rows);
+        ModelParameters wide = new ModelParameters(0, 3, 2, 0.5, 0.6, 0.6, 0.6, 0.2, 0.3, 0.5, 2.5);
+        java.util.concurrent.atomic.AtomicInteger done = new java.util.concurrent.atomic.AtomicInteger();
+
+        List<BacktestService.Report> reports = parallel.runAll(snapshot, List.of(LEAGUE), List.of(LEAGUE), options(null, 0),
+                List.of(ModelParameters.DEFAULTS, wide), done::incrementAndGet);
+
+        assertThat(done.get()).isEqualTo(2);
+        assertThat(reports).extracting(BacktestService.Report::parameters).containsExactly(ModelParameters.DEFAULTS, wide);
+        assertThat(reports.get(0).variants()).isEqualTo(sequential.run(snapshot, List.of(LEAGUE), options(null, 0)).variants());
+        assertThat(reports.get(1).matchesEvaluated()).isEqualTo(24);
+        assertThat(reports.get(1).variants()).isNotEqualTo(reports.get(0).variants());
+    }
+}
@@ -0,0 +1,168 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.*;
+import com.chambua.vismart.repository.DataVersionRepository;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: versions are bumped after commit
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.jpa.hibernate.ddl-auto=create-drop", "spring.flyway.enabled=false",
+        "vismart.data-version.cache-ttl-ms=0"})
+class DataVersionServiceTest {
+
+    @Autowired private DataVersionService versions;
+    @Autowired private DataVersionRepository versionRepository;
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private League league() {
+        return leagueRepository.save(new League("DV " + UUID.randomUUID(), "KE", "2025/2026"));
+    }
+
+    private Season season(League league, String name) {
+        return seasonRepository.save(new Season(league, name, LocalDate.of(2025, 7, 1), LocalDate.of(2026, 6, 30)));
+    }
+
+    private Match match(League league, Season season, Team home, Team away, int round) {
+        Match m = new Match(league, home, away, LocalDate.of(2025, 9, round), round, 1, 0);
+        m.setSeason(season);
+        return m;
+    }
+
+    @Test
+    void entityWritesBumpSeasonLeagueAndGlobal() {
+        League league = league();
+        Season season = season(league, "2025/2026");
+        Team home = teamRepository.save(new Team("DV Home", league));
+        Team away = teamRepository.save(new Team("DV Away", league));
+        String seasonKey = DataVersionService.season(league.getId(), season.getId());
+        String leagueKey = DataVersionService.league(league.getId());
+
+        long seasonBefore = versions.version(seasonKey);
+        long leagueBefore = versions.version(leagueKey);
+        long globalBefore = versions.version(DataVersionService.GLOBAL);
+        String etagBefore = versions.etag(seasonKey);
+
+        matchRepository.save(match(league, season, home, away, 1));
+
+        assertThat(versions.version(seasonKey)).isEqualTo(seasonBefore + 1);
+        assertThat(versions.version(leagueKey)).isGreaterThan(leagueBefore);
+        assertThat(versions.version(DataVersionService.GLOBAL)).isGreaterThan(globalBefore);
+        assertThat(versions.etag(seasonKey)).isNotEqualTo(etagBefore).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void derivedLeagueDeleteBumpsThroughTheListener() {
+        League league = league();
+        Season season = season(league, "2025/2026");
+        Team home = teamRepository.save(new Team("DV Del Home", league));
+        Team away = teamRepository.save(new Team("DV Del Away", league));
+        matchRepository.save(match(league, season, home, away, 1));
+        String seasonKey = DataVersionService.season(league.getId(), season.getId());
+        long before = versions.version(seasonKey);
+
+        // Upload full-replace relies on this: deleteByLeague removes entity by entity
+        assertThat(matchRepository.deleteByLeague(league)).isEqualTo(1L);
+
+        assertThat(versions.version(seasonKey)).isGreaterThan(before);
+    }
+
+    @Test
+    void leagueWideBumpReachesEverySeasonOfThatLeagueOnly() {
+        League league = league();
+        Season a = season(league, "2024/2025");
+        Season b = season(league, "2025/2026");
+        League other = league();
+        Season otherSeason = season(other, "2025/2026");
+        String keyA = DataVersionService.season(league.getId(), a.getId());
+        String keyB = DataVersionService.season(league.getId(), b.getId());
+        String otherKey = DataVersionService.season(other.getId(), otherSeason.getId());
+        // Make the rows exist
+        versions.bump(league.getId(), a.getId());
+        versions.bump(league.getId(), b.getId());
+        versions.bump(other.getId(), otherSeason.getId());
+        long va = versions.version(keyA), vb = versions.version(keyB), vo = versions.version(otherKey);
+
+        versions.bump(league.getId(), null);
+
+        assertThat(versions.version(keyA)).isEqualTo(va + 1);
+        assertThat(versions.version(keyB)).isEqualTo(vb + 1);
+        assertThat(versions.version(otherKey)).isEqualTo(vo);
+    }
+
+    @Test
+    void bumpAllAdvancesEveryRow() {
+        League league = league();
+        Season season = season(league, "2025/2026");
+        String key = DataVersionService.season(league.getId(), season.getId());
+        versions.bump(league.getId(), season.getId());
+        long before = versions.version(key);
+        long global = versions.version(DataVersionService.GLOBAL);
+
+        versions.bumpAll();
+
+        assertThat(versions.version(key)).isEqualTo(before + 1);
+        assertThat(versions.version(DataVersionService.GLOBAL)).isEqualTo(global + 1);
+    }
+
+    @Test
+    void bulkBumpsReachSeasonsThatHaveNoRowYet() {
+        League league = league();
+        Season a = season(league, "2024/2025");
+        Season b = season(league, "2025/2026");
+        String keyA = DataVersionService.season(league.getId(), a.getId());
+        String keyB = DataVersionService.season(league.getId(), b.getId());
+        assertThat(versionRepository.findById(keyA)).isEmpty();
+        assertThat(versionRepository.findById(keyB)).isEmpty();
+        String etagBefore = versions.etag(keyA);
+
+        versions.bump(league.getId(), null);
+
+        assertThat(versions.version(keyA)).isEqualTo(1);
+        assertThat(versions.version(keyB)).isEqualTo(1);
+        assertThat(versions.etag(keyA)).isNotEqualTo(etagBefore);
+
+        Season c = season(league, "2026/2027");
+        String keyC = DataVersionService.season(league.getId(), c.getId());
+        assertThat(versionRepository.findById(keyC)).isEmpty();
+
+        versions.bumpAll();
+
+        assertThat(versions.version(keyA)).isEqualTo(2);
+        assertThat(versions.version(keyC)).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackWriteLeavesVersionsAlone() {
+        League league = league();
+        Season season = season(league, "2025/2026");
+        Team home = teamRepository.save(new Team("DV Home", league));
+        Team away = teamRepository.save(new Team("DV Away", league));
+        String seasonKey = DataVersionService.season(league.getId(), season.getId());
+        long before = versions.version(seasonKey);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            matchRepository.saveAndFlush(match(league, season, home, away, 2));
+            status.setRollbackOnly();
+        });
+
+        assertThat(versions.version(seasonKey)).isEqualTo(before);
+        assertThat(versionRepository.findById(seasonKey).map(DataVersion::getVersion).orElse(0L)).isEqualTo(before);
+    }
+}
@@ -0,0 +1,302 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.Fixture;
+import com.chambua.vismart.model.FixtureStatus;
+import com.chambua.vismart.model.League;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FixtureEventHubTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 4);
+
+    /** Captures frames as SSE text instead of writing to a response. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> frames = java.util.Collections.synchronizedList(new ArrayList<>());
+        boolean broken;
+
+        @Override
+        public synchronized void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws java.io.IOException {
+            if (broken) throw new java.io.IOException("client gone");
+            StringBuilder sb = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType d : items) sb.append(d.getData());
+            frames.add(sb.toString());
+        }
+
+        List<String> events(String name) {
+            synchronized (frames) {
+                return frames.stream().filter(f -> f.contains("event:" + name + "\n")).toList();
+            }
+        }
+    }
+
+    // Direct executor: fan-out happens on the calling thread
+    private final FixtureEventHub hub = new FixtureEventHub(new ObjectMapper(), Runnable::run) {
+        @Override
+        SseEmitter newEmitter() {
+            return new RecordingEmitter();
+        }
+    };
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.unbindResourceIfPossible(FixtureEventHub.class);
+    }
+
+    private static Fixture fixture(long id, LocalDate date, Integer home, Integer away) {
+        League league = new League("Premier", "KE", "2025/2026");
+        league.setId(7L);
+        Fixture f = new Fixture();
+        f.setId(id);
+        f.setLeague(league);
+        f.setRound("Round 5");
+        f.setDateTime(date.atTime(15, 0));
+        f.setHomeTeam("Gor Mahia");
+        f.setAwayTeam("AFC Leopards");
+        f.setHomeScore(home);
+        f.setAwayScore(away);
+        f.setStatus(home != null ? FixtureStatus.FINISHED : FixtureStatus.UPCOMING);
+        return f;
+    }
+
+    private static String eventId(String frame) {
+        for (String line : frame.split("\n")) if (line.startsWith("id:")) return line.substring(3);
+        throw new AssertionError("no id in " + frame);
+    }
+
+    @Test
+    void subscriberGetsReadyThenDeltasForItsDateOnly() {
+        RecordingEmitter day = (RecordingEmitter) hub.subscribe(DAY, null);
+        RecordingEmitter other = (RecordingEmitter) hub.subscribe(DAY.plusDays(1), null);
+
+        hub.changed(fixture(11L, DAY, 2, 1), FixtureEventHub.UPSERT);
+
+        assertThat(day.frames.get(0)).contains("event:ready\n").contains("retry:5000");
+        assertThat(day.events("fixture")).singleElement().satisfies(f -> assertThat(f)
+                .contains("\"change\":\"upsert\"").contains("\"fixtureId\":11").contains("\"leagueId\":7")
+                .contains("\"homeScore\":2").contains("\"status\":\"FINISHED\""));
+        assertThat(other.events("fixture")).isEmpty();
+        assertThat(hub.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void writesForDatesWithoutSubscribersAreIgnored() {
+        hub.changed(fixture(12L, DAY, 1, 1), FixtureEventHub.UPSERT);
+        RecordingEmitter late = (RecordingEmitter) hub.subscribe(DAY, null);
+        assertThat(late.events("fixture")).isEmpty();
+    }
+
+    @Test
+    void deltasWaitForCommitAndKeepTheLastStatePerFixture() {
+        RecordingEmitter day = (RecordingEmitter) hub.subscribe(DAY, null);
+        TransactionSynchronizationManager.initSynchronization();
+
+        hub.changed(fixture(13L, DAY, 1, 0), FixtureEventHub.UPSERT);
+        hub.changed(fixture(13L, DAY, 2, 0), FixtureEventHub.UPSERT);
+        assertThat(day.events("fixture")).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(day.events("fixture")).singleElement().satisfies(f -> assertThat(f).contains("\"homeScore\":2"));
+    }
+
+    @Test
+    void rolledBackWritesAreNotSent() {
+        RecordingEmitter day = (RecordingEmitter) hub.subscribe(DAY, null);
+        TransactionSynchronizationManager.initSynchronization();
+
+        hub.changed(fixture(14L, DAY, 3, 3), FixtureEventHub.UPSERT);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(day.events("fixture")).isEmpty();
+    }
+
+    @Test
+    void reconnectReplaysMissedEventsOrAsksForReload() {
+        RecordingEmitter first = (RecordingEmitter) hub.subscribe(DAY, null);
+        hub.changed(fixture(15L, DAY, 1, 0), FixtureEventHub.UPSERT);
+        hub.changed(fixture(16L, DAY, 0, 2), FixtureEventHub.UPSERT);
+        String seen = eventId(first.events("fixture").get(0));
+
+        RecordingEmitter resumed = (RecordingEmitter) hub.subscribe(DAY, seen);
+        assertThat(resumed.events("fixture")).singleElement().satisfies(f -> assertThat(f).contains("\"fixtureId\":16"));
+        assertThat(resumed.events("reload")).isEmpty();
+
+        RecordingEmitter foreign = (RecordingEmitter) hub.subscribe(DAY, "oldstamp-1");
+        assertThat(foreign.events("fixture")).isEmpty();
+        assertThat(foreign.events("reload")).hasSize(1);
+    }
+
+    @Test
+    void replayBeyondTheBufferAsksForReload() {
+        hub.replaySize = 1;
+        RecordingEmitter first = (RecordingEmitter) hub.subscribe(DAY, null);
+        hub.changed(fixture(17L, DAY, 1, 0), FixtureEventHub.UPSERT);
+        String seen = eventId(first.events("fixture").get(0));
+        hub.changed(fixture(18L, DAY, 1, 1), FixtureEventHub.UPSERT);
+        hub.changed(fixture(19L, DAY, 2, 1), FixtureEventHub.UPSERT);
+
+        RecordingEmitter resumed = (RecordingEmitter) hub.subscribe(DAY, seen);
+        assertThat(resumed.events("reload")).hasSize(1);
+    }
+
+    @Test
+    void reloadAllReachesEveryDateAndBrokenClientsAreDropped() {
+        RecordingEmitter a = (RecordingEmitter) hub.subscribe(DAY, null);
+        RecordingEmitter b = (RecordingEmitter) hub.subscribe(DAY.plusDays(1), null);
+        RecordingEmitter gone = (RecordingEmitter) hub.subscribe(DAY, null);
+        gone.broken = true;
+
+        hub.reloadAll();
+
+        assertThat(a.events("reload")).hasSize(1);
+        assertThat(b.events("reload")).hasSize(1);
+        assertThat(hub.subscriberCount()).isEqualTo(2);
+
+        hub.heartbeat();
+        assertThat(a.frames).last().satisfies(f -> assertThat(f).startsWith(":keep-alive"));
+    }
+
+    /** Blocks every send until released, like a client whose TCP window never opens. */
+    static class StalledEmitter extends SseEmitter {
+        final java.util.concurrent.CountDownLatch entered = new java.util.concurrent.CountDownLatch(1);
+        final java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws java.io.IOException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static FixtureEventHub pooledHub(java.util.concurrent.ExecutorService pool, java.util.Deque<SseEmitter> emitters) {
+        return new FixtureEventHub(new ObjectMapper(), pool) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitters.poll();
+            }
+        };
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void stalledClientDoesNotHoldUpOthersAndIsDroppedWhenTooFarBehind() throws Exception {
+        java.util.concurrent.ExecutorService pool = java.util.concurrent.Executors.newFixedThreadPool(2);
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        FixtureEventHub pooled = pooledHub(pool, new java.util.ArrayDeque<>(List.of(stalled, healthy)));
+        pooled.maxPending = 2;
+        try {
+            pooled.subscribe(DAY, null);
+            pooled.subscribe(DAY, null);
+            assertThat(stalled.entered.await(5, java.util.concurrent.TimeUnit.SECONDS)).isTrue();
+
+            pooled.changed(fixture(20L, DAY, 1, 0), FixtureEventHub.UPSERT);
+            await(() -> healthy.events("fixture").size() == 1);
+            pooled.changed(fixture(21L, DAY, 2, 0), FixtureEventHub.UPSERT);
+            assertThat(pooled.subscriberCount()).isEqualTo(2);
+
+            // Third frame behind the blocked ready event exceeds max-pending
+            pooled.changed(fixture(22L, DAY, 3, 0), FixtureEventHub.UPSERT);
+            assertThat(pooled.subscriberCount()).isEqualTo(1);
+            await(() -> healthy.events("fixture").size() == 3);
+        } finally {
+            stalled.release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void clientsBlockedInSendBeyondTheTimeoutAreDropped() throws Exception {
+        java.util.concurrent.ExecutorService pool = java.util.concurrent.Executors.newFixedThreadPool(2);
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        FixtureEventHub pooled = pooledHub(pool, new java.util.ArrayDeque<>(List.of(stalled, healthy)));
+        pooled.sendTimeoutMillis = 50;
+        try {
+            pooled.subscribe(DAY, null);
+            pooled.subscribe(DAY, null);
+            await(() -> healthy.frames.size() == 1);
+            Thread.sleep(100);
+
+            pooled.reapStalledSends();
+            pooled.heartbeat();
+
+            assertThat(pooled.subscriberCount()).isEqualTo(1);
+            await(() -> healthy.frames.size() == 2);
+            assertThat(healthy.frames).last().satisfies(f -> assertThat(f).startsWith(":keep-alive"));
+        } finally {
+            stalled.release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void moreStalledClientsThanPoolThreadsDoNotStopDelivery() throws Exception {
+        java.util.concurrent.ThreadPoolExecutor pool = (java.util.concurrent.ThreadPoolExecutor) java.util.concurrent.Executors.newFixedThreadPool(2);
+        List<StalledEmitter> stalled = List.of(new StalledEmitter(), new StalledEmitter(), new StalledEmitter());
+        RecordingEmitter healthy = new RecordingEmitter();
+        java.util.Deque<SseEmitter> emitters = new java.util.ArrayDeque<>(stalled);
+        emitters.add(healthy);
+        FixtureEventHub pooled = pooledHub(pool, emitters);
+        pooled.sendTimeoutMillis = 50;
+        try {
+            for (int i = 0; i < 4; i++) pooled.subscribe(DAY, null);
+            // Both threads are stuck; the third stalled client and the healthy one wait in the queue
+            assertThat(stalled.get(1).entered.await(5, java.util.concurrent.TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            assertThat(healthy.frames).isEmpty();
+
+            pooled.reapStalledSends();
+            assertThat(stalled.get(2).entered.await(5, java.util.concurrent.TimeUnit.SECONDS)).isTrue();
+            await(() -> healthy.events("ready").size() == 1);
+            Thread.sleep(100);
+            pooled.reapStalledSends();
+
+            assertThat(pooled.subscriberCount()).isEqualTo(1);
+            pooled.changed(fixture(30L, DAY, 1, 0), FixtureEventHub.UPSERT);
+            await(() -> healthy.events("fixture").size() == 1);
+            assertThat(pool.getCorePoolSize()).isEqualTo(5);
+
+            // Replacement threads are given back as the stuck sends return
+            stalled.forEach(s -> s.release.countDown());
+            await(() -> pool.getCorePoolSize() == 2);
+        } finally {
+            stalled.forEach(s -> s.release.countDown());
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void subscriberCapIsEnforced() {
+        hub.maxSubscribers = 1;
+        hub.subscribe(DAY, null);
+        assertThatThrownBy(() -> hub.subscribe(DAY, null)).isInstanceOf(IllegalStateException.class);
+    }
+}
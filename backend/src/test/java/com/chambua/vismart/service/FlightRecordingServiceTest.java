@@ -0,0 +1,84 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.AnalysisRequest;
+import com.chambua.vismart.util.JfrEvents;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecordingServiceTest {
+
+    private final FlightRecordingService service = new FlightRecordingService();
+    private final String latexmkFlag = System.getProperty("DISABLE_LATEXMK");
+
+    @AfterEach
+    void tearDown() {
+        service.discard();
+        if (latexmkFlag == null) System.clearProperty("DISABLE_LATEXMK");
+        else System.setProperty("DISABLE_LATEXMK", latexmkFlag);
+    }
+
+    @Test
+    void recordsApplicationEventsAndServesTheStoppedFile() throws Exception {
+        assertThat(service.status().state()).isEqualTo("NONE");
+        service.start("default", Duration.ofMinutes(1));
+        assertThatThrownBy(() -> service.start("default", null)).isInstanceOf(IllegalStateException.class);
+
+        JfrEvents.AnalysisEvent analysis = new JfrEvents.AnalysisEvent();
+        analysis.begin();
+        analysis.leagueId = 7;
+        analysis.h2hPath = "season";
+        analysis.commit();
+
+        System.setProperty("DISABLE_LATEXMK", "true");
+        AnalysisRequest req = new AnalysisRequest();
+        AnalysisRequest.Team a = new AnalysisRequest.Team();
+        a.setName("Arsenal");
+        req.setTeamA(a);
+        AnalysisRequest.Team b = new AnalysisRequest.Team();
+        b.setName("Chelsea");
+        req.setTeamB(b);
+        byte[] pdf = new LaTeXService().generateAnalysisPdf(req);
+
+        assertThat(service.stop().state()).isEqualTo("STOPPED");
+        FlightRecordingService.Download download = service.download();
+        assertThat(download.snapshot()).isFalse();
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(download.path());
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("com.chambua.vismart.Analysis"))
+                .singleElement().satisfies(e -> {
+                    assertThat(e.getLong("leagueId")).isEqualTo(7);
+                    assertThat(e.getString("h2hPath")).isEqualTo("season");
+                });
+        assertThat(events).filteredOn(e -> e.getEventType().getName().equals("com.chambua.vismart.PdfRender"))
+                .singleElement().satisfies(e -> {
+                    assertThat(e.getString("homeTeam")).isEqualTo("Arsenal");
+                    assertThat(e.getString("renderer")).isEqualTo("itext");
+                    assertThat(e.getLong("bytes")).isEqualTo(pdf.length);
+                });
+        assertThat(events).noneMatch(e -> FlightRecordingService.SENSITIVE_EVENTS.contains(e.getEventType().getName()));
+    }
+
+    @Test
+    void runningRecordingDownloadsAsSnapshot() throws Exception {
+        assertThatThrownBy(service::download).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service.start("verbose", null)).isInstanceOf(IllegalArgumentException.class);
+
+        service.start("default", null);
+        FlightRecordingService.Download snapshot = service.download();
+        try {
+            assertThat(snapshot.snapshot()).isTrue();
+            assertThat(snapshot.path()).isNotEmptyFile();
+            assertThat(service.status().state()).isEqualTo("RUNNING");
+        } finally {
+            java.nio.file.Files.deleteIfExists(snapshot.path());
+        }
+    }
+}
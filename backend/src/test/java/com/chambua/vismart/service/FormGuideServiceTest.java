@@ -7,6 +7,7 @@ import com.chambua.vismart.model.Team;
 import com.chambua.vismart.model.Season;
 import com.chambua.vismart.repository.LeagueRepository;
 import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchRowRepository;
 import com.chambua.vismart.repository.TeamRepository;
 import com.chambua.vismart.repository.SeasonRepository;
 import org.junit.jupiter.api.Test;
@@ -22,7 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
 @ActiveProfiles("test")
-@Import(FormGuideService.class)
+@Import({FormGuideService.class, TeamHistoryService.class, MatchRowRepository.class})
 class FormGuideServiceTest {
 
     @Autowired private LeagueRepository leagueRepository;
@@ -0,0 +1,102 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Team;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+class H2HPairIndexServiceTest {
+    private MatchRepository matchRepository;
+    private TeamRepository teamRepository;
+    private H2HPairIndexService service;
+
+    private static TeamRepository.TeamIndexProjection team(long id, String name) {
+        return new TeamRepository.TeamIndexProjection() {
+            public Long getId() { return id; }
+            public String getName() { return name; }
+            public String getNormalizedName() { return name; }
+            public Long getLeagueId() { return 1L; }
+            public String getLeagueName() { return "League"; }
+        };
+    }
+
+    @BeforeEach
+    void setup() {
+        matchRepository = Mockito.mock(MatchRepository.class);
+        teamRepository = Mockito.mock(TeamRepository.class);
+        // id 5 duplicates "arsenal" in another league
+        given(teamRepository.findAllForSearchIndex()).willReturn(List.of(
+                team(1, "arsenal"), team(2, "chelsea"), team(3, "everton"), team(4, "fulham"), team(5, "arsenal")));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, 2L, 3L, LocalDate.of(2024, 1, 1)});
+        rows.add(new Object[]{2L, 5L, 2L, LocalDate.of(2024, 5, 1)}); // same unordered pair via duplicate id
+        rows.add(new Object[]{1L, 3L, 2L, LocalDate.of(2024, 6, 1)});
+        rows.add(new Object[]{3L, 4L, 9L, LocalDate.of(2023, 6, 1)});
+        given(matchRepository.findMaxId()).willReturn(100L);
+        given(matchRepository.aggregatePlayedPairsByTeamIds(100L)).willReturn(rows);
+        service = new H2HPairIndexService(matchRepository, teamRepository);
+        H2HPairIndexService.invalidate();
+    }
+
+    @Test
+    void merges_unordered_pairs_and_ranks_by_meetings_then_recency() {
+        List<H2HPairIndexService.PairSuggestion> res = service.suggest("ARS", 30).orElseThrow();
+        assertEquals(2, res.size());
+        assertEquals("arsenal", res.get(0).teamA());
+        assertEquals("chelsea", res.get(0).teamB());
+        assertEquals(5, res.get(0).matches());
+        assertEquals(LocalDate.of(2024, 5, 1), res.get(0).lastPlayed());
+        assertEquals("everton", res.get(1).teamB());
+
+        List<H2HPairIndexService.PairSuggestion> ev = service.suggest("everton", 1).orElseThrow();
+        assertEquals(1, ev.size());
+        assertEquals("fulham", ev.get(0).teamB());
+        assertTrue(service.suggest("xyz", 30).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void persisted_matches_are_applied_incrementally() {
+        service.suggest("ars", 30);
+        Team h = new Team(); h.setId(4L); h.setName("fulham");
+        Team a = new Team(); a.setId(6L); a.setName("brentford");
+        Match m = new Match();
+        m.setHomeTeam(h); m.setAwayTeam(a); m.setDate(LocalDate.of(2024, 8, 1));
+        m.setStatus(MatchStatus.PLAYED); m.setHomeGoals(1); m.setAwayGoals(0);
+        new H2HPairIndexService.MatchChangeListener().onPersist(m);
+
+        List<H2HPairIndexService.PairSuggestion> res = service.suggest("brent", 30).orElseThrow();
+        assertEquals(1, res.size());
+        assertEquals("brentford", res.get(0).teamA());
+        assertEquals(1, res.get(0).matches());
+        Mockito.verify(matchRepository, Mockito.times(1)).aggregatePlayedPairsByTeamIds(100L);
+    }
+
+    @Test
+    void rebuild_skips_deltas_covered_by_the_read_and_keeps_those_committed_during_it() {
+        service.suggest("ars", 30);
+        H2HPairIndexService.invalidate();
+        // Committed before the rebuild's read (id under the watermark): already in the aggregate
+        H2HPairIndexService.enqueue(List.of(new H2HPairIndexService.PairDelta(99L, "arsenal", "chelsea", LocalDate.of(2024, 5, 1))));
+        given(matchRepository.aggregatePlayedPairsByTeamIds(100L)).willAnswer(inv -> {
+            // Committed while the rebuild is reading; a concurrent search must not consume it
+            H2HPairIndexService.enqueue(List.of(new H2HPairIndexService.PairDelta(101L, "arsenal", "chelsea", LocalDate.of(2024, 9, 1))));
+            return List.<Object[]>of(new Object[]{1L, 2L, 3L, LocalDate.of(2024, 1, 1)}, new Object[]{2L, 5L, 2L, LocalDate.of(2024, 5, 1)});
+        });
+
+        List<H2HPairIndexService.PairSuggestion> res = service.suggest("chelsea", 30).orElseThrow();
+        assertEquals(1, res.size());
+        assertEquals(6, res.get(0).matches());
+        assertEquals(LocalDate.of(2024, 9, 1), res.get(0).lastPlayed());
+    }
+}
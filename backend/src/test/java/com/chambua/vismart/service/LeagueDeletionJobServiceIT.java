@@ -0,0 +1,187 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.Fixture;
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStats;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.model.Team;
+import com.chambua.vismart.model.TeamAlias;
+import com.chambua.vismart.repository.AdminAuditRepository;
+import com.chambua.vismart.repository.FixtureRepository;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchStatsRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamAliasRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional: the job commits each chunk in its own transaction on a worker thread
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({LeagueDeletionJobService.class, DataVersionService.class, FixtureEventHub.class})
+@TestPropertySource(properties = {"app.admin.delete.chunk-size=2", "app.admin.delete.chunk-pause-ms=0"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LeagueDeletionJobServiceIT {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private TeamAliasRepository teamAliasRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private MatchStatsRepository matchStatsRepository;
+    @Autowired private FixtureRepository fixtureRepository;
+    @Autowired private AdminAuditRepository adminAuditRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private DataVersionService dataVersionService;
+    @Autowired private FixtureEventHub fixtureEventHub;
+    @Autowired private LeagueDeletionJobService service;
+
+    @AfterEach
+    void cleanUp() {
+        matchStatsRepository.deleteAllInBatch();
+        matchRepository.deleteAllInBatch();
+        fixtureRepository.deleteAllInBatch();
+        teamAliasRepository.deleteAllInBatch();
+        seasonRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        leagueRepository.deleteAllInBatch();
+        adminAuditRepository.deleteAllInBatch();
+    }
+
+    private record Seeded(League league, Season s1, Season s2) {}
+
+    // League with 5 matches over two seasons (3 + 2), one match stats row, 3 fixtures, 2 teams and an alias
+    private Seeded seed(String name) {
+        LocalDate d = LocalDate.of(2024, 9, 1);
+        League league = leagueRepository.save(new League(name, "England", "2024/2025"));
+        Season s1 = seasonRepository.save(new Season(league, "2023/2024", d.minusYears(1), d.minusDays(30)));
+        Season s2 = seasonRepository.save(new Season(league, "2024/2025", d.minusDays(29), d.plusYears(1)));
+        Team a = teamRepository.save(new Team(name + " a", league));
+        Team b = teamRepository.save(new Team(name + " b", league));
+        TeamAlias alias = new TeamAlias();
+        alias.setAlias(name + " alias");
+        alias.setTeam(a);
+        teamAliasRepository.save(alias);
+        for (int i = 0; i < 5; i++) {
+            Match m = new Match(league, i % 2 == 0 ? a : b, i % 2 == 0 ? b : a, d.minusDays(60 - i * 20L), i + 1, i, 1);
+            m.setSeason(i < 3 ? s1 : s2);
+            m.setStatus(MatchStatus.PLAYED);
+            m = matchRepository.save(m);
+            if (i == 0) {
+                MatchStats st = new MatchStats();
+                st.setMatch(m);
+                st.setStats("{}");
+                matchStatsRepository.save(st);
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            Fixture f = new Fixture();
+            f.setLeague(league);
+            f.setRound("Round " + (i + 1));
+            f.setDateTime(LocalDateTime.of(2024, 10, 1 + i, 15, 0));
+            f.setHomeTeam(name + " a");
+            f.setAwayTeam(name + " b");
+            fixtureRepository.save(f);
+        }
+        return new Seeded(league, s1, s2);
+    }
+
+    private LeagueDeletionJobService.Progress await(LeagueDeletionJobService svc, Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            LeagueDeletionJobService.Progress p = svc.status(jobId).orElseThrow();
+            if (p.status.isFinal() || System.currentTimeMillis() > deadline) return p;
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void deletes_league_and_dependents_in_chunks_and_records_progress() throws Exception {
+        Seeded doomed = seed("doomed");
+        Seeded kept = seed("kept");
+
+        LeagueDeletionJobService.Progress started = service.startLeagueDeletion(doomed.league().getId()).orElseThrow();
+        assertThat(started.matchesTotal).isEqualTo(5);
+        LeagueDeletionJobService.Progress done = await(service, started.jobId);
+
+        assertThat(done.status).isEqualTo(LeagueDeletionJobService.Status.COMPLETED);
+        assertThat(done.matchesDeleted).isEqualTo(5);
+        assertThat(done.fixturesDeleted).isEqualTo(3);
+        assertThat(done.teamsDeleted).isEqualTo(2);
+        assertThat(done.seasonsDeleted).isEqualTo(2);
+        assertThat(done.leagueDeleted).isTrue();
+        assertThat(adminAuditRepository.findById(started.jobId).orElseThrow().getAffectedCount()).isEqualTo(13L);
+
+        assertThat(leagueRepository.findById(doomed.league().getId())).isEmpty();
+        assertThat(matchRepository.countByLeagueId(doomed.league().getId())).isZero();
+        assertThat(fixtureRepository.findByLeague_IdOrderByDateTimeAsc(doomed.league().getId())).isEmpty();
+        // The other league is untouched
+        assertThat(matchRepository.countByLeagueId(kept.league().getId())).isEqualTo(5);
+        assertThat(fixtureRepository.findByLeague_IdOrderByDateTimeAsc(kept.league().getId())).hasSize(3);
+        assertThat(seasonRepository.findById(kept.s1().getId())).isPresent();
+        assertThat(matchStatsRepository.count()).isEqualTo(1);
+
+        assertThat(service.recent(10)).extracting(p -> p.jobId).containsExactly(started.jobId);
+        assertThat(service.startLeagueDeletion(doomed.league().getId())).isEmpty();
+    }
+
+    @Test
+    void deletes_only_the_requested_season() throws Exception {
+        Seeded f = seed("seasonal");
+
+        assertThat(service.startSeasonDeletion(f.league().getId() + 1000, f.s1().getId())).isEmpty();
+        LeagueDeletionJobService.Progress started = service.startSeasonDeletion(f.league().getId(), f.s1().getId()).orElseThrow();
+        LeagueDeletionJobService.Progress done = await(service, started.jobId);
+
+        assertThat(done.status).isEqualTo(LeagueDeletionJobService.Status.COMPLETED);
+        assertThat(done.matchesDeleted).isEqualTo(3);
+        assertThat(done.seasonsDeleted).isEqualTo(1);
+        assertThat(done.leagueDeleted).isFalse();
+        assertThat(seasonRepository.findById(f.s1().getId())).isEmpty();
+        assertThat(matchRepository.countBySeasonId(f.s2().getId())).isEqualTo(2);
+        assertThat(leagueRepository.findById(f.league().getId())).isPresent();
+        assertThat(fixtureRepository.findByLeague_IdOrderByDateTimeAsc(f.league().getId())).hasSize(3);
+    }
+
+    @Test
+    void cancelled_job_stops_between_chunks_and_keeps_the_league() throws Exception {
+        Seeded f = seed("cancelled");
+        // One match per chunk with a long pause, so the cancel lands before the last chunk
+        LeagueDeletionJobService slow = new LeagueDeletionJobService(leagueRepository, seasonRepository, matchRepository,
+                matchStatsRepository, fixtureRepository, teamRepository, teamAliasRepository, adminAuditRepository,
+                transactionManager, dataVersionService, fixtureEventHub, 1, 300);
+        try {
+            LeagueDeletionJobService.Progress started = slow.startLeagueDeletion(f.league().getId()).orElseThrow();
+            assertThat(slow.cancel(started.jobId)).isPresent();
+            LeagueDeletionJobService.Progress done = await(slow, started.jobId);
+
+            assertThat(done.status).isEqualTo(LeagueDeletionJobService.Status.CANCELLED);
+            assertThat(done.matchesDeleted).isLessThan(5);
+            assertThat(matchRepository.countByLeagueId(f.league().getId())).isEqualTo(5 - done.matchesDeleted);
+            assertThat(leagueRepository.findById(f.league().getId())).isPresent();
+            assertThat(teamRepository.findIdsByLeagueId(f.league().getId())).hasSize(2);
+        } finally {
+            slow.shutdown();
+        }
+    }
+}
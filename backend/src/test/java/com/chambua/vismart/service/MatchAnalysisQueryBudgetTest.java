@@ -0,0 +1,105 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.config.QueryCountConfig;
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.model.Team;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchAnalysisResultRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchRowRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.support.QueryBudget;
+import com.chambua.vismart.util.QueryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Query budgets for the analysis path: a regression that adds per-row lookups fails the build instead of production.
+// Runs with the regular tests, so the embedded database gets its schema from Hibernate rather than the -D flag ITs use.
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({QueryCountConfig.class, MatchAnalysisService.class, FormGuideService.class, SeasonService.class,
+        LeagueTableService.class, ReferenceDataService.class, TeamHistoryService.class, MatchRowRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MatchAnalysisQueryBudgetTest {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private MatchAnalysisResultRepository resultRepository;
+    @Autowired private MatchAnalysisService service;
+
+    private League league;
+    private Team home;
+    private Team away;
+
+    @BeforeEach
+    void seed() {
+        LocalDate today = LocalDate.now(ZoneId.of("Africa/Nairobi"));
+        league = leagueRepository.save(new League("EPL", "England", "2024/2025"));
+        Season season = seasonRepository.save(new Season(league, "2024/2025", today.minusMonths(3), today.plusMonths(6)));
+        List<Team> teams = teamRepository.saveAll(List.of(new Team("Arsenal", league), new Team("Chelsea", league),
+                new Team("Everton", league), new Team("Fulham", league), new Team("Brentford", league), new Team("Wolves", league)));
+        home = teams.get(0);
+        away = teams.get(1);
+        int round = 1;
+        for (int i = 0; i < teams.size(); i++) {
+            for (int j = 0; j < teams.size(); j++) {
+                if (i == j) continue;
+                Match m = new Match(league, teams.get(i), teams.get(j), today.minusDays(80 - round), round, (i + round) % 4, (j + 2 * round) % 3);
+                m.setSeason(season);
+                m.setStatus(MatchStatus.PLAYED);
+                matchRepository.save(m);
+                round++;
+            }
+        }
+        ReferenceDataService.invalidate();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        resultRepository.deleteAllInBatch();
+        matchRepository.deleteAllInBatch();
+        seasonRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        leagueRepository.deleteAllInBatch();
+        ReferenceDataService.invalidate();
+    }
+
+    // Current cost, including the one-off reference-data load; lower it when a stage gets cheaper
+    @Test
+    @QueryBudget(26)
+    void fresh_analysis_stays_within_budget() {
+        var response = service.analyzeDeterministic(league.getId(), home.getId(), away.getId(), "EPL", "Arsenal", "Chelsea", true);
+        assertThat(response.getH2hSummary()).isNotNull();
+    }
+
+    @Test
+    void cached_analysis_is_a_single_lookup() {
+        service.analyzeDeterministic(league.getId(), home.getId(), away.getId(), "EPL", "Arsenal", "Chelsea", false);
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            service.analyzeDeterministic(league.getId(), home.getId(), away.getId(), "EPL", "Arsenal", "Chelsea", false);
+            assertThat(scope.count()).as(scope.describe()).isEqualTo(1);
+        }
+    }
+}
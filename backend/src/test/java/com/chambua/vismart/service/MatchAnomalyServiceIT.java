@@ -0,0 +1,77 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.model.Team;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(MatchAnomalyService.class)
+class MatchAnomalyServiceIT {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private MatchAnomalyService service;
+
+    @Test
+    void keyset_pages_cover_every_offending_id_once() {
+        League league = leagueRepository.save(new League("Test League", "AR", "2025/2026"));
+        Season season = seasonRepository.save(new Season(league, "2025/2026", LocalDate.of(2025, 7, 1), LocalDate.of(2026, 6, 30)));
+        Team home = teamRepository.save(new Team("Home", league));
+        Team away = teamRepository.save(new Team("Away", league));
+        LocalDate today = LocalDate.of(2025, 9, 15);
+
+        List<Long> futurePlayed = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Match m = new Match(league, home, away, LocalDate.of(2025, 10, 1).plusDays(i * 7L), 10 + i, 1, 0);
+            m.setSeason(season);
+            m.setStatus(MatchStatus.PLAYED);
+            futurePlayed.add(matchRepository.save(m).getId());
+        }
+        Match scoredNotPlayed = new Match(league, home, away, LocalDate.of(2025, 9, 1), 3, 2, 1);
+        scoredNotPlayed.setSeason(season);
+        scoredNotPlayed.setStatus(MatchStatus.SCHEDULED);
+        Long scoredId = matchRepository.save(scoredNotPlayed).getId();
+        matchRepository.flush();
+
+        MatchAnomalyService.Kind kind = MatchAnomalyService.Kind.PLAYED_FUTURE_DATE;
+        assertThat(service.count(kind, today)).isEqualTo(7);
+        assertThat(service.sample(kind, today, 3)).containsExactlyElementsOf(futurePlayed.subList(0, 3));
+
+        List<Long> walked = new ArrayList<>();
+        MatchAnomalyService.IdPage page = service.page(kind, today, 0L, 3);
+        walked.addAll(page.ids());
+        while (page.nextAfterId() != null) {
+            page = service.page(kind, today, page.nextAfterId(), 3);
+            walked.addAll(page.ids());
+        }
+        assertThat(walked).containsExactlyElementsOf(futurePlayed);
+
+        List<Long> streamed = new ArrayList<>();
+        assertThat(service.forEachId(kind, today, streamed::add)).isEqualTo(7);
+        assertThat(streamed).containsExactlyElementsOf(futurePlayed);
+
+        assertThat(service.sample(MatchAnomalyService.Kind.SCORED_NOT_PLAYED_PAST, today, 10)).containsExactly(scoredId);
+        assertThat(service.count(MatchAnomalyService.Kind.PLAYED_NULL_ROUND, today)).isZero();
+        assertThat(MatchAnomalyService.Kind.fromSlug("Played-Null-Date")).contains(MatchAnomalyService.Kind.PLAYED_NULL_DATE);
+    }
+}
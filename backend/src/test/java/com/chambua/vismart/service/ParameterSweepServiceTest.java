@@ -0,0 +1,65 @@
+package com.chambua.vismart.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParameterSweepServiceTest {
+
+    private final ParameterSweepService service = new ParameterSweepService(null, null, 100);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static ParameterSweepService.Request grid(Map<String, List<Double>> grid) {
+        return new ParameterSweepService.Request(List.of(1L), null, false, 0, ParameterSweepService.Mode.GRID,
+                grid, null, null, null, null, null, null);
+    }
+
+    @Test
+    void grid_expands_every_combination_and_drops_invalid_ones() {
+        Map<String, List<Double>> grid = new LinkedHashMap<>();
+        grid.put("formLimit", List.of(4.0, 6.0, 8.0));
+        grid.put("alphaCapMatch", List.of(0.4, 0.6, 1.5)); // 1.5 is outside [0, 1]
+
+        List<ModelParameters> candidates = service.candidates(ModelParameters.DEFAULTS, grid(grid));
+
+        assertThat(candidates).hasSize(6);
+        assertThat(candidates).extracting(ModelParameters::formLimit).containsExactly(4, 4, 6, 6, 8, 8);
+        assertThat(candidates).allMatch(p -> p.version() == 0 && p.h2hLimit() == 6 && p.xgMax() == 3.0);
+        assertThat(candidates).contains(ModelParameters.DEFAULTS.withVersion(0));
+    }
+
+    @Test
+    void grid_over_the_candidate_limit_is_rejected() {
+        Map<String, List<Double>> grid = new LinkedHashMap<>();
+        grid.put("formLimit", List.of(3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0, 11.0, 12.0, 13.0));
+        grid.put("h2hLimit", List.of(3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0, 11.0, 12.0));
+
+        assertThatThrownBy(() -> service.candidates(ModelParameters.DEFAULTS, grid(grid)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.candidates(ModelParameters.DEFAULTS, grid(Map.of("scale", List.of(0.5)))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void random_search_is_reproducible_for_a_seed_and_stays_in_range() {
+        Map<String, List<Double>> ranges = Map.of("recencyDecay", List.of(0.5, 2.0), "h2hLimit", List.of(3.0, 8.0));
+        ParameterSweepService.Request r = new ParameterSweepService.Request(List.of(1L), null, false, 0, ParameterSweepService.Mode.RANDOM,
+                null, ranges, 50, 7L, null, null, null);
+
+        List<ModelParameters> a = service.candidates(ModelParameters.DEFAULTS, r);
+        List<ModelParameters> b = service.candidates(ModelParameters.DEFAULTS, r);
+
+        assertThat(a).isEqualTo(b).isNotEmpty();
+        assertThat(a).allMatch(p -> p.recencyDecay() >= 0.5 && p.recencyDecay() <= 2.0 && p.h2hLimit() >= 3 && p.h2hLimit() <= 8);
+    }
+}
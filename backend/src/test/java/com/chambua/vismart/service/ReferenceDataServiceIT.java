@@ -0,0 +1,66 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional: invalidation happens after commit of League/Season writes
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ReferenceDataService.class, SeasonService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataServiceIT {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private ReferenceDataService referenceData;
+    @Autowired private SeasonService seasonService;
+
+    @AfterEach
+    void cleanUp() {
+        seasonRepository.deleteAllInBatch();
+        leagueRepository.deleteAllInBatch();
+        ReferenceDataService.invalidate();
+    }
+
+    @Test
+    void serves_current_season_and_families_and_reloads_after_writes() {
+        LocalDate today = LocalDate.now(ZoneId.of("Africa/Nairobi"));
+        League eplOld = leagueRepository.save(new League("EPL", "England", "2022/2023"));
+        League epl = leagueRepository.save(new League("EPL", "England", "2023/2024"));
+        League laLiga = leagueRepository.save(new League("La Liga", "Spain", "2023/2024"));
+        Season past = seasonRepository.save(new Season(epl, "past", today.minusYears(2), today.minusYears(1)));
+        Season running = seasonRepository.save(new Season(epl, "running", today.minusMonths(3), today.plusMonths(3)));
+
+        assertThat(referenceData.leagueFamilyIds(epl.getId())).containsExactlyInAnyOrder(eplOld.getId(), epl.getId());
+        assertThat(referenceData.leagueFamilyIds("epl", "ENGLAND")).hasSize(2);
+        assertThat(referenceData.leagueFamilyIds(laLiga.getId())).containsExactly(laLiga.getId());
+        assertThat(referenceData.seasons(epl.getId())).extracting(ReferenceDataService.SeasonRef::id)
+                .containsExactly(running.getId(), past.getId());
+        assertThat(referenceData.currentSeasonId(epl.getId())).isEqualTo(running.getId())
+                .isEqualTo(seasonService.findCurrentSeason(epl.getId()).map(Season::getId).orElse(null));
+        assertThat(referenceData.currentSeasonId(laLiga.getId())).isNull();
+
+        // Committed writes invalidate the snapshot
+        Season spain = seasonRepository.save(new Season(laLiga, "2023/2024", today.minusMonths(1), today.plusMonths(6)));
+        assertThat(referenceData.currentSeasonId(laLiga.getId())).isEqualTo(spain.getId());
+        League renamed = leagueRepository.findById(eplOld.getId()).orElseThrow();
+        renamed.setName("Premier League");
+        leagueRepository.save(renamed);
+        assertThat(referenceData.leagueFamilyIds(epl.getId())).containsExactly(epl.getId());
+    }
+}
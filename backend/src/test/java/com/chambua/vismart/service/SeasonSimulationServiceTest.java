@@ -0,0 +1,112 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.LeagueTableEntryDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SeasonSimulationServiceTest {
+
+    private final SeasonSimulationService sequential = new SeasonSimulationService(null, null, null, null, null, 1, 1_000_000);
+    private final SeasonSimulationService parallel = new SeasonSimulationService(null, null, null, null, null, 4, 1_000_000);
+
+    @AfterEach
+    void tearDown() {
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    private static LeagueTableEntryDTO entry(int pos, long id, int mp, int pts, int gf, int ga) {
+        return new LeagueTableEntryDTO(pos, id, "Team " + id, mp, 0, 0, 0, gf, ga, gf - ga, pts);
+    }
+
+    private static List<LeagueTableEntryDTO> table(int teams) {
+        List<LeagueTableEntryDTO> t = new ArrayList<>();
+        for (int i = 0; i < teams; i++) t.add(entry(i + 1, i + 1, 10, 25 - i, 20 - i / 2, 10 + i / 2));
+        return t;
+    }
+
+    private static List<int[]> doubleRoundRobin(int teams) {
+        List<int[]> pairs = new ArrayList<>();
+        for (int h = 0; h < teams; h++) {
+            for (int a = 0; a < teams; a++) if (h != a) pairs.add(new int[]{h, a});
+        }
+        return pairs;
+    }
+
+    private static long[] run(SeasonSimulationService s, List<LeagueTableEntryDTO> table, List<int[]> pairs, int iterations, long seed) {
+        return s.run(table, SeasonSimulationService.pairings(table, pairs, 0, 0, 0, ModelParameters.DEFAULTS), iterations, seed);
+    }
+
+    @Test
+    void finished_season_reproduces_the_table() {
+        List<LeagueTableEntryDTO> t = table(4);
+
+        long[] counts = run(sequential, t, List.of(), 1000, 1L);
+
+        for (int team = 0; team < 4; team++) {
+            assertThat(counts[team * 4 + team]).isEqualTo(1000);
+            assertThat(counts[16 + team]).isEqualTo(1000L * t.get(team).getPts());
+        }
+    }
+
+    @Test
+    void position_distributions_are_complete_and_independent_of_parallelism() {
+        int n = 20;
+        List<LeagueTableEntryDTO> t = table(n);
+        List<int[]> pairs = doubleRoundRobin(n);
+
+        long[] a = run(sequential, t, pairs, 20_000, 42L);
+        long[] b = run(parallel, t, pairs, 20_000, 42L);
+
+        assertThat(b).isEqualTo(a);
+        for (int i = 0; i < n; i++) {
+            long perTeam = 0, perPosition = 0;
+            for (int k = 0; k < n; k++) {
+                perTeam += a[i * n + k];
+                perPosition += a[k * n + i];
+            }
+            assertThat(perTeam).isEqualTo(20_000);
+            assertThat(perPosition).isEqualTo(20_000);
+        }
+        // The leader on the strongest record wins the title more often than the bottom side
+        assertThat(a[0]).isGreaterThan(a[(n - 1) * n]);
+    }
+
+    @Test
+    void unassailable_lead_is_certain_and_points_add_up() {
+        List<LeagueTableEntryDTO> t = List.of(entry(1, 1, 36, 90, 80, 20), entry(2, 2, 36, 60, 50, 30), entry(3, 3, 36, 40, 30, 50));
+        List<int[]> pairs = List.of(new int[]{0, 1}, new int[]{1, 2}, new int[]{2, 0});
+
+        long[] counts = run(sequential, t, pairs, 10_000, 7L);
+
+        assertThat(counts[0]).isEqualTo(10_000);
+        // Each game hands out 2 or 3 points in total
+        long total = counts[9] + counts[10] + counts[11] - 10_000L * (90 + 60 + 40);
+        assertThat(total).isBetween(10_000L * 3 * 2, 10_000L * 3 * 3);
+    }
+
+    @Test
+    void expected_goals_follow_attack_and_defence_and_respect_clamps() {
+        List<LeagueTableEntryDTO> t = List.of(entry(1, 1, 10, 20, 16, 10), entry(2, 2, 10, 10, 10, 16));
+
+        List<SeasonSimulationService.Pairing> p = SeasonSimulationService.pairings(t, List.of(new int[]{0, 1}, new int[]{1, 0}), 100, 80, 60,
+                ModelParameters.DEFAULTS);
+
+        assertThat(p.get(0).xgHome()).isGreaterThan(p.get(0).xgAway());
+        assertThat(p.get(0).xgHome()).isGreaterThan(p.get(1).xgAway());
+        assertThat(p).allSatisfy(f -> {
+            assertThat(f.xgHome()).isBetween(0.3, 3.0);
+            assertThat(f.xgAway()).isBetween(0.3, 3.0);
+        });
+        // No data at all: neutral teams, only the prior home factor separates the sides
+        List<SeasonSimulationService.Pairing> cold = SeasonSimulationService.pairings(List.of(entry(1, 1, 0, 0, 0, 0), entry(2, 2, 0, 0, 0, 0)),
+                List.<int[]>of(new int[]{0, 1}), 0, 0, 0, ModelParameters.DEFAULTS);
+        assertThat(cold.get(0).xgHome() * cold.get(0).xgAway()).isCloseTo(1.3 * 1.3, within(1e-9));
+    }
+}
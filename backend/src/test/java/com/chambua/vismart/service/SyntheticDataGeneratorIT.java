@@ -0,0 +1,53 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchRowRepository;
+import com.chambua.vismart.repository.TeamAliasRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SyntheticDataGenerator.class, MatchRowRepository.class})
+class SyntheticDataGeneratorIT {
+
+    @Autowired private SyntheticDataGenerator generator;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private TeamAliasRepository teamAliasRepository;
+    @Autowired private MatchRowRepository matchRowRepository;
+
+    @Test
+    void batched_load_is_readable_through_the_repositories_and_appends_after_existing_ids() {
+        SyntheticDataGenerator.Spec spec = new SyntheticDataGenerator.Spec(42, 4, 2, 6, 2, 0.5, 0.3, LocalDate.of(2024, 9, 10), 25);
+
+        SyntheticDataGenerator.Stats first = generator.load(spec);
+
+        assertThat(first.matches()).isEqualTo(spec.expectedMatches());
+        assertThat(matchRepository.count()).isEqualTo(first.matches());
+        assertThat(teamRepository.count()).isEqualTo(first.teams());
+        assertThat(teamAliasRepository.count()).isEqualTo(first.aliases());
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM fixtures", Long.class)).isEqualTo(first.fixtures());
+        AtomicLong scored = new AtomicLong();
+        matchRowRepository.forEachScored(r -> scored.incrementAndGet());
+        assertThat(scored.get()).isEqualTo(first.playedMatches());
+        assertThat(generator.existingLeagues()).isEqualTo(4);
+
+        // Same seed would repeat the league names; another seed gives another set of countries
+        SyntheticDataGenerator.Stats second = generator.load(new SyntheticDataGenerator.Spec(43, 4, 2, 6, 2, 0.5, 0.3, spec.anchor(), 25));
+
+        assertThat(matchRepository.count()).isEqualTo(first.matches() + second.matches());
+        assertThat(generator.existingLeagues()).isEqualTo(8);
+    }
+}
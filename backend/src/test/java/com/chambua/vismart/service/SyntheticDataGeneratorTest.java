@@ -0,0 +1,141 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.service.SyntheticDataGenerator.Table;
+import com.chambua.vismart.util.TeamNameNormalizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDate ANCHOR = LocalDate.of(2024, 9, 25);
+    private static final long[] FIRST_IDS = {1, 1, 1, 1, 1, 1};
+
+    private final SyntheticDataGenerator generator = new SyntheticDataGenerator();
+
+    private static SyntheticDataGenerator.Spec spec(long seed) {
+        return new SyntheticDataGenerator.Spec(seed, 6, 3, 8, 3, 0.5, 0.25, ANCHOR, 100);
+    }
+
+    /** Collects rows per table. */
+    private static final class Rows implements SyntheticDataGenerator.RowWriter {
+        final Map<Table, List<Object[]>> rows = new EnumMap<>(Table.class);
+
+        @Override
+        public void write(Table table, Object[] row) {
+            rows.computeIfAbsent(table, t -> new ArrayList<>()).add(row);
+        }
+
+        @Override
+        public void close() {}
+
+        List<Object[]> get(Table t) {
+            return rows.getOrDefault(t, List.of());
+        }
+    }
+
+    private Rows generate(SyntheticDataGenerator.Spec spec) {
+        Rows out = new Rows();
+        generator.generate(spec, FIRST_IDS, out);
+        return out;
+    }
+
+    @Test
+    void same_seed_produces_identical_rows() {
+        Rows a = generate(spec(7));
+        Rows b = generate(spec(7));
+        Rows c = generate(spec(8));
+
+        for (Table t : Table.values()) {
+            assertThat(b.get(t)).hasSameSizeAs(a.get(t));
+            for (int i = 0; i < a.get(t).size(); i++) assertThat(b.get(t).get(i)).containsExactly(a.get(t).get(i));
+        }
+        assertThat(c.get(Table.TEAMS).stream().map(t -> t[1]).toList()).isNotEqualTo(a.get(Table.TEAMS).stream().map(t -> t[1]).toList());
+        assertThat(c.get(Table.MATCHES).stream().map(m -> m[7] + ":" + m[8]).toList())
+                .isNotEqualTo(a.get(Table.MATCHES).stream().map(m -> m[7] + ":" + m[8]).toList());
+    }
+
+    @Test
+    void every_season_is_a_double_round_robin_split_at_the_anchor() {
+        SyntheticDataGenerator.Spec spec = spec(3);
+        Rows out = generate(spec);
+
+        assertThat(out.get(Table.LEAGUES)).hasSize(6);
+        assertThat(out.get(Table.SEASONS)).hasSize(18);
+        assertThat((long) out.get(Table.MATCHES).size()).isEqualTo(spec.expectedMatches());
+        // Each ordered pairing exactly once per season
+        Map<Object, Set<String>> pairsBySeason = new HashMap<>();
+        for (Object[] m : out.get(Table.MATCHES)) {
+            assertThat(pairsBySeason.computeIfAbsent(m[2], k -> new HashSet<>()).add(m[3] + "-" + m[4])).isTrue();
+            LocalDate date = (LocalDate) m[5];
+            if (date.isBefore(ANCHOR)) {
+                assertThat(m[9]).isIn("PLAYED", "POSTPONED");
+                if ("PLAYED".equals(m[9])) assertThat((Integer) m[7]).isBetween(0, 15);
+            } else {
+                assertThat(m[9]).isEqualTo("SCHEDULED");
+                assertThat(m[7]).isNull();
+            }
+        }
+        assertThat(pairsBySeason.values()).allSatisfy(pairs -> assertThat(pairs).hasSize(8 * 7));
+        // Seasons end with the current one (2024/2025), which is the only one with fixtures on the board
+        assertThat(out.get(Table.SEASONS).get(2)[2]).isEqualTo("2024/2025");
+        assertThat(out.get(Table.FIXTURES)).isNotEmpty()
+                .allSatisfy(f -> assertThat(((java.time.LocalDateTime) f[3]).toLocalDate()).isAfterOrEqualTo(ANCHOR.minusDays(14)));
+        assertThat(out.get(Table.FIXTURES)).anySatisfy(f -> assertThat(f[8]).isEqualTo("UPCOMING"));
+    }
+
+    @Test
+    void team_names_are_unique_per_league_and_repeat_across_tiers() {
+        Rows out = generate(spec(11));
+
+        Map<Object, Set<String>> byLeague = new HashMap<>();
+        Map<String, Set<Object>> leaguesByName = new HashMap<>();
+        for (Object[] t : out.get(Table.TEAMS)) {
+            assertThat(t[2]).isEqualTo(TeamNameNormalizer.normalize((String) t[1]));
+            assertThat(byLeague.computeIfAbsent(t[3], k -> new HashSet<>()).add((String) t[2])).isTrue();
+            leaguesByName.computeIfAbsent((String) t[1], k -> new HashSet<>()).add(t[3]);
+        }
+        assertThat(leaguesByName.values()).anySatisfy(leagues -> assertThat(leagues).hasSizeGreaterThan(1));
+        assertThat(out.get(Table.TEAM_ALIAS)).isNotEmpty()
+                .allSatisfy(a -> assertThat(a[3]).isEqualTo(SyntheticDataGenerator.ALIAS_SOURCE));
+    }
+
+    @Test
+    void aliases_are_common_spelling_variants() {
+        assertThat(SyntheticDataGenerator.aliases("Korolen United")).containsExactly("Korolen", "Korolen Utd", "KOR");
+        assertThat(SyntheticDataGenerator.aliases("FC Barosel")).containsExactly("Barosel", "BAR");
+        assertThat(SyntheticDataGenerator.aliases("Mila")).containsExactly("Mila FC", "MIL");
+    }
+
+    @Test
+    void csv_export_writes_a_file_per_table_and_a_load_script(@TempDir Path dir) throws Exception {
+        SyntheticDataGenerator.Stats stats = generator.exportCsv(spec(5), dir);
+
+        assertThat(Files.readAllLines(dir.resolve("matches.csv"))).hasSize((int) stats.matches());
+        assertThat(Files.readAllLines(dir.resolve("matches.csv"))).anySatisfy(l -> assertThat(l).contains(",\\N,\\N,SCHEDULED,CURRENT,0,0"));
+        String load = Files.readString(dir.resolve("load.sql"));
+        assertThat(load).contains("LOAD DATA LOCAL INFILE").contains("INTO TABLE leagues").contains("INTO TABLE fixtures");
+        assertThat(load.indexOf("INTO TABLE teams")).isLessThan(load.indexOf("INTO TABLE matches"));
+    }
+
+    @Test
+    void invalid_spec_is_rejected() {
+        assertThatThrownBy(() -> new SyntheticDataGenerator.Spec(1, 1, 1, 7, 1, 0, 0, ANCHOR, 10).validate())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SyntheticDataGenerator.Spec(1, 0, 1, 8, 1, 0, 0, ANCHOR, 10).validate())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
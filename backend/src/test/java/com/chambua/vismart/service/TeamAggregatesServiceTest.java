@@ -0,0 +1,63 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.TeamAggregatesDTO;
+import com.chambua.vismart.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+
+class TeamAggregatesServiceTest {
+    private MatchRepository matchRepository;
+    private TeamAggregatesService service;
+
+    @BeforeEach
+    void setup() {
+        matchRepository = Mockito.mock(MatchRepository.class);
+        service = new TeamAggregatesService(matchRepository);
+    }
+
+    @Test
+    void single_team_uses_one_aggregate_query() {
+        given(matchRepository.findTeamIdsForName("Arsenal")).willReturn(List.of(1L, 5L));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{10L, 6L, 2L, 2L, 4L, 3L, 7L});
+        given(matchRepository.aggregatePlayedByTeamIds(List.of(1L, 5L))).willReturn(rows);
+
+        TeamAggregatesDTO a = service.forTeamName(" Arsenal ");
+        assertEquals(new TeamAggregatesDTO("Arsenal", 10, 6, 2, 2, 4, 3, 7), a);
+        Mockito.verify(matchRepository, Mockito.never()).countPlayedByTeamName(anyString());
+    }
+
+    @Test
+    void unknown_team_is_zeroed() {
+        given(matchRepository.findTeamIdsForName(anyString())).willReturn(List.of());
+        assertEquals(TeamAggregatesDTO.empty("Nobody"), service.forTeamName("Nobody"));
+    }
+
+    @Test
+    void batch_maps_name_grouped_counters_back_to_requested_names() {
+        List<Object[]> ids = new ArrayList<>();
+        ids.add(new Object[]{1L, "arsenal"});
+        ids.add(new Object[]{5L, "arsenal"});
+        ids.add(new Object[]{2L, "chelsea"});
+        given(matchRepository.findTeamIdsAndNormalizedNamesIn(anyList())).willReturn(ids);
+        List<Object[]> grouped = new ArrayList<>();
+        grouped.add(new Object[]{4L, 2L, 1L, 1L, 2L, 2L, 3L, "arsenal"});
+        grouped.add(new Object[]{2L, 1L, 1L, 0L, 0L, 0L, 1L, "chelsea"});
+        given(matchRepository.aggregatePlayedGroupedByNormalizedName(anyList())).willReturn(grouped);
+
+        Map<String, TeamAggregatesDTO> res = service.forTeamNames(List.of("Arsenal", "Chelsea", "Nobody"));
+        assertEquals(List.of("Arsenal", "Chelsea", "Nobody"), new ArrayList<>(res.keySet()));
+        assertEquals(new TeamAggregatesDTO("Arsenal", 4, 2, 1, 1, 2, 2, 3), res.get("Arsenal"));
+        assertEquals(2, res.get("Chelsea").total());
+        assertEquals(0, res.get("Nobody").total());
+    }
+}
@@ -0,0 +1,125 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.model.Team;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamDomesticLeagueRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional: the flush writes the mapping in its own transaction and reacts to committed match writes
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TeamDomesticLeagueService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TeamDomesticLeagueServiceIT {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamDomesticLeagueRepository mappingRepository;
+    @Autowired private TeamDomesticLeagueService service;
+    @Autowired private DataSource dataSource;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        matchRepository.deleteAllInBatch();
+        mappingRepository.deleteAllInBatch();
+        seasonRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+        leagueRepository.deleteAllInBatch();
+    }
+
+    private Match played(League l, Season s, Team h, Team a, LocalDate d, int round) {
+        Match m = new Match(l, h, a, d, round, 1, 0);
+        m.setSeason(s);
+        m.setStatus(MatchStatus.PLAYED);
+        return m;
+    }
+
+    @Test
+    void picks_most_played_league_of_latest_season_and_follows_new_matches() {
+        League epl = leagueRepository.save(new League("EPL", "England", "2023/2024"));
+        League cup = leagueRepository.save(new League("UCL", "Europe", "2023/2024"));
+        Season eplSeason = seasonRepository.save(new Season(epl, "2023/2024", LocalDate.of(2023, 8, 1), LocalDate.of(2024, 5, 31)));
+        Season cupSeason = seasonRepository.save(new Season(cup, "2023/2024", LocalDate.of(2023, 9, 1), LocalDate.of(2024, 5, 31)));
+        Team arsenal = teamRepository.save(new Team("Arsenal", epl));
+        Team chelsea = teamRepository.save(new Team("Chelsea", epl));
+        Team porto = teamRepository.save(new Team("Porto", cup));
+        Team loner = teamRepository.save(new Team("Loner", epl));
+
+        matchRepository.saveAll(List.of(
+                played(epl, eplSeason, arsenal, chelsea, LocalDate.of(2023, 9, 1), 1),
+                played(epl, eplSeason, chelsea, arsenal, LocalDate.of(2023, 10, 1), 2)
+        ));
+        service.rebuildAll();
+        assertThat(service.domesticLeagueId(arsenal.getId())).isEqualTo(epl.getId());
+        assertThat(service.domesticLeagueId(loner.getId())).isNull();
+        assertThat(mappingRepository.findById(arsenal.getId())).get()
+                .satisfies(r -> {
+                    assertThat(r.getCountry()).isEqualTo("England");
+                    assertThat(r.getMatchCount()).isEqualTo(2);
+                });
+
+        // Three later cup matches in a different season make the cup Arsenal's latest-season league
+        matchRepository.saveAll(List.of(
+                played(cup, cupSeason, arsenal, porto, LocalDate.of(2023, 11, 1), 1),
+                played(cup, cupSeason, porto, arsenal, LocalDate.of(2023, 11, 8), 2),
+                played(cup, cupSeason, arsenal, porto, LocalDate.of(2023, 11, 15), 3)
+        ));
+        // Lookups never write: the last known league is served until the background flush
+        assertThat(service.domesticLeagueId(arsenal.getId())).isEqualTo(epl.getId());
+        assertThat(service.domesticLeagueId(porto.getId())).isEqualTo(cup.getId());
+        assertThat(mappingRepository.findById(porto.getId())).isEmpty();
+
+        service.flushDirty();
+        assertThat(service.domesticLeagueId(arsenal.getId())).isEqualTo(cup.getId());
+        assertThat(service.domesticLeagueId(chelsea.getId())).isEqualTo(epl.getId());
+        assertThat(mappingRepository.findById(arsenal.getId())).get()
+                .satisfies(r -> {
+                    assertThat(r.getLeagueId()).isEqualTo(cup.getId());
+                    assertThat(r.getMatchCount()).isEqualTo(3);
+                    assertThat(r.getUpdatedAt()).isNotNull();
+                });
+        assertThat(mappingRepository.findById(porto.getId())).get()
+                .extracting(r -> r.getLeagueId()).isEqualTo(cup.getId());
+    }
+
+    @Test
+    void empty_table_is_served_from_memory_and_written_by_the_flush() {
+        League epl = leagueRepository.save(new League("EPL", "England", "2023/2024"));
+        Season season = seasonRepository.save(new Season(epl, "2023/2024", LocalDate.of(2023, 8, 1), LocalDate.of(2024, 5, 31)));
+        Team arsenal = teamRepository.save(new Team("Arsenal", epl));
+        Team chelsea = teamRepository.save(new Team("Chelsea", epl));
+        matchRepository.save(played(epl, season, arsenal, chelsea, LocalDate.of(2023, 9, 1), 1));
+        TeamDomesticLeagueService fresh = new TeamDomesticLeagueService(matchRepository, mappingRepository, dataSource, transactionManager);
+
+        assertThat(fresh.domesticLeagueId(chelsea.getId())).isEqualTo(epl.getId());
+        assertThat(mappingRepository.count()).isZero();
+
+        fresh.flushDirty();
+        assertThat(mappingRepository.findAll()).extracting(r -> r.getTeamId())
+                .containsExactlyInAnyOrder(arsenal.getId(), chelsea.getId());
+    }
+}
@@ -0,0 +1,139 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.config.QueryCountConfig;
+import com.chambua.vismart.dto.FormGuideRowDTO;
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.model.Match;
+import com.chambua.vismart.model.MatchStatus;
+import com.chambua.vismart.model.Season;
+import com.chambua.vismart.model.Team;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchRow;
+import com.chambua.vismart.repository.MatchRowRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.util.QueryCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@ActiveProfiles("test")
+@Import({QueryCountConfig.class, TeamHistoryService.class, MatchRowRepository.class, FormGuideService.class})
+class TeamHistoryServiceTest {
+
+    @Autowired private LeagueRepository leagueRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private TeamHistoryService history;
+    @Autowired private FormGuideService formGuideService;
+    @Autowired private EntityManager entityManager;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("Africa/Nairobi"));
+    private League league;
+    private Season season;
+    private List<Team> teams;
+
+    private Match played(Team h, Team a, LocalDate d, int round, Integer hg, Integer ag) {
+        Match m = new Match(league, h, a, d, round, hg, ag);
+        m.setSeason(season);
+        m.setStatus(MatchStatus.PLAYED);
+        return m;
+    }
+
+    @BeforeEach
+    void seed() {
+        league = leagueRepository.save(new League("KPL", "Kenya", "2024/2025"));
+        season = seasonRepository.save(new Season(league, "2024/2025", today.minusMonths(6), today.plusMonths(6)));
+        teams = teamRepository.saveAll(List.of(new Team("Tusker", league), new Team("Bandari", league),
+                new Team("Ulinzi", league), new Team("Sofapaka", league)));
+        // Double round robin among the first three; the fourth has a single match and needs the global fallback
+        List<Match> matches = new ArrayList<>();
+        int round = 1;
+        for (int leg = 0; leg < 2; leg++) {
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    if (i == j) continue;
+                    matches.add(played(teams.get(i), teams.get(j), today.minusDays(60 - round), round, (i + round) % 3, (j + round) % 2));
+                    round++;
+                }
+            }
+        }
+        matches.add(played(teams.get(3), teams.get(0), today.minusDays(70), 0, 2, 2));
+        // Marked played but dated in the future: excluded by asOf
+        matches.add(played(teams.get(0), teams.get(1), today.plusDays(3), 99, 1, 0));
+        matchRepository.saveAllAndFlush(matches);
+    }
+
+    @Test
+    void recent_pushes_limit_and_scope_into_a_single_statement() {
+        Long tusker = teams.get(0).getId();
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            List<MatchRow> rows = history.recent(tusker, 3, new TeamHistoryService.Filters(league.getId(), season.getId(), true).asOf(today));
+
+            assertThat(scope.count()).as(scope.describe()).isEqualTo(1);
+            assertThat(scope.describe()).containsIgnoringCase("limit");
+            assertThat(rows).hasSize(3)
+                    .allMatch(r -> tusker.equals(r.homeTeamId()) || tusker.equals(r.awayTeamId()))
+                    .allMatch(r -> !r.date().isAfter(today));
+            assertThat(rows).extracting(MatchRow::date).isSortedAccordingTo(java.util.Comparator.reverseOrder());
+        }
+        assertThat(history.recent(tusker, 1, TeamHistoryService.Filters.NONE)).extracting(MatchRow::round).containsExactly(99);
+    }
+
+    @Test
+    void recent_per_team_returns_each_teams_last_n_in_one_statement() {
+        List<Long> ids = List.of(teams.get(2).getId(), teams.get(0).getId(), teams.get(3).getId());
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            Map<Long, List<MatchRow>> perTeam = history.recentPerTeam(ids, 2, TeamHistoryService.Filters.SCORED.asOf(today));
+
+            assertThat(scope.count()).as(scope.describe()).isEqualTo(1);
+            assertThat(perTeam.keySet()).containsExactlyElementsOf(ids);
+            perTeam.forEach((id, rows) -> assertThat(rows)
+                    .allMatch(r -> id.equals(r.homeTeamId()) || id.equals(r.awayTeamId())));
+            for (Long id : ids) {
+                assertThat(perTeam.get(id)).as("team %d", id)
+                        .containsExactlyElementsOf(history.recent(id, 2, TeamHistoryService.Filters.SCORED.asOf(today)));
+            }
+            assertThat(perTeam.get(teams.get(3).getId())).hasSize(1);
+        }
+    }
+
+    @Test
+    void form_for_teams_is_batched_and_matches_the_per_team_queries() {
+        List<Long> ids = teams.stream().map(Team::getId).toList();
+        List<FormGuideRowDTO> batched;
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            batched = formGuideService.computeForTeams(league.getId(), season.getId(), 5, ids);
+            // Season window for every team, one global read for the sparse one and its source-league lookup
+            assertThat(scope.count()).as(scope.describe()).isEqualTo(3);
+        }
+        List<FormGuideRowDTO> perTeam = new FormGuideService(entityManager).computeForTeams(league.getId(), season.getId(), 5, ids);
+
+        assertThat(batched).hasSize(4);
+        assertThat(batched).extracting(FormGuideRowDTO::getTeamId).containsExactlyElementsOf(ids);
+        for (int i = 0; i < batched.size(); i++) {
+            FormGuideRowDTO b = batched.get(i), p = perTeam.get(i);
+            assertThat(b.getLastResults()).isEqualTo(p.getLastResults());
+            assertThat(b.getLastResultsDetails()).isEqualTo(p.getLastResultsDetails());
+            assertThat(b.getPpg()).isEqualTo(p.getPpg());
+            assertThat(b.getBttsPct()).isEqualTo(p.getBttsPct());
+            assertThat(b.isFallback()).isEqualTo(p.isFallback());
+        }
+        assertThat(batched.get(3).isFallback()).isTrue();
+    }
+}
@@ -0,0 +1,154 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.repository.MatchRow;
+import com.chambua.vismart.repository.MatchRowRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TeamRatingServiceTest {
+    private static final LocalDate D0 = LocalDate.of(2024, 8, 10);
+
+    private MatchRowRepository repository;
+    private final List<MatchRow> db = new ArrayList<>();
+
+    private static MatchRow row(long id, long home, long away, LocalDate date, int hg, int ag) {
+        return new MatchRow(id, 1L, "League", 10L, "2024/2025", home, "Team " + home, away, "Team " + away, date, 1, hg, ag);
+    }
+
+    private static TeamRatingService.Result result(MatchRow r) {
+        return TeamRatingService.Result.of(r);
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        repository = Mockito.mock(MatchRowRepository.class);
+        doAnswer(inv -> {
+            Consumer<MatchRow> sink = inv.getArgument(0);
+            db.stream().sorted(java.util.Comparator.comparing(MatchRow::date).thenComparing(MatchRow::id)).forEach(sink);
+            return null;
+        }).when(repository).forEachScored(any(Consumer.class));
+        TeamRatingService.invalidate();
+    }
+
+    // Four teams, three matchdays; team 1 strongest
+    private void season() {
+        db.add(row(1, 1, 2, D0, 3, 0));
+        db.add(row(2, 3, 4, D0, 1, 1));
+        db.add(row(3, 2, 3, D0.plusWeeks(1), 2, 1));
+        db.add(row(4, 4, 1, D0.plusWeeks(1), 0, 2));
+        db.add(row(5, 1, 3, D0.plusWeeks(2), 4, 1));
+        db.add(row(6, 2, 4, D0.plusWeeks(2), 1, 0));
+    }
+
+    @Test
+    void elo_applies_home_advantage_and_margin_of_victory() {
+        db.add(row(1, 1, 2, D0, 2, 0));
+        TeamRatingService service = new TeamRatingService(repository);
+
+        double expected = TeamRatingService.K * 1.5 * (1.0 - TeamRatingService.expectedScore(TeamRatingService.HOME_ADVANTAGE));
+        TeamRatingService.Rating home = service.rating(1L).orElseThrow();
+        TeamRatingService.Rating away = service.rating(2L).orElseThrow();
+        assertEquals(Math.round((1500 + expected) * 10) / 10.0, home.elo());
+        assertEquals(Math.round((1500 - expected) * 10) / 10.0, away.elo());
+        assertTrue(home.attack() > 1.0 && away.defence() > 1.0);
+        assertEquals(1, home.matches());
+        assertEquals(D0, home.lastPlayed());
+    }
+
+    @Test
+    void incremental_results_match_a_full_replay() {
+        season();
+        List<MatchRow> later = List.of(row(7, 3, 1, D0.plusWeeks(3), 0, 0), row(8, 4, 2, D0.plusWeeks(3), 2, 2));
+
+        TeamRatingService incremental = new TeamRatingService(repository);
+        assertEquals(6, incremental.ranking(null, null, 0).stream().mapToInt(TeamRatingService.Rating::matches).sum() / 2);
+        TeamRatingService.enqueue(later.stream().map(TeamRatingServiceTest::result).toList());
+        List<TeamRatingService.Rating> live = incremental.ranking(null, null, 0);
+
+        db.addAll(later);
+        TeamRatingService.invalidate();
+        List<TeamRatingService.Rating> replayed = new TeamRatingService(repository).ranking(null, null, 0);
+
+        assertEquals(replayed, live);
+        assertEquals(1L, live.get(0).teamId());
+        // One read per service: the later results reached the first one without a replay
+        verify(repository, times(2)).forEachScored(any());
+    }
+
+    @Test
+    void late_or_corrected_results_trigger_a_full_replay() {
+        season();
+        TeamRatingService service = new TeamRatingService(repository);
+        TeamRatingService.Rating before = service.rating(4L).orElseThrow();
+
+        // Same score again (e.g. re-saved row) is a no-op
+        TeamRatingService.enqueue(List.of(result(db.get(3))));
+        assertEquals(before, service.rating(4L).orElseThrow());
+
+        // A result dated before team 4's latest match cannot be appended
+        MatchRow late = row(9, 4, 3, D0.plusDays(3), 5, 0);
+        db.add(late);
+        TeamRatingService.enqueue(List.of(result(late)));
+        TeamRatingService.Rating after = service.rating(4L).orElseThrow();
+        assertEquals(4, after.matches());
+        verify(repository, times(2)).forEachScored(any());
+
+        // Changed score of an applied match
+        db.set(0, row(1, 1, 2, D0, 0, 3));
+        TeamRatingService.enqueue(List.of(result(db.get(0))));
+        assertTrue(service.rating(2L).orElseThrow().elo() > 1500);
+        verify(repository, times(3)).forEachScored(any());
+    }
+
+    @Test
+    void withdrawn_results_replay_only_when_already_applied() {
+        season();
+        TeamRatingService service = new TeamRatingService(repository);
+        service.rating(1L).orElseThrow();
+
+        // Unscored match that was never rated
+        TeamRatingService.enqueue(List.of(TeamRatingService.Result.withdrawn(42L)));
+        service.rating(1L).orElseThrow();
+        verify(repository, times(1)).forEachScored(any());
+
+        // Applied match moved back to unplayed
+        db.remove(4);
+        TeamRatingService.enqueue(List.of(TeamRatingService.Result.withdrawn(5L)));
+        assertEquals(2, service.rating(1L).orElseThrow().matches());
+        verify(repository, times(2)).forEachScored(any());
+    }
+
+    @Test
+    void time_travel_reads_history_as_of_a_date() {
+        season();
+        TeamRatingService service = new TeamRatingService(repository);
+
+        assertTrue(service.ratingAt(1L, D0.minusDays(1)).isEmpty());
+        TeamRatingService.Rating afterFirst = service.ratingAt(1L, D0.plusDays(3)).orElseThrow();
+        assertEquals(1, afterFirst.matches());
+        assertEquals(D0, afterFirst.lastPlayed());
+        assertEquals(service.rating(1L).orElseThrow().elo(), service.ratingAt(1L, D0.plusYears(1)).orElseThrow().elo());
+
+        List<TeamRatingService.HistoryPoint> h = service.history(1L, D0.plusDays(1), null);
+        assertEquals(2, h.size());
+        assertEquals(D0.plusWeeks(1), h.get(0).date());
+        assertTrue(h.get(1).elo() > h.get(0).elo());
+
+        List<TeamRatingService.Rating> asOfFirstDay = service.ranking(1L, D0, 0);
+        assertEquals(4, asOfFirstDay.size());
+        assertEquals(1L, asOfFirstDay.get(0).teamId());
+    }
+}
@@ -0,0 +1,96 @@
+package com.chambua.vismart.service;
+
+import com.chambua.vismart.dto.TeamDto;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.TeamAliasRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TeamSearchIndexServiceTest {
+    private TeamRepository teamRepository;
+    private TeamAliasRepository teamAliasRepository;
+    private MatchRepository matchRepository;
+    private TeamSearchIndexService service;
+
+    private static TeamRepository.TeamIndexProjection team(long id, String name, long leagueId, String leagueName) {
+        return new TeamRepository.TeamIndexProjection() {
+            public Long getId() { return id; }
+            public String getName() { return name; }
+            public String getNormalizedName() { return name.toLowerCase(); }
+            public Long getLeagueId() { return leagueId; }
+            public String getLeagueName() { return leagueName; }
+        };
+    }
+
+    @BeforeEach
+    void setup() {
+        teamRepository = Mockito.mock(TeamRepository.class);
+        teamAliasRepository = Mockito.mock(TeamAliasRepository.class);
+        matchRepository = Mockito.mock(MatchRepository.class);
+        given(teamRepository.findAllForSearchIndex()).willReturn(List.of(
+                team(1, "manchester united", 10, "Premier League"),
+                team(2, "manchester city", 10, "Premier League"),
+                team(3, "united fc", 20, "Other League"),
+                team(4, "arsenal", 10, "Premier League")
+        ));
+        List<Object[]> aliases = new ArrayList<>();
+        aliases.add(new Object[]{4L, "The Gunners"});
+        given(teamAliasRepository.findAllTeamIdAliasPairs()).willReturn(aliases);
+        List<Object[]> home = new ArrayList<>();
+        home.add(new Object[]{2L, 50L});
+        home.add(new Object[]{1L, 10L});
+        given(matchRepository.countPlayedGroupedByHomeTeam()).willReturn(home);
+        given(matchRepository.countPlayedGroupedByAwayTeam()).willReturn(List.of());
+        service = new TeamSearchIndexService(teamRepository, teamAliasRepository, matchRepository);
+    }
+
+    private List<Long> ids(List<TeamDto> list) {
+        return list.stream().map(TeamDto::id).toList();
+    }
+
+    @Test
+    void substring_matches_rank_by_quality_then_activity() {
+        List<TeamDto> res = service.search("manchester", null, 20).orElseThrow();
+        // both are prefix matches; city has more played matches
+        assertEquals(List.of(2L, 1L), ids(res));
+
+        List<TeamDto> united = service.search("united", null, 20).orElseThrow();
+        // "united fc" is a prefix match, "manchester united" a word match
+        assertEquals(List.of(3L, 1L), ids(united));
+    }
+
+    @Test
+    void alias_match_and_league_filter() {
+        assertEquals(List.of(4L), ids(service.search("GUNNERS", null, 20).orElseThrow()));
+        assertEquals(List.of(1L), ids(service.search("united", 10L, 20).orElseThrow()));
+        assertTrue(service.search("united", 99L, 20).orElseThrow().isEmpty());
+        assertTrue(service.search("zzz", null, 20).orElseThrow().isEmpty());
+        assertEquals(1, service.search("manchester", null, 1).orElseThrow().size());
+    }
+
+    @Test
+    void rebuilds_only_after_invalidation() {
+        service.search("arsenal", null, 5);
+        service.search("arsenal", null, 5);
+        verify(teamRepository, times(1)).findAllForSearchIndex();
+        TeamSearchIndexService.invalidate();
+        service.search("arsenal", null, 5);
+        verify(teamRepository, times(2)).findAllForSearchIndex();
+    }
+
+    @Test
+    void unavailable_index_signals_fallback() {
+        given(teamRepository.findAllForSearchIndex()).willThrow(new RuntimeException("db down"));
+        assertTrue(service.search("arsenal", null, 5).isEmpty());
+    }
+}
@@ -0,0 +1,20 @@
+package com.chambua.vismart.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test when its body issues more than {@link #value()} SQL statements. Only the test method is measured;
+ * fixture data written in {@code @BeforeEach} does not count. The DataSource must be the counting proxy, i.e. the
+ * context includes QueryCountConfig (add it to {@code @Import} in {@code @DataJpaTest} slices).
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,34 @@
+package com.chambua.vismart.support;
+
+import com.chambua.vismart.util.QueryCounter;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/** Enforces {@link QueryBudget}; a method-level budget overrides the class-level one. */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NS = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NS).put("scope", QueryCounter.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCounter.Scope scope = context.getStore(NS).remove("scope", QueryCounter.Scope.class);
+        if (scope == null) return;
+        scope.close();
+        if (context.getExecutionException().isPresent()) return;
+        int budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), QueryBudget.class))
+                .map(QueryBudget::value)
+                .orElse(Integer.MAX_VALUE);
+        if (scope.count() > budget) {
+            throw new AssertionError("Query budget exceeded: " + scope.count() + " statements > " + budget
+                    + " (" + String.format("%.1f", scope.dbMillis()) + " ms)\n" + scope.describe());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.chambua.vismart.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisTraceTest {
+
+    @Test
+    void hooksAreNoOpsWithoutAnOpenTrace() throws Exception {
+        PipelineMetrics.stage("form", System.nanoTime());
+        AnalysisTrace.rows(5);
+        AnalysisTrace.note("h2hPath", "season");
+        Callable<String> task = () -> "x";
+        assertThat(AnalysisTrace.propagate("analysis", task)).isSameAs(task);
+        assertThat(AnalysisTrace.active()).isFalse();
+    }
+
+    @Test
+    void recordsStagesWithQueriesRowsCacheAndNotes() {
+        AnalysisTrace trace = AnalysisTrace.start();
+        long started = System.nanoTime();
+        QueryCounter.record("select form", 1_000_000);
+        QueryCounter.record("select form", 1_000_000);
+        AnalysisTrace.rows(12);
+        PipelineMetrics.cache("team_ratings", true);
+        PipelineMetrics.cache("team_ratings", false);
+        PipelineMetrics.stage("form", started);
+        PipelineMetrics.h2hResolved("league_family");
+        PipelineMetrics.stage("h2h", System.nanoTime());
+
+        AnalysisTrace.Report report = trace.finish();
+
+        assertThat(AnalysisTrace.active()).isFalse();
+        assertThat(report.queries()).isEqualTo(2);
+        assertThat(report.dbMs()).isEqualTo(2.0);
+        assertThat(report.stages()).extracting(AnalysisTrace.Stage::name).containsExactly("form", "h2h");
+        AnalysisTrace.Stage form = report.stages().get(0);
+        assertThat(form.queries()).isEqualTo(2);
+        assertThat(form.rows()).isEqualTo(12);
+        assertThat(form.cacheHits()).isEqualTo(1);
+        assertThat(form.cacheMisses()).isEqualTo(1);
+        assertThat(report.stages().get(1).queries()).isZero();
+        assertThat(report.stages().get(1).rows()).isZero();
+        assertThat(report.notes()).containsEntry("h2hPath", "league_family");
+    }
+
+    @Test
+    void propagatedTasksMergeUnderTheirLabel() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            AnalysisTrace trace = AnalysisTrace.start();
+            String result = pool.submit(AnalysisTrace.propagate("analysis", () -> {
+                QueryCounter.record("select h2h", 0);
+                PipelineMetrics.h2hResolved("season");
+                PipelineMetrics.stage("h2h", System.nanoTime());
+                return "done";
+            })).get();
+
+            AnalysisTrace.Report report = trace.finish();
+
+            assertThat(result).isEqualTo("done");
+            assertThat(report.stages()).extracting(AnalysisTrace.Stage::name).containsExactly("analysis/h2h");
+            assertThat(report.notes()).containsEntry("analysis/h2hPath", "season");
+            assertThat(report.queries()).isEqualTo(1);
+            assertThat(pool.submit(AnalysisTrace::active).get()).isFalse();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
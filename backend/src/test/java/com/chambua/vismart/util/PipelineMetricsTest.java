@@ -0,0 +1,55 @@
+package com.chambua.vismart.util;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void attach() {
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void detach() {
+        Metrics.removeRegistry(registry);
+        registry.close();
+    }
+
+    @Test
+    void recordsStagesCachesAndImports() {
+        long started = System.nanoTime() - 5_000_000L;
+        PipelineMetrics.stage("form", started);
+        PipelineMetrics.stage("form", started);
+        PipelineMetrics.h2hResolved("league_family");
+        PipelineMetrics.cache("team_ratings", true);
+        PipelineMetrics.cache("team_ratings", true);
+        PipelineMetrics.cache("team_ratings", false);
+        PipelineMetrics.importBatch("archive_csv", 500, started);
+        PipelineMetrics.importBatch("archive_csv", 120, started);
+        PipelineMetrics.importRun("archive_csv", "success", started);
+
+        assertThat(registry.get("vismart.analysis.stage").tag("stage", "form").timer().count()).isEqualTo(2);
+        assertThat(registry.get("vismart.analysis.stage").tag("stage", "form").timer().totalTime(java.util.concurrent.TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(10.0);
+        assertThat(registry.get("vismart.analysis.h2h.resolution").tag("tier", "league_family").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("vismart.cache.gets").tags("cache", "team_ratings", "result", "hit").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("vismart.cache.gets").tags("cache", "team_ratings", "result", "miss").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("vismart.import.batch").tag("pipeline", "archive_csv").timer().count()).isEqualTo(2);
+        assertThat(registry.get("vismart.import.rows").tag("pipeline", "archive_csv").counter().count()).isEqualTo(620.0);
+        assertThat(registry.get("vismart.import.run").tags("pipeline", "archive_csv", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyBatchesAddNoRows() {
+        PipelineMetrics.importRows("fixture_upload", 0);
+        assertThat(registry.find("vismart.import.rows").counter()).isNull();
+    }
+}
@@ -0,0 +1,40 @@
+package com.chambua.vismart.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCounterTest {
+
+    @Test
+    void countsOnlyWhileOpenAndFeedsEnclosingScopes() {
+        QueryCounter.record("select 0", 1_000);
+        assertThat(QueryCounter.active()).isFalse();
+
+        try (QueryCounter.Scope outer = QueryCounter.open()) {
+            QueryCounter.record("select 1", 2_000_000);
+            try (QueryCounter.Scope inner = QueryCounter.open()) {
+                QueryCounter.record("select 2", 1_000_000);
+                QueryCounter.record("select 2", 1_000_000);
+                assertThat(inner.count()).isEqualTo(2);
+            }
+            QueryCounter.record("select 3", 0);
+            assertThat(outer.count()).isEqualTo(4);
+            assertThat(outer.dbMillis()).isEqualTo(4.0);
+            assertThat(outer.repeated(2)).containsExactly(Map.entry("select 2", 2));
+            assertThat(outer.describe()).contains("   2x select 2");
+        }
+        assertThat(QueryCounter.active()).isFalse();
+    }
+
+    @Test
+    void repeatedListsMostFrequentFirst() {
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            for (int i = 0; i < 3; i++) QueryCounter.record("select a", 0);
+            for (int i = 0; i < 5; i++) QueryCounter.record("select b", 0);
+            assertThat(scope.repeated(3)).extracting(Map.Entry::getKey).containsExactly("select b", "select a");
+        }
+    }
+}
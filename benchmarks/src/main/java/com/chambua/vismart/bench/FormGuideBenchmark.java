@@ -0,0 +1,81 @@
+package com.chambua.vismart.bench;
+
+import com.chambua.vismart.repository.MatchRow;
+import com.chambua.vismart.service.FormWeighting;
+import com.chambua.vismart.service.ModelParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The form guide's weighted window ({@link FormWeighting#split}): the fold alone over rows already newest first,
+ * and sort + fold over rows in arbitrary order as the form guide's SQL returns them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormGuideBenchmark {
+
+    private static final Comparator<Game> NEWEST_FIRST =
+            Comparator.comparing(Game::date).reversed().thenComparing(Game::round, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    /** One split's match from the team's perspective. */
+    private record Game(LocalDate date, Integer round, int goalsFor, int goalsAgainst) implements FormWeighting.Result {}
+
+    /** Rows available for the team (one split). */
+    @Param({"19", "114"})
+    public int rows;
+
+    /** Form window; 6 is the default, 50 the largest the parameters allow. */
+    @Param({"6", "50"})
+    public int limit;
+
+    private final ModelParameters parameters = ModelParameters.DEFAULTS;
+    private List<Game> newestFirst;
+    private List<Game> shuffled;
+
+    @Setup
+    public void setUp() {
+        String team = SyntheticData.teamName(0);
+        List<MatchRow> history = SyntheticData.recentFor(SyntheticData.league(20, 6, SyntheticData.SEED), team, rows);
+        newestFirst = new ArrayList<>(history.size());
+        for (MatchRow m : history) {
+            boolean home = team.equals(m.homeTeamName());
+            newestFirst.add(new Game(m.date(), m.round(), home ? m.homeGoals() : m.awayGoals(), home ? m.awayGoals() : m.homeGoals()));
+        }
+        shuffled = new ArrayList<>(newestFirst);
+        Collections.shuffle(shuffled, new Random(SyntheticData.SEED));
+    }
+
+    @Benchmark
+    public FormWeighting.Split split() {
+        return FormWeighting.split(newestFirst, limit, parameters);
+    }
+
+    @Benchmark
+    public FormWeighting.Split sortAndSplit() {
+        // The form guide sorts its split lists in place, so every invocation gets a fresh unsorted copy
+        List<Game> list = new ArrayList<>(shuffled);
+        list.sort(NEWEST_FIRST);
+        return FormWeighting.split(list, limit, parameters);
+    }
+}
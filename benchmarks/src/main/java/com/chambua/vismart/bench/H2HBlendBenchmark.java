@@ -0,0 +1,66 @@
+package com.chambua.vismart.bench;
+
+import com.chambua.vismart.service.DeterministicModel;
+import com.chambua.vismart.service.ModelParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** The recency-weighted H2H blend applied on top of the form stage. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class H2HBlendBenchmark {
+
+    /** Number of H2H games available; the model reads at most {@code h2hLimit} of them. */
+    @Param({"6", "40"})
+    public int games;
+
+    @Param({"false", "true"})
+    public boolean fixturesMode;
+
+    private ModelParameters params;
+    private List<DeterministicModel.H2HGame> h2h;
+    private DeterministicModel.Blend form;
+    private DeterministicModel.TeamForm homeForm;
+    private DeterministicModel.TeamForm awayForm;
+
+    @Setup
+    public void setUp() {
+        // Widen the window so the larger parameter actually exercises a longer loop
+        ModelParameters d = ModelParameters.DEFAULTS;
+        params = new ModelParameters(d.version(), d.formLimit(), Math.max(d.h2hLimit(), games), d.recencyDecay(),
+                d.formScaleFixtures(), d.formScaleMatch(), d.h2hScale(), d.alphaCapFixtures(), d.alphaCapMatch(), d.xgMin(), d.xgMax());
+        h2h = SyntheticData.h2hGames(games, SyntheticData.SEED);
+        form = new DeterministicModel.Blend(45, 27, 28, 52, 48);
+        SplittableRandom rnd = new SplittableRandom(SyntheticData.SEED);
+        homeForm = SyntheticData.teamForm(rnd);
+        awayForm = SyntheticData.teamForm(rnd);
+    }
+
+    @Benchmark
+    public DeterministicModel.H2HStage h2hStage() {
+        return DeterministicModel.h2hStage(params, form, h2h, fixturesMode);
+    }
+
+    @Benchmark
+    public DeterministicModel.Blend h2hStageWithFixturesBias() {
+        DeterministicModel.H2HStage s = DeterministicModel.h2hStage(params, form, h2h, fixturesMode);
+        return DeterministicModel.fixturesBias(s.blend(), h2h, homeForm, awayForm);
+    }
+}
@@ -0,0 +1,63 @@
+package com.chambua.vismart.bench;
+
+import com.chambua.vismart.service.DeterministicModel;
+import com.chambua.vismart.service.ModelParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** The Poisson block of the match analysis: xG from the form guide, then the 0..10 score grid. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoissonBenchmark {
+
+    private static final int PAIRS = 256;
+
+    private DeterministicModel.TeamForm[] home;
+    private DeterministicModel.TeamForm[] away;
+    private double[] xg;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(SyntheticData.SEED);
+        home = new DeterministicModel.TeamForm[PAIRS];
+        away = new DeterministicModel.TeamForm[PAIRS];
+        xg = new double[PAIRS * 2];
+        for (int i = 0; i < PAIRS; i++) {
+            home[i] = SyntheticData.teamForm(rnd);
+            away[i] = SyntheticData.teamForm(rnd);
+            xg[2 * i] = 0.3 + rnd.nextDouble() * 2.7;
+            xg[2 * i + 1] = 0.3 + rnd.nextDouble() * 2.7;
+        }
+    }
+
+    @Benchmark
+    public DeterministicModel.Poisson poissonGrid() {
+        int i = next++ & (PAIRS - 1);
+        return DeterministicModel.poisson(xg[2 * i], xg[2 * i + 1]);
+    }
+
+    @Benchmark
+    public void expectedGoalsAndPoisson(Blackhole bh) {
+        int i = next++ & (PAIRS - 1);
+        DeterministicModel.ExpectedGoals x = DeterministicModel.expectedGoals(ModelParameters.DEFAULTS, home[i], away[i], false);
+        bh.consume(x);
+        bh.consume(DeterministicModel.poisson(x.home(), x.away()));
+    }
+}
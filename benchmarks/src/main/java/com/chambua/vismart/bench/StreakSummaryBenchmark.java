@@ -0,0 +1,92 @@
+package com.chambua.vismart.bench;
+
+import com.chambua.vismart.controller.TeamController;
+import com.chambua.vismart.model.Team;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.MatchRow;
+import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.service.TeamHistoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streak summary for one team ({@code GET /api/teams/{id}/streak-summary}): the selected team's timeline plus
+ * the pre-match longest streaks of every opponent. History reads are served from memory, so this measures the
+ * controller's streak computation only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreakSummaryBenchmark {
+
+    /** Seasons of history for a 20-team league (38 matches per team per season). */
+    @Param({"2", "8"})
+    public int seasons;
+
+    private TeamController controller;
+
+    /** Answers the history reads from a fixed list of rows. */
+    static final class InMemoryHistory extends TeamHistoryService {
+        private final List<MatchRow> rows;
+
+        InMemoryHistory(List<MatchRow> rows) {
+            super(null);
+            this.rows = rows;
+        }
+
+        @Override
+        public List<MatchRow> recent(String teamName, int n, Filters filters) {
+            return SyntheticData.recentFor(rows, teamName, n);
+        }
+
+        @Override
+        public List<MatchRow> scoredForAnyTeamNames(Collection<String> names) {
+            Set<String> keys = new HashSet<>();
+            for (String n : names) keys.add(n.trim().toLowerCase());
+            List<MatchRow> out = new ArrayList<>();
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                MatchRow m = rows.get(i);
+                if (keys.contains(m.homeTeamName().toLowerCase()) || keys.contains(m.awayTeamName().toLowerCase())) out.add(m);
+            }
+            return out;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        List<MatchRow> rows = SyntheticData.league(20, seasons, SyntheticData.SEED);
+        Team team = new Team();
+        team.setId(1L);
+        team.setName(SyntheticData.teamName(0));
+        TeamRepository teams = Stubs.repository(TeamRepository.class, Map.of("findById", Optional.of(team)));
+        controller = new TeamController(teams, null);
+        Stubs.inject(controller, "matchRepository", Stubs.repository(MatchRepository.class, Map.of()));
+        Stubs.inject(controller, "teamHistoryService", new InMemoryHistory(rows));
+    }
+
+    @Benchmark
+    public Object streakSummary() {
+        return controller.getStreakSummary(1L).getBody();
+    }
+}
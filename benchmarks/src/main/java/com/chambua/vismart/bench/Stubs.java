@@ -0,0 +1,45 @@
+package com.chambua.vismart.bench;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories so the services can be driven without a database.
+ * Methods listed in {@code answers} return the given value; everything else returns an empty value
+ * matching its return type (empty Optional/collection, zero, false or null).
+ */
+public final class Stubs {
+
+    private Stubs() {}
+
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (answers.containsKey(method.getName())) return answers.get(method.getName());
+            Class<?> rt = method.getReturnType();
+            if (method.getName().equals("toString")) return "Stub(" + type.getSimpleName() + ")";
+            if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+            if (method.getName().equals("equals")) return proxy == args[0];
+            if (rt == Optional.class) return Optional.empty();
+            if (java.util.List.class.isAssignableFrom(rt) || rt == Iterable.class) return java.util.List.of();
+            if (java.util.Set.class.isAssignableFrom(rt)) return java.util.Set.of();
+            if (rt == boolean.class) return false;
+            if (rt == long.class) return 0L;
+            if (rt == int.class) return 0;
+            return null;
+        });
+    }
+
+    /** Sets an optional {@code @Autowired(required = false)} field, as Spring would. */
+    public static void inject(Object target, String field, Object value) {
+        try {
+            Field f = target.getClass().getDeclaredField(field);
+            f.setAccessible(true);
+            f.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + field + " into " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.chambua.vismart.bench;
+
+import com.chambua.vismart.repository.MatchRow;
+import com.chambua.vismart.service.DeterministicModel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic inputs for the benchmarks. Every generator is deterministic for a given seed so runs
+ * are comparable across commits; goal counts follow a rough Poisson(1.4) shape like real league data.
+ */
+public final class SyntheticData {
+
+    public static final long SEED = 20240801L;
+    public static final LocalDate SEASON_START = LocalDate.of(2023, 8, 5);
+
+    private SyntheticData() {}
+
+    public static String teamName(int i) {
+        return "Team " + (char) ('A' + i % 26) + (i / 26 == 0 ? "" : String.valueOf(i / 26));
+    }
+
+    /** Knuth sampling, fine for the small means used here. */
+    public static int goals(SplittableRandom rnd, double mean) {
+        double l = Math.exp(-mean), p = 1.0;
+        int k = 0;
+        do { k++; p *= rnd.nextDouble(); } while (p > l);
+        return k - 1;
+    }
+
+    /**
+     * A double round robin league of {@code teams} teams repeated for {@code seasons} seasons, oldest first.
+     * Ids are 1-based and stable: team i has id i + 1, matches are numbered in play order.
+     */
+    public static List<MatchRow> league(int teams, int seasons, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<MatchRow> rows = new ArrayList<>();
+        long id = 1;
+        int rounds = 2 * (teams - 1);
+        for (int s = 0; s < seasons; s++) {
+            LocalDate start = SEASON_START.minusYears(seasons - 1 - s);
+            String seasonName = start.getYear() + "/" + (start.getYear() + 1);
+            for (int r = 0; r < rounds; r++) {
+                // Circle method: team 0 fixed, the rest rotate; second half swaps home and away
+                int half = r % (teams - 1);
+                for (int k = 0; k < teams / 2; k++) {
+                    int a = k == 0 ? 0 : 1 + (half + k - 1) % (teams - 1);
+                    int b = 1 + (half + teams - 2 - k) % (teams - 1);
+                    int home = r < teams - 1 ? a : b, away = r < teams - 1 ? b : a;
+                    rows.add(new MatchRow(id++, 1L, "Synthetic League", (long) s + 1, seasonName,
+                            (long) home + 1, teamName(home), (long) away + 1, teamName(away),
+                            start.plusWeeks(r), r + 1, goals(rnd, 1.55), goals(rnd, 1.2)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /** Played rows of one team, newest first, as the history reads return them. */
+    public static List<MatchRow> recentFor(List<MatchRow> rows, String teamName, int limit) {
+        List<MatchRow> out = new ArrayList<>();
+        for (int i = rows.size() - 1; i >= 0 && out.size() < limit; i--) {
+            MatchRow m = rows.get(i);
+            if (teamName.equalsIgnoreCase(m.homeTeamName()) || teamName.equalsIgnoreCase(m.awayTeamName())) out.add(m);
+        }
+        return out;
+    }
+
+    public static List<DeterministicModel.H2HGame> h2hGames(int n, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<DeterministicModel.H2HGame> games = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) games.add(new DeterministicModel.H2HGame(goals(rnd, 1.5), goals(rnd, 1.1), true));
+        return games;
+    }
+
+    public static DeterministicModel.TeamForm teamForm(SplittableRandom rnd) {
+        int mp = 10 + rnd.nextInt(28);
+        int w = rnd.nextInt(mp / 2 + 1);
+        int gf = (int) (mp * (0.8 + rnd.nextDouble())), ga = (int) (mp * (0.8 + rnd.nextDouble()));
+        int hm = mp / 2, am = mp - hm;
+        return new DeterministicModel.TeamForm(mp, w, gf, ga, 0.5 + rnd.nextDouble() * 2, rnd.nextInt(101), rnd.nextInt(101),
+                0.6 + rnd.nextDouble() * 2, 0.6 + rnd.nextDouble() * 2,
+                hm, 0.5 + rnd.nextDouble() * 2, 0.6 + rnd.nextDouble() * 2, 0.6 + rnd.nextDouble() * 2, rnd.nextInt(101), rnd.nextInt(101),
+                am, 0.5 + rnd.nextDouble() * 2, 0.6 + rnd.nextDouble() * 2, 0.6 + rnd.nextDouble() * 2, rnd.nextInt(101), rnd.nextInt(101));
+    }
+
+    /**
+     * Upload text in the two formats the parser accepts: "Round N" headers followed by either
+     * "yyyy-MM-dd, Home - Away, h-a" lines (even rounds) or vertical day.month. time blocks (odd rounds).
+     */
+    public static String uploadText(int teams, int rounds, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        StringBuilder sb = new StringBuilder(rounds * teams * 24);
+        for (int r = 0; r < rounds; r++) {
+            LocalDate date = SEASON_START.plusWeeks(r);
+            sb.append("Round ").append(r + 1).append('\n');
+            for (int k = 0; k < teams / 2; k++) {
+                String home = teamName((k + r) % teams), away = teamName((teams - 1 - k + r) % teams);
+                int hg = goals(rnd, 1.55), ag = goals(rnd, 1.2);
+                if (r % 2 == 0) {
+                    sb.append(date).append(", ").append(home).append(" - ").append(away).append(", ")
+                            .append(hg).append('-').append(ag).append('\n');
+                } else {
+                    sb.append(String.format("%02d.%02d. 15:00", date.getDayOfMonth(), date.getMonthValue())).append('\n')
+                            .append(home).append('\n').append(home).append('\n')
+                            .append(away).append('\n').append(away).append('\n')
+                            .append(hg).append('\n').append(ag).append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.chambua.vismart.bench;
+
+import com.chambua.vismart.model.League;
+import com.chambua.vismart.repository.CountryRepository;
+import com.chambua.vismart.repository.LeagueRepository;
+import com.chambua.vismart.repository.MatchRepository;
+import com.chambua.vismart.repository.SeasonRepository;
+import com.chambua.vismart.repository.TeamRepository;
+import com.chambua.vismart.service.MatchDataValidationService;
+import com.chambua.vismart.service.MatchUploadService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text upload in dry-run mode: line parsing (flat and vertical formats), validation and the season window check,
+ * without the persistence step. The league lookup is answered from memory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UploadParseBenchmark {
+
+    /** Rounds of a 20-team league in the pasted text; 38 is a full season. */
+    @Param({"1", "38"})
+    public int rounds;
+
+    private MatchUploadService service;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        League league = new League("Synthetic League", "England", "2023/2024");
+        league.setId(1L);
+        LeagueRepository leagues = Stubs.repository(LeagueRepository.class,
+                Map.of("findByNameIgnoreCaseAndCountryIgnoreCaseAndSeason", Optional.of(league)));
+        service = new MatchUploadService(leagues, Stubs.repository(TeamRepository.class, Map.of()),
+                Stubs.repository(MatchRepository.class, Map.of()), new MatchDataValidationService(),
+                Stubs.repository(SeasonRepository.class, Map.of()), Stubs.repository(CountryRepository.class, Map.of()));
+        text = SyntheticData.uploadText(20, rounds, SyntheticData.SEED);
+        MatchUploadService.UploadResult probe = parse();
+        if (!probe.success()) throw new IllegalStateException("Synthetic upload text does not parse: " + probe.errors());
+    }
+
+    @Benchmark
+    public MatchUploadService.UploadResult parse() {
+        return service.uploadText("Synthetic League", "England", "2023/2024", null, text,
+                false, false, false, false, false, true, false);
+    }
+}
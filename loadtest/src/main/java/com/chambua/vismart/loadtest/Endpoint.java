@@ -0,0 +1,89 @@
+package com.chambua.vismart.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The endpoints under load with their share of weekday and match-day traffic. Match days shift traffic towards
+ * the fixtures board, analysis and recommendations; the weights only need to be relative.
+ */
+public enum Endpoint {
+    MATCH_ANALYSIS("POST /api/match-analysis/analyze", 15, 20),
+    FIXTURES_BY_DATE("GET /api/fixtures/by-date", 25, 30),
+    FORM_GUIDE("GET /api/form-guide/{leagueId}", 15, 10),
+    STREAK_SUMMARY("GET /api/teams/{id}/streak-summary", 10, 10),
+    GLOBAL_LEADERS("GET /api/global-leaders", 10, 5),
+    QUICK_INSIGHTS("GET /api/insights/quick", 15, 15),
+    RECOMMENDATION("GET /api/recommendations/fixture", 10, 10);
+
+    private static final List<String> LEADER_CATEGORIES = List.of("btts", "over15", "over25", "wins", "draws");
+    private static final List<String> SCOPES = List.of("overall", "home", "away");
+
+    public final String label;
+    public final int weekdayWeight;
+    public final int matchdayWeight;
+
+    Endpoint(String label, int weekdayWeight, int matchdayWeight) {
+        this.label = label;
+        this.weekdayWeight = weekdayWeight;
+        this.matchdayWeight = matchdayWeight;
+    }
+
+    /** A request against a random target, drawn from {@code rnd} so a seeded run replays the same sequence. */
+    public HttpRequest.Builder request(String baseUrl, Targets t, SplittableRandom rnd) {
+        Targets.Fixture f = t.fixtures().get(rnd.nextInt(t.fixtures().size()));
+        Long seasonId = t.seasonOf(f.leagueId());
+        return switch (this) {
+            case MATCH_ANALYSIS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/match-analysis/analyze"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"leagueId\":" + f.leagueId()
+                            + (seasonId != null ? ",\"seasonId\":" + seasonId : "")
+                            + ",\"homeTeamName\":" + quote(f.homeTeam()) + ",\"awayTeamName\":" + quote(f.awayTeam())
+                            + ",\"analysisType\":\"" + (rnd.nextInt(4) == 0 ? "match" : "fixtures") + "\"}"));
+            case FIXTURES_BY_DATE -> get(baseUrl + "/api/fixtures/by-date?date=" + t.dates().get(rnd.nextInt(t.dates().size())));
+            case FORM_GUIDE -> get(baseUrl + "/api/form-guide/" + f.leagueId() + "?limit=6&scope=" + SCOPES.get(rnd.nextInt(SCOPES.size()))
+                    + (seasonId != null ? "&seasonId=" + seasonId : ""));
+            case STREAK_SUMMARY -> get(baseUrl + "/api/teams/" + t.teamIds().get(rnd.nextInt(t.teamIds().size())) + "/streak-summary");
+            case GLOBAL_LEADERS -> get(baseUrl + "/api/global-leaders?limit=5&category=" + LEADER_CATEGORIES.get(rnd.nextInt(LEADER_CATEGORIES.size()))
+                    + (rnd.nextBoolean() ? "&leagueId=" + f.leagueId() : ""));
+            case QUICK_INSIGHTS -> get(baseUrl + "/api/insights/quick");
+            case RECOMMENDATION -> get(baseUrl + "/api/recommendations/fixture?fixtureId=" + f.id() + "&leagueId=" + f.leagueId()
+                    + (seasonId != null ? "&seasonId=" + seasonId : "")
+                    + "&homeTeamName=" + encode(f.homeTeam()) + "&awayTeamName=" + encode(f.awayTeam()));
+        };
+    }
+
+    /** Picks an endpoint in proportion to its weekday or match-day weight. */
+    public static Endpoint pick(SplittableRandom rnd, boolean matchday) {
+        int total = 0;
+        for (Endpoint e : values()) total += matchday ? e.matchdayWeight : e.weekdayWeight;
+        int x = rnd.nextInt(total);
+        for (Endpoint e : values()) {
+            x -= matchday ? e.matchdayWeight : e.weekdayWeight;
+            if (x < 0) return e;
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET();
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
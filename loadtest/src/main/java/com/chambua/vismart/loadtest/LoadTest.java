@@ -0,0 +1,150 @@
+package com.chambua.vismart.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a traffic mix against a running backend and reports throughput and latency percentiles per endpoint.
+ *
+ * Load is open-model: requests are released on a seeded Poisson schedule at the stage's target rate whether or
+ * not earlier ones have returned, so a slow server shows up as latency and errors rather than as a quietly lower
+ * request rate. Scenarios: {@code weekday}, {@code matchday} (weekday rate × matchdayMultiplier), {@code all}
+ * (both), and {@code ramp}, which steps the match-day mix through {@code rampSteps} multiples of the weekday rate
+ * and stops at the first stage that breaks the p99 SLO or the error budget.
+ */
+public final class LoadTest {
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final ExecutorService executor;
+
+    LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2), r -> {
+            Thread t = new Thread(r, "loadtest-http");
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        int exit = new LoadTest(config).run();
+        if (exit != 0) System.exit(exit);
+    }
+
+    int run() throws Exception {
+        String startedAt = Instant.now().toString();
+        System.out.printf("[LoadTest] %s against %s%n", config.describe(), config.baseUrl());
+        Targets targets = Targets.discover(client, config.baseUrl(), config.date(), Report.json());
+        System.out.printf("[LoadTest] targets: %d fixtures in %d leagues over %d dates, %d teams%n", targets.fixtures().size(),
+                targets.seasonByLeague().size(), targets.dates().size(), targets.teamIds().size());
+
+        List<Report.Stage> stages = new ArrayList<>();
+        String breakingPoint = null;
+        SplittableRandom rnd = new SplittableRandom(config.seed());
+        switch (config.scenario()) {
+            case "weekday" -> stages.add(stage("weekday", 1.0, false, targets, rnd));
+            case "matchday" -> stages.add(stage("matchday", config.matchdayMultiplier(), true, targets, rnd));
+            case "all" -> {
+                stages.add(stage("weekday", 1.0, false, targets, rnd));
+                stages.add(stage("matchday", config.matchdayMultiplier(), true, targets, rnd));
+            }
+            default -> {
+                for (double step : config.rampSteps()) {
+                    Report.Stage s = stage("ramp x" + trim(step), step, true, targets, rnd);
+                    stages.add(s);
+                    if (s.breakReason() != null) {
+                        breakingPoint = "x" + trim(step) + " weekday load (" + s.targetRps() + " req/s): " + s.breakReason();
+                        break;
+                    }
+                }
+            }
+        }
+        executor.shutdownNow();
+
+        Report.Run run = new Report.Run(config.baseUrl(), startedAt, config.describe(), stages, breakingPoint);
+        List<Report.Regression> regressions = null;
+        if (config.baseline() != null) {
+            regressions = Report.compare(Report.read(config.baseline()), run, config.regressionTolerance());
+            for (Report.Regression r : regressions) {
+                System.out.printf("[LoadTest][Regression] %s %s %s %.2f -> %.2f (%+.0f%%)%n", r.stage(), r.endpoint(), r.metric(),
+                        r.baseline(), r.current(), r.change() * 100);
+            }
+        }
+        Report.write(run, regressions, config.reportDir());
+        System.out.printf("[LoadTest] report: %s%n", config.reportDir().resolve("report.html").toAbsolutePath());
+        if (breakingPoint != null) System.out.printf("[LoadTest] breaking point: %s%n", breakingPoint);
+        return config.failOnRegression() && regressions != null && !regressions.isEmpty() ? 2 : 0;
+    }
+
+    private Report.Stage stage(String name, double multiplier, boolean matchday, Targets targets, SplittableRandom rnd) throws InterruptedException {
+        double rate = config.weekdayRps() * multiplier;
+        System.out.printf("[LoadTest] stage %s: %.1f req/s, %ds warm-up + %ds%n", name, rate, config.warmupSeconds(), config.durationSeconds());
+        Recorder recorder = new Recorder();
+        AtomicInteger inFlight = new AtomicInteger();
+        double meanGapNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        long next = start;
+        while (true) {
+            next += (long) (-Math.log(1.0 - rnd.nextDouble()) * meanGapNanos);
+            if (next >= end) break;
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            Endpoint e = Endpoint.pick(rnd, matchday);
+            HttpRequest request = e.request(config.baseUrl(), targets, rnd).timeout(Duration.ofMillis(config.timeoutMs())).build();
+            boolean measured = next >= measureFrom;
+            if (inFlight.get() >= config.maxInFlight()) {
+                if (measured) recorder.dropped(e);
+                continue;
+            }
+            inFlight.incrementAndGet();
+            long intended = next;
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((resp, err) -> {
+                inFlight.decrementAndGet();
+                if (measured) recorder.record(e, System.nanoTime() - intended, err != null ? -1 : resp.statusCode());
+            });
+        }
+        // Let outstanding requests finish (or time out) so the tail is part of the stage
+        long drainUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.timeoutMs() + 1000L);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) Thread.sleep(20);
+
+        double seconds = config.durationSeconds();
+        List<Report.EndpointStats> endpoints = new ArrayList<>();
+        for (Endpoint e : Endpoint.values()) endpoints.add(recorder.stats(e, seconds));
+        Report.Stage partial = new Report.Stage(name, multiplier, rate, config.durationSeconds(), endpoints, recorder.total(seconds), null);
+        Report.Stage s = new Report.Stage(name, multiplier, rate, config.durationSeconds(), endpoints, partial.total(),
+                Report.breakReason(partial, config.sloP99Ms(), config.maxErrorRate()));
+        print(s);
+        return s;
+    }
+
+    private static void print(Report.Stage s) {
+        System.out.printf("%-40s %8s %6s %7s %8s %9s %9s %9s%n", s.name(), "requests", "errors", "dropped", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        List<Report.EndpointStats> rows = new ArrayList<>(s.endpoints());
+        rows.add(s.total());
+        for (Report.EndpointStats e : rows) {
+            System.out.printf("%-40s %8d %6d %7d %8.1f %9.1f %9.1f %9.1f%n", e.endpoint(), e.requests(), e.errors(), e.dropped(),
+                    e.throughputRps(), e.p50Ms(), e.p95Ms(), e.p99Ms());
+        }
+        if (s.breakReason() != null) System.out.printf("[LoadTest] stage %s broke: %s%n", s.name(), s.breakReason());
+    }
+
+    private static String trim(double step) {
+        return step == Math.rint(step) ? String.valueOf((long) step) : String.valueOf(step);
+    }
+}
@@ -0,0 +1,93 @@
+package com.chambua.vismart.loadtest;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Harness settings, read from {@code -Dloadtest.*} system properties (see README.md for the full list).
+ * Rates are requests per second summed over all endpoints; match-day load is {@code matchdayMultiplier}
+ * times the weekday rate.
+ */
+public record LoadTestConfig(String baseUrl,
+                             String scenario,
+                             double weekdayRps,
+                             double matchdayMultiplier,
+                             List<Double> rampSteps,
+                             int durationSeconds,
+                             int warmupSeconds,
+                             int maxInFlight,
+                             int timeoutMs,
+                             int sloP99Ms,
+                             double maxErrorRate,
+                             long seed,
+                             LocalDate date,
+                             Path reportDir,
+                             Path baseline,
+                             double regressionTolerance,
+                             boolean failOnRegression) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        String baseline = prop("baseline", "");
+        String date = prop("date", "");
+        return new LoadTestConfig(
+                stripSlash(prop("baseUrl", "http://localhost:8082")),
+                prop("scenario", "weekday").toLowerCase(),
+                Double.parseDouble(prop("weekdayRps", "5")),
+                Double.parseDouble(prop("matchdayMultiplier", "20")),
+                Arrays.stream(prop("rampSteps", "1,2,5,10,20,30,40").split(",")).map(String::trim).map(Double::parseDouble).toList(),
+                Integer.parseInt(prop("durationSeconds", "60")),
+                Integer.parseInt(prop("warmupSeconds", "10")),
+                Integer.parseInt(prop("maxInFlight", "256")),
+                Integer.parseInt(prop("timeoutMs", "10000")),
+                Integer.parseInt(prop("sloP99Ms", "2000")),
+                Double.parseDouble(prop("maxErrorRate", "0.01")),
+                Long.parseLong(prop("seed", "42")),
+                date.isBlank() ? LocalDate.now() : LocalDate.parse(date),
+                Path.of(prop("reportDir", "target/loadtest")),
+                baseline.isBlank() ? null : Path.of(baseline),
+                Double.parseDouble(prop("regressionTolerance", "0.2")),
+                Boolean.parseBoolean(prop("failOnRegression", "false"))).validate();
+    }
+
+    public LoadTestConfig validate() {
+        if (!List.of("weekday", "matchday", "ramp", "all").contains(scenario)) {
+            throw new IllegalArgumentException("loadtest.scenario must be weekday, matchday, ramp or all");
+        }
+        if (weekdayRps <= 0 || matchdayMultiplier <= 0) throw new IllegalArgumentException("rates must be positive");
+        if (rampSteps.isEmpty() || rampSteps.stream().anyMatch(s -> s <= 0)) throw new IllegalArgumentException("rampSteps must be positive");
+        if (durationSeconds < 1 || warmupSeconds < 0) throw new IllegalArgumentException("durationSeconds must be positive");
+        if (maxInFlight < 1 || timeoutMs < 1 || sloP99Ms < 1) throw new IllegalArgumentException("limits must be positive");
+        return this;
+    }
+
+    /** Settings echoed into the report so two runs can be checked for comparability. */
+    public Map<String, Object> describe() {
+        Map<String, Object> m = new TreeMap<>();
+        m.put("scenario", scenario);
+        m.put("weekdayRps", weekdayRps);
+        m.put("matchdayMultiplier", matchdayMultiplier);
+        m.put("rampSteps", rampSteps);
+        m.put("durationSeconds", durationSeconds);
+        m.put("warmupSeconds", warmupSeconds);
+        m.put("maxInFlight", maxInFlight);
+        m.put("timeoutMs", timeoutMs);
+        m.put("sloP99Ms", sloP99Ms);
+        m.put("maxErrorRate", maxErrorRate);
+        m.put("seed", seed);
+        m.put("date", date.toString());
+        return m;
+    }
+
+    private static String prop(String key, String def) {
+        String v = System.getProperty("loadtest." + key);
+        return v == null || v.isBlank() ? def : v.trim();
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,61 @@
+package com.chambua.vismart.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint outcomes of one stage. Latencies are kept raw (a stage is at most a few hundred thousand requests)
+ * and measured from the intended send time, so queueing in the harness or the server counts against the endpoint.
+ */
+final class Recorder {
+
+    private static final class Series {
+        long[] latencies = new long[1024];
+        int n;
+        long errors;
+        long dropped;
+        final Map<String, Long> statuses = new TreeMap<>();
+    }
+
+    private final Map<Endpoint, Series> series = new EnumMap<>(Endpoint.class);
+
+    Recorder() {
+        for (Endpoint e : Endpoint.values()) series.put(e, new Series());
+    }
+
+    /** {@code status} is the HTTP status, or -1 when the request failed without a response (timeout, refused). */
+    synchronized void record(Endpoint e, long latencyNanos, int status) {
+        Series s = series.get(e);
+        if (s.n == s.latencies.length) s.latencies = Arrays.copyOf(s.latencies, s.n * 2);
+        s.latencies[s.n++] = latencyNanos;
+        if (status < 200 || status >= 400) s.errors++;
+        s.statuses.merge(status < 0 ? "failed" : String.valueOf(status), 1L, Long::sum);
+    }
+
+    /** A request the harness could not send because {@code maxInFlight} requests were already outstanding. */
+    synchronized void dropped(Endpoint e) {
+        series.get(e).dropped++;
+    }
+
+    synchronized Report.EndpointStats stats(Endpoint e, double seconds) {
+        Series s = series.get(e);
+        return Report.EndpointStats.of(e.label, Arrays.copyOf(s.latencies, s.n), s.errors, s.dropped, new TreeMap<>(s.statuses), seconds);
+    }
+
+    synchronized Report.EndpointStats total(double seconds) {
+        long[] all = new long[0];
+        long errors = 0, dropped = 0;
+        Map<String, Long> statuses = new TreeMap<>();
+        for (Series s : series.values()) {
+            int from = all.length;
+            all = Arrays.copyOf(all, from + s.n);
+            System.arraycopy(s.latencies, 0, all, from, s.n);
+            errors += s.errors;
+            dropped += s.dropped;
+            s.statuses.forEach((k, v) -> statuses.merge(k, v, Long::sum));
+        }
+        return Report.EndpointStats.of("ALL", all, errors, dropped, statuses, seconds);
+    }
+}
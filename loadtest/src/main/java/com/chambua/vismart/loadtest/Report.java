@@ -0,0 +1,156 @@
+package com.chambua.vismart.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/** Run results, their JSON/HTML rendering and the comparison against a baseline run. */
+public final class Report {
+
+    private Report() {}
+
+    public record EndpointStats(String endpoint, long requests, long errors, long dropped, double throughputRps,
+                                double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs, Map<String, Long> statuses) {
+
+        static EndpointStats of(String endpoint, long[] latencies, long errors, long dropped, Map<String, Long> statuses, double seconds) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            double mean = sorted.length == 0 ? 0.0 : Arrays.stream(sorted).average().orElse(0.0) / 1e6;
+            return new EndpointStats(endpoint, sorted.length, errors, dropped, round(sorted.length / seconds), round(mean),
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0.0 : round(sorted[sorted.length - 1] / 1e6), statuses);
+        }
+
+        /** Failed plus dropped requests over everything the stage tried to send. */
+        public double errorRate() {
+            long attempted = requests + dropped;
+            return attempted == 0 ? 0.0 : (errors + dropped) / (double) attempted;
+        }
+    }
+
+    public record Stage(String name, double multiplier, double targetRps, int durationSeconds, List<EndpointStats> endpoints,
+                        EndpointStats total, String breakReason) {}
+
+    public record Run(String baseUrl, String startedAt, Map<String, Object> config, List<Stage> stages, String breakingPoint) {}
+
+    public record Regression(String stage, String endpoint, String metric, double baseline, double current, double change) {}
+
+    /** Nearest-rank percentile in milliseconds. */
+    static double percentile(long[] sorted, double q) {
+        if (sorted.length == 0) return 0.0;
+        int rank = (int) Math.ceil(q * sorted.length);
+        return round(sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))] / 1e6);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    /** Why a stage counts as broken (SLO or error budget exceeded), or null when it held. */
+    static String breakReason(Stage stage, int sloP99Ms, double maxErrorRate) {
+        List<String> reasons = new ArrayList<>();
+        for (EndpointStats e : stage.endpoints()) {
+            if (e.requests() + e.dropped() == 0) continue;
+            if (e.p99Ms() > sloP99Ms) reasons.add(e.endpoint() + " p99 " + e.p99Ms() + " ms > " + sloP99Ms + " ms");
+            if (e.errorRate() > maxErrorRate) reasons.add(e.endpoint() + " error rate " + round(e.errorRate() * 100) + "%");
+        }
+        return reasons.isEmpty() ? null : String.join("; ", reasons);
+    }
+
+    /**
+     * Latency percentiles that grew, or throughput that fell, by more than {@code tolerance} relative to the baseline,
+     * matched by stage name and endpoint. Sub-millisecond baselines are skipped to avoid flagging noise.
+     */
+    public static List<Regression> compare(Run baseline, Run current, double tolerance) {
+        List<Regression> out = new ArrayList<>();
+        for (Stage stage : current.stages()) {
+            Optional<Stage> base = baseline.stages().stream().filter(s -> s.name().equals(stage.name())).findFirst();
+            if (base.isEmpty()) continue;
+            for (EndpointStats e : stage.endpoints()) {
+                Optional<EndpointStats> b = base.get().endpoints().stream().filter(x -> x.endpoint().equals(e.endpoint())).findFirst();
+                if (b.isEmpty() || b.get().requests() == 0 || e.requests() == 0) continue;
+                check(out, stage.name(), e.endpoint(), "p50Ms", b.get().p50Ms(), e.p50Ms(), tolerance, true);
+                check(out, stage.name(), e.endpoint(), "p95Ms", b.get().p95Ms(), e.p95Ms(), tolerance, true);
+                check(out, stage.name(), e.endpoint(), "p99Ms", b.get().p99Ms(), e.p99Ms(), tolerance, true);
+                check(out, stage.name(), e.endpoint(), "throughputRps", b.get().throughputRps(), e.throughputRps(), tolerance, false);
+            }
+        }
+        return out;
+    }
+
+    private static void check(List<Regression> out, String stage, String endpoint, String metric, double base, double cur,
+                              double tolerance, boolean higherIsWorse) {
+        if (base < 1.0) return;
+        double change = (cur - base) / base;
+        if (higherIsWorse ? change > tolerance : change < -tolerance) {
+            out.add(new Regression(stage, endpoint, metric, base, cur, round(change * 100) / 100.0));
+        }
+    }
+
+    static ObjectMapper json() {
+        return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public static Run read(Path file) throws IOException {
+        return json().readValue(file.toFile(), Run.class);
+    }
+
+    static void write(Run run, List<Regression> regressions, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        json().writeValue(dir.resolve("report.json").toFile(), run);
+        if (regressions != null) json().writeValue(dir.resolve("regressions.json").toFile(), regressions);
+        Files.writeString(dir.resolve("report.html"), html(run, regressions));
+    }
+
+    static String html(Run run, List<Regression> regressions) {
+        StringBuilder h = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Load test</title><style>")
+                .append("body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;margin-bottom:2em}")
+                .append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}td:first-child,th:first-child{text-align:left}")
+                .append(".bad{background:#fdd}</style></head><body>")
+                .append("<h1>Load test ").append(esc(run.startedAt())).append("</h1><p>").append(esc(run.baseUrl())).append(" &middot; ")
+                .append(esc(String.valueOf(run.config()))).append("</p>");
+        if (run.breakingPoint() != null) h.append("<p class=\"bad\">Breaking point: ").append(esc(run.breakingPoint())).append("</p>");
+        for (Stage s : run.stages()) {
+            h.append("<h2>").append(esc(s.name())).append(" &ndash; ").append(s.targetRps()).append(" req/s target")
+                    .append(s.breakReason() != null ? " <span class=\"bad\">" + esc(s.breakReason()) + "</span>" : "").append("</h2>")
+                    .append("<table><tr><th>Endpoint</th><th>Requests</th><th>Errors</th><th>Dropped</th><th>req/s</th>")
+                    .append("<th>Mean ms</th><th>p50 ms</th><th>p95 ms</th><th>p99 ms</th><th>Max ms</th><th>Statuses</th></tr>");
+            List<EndpointStats> rows = new ArrayList<>(s.endpoints());
+            rows.add(s.total());
+            for (EndpointStats e : rows) {
+                h.append("<tr><td>").append(esc(e.endpoint())).append("</td><td>").append(e.requests()).append("</td><td>").append(e.errors())
+                        .append("</td><td>").append(e.dropped()).append("</td><td>").append(e.throughputRps()).append("</td><td>").append(e.meanMs())
+                        .append("</td><td>").append(e.p50Ms()).append("</td><td>").append(e.p95Ms()).append("</td><td>").append(e.p99Ms())
+                        .append("</td><td>").append(e.maxMs()).append("</td><td>").append(esc(String.valueOf(e.statuses()))).append("</td></tr>");
+            }
+            h.append("</table>");
+        }
+        if (regressions != null) {
+            h.append("<h2>Against baseline</h2>");
+            if (regressions.isEmpty()) h.append("<p>No regressions beyond tolerance.</p>");
+            else {
+                h.append("<table><tr><th>Stage</th><th>Endpoint</th><th>Metric</th><th>Baseline</th><th>Current</th><th>Change</th></tr>");
+                for (Regression r : regressions) {
+                    h.append("<tr class=\"bad\"><td>").append(esc(r.stage())).append("</td><td>").append(esc(r.endpoint())).append("</td><td>")
+                            .append(r.metric()).append("</td><td>").append(r.baseline()).append("</td><td>").append(r.current())
+                            .append("</td><td>").append(Math.round(r.change() * 100)).append("%</td></tr>");
+                }
+                h.append("</table>");
+            }
+        }
+        return h.append("</body></html>").toString();
+    }
+
+    private static String esc(String s) {
+        return s == null ? "" : s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,96 @@
+package com.chambua.vismart.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Real ids and names to put in requests, discovered once from the running backend: fixtures on the board around
+ * the run date (their leagues, current seasons and teams). Requests then only reference entities that exist, so
+ * the load exercises the real query paths instead of 404 shortcuts.
+ */
+public record Targets(List<Fixture> fixtures, List<LocalDate> dates, Map<Long, Long> seasonByLeague, List<Long> teamIds) {
+
+    public record Fixture(long id, long leagueId, String homeTeam, String awayTeam, LocalDate date) {}
+
+    private static final int MAX_FIXTURES = 500;
+    private static final int MAX_LEAGUES = 100;
+    private static final int MAX_TEAMS = 200;
+
+    public Long seasonOf(long leagueId) {
+        return seasonByLeague.get(leagueId);
+    }
+
+    public static Targets discover(HttpClient client, String baseUrl, LocalDate around, ObjectMapper json) throws IOException, InterruptedException {
+        List<Fixture> fixtures = new ArrayList<>();
+        List<LocalDate> dates = new ArrayList<>();
+        for (int d = -3; d <= 7 && fixtures.size() < MAX_FIXTURES; d++) {
+            LocalDate date = around.plusDays(d);
+            JsonNode leagues = get(client, baseUrl + "/api/fixtures/by-date?date=" + date, json);
+            if (leagues == null || !leagues.isArray() || leagues.isEmpty()) continue;
+            dates.add(date);
+            for (JsonNode league : leagues) {
+                long leagueId = league.path("leagueId").asLong();
+                for (JsonNode f : league.path("fixtures")) {
+                    if (fixtures.size() >= MAX_FIXTURES) break;
+                    fixtures.add(new Fixture(f.path("id").asLong(), leagueId, f.path("homeTeam").asText(), f.path("awayTeam").asText(), date));
+                }
+            }
+        }
+        if (fixtures.isEmpty()) {
+            throw new IllegalStateException("No fixtures between " + around.minusDays(3) + " and " + around.plusDays(7)
+                    + " at " + baseUrl + "; load a dataset (synthetic profile) or pass -Dloadtest.date");
+        }
+
+        Map<Long, Long> seasons = new HashMap<>();
+        Set<Long> leagueIds = new LinkedHashSet<>();
+        for (Fixture f : fixtures) leagueIds.add(f.leagueId());
+        for (Long leagueId : leagueIds.stream().limit(MAX_LEAGUES).toList()) {
+            JsonNode list = get(client, baseUrl + "/api/leagues/" + leagueId + "/seasons", json);
+            long best = -1;
+            String bestStart = "";
+            if (list != null) {
+                for (JsonNode s : list) {
+                    String start = s.path("startDate").asText("");
+                    if (best < 0 || start.compareTo(bestStart) > 0) { best = s.path("id").asLong(); bestStart = start; }
+                }
+            }
+            if (best > 0) seasons.put(leagueId, best);
+        }
+
+        List<Long> teamIds = new ArrayList<>();
+        for (Fixture f : fixtures) {
+            if (teamIds.size() >= MAX_TEAMS) break;
+            JsonNode team = get(client, baseUrl + "/api/teams/by-name?name=" + URLEncoder.encode(f.homeTeam(), StandardCharsets.UTF_8)
+                    + "&leagueId=" + f.leagueId(), json);
+            if (team != null && team.path("id").canConvertToLong() && team.path("id").asLong() > 0) teamIds.add(team.path("id").asLong());
+        }
+        if (teamIds.isEmpty()) throw new IllegalStateException("Could not resolve any fixture team to an id via /api/teams/by-name");
+        // Only keep fixtures whose league resolved to a season, the analysis and recommendation paths need one
+        List<Fixture> usable = fixtures.stream().filter(f -> seasons.containsKey(f.leagueId())).toList();
+        return new Targets(usable.isEmpty() ? fixtures : usable, dates, seasons, teamIds);
+    }
+
+    /** Parsed body of a 2xx response, otherwise null. */
+    private static JsonNode get(HttpClient client, String url, ObjectMapper json) throws IOException, InterruptedException {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        HttpResponse<byte[]> resp = client.send(req, HttpResponse.BodyHandlers.ofByteArray());
+        if (resp.statusCode() / 100 != 2) return null;
+        return json.readTree(resp.body());
+    }
+}
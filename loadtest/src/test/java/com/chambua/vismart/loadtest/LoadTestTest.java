@@ -0,0 +1,91 @@
+package com.chambua.vismart.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadTestTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 9, 21);
+
+    private HttpServer server;
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            String body = "{}";
+            int status = 200;
+            if (path.equals("/api/fixtures/by-date")) {
+                body = query.contains("date=" + DATE)
+                        ? "[{\"leagueId\":3,\"fixtures\":[{\"id\":11,\"homeTeam\":\"Korolen United\",\"awayTeam\":\"FC Barosel\"}]}]" : "[]";
+            } else if (path.equals("/api/leagues/3/seasons")) {
+                body = "[{\"id\":7,\"startDate\":\"2024-07-01\"},{\"id\":6,\"startDate\":\"2023-07-01\"}]";
+            } else if (path.equals("/api/teams/by-name")) {
+                body = "{\"id\":21,\"name\":\"Korolen United\"}";
+            } else if (path.startsWith("/api/global-leaders")) {
+                status = 500;
+            }
+            hits.computeIfAbsent(exchange.getRequestMethod() + " " + path + (query != null && query.contains("seasonId=7") ? " +season" : ""),
+                    k -> new AtomicInteger()).incrementAndGet();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private LoadTestConfig config(String scenario, Path dir, Path baseline) {
+        return new LoadTestConfig("http://127.0.0.1:" + server.getAddress().getPort(), scenario, 200, 2, List.of(1.0, 2.0),
+                1, 0, 64, 2000, 2000, 0.01, 1, DATE, dir, baseline, 0.2, true).validate();
+    }
+
+    @Test
+    void drives_every_endpoint_with_discovered_targets_and_writes_reports(@TempDir Path dir) throws Exception {
+        int exit = new LoadTest(config("weekday", dir, null)).run();
+
+        assertThat(exit).isZero();
+        JsonNode report = Report.json().readTree(dir.resolve("report.json").toFile());
+        JsonNode stage = report.path("stages").get(0);
+        assertThat(stage.path("name").asText()).isEqualTo("weekday");
+        assertThat(stage.path("total").path("requests").asLong()).isBetween(100L, 300L);
+        assertThat(stage.path("endpoints")).hasSize(Endpoint.values().length)
+                .allSatisfy(e -> assertThat(e.path("requests").asLong()).isPositive());
+        assertThat(stage.path("breakReason").asText()).contains("GET /api/global-leaders error rate 100.0%");
+        assertThat(hits).containsKeys("POST /api/match-analysis/analyze", "GET /api/teams/21/streak-summary", "GET /api/form-guide/3 +season",
+                "GET /api/recommendations/fixture +season", "GET /api/insights/quick");
+        assertThat(dir.resolve("report.html")).exists();
+    }
+
+    @Test
+    void ramp_stops_at_the_first_broken_stage(@TempDir Path dir) throws Exception {
+        new LoadTest(config("ramp", dir, null)).run();
+
+        JsonNode report = Report.json().readTree(dir.resolve("report.json").toFile());
+        assertThat(report.path("stages")).hasSize(1);
+        assertThat(report.path("breakingPoint").asText()).startsWith("x1 weekday load (200.0 req/s)");
+    }
+}
@@ -0,0 +1,71 @@
+package com.chambua.vismart.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportTest {
+
+    private static Report.EndpointStats stats(String endpoint, long[] latenciesMs, long errors, long dropped) {
+        long[] nanos = new long[latenciesMs.length];
+        for (int i = 0; i < nanos.length; i++) nanos[i] = latenciesMs[i] * 1_000_000L;
+        return Report.EndpointStats.of(endpoint, nanos, errors, dropped, Map.of("200", (long) nanos.length), 10.0);
+    }
+
+    private static long[] range(int n, int scale) {
+        long[] v = new long[n];
+        for (int i = 0; i < n; i++) v[i] = (long) (i + 1) * scale;
+        return v;
+    }
+
+    private static Report.Run run(Report.EndpointStats e) {
+        Report.Stage stage = new Report.Stage("weekday", 1, 5, 10, List.of(e), e, null);
+        return new Report.Run("http://localhost", "t", Map.of(), List.of(stage), null);
+    }
+
+    @Test
+    void percentiles_use_nearest_rank_over_the_stage() {
+        Report.EndpointStats s = stats("GET /x", range(100, 1), 0, 0);
+
+        assertThat(s.requests()).isEqualTo(100);
+        assertThat(s.throughputRps()).isEqualTo(10.0);
+        assertThat(s.p50Ms()).isEqualTo(50.0);
+        assertThat(s.p95Ms()).isEqualTo(95.0);
+        assertThat(s.p99Ms()).isEqualTo(99.0);
+        assertThat(s.maxMs()).isEqualTo(100.0);
+        assertThat(s.meanMs()).isEqualTo(50.5);
+    }
+
+    @Test
+    void stage_breaks_on_slo_or_error_budget() {
+        Report.EndpointStats slow = stats("GET /slow", range(100, 30), 0, 0);
+        Report.EndpointStats failing = stats("GET /failing", range(100, 1), 1, 2);
+        Report.Stage stage = new Report.Stage("ramp x5", 5, 25, 10, List.of(slow, failing), slow, null);
+
+        String reason = Report.breakReason(stage, 2000, 0.01);
+
+        assertThat(reason).contains("GET /slow p99 2970.0 ms > 2000 ms").contains("GET /failing error rate 2.94%");
+        assertThat(Report.breakReason(stage, 5000, 0.05)).isNull();
+    }
+
+    @Test
+    void baseline_comparison_flags_slower_percentiles_and_lower_throughput(@TempDir Path dir) throws Exception {
+        Report.Run baseline = run(stats("GET /x", range(100, 10), 0, 0));
+        Report.write(baseline, null, dir);
+        Report.Run reread = Report.read(dir.resolve("report.json"));
+
+        Report.Run slower = run(stats("GET /x", range(100, 13), 0, 0));
+        Report.Run similar = run(stats("GET /x", range(100, 11), 0, 0));
+        Report.Run fewer = run(stats("GET /x", range(50, 10), 0, 0));
+
+        assertThat(Report.compare(reread, slower, 0.2)).extracting(Report.Regression::metric).containsExactly("p50Ms", "p95Ms", "p99Ms");
+        assertThat(Report.compare(reread, similar, 0.2)).isEmpty();
+        assertThat(Report.compare(reread, fewer, 0.2)).extracting(Report.Regression::metric).containsExactly("throughputRps");
+        assertThat(dir.resolve("report.html")).content().contains("GET /x").contains("weekday");
+    }
+}